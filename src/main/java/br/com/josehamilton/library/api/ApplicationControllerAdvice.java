@@ -1,5 +1,6 @@
 package br.com.josehamilton.library.api;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -11,6 +12,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import br.com.josehamilton.library.api.exception.ApiErrors;
 import br.com.josehamilton.library.exception.BusinessException;
+import br.com.josehamilton.library.exception.LoadSheddingException;
 
 @RestControllerAdvice
 public class ApplicationControllerAdvice {
@@ -33,4 +35,10 @@ public class ApplicationControllerAdvice {
 		return new ResponseEntity(new ApiErrors(ex), ex.getStatus());
 	}
 
-}
\ No newline at end of file
+	@ExceptionHandler(LoadSheddingException.class)
+	public ResponseEntity<ApiErrors> handleLoadSheddingException(LoadSheddingException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())).body(new ApiErrors(ex));
+	}
+
+}
@@ -1,5 +1,7 @@
 package br.com.josehamilton.library.api;
 
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.model.entity.Loan;
 import br.com.josehamilton.library.api.services.EmailService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +21,13 @@ public class LibraryApiApplication { // extends SpringBootServletInitializer {
 
 	@Bean
 	public ModelMapper modelMapper() {
-		return new ModelMapper();
+		ModelMapper modelMapper = new ModelMapper();
+		// O cliente do empréstimo é exposto como nome e email, como antes da tabela customer.
+		modelMapper.typeMap(Loan.class, LoanDTO.class).addMappings(mapper -> {
+			mapper.map(loan -> loan.getCustomer().getName(), LoanDTO::setCustomer);
+			mapper.map(loan -> loan.getCustomer().getEmail(), LoanDTO::setEmail);
+		});
+		return modelMapper;
 	}
 
 	public static void main(String[] args) {
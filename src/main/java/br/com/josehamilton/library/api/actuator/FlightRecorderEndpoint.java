@@ -0,0 +1,84 @@
+package br.com.josehamilton.library.api.actuator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import br.com.josehamilton.library.api.dtos.RecordingDTO;
+import br.com.josehamilton.library.api.jfr.RecordingProfile;
+import br.com.josehamilton.library.api.services.FlightRecorderService;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controle das gravações do Java Flight Recorder em /actuator/flightrecorder.
+ *
+ * GET lista as gravações, POST inicia uma gravação com um dos perfis de
+ * {@link RecordingProfile}, GET /{id} baixa um dump da gravação e DELETE /{id}
+ * encerra a gravação gerando o arquivo final. Uma gravação iniciada com
+ * duração grava o arquivo final sozinha e sai da lista ao terminar.
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecorderEndpoint {
+
+	private final FlightRecorderService service;
+
+	@ReadOperation
+	public List<RecordingDTO> recordings() {
+		return service.getRecordings().stream().map(recording -> toDTO(recording, null))
+				.collect(Collectors.toList());
+	}
+
+	@WriteOperation
+	public RecordingDTO start(String profile, @Nullable Long durationSeconds) {
+		log.info("Starting flight recording with profile: {}", profile);
+		// Perfil desconhecido é erro do cliente (400), com os perfis aceitos na mensagem
+		RecordingProfile recordingProfile = Arrays.stream(RecordingProfile.values())
+				.filter(value -> value.name().equalsIgnoreCase(profile.trim())).findFirst()
+				.orElseThrow(() -> new InvalidEndpointRequestException(
+						"Unknown recording profile '" + profile + "'. Allowed profiles: "
+								+ Arrays.toString(RecordingProfile.values()),
+						"Unknown recording profile"));
+		Duration duration = durationSeconds != null ? Duration.ofSeconds(durationSeconds) : null;
+		Recording recording = service.start(recordingProfile, duration);
+		return toDTO(recording, recording.getDestination());
+	}
+
+	@ReadOperation
+	public Resource dump(@Selector Long id) {
+		log.info("Dumping flight recording of id: {}", id);
+		return service.getById(id).map(recording -> new FileSystemResource(service.dump(recording)))
+				.orElse(null);
+	}
+
+	@DeleteOperation
+	public RecordingDTO stop(@Selector Long id) {
+		log.info("Stopping flight recording of id: {}", id);
+		return service.getById(id).map(recording -> toDTO(recording, service.stop(recording))).orElse(null);
+	}
+
+	private RecordingDTO toDTO(Recording recording, Path destination) {
+		return RecordingDTO.builder().id(recording.getId()).name(recording.getName())
+				.state(recording.getState().name()).startTime(recording.getStartTime())
+				.stopTime(recording.getStopTime()).size(recording.getSize())
+				.destination(destination != null ? destination.toString() : null).build();
+	}
+
+}
@@ -0,0 +1,76 @@
+package br.com.josehamilton.library.api.actuator;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import br.com.josehamilton.library.api.dtos.JobExecutionDTO;
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+import br.com.josehamilton.library.api.services.JobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controle dos jobs em chunks em /actuator/jobs.
+ *
+ * GET lista os jobs com a última execução de cada um, GET /{nome} lista as
+ * execuções do job, POST /{nome} inicia ou retoma uma execução no bulkhead
+ * BATCH e DELETE /{nome} pede a parada da execução em andamento.
+ */
+@Component
+@Endpoint(id = "jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class JobsEndpoint {
+
+	private final JobService service;
+
+	@ReadOperation
+	public List<JobExecutionDTO> jobs() {
+		return service.getJobNames().stream().map(name -> service.getLastExecution(name).map(this::toDTO)
+				.orElseGet(() -> JobExecutionDTO.builder().job(name).build())).collect(Collectors.toList());
+	}
+
+	@ReadOperation
+	public List<JobExecutionDTO> executions(@Selector String name) {
+		if (!service.getJobNames().contains(name)) {
+			return null;
+		}
+		return service.getExecutions(name).stream().map(this::toDTO).collect(Collectors.toList());
+	}
+
+	@WriteOperation
+	public JobExecutionDTO start(@Selector String name) {
+		if (!service.getJobNames().contains(name)) {
+			return null;
+		}
+		log.info("Starting job: {}", name);
+		// Já rodando: retorna a execução em andamento
+		return service.launch(name).map(this::toDTO)
+				.orElseGet(() -> service.getLastExecution(name).map(this::toDTO).orElse(null));
+	}
+
+	@DeleteOperation
+	public JobExecutionDTO stop(@Selector String name) {
+		if (!service.getJobNames().contains(name)) {
+			return null;
+		}
+		log.info("Stopping job: {}", name);
+		return service.stop(name).map(this::toDTO).orElse(null);
+	}
+
+	private JobExecutionDTO toDTO(JobExecution execution) {
+		return JobExecutionDTO.builder().job(execution.getJobName()).id(execution.getId()).key(execution.getJobKey())
+				.status(execution.getStatus().name()).startedAt(execution.getStartedAt())
+				.updatedAt(execution.getUpdatedAt()).endedAt(execution.getEndedAt())
+				.readCount(execution.getReadCount()).writeCount(execution.getWriteCount())
+				.checkpoint(execution.getCheckpoint()).error(execution.getError()).build();
+	}
+
+}
@@ -0,0 +1,26 @@
+package br.com.josehamilton.library.api.actuator;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import br.com.josehamilton.library.api.dtos.StartupTimelineDTO;
+import br.com.josehamilton.library.api.startup.StartupTimeline;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tempo de inicialização por fase e por bean em /actuator/startuptimeline.
+ */
+@Component
+@Endpoint(id = "startuptimeline")
+@RequiredArgsConstructor
+public class StartupTimelineEndpoint {
+
+	private final StartupTimeline timeline;
+
+	@ReadOperation
+	public StartupTimelineDTO timeline() {
+		return timeline.snapshot();
+	}
+
+}
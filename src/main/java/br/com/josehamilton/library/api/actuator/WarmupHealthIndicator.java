@@ -0,0 +1,35 @@
+package br.com.josehamilton.library.api.actuator;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import br.com.josehamilton.library.api.warmup.WarmupService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantém /actuator/health como OUT_OF_SERVICE (HTTP 503) enquanto o
+ * aquecimento não termina, para que a sonda de prontidão só libere o tráfego
+ * depois dele. Uma falha no aquecimento não impede a aplicação de ficar pronta.
+ */
+@Component("warmup")
+@RequiredArgsConstructor
+public class WarmupHealthIndicator extends AbstractHealthIndicator {
+
+	private final WarmupService warmupService;
+
+	@Override
+	protected void doHealthCheck(Health.Builder builder) {
+		switch (warmupService.getState()) {
+		case DONE:
+		case FAILED:
+		case DISABLED:
+			builder.up();
+			break;
+		default:
+			builder.outOfService();
+		}
+		builder.withDetails(warmupService.getDetails());
+	}
+
+}
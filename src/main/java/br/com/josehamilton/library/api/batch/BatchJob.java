@@ -0,0 +1,54 @@
+package br.com.josehamilton.library.api.batch;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+
+/**
+ * Job em chunks executado pelo JobService: os itens são lidos em páginas por
+ * uma posição crescente (normalmente o id), processados um a um e gravados em
+ * uma transação por chunk. Cada chunk gravado fica registrado como
+ * checkpoint, e uma execução que falhou ou foi parada é retomada sem repetir
+ * os chunks já gravados.
+ *
+ * @param <I> item lido
+ * @param <O> item gravado
+ */
+public interface BatchJob<I, O> {
+
+	// Nome do job no /actuator/jobs e nas propriedades application.batch.jobs.<nome>.
+	String getName();
+
+	/**
+	 * Lê até {@code size} itens com posição maior que {@code after}, em ordem de
+	 * posição. Roda em uma transação própria, no banco principal.
+	 */
+	List<I> read(long after, int size);
+
+	// Posição do item, positiva e crescente na ordem da leitura.
+	long position(I item);
+
+	// Retorna null para não gravar o item.
+	O process(I item);
+
+	/**
+	 * Grava os itens de um chunk na mesma transação do checkpoint. O que não é
+	 * transacional (um email, por exemplo) pode ser repetido se a transação
+	 * falhar depois da escrita.
+	 */
+	void write(List<O> items);
+
+	/**
+	 * Identifica a execução: uma execução interrompida só é retomada por outra
+	 * com a mesma chave. Por padrão, uma execução por dia.
+	 */
+	default String key() {
+		return LocalDate.now().toString();
+	}
+
+	// Chamado uma vez depois do último chunk, antes da execução ficar COMPLETED.
+	default void completed(JobExecution execution) {
+	}
+
+}
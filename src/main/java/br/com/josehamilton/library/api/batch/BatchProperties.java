@@ -0,0 +1,39 @@
+package br.com.josehamilton.library.api.batch;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.batch")
+public class BatchProperties {
+
+	// Execução RUNNING sem sinal de vida há mais tempo que isso é considerada abandonada e pode ser retomada.
+	private Duration staleAfter = Duration.ofMinutes(10);
+
+	// Execuções listadas por job no /actuator/jobs/{nome}.
+	private int history = 20;
+
+	// Configuração por nome do job; os jobs sem entrada usam os valores padrão.
+	private Map<String, Job> jobs = new HashMap<>();
+
+	public Job getJob(String name) {
+		return jobs.getOrDefault(name, new Job());
+	}
+
+	@Data
+	public static class Job {
+
+		// Itens por chunk, ou seja, por transação e checkpoint.
+		private int chunkSize = 100;
+
+		// Chunks processados ao mesmo tempo; com 1, tudo roda na thread da execução.
+		private int parallelism = 1;
+
+	}
+
+}
@@ -0,0 +1,61 @@
+package br.com.josehamilton.library.api.batch;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Faixas de posições (after, last] dos chunks já gravados. Com chunks em
+ * paralelo eles terminam fora de ordem: o checkpoint é a maior posição até a
+ * qual todos os chunks foram gravados, e as faixas posteriores a ele ficam
+ * guardadas, já unidas, para que a retomada não grave de novo os itens delas.
+ */
+public class CheckpointTracker {
+
+	// Início (exclusivo) -> fim (inclusivo) das faixas depois do checkpoint, sem sobreposição.
+	private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+	private long checkpoint;
+
+	/**
+	 * Registra a faixa de um chunk gravado.
+	 *
+	 * @return o checkpoint, atualizado
+	 */
+	public synchronized long completed(long after, long last) {
+		if (last <= checkpoint) {
+			return checkpoint;
+		}
+		long start = after;
+		long end = last;
+		Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+		if (floor != null && floor.getValue() >= start) {
+			start = floor.getKey();
+			end = Math.max(end, floor.getValue());
+			ranges.remove(floor.getKey());
+		}
+		Map.Entry<Long, Long> next;
+		while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+			end = Math.max(end, next.getValue());
+			ranges.remove(next.getKey());
+		}
+		if (start <= checkpoint) {
+			checkpoint = end;
+		} else {
+			ranges.put(start, end);
+		}
+		return checkpoint;
+	}
+
+	public synchronized boolean isDone(long position) {
+		if (position <= checkpoint) {
+			return true;
+		}
+		Map.Entry<Long, Long> floor = ranges.floorEntry(position - 1);
+		return floor != null && floor.getValue() >= position;
+	}
+
+	public synchronized long getCheckpoint() {
+		return checkpoint;
+	}
+
+}
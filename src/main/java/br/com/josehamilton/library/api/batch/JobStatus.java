@@ -0,0 +1,16 @@
+package br.com.josehamilton.library.api.batch;
+
+public enum JobStatus {
+
+	RUNNING,
+
+	// Parada pedida: a execução termina os chunks em andamento e fica STOPPED.
+	STOPPING,
+
+	STOPPED,
+
+	FAILED,
+
+	COMPLETED;
+
+}
@@ -0,0 +1,73 @@
+package br.com.josehamilton.library.api.batch;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import br.com.josehamilton.library.api.jfr.LateLoansMailEvent;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+import br.com.josehamilton.library.api.services.EmailService;
+import br.com.josehamilton.library.api.services.LoanService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aviso diário aos clientes com empréstimos atrasados: um email por chunk de
+ * clientes, lidos em ordem de id. Uma execução interrompida é retomada no
+ * mesmo dia a partir do último chunk enviado; o chunk que estava sendo enviado
+ * na falha pode receber o email de novo.
+ */
+@Component
+@RequiredArgsConstructor
+public class LateLoansMailJob implements BatchJob<Customer, String> {
+
+	public static final String NAME = "late-loans-mail";
+
+	@Value("${application.mail.lateloans.message}")
+	private String message;
+
+	// Proxies lazy: o job não obriga a criação do JPA e do envio de email na inicialização
+	@Lazy
+	private final LoanService loanService;
+	@Lazy
+	private final EmailService emailService;
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public List<Customer> read(long after, int size) {
+		return loanService.getLateLoansCustomers(after, size);
+	}
+
+	@Override
+	public long position(Customer customer) {
+		return customer.getId();
+	}
+
+	@Override
+	public String process(Customer customer) {
+		return customer.getEmail();
+	}
+
+	@Override
+	public void write(List<String> mailList) {
+		emailService.sendMails(message, mailList);
+	}
+
+	@Override
+	public void completed(JobExecution execution) {
+		LateLoansMailEvent event = new LateLoansMailEvent();
+		event.begin();
+		// Avisa os streams de /api/loans/events sobre os empréstimos que atrasaram hoje
+		loanService.publishOverdueLoans();
+		event.setLateLoans((int) loanService.countLateLoans());
+		event.setRecipients((int) execution.getWriteCount());
+		event.commit();
+	}
+
+}
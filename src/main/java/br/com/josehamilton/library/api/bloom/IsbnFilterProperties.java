@@ -0,0 +1,23 @@
+package br.com.josehamilton.library.api.bloom;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.isbn-filter")
+public class IsbnFilterProperties {
+
+	// Taxa máxima de falsos positivos (consultas ao banco para isbns novos).
+	private double falsePositiveRate = 0.01;
+
+	// Capacidade mínima do primeiro estágio; com mais livros ele é dimensionado pelo catálogo.
+	private long initialCapacity = 10000;
+
+	// Intervalo entre reconstruções, em ms (usado diretamente no @Scheduled); descarta os isbns removidos.
+	private long rebuildInterval = 21600000;
+
+	// Isbns lidos do banco por consulta durante a reconstrução.
+	private int pageSize = 10000;
+
+}
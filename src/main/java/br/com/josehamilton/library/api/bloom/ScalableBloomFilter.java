@@ -0,0 +1,169 @@
+package br.com.josehamilton.library.api.bloom;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom escalável (Almeida et al., 2007): uma sequência de filtros
+ * em que cada novo estágio tem o dobro da capacidade do anterior e metade da
+ * taxa de falsos positivos. Quando o último estágio atinge a capacidade um
+ * novo é criado, de modo que a taxa total fica abaixo de
+ * {@code falsePositiveRate} qualquer que seja o número de itens.
+ *
+ * Não há remoção: valores removidos continuam respondendo "talvez" até o
+ * filtro ser reconstruído. A consulta não usa locks e pode ser feita junto com
+ * inclusões, que devem vir de uma thread por vez.
+ */
+public class ScalableBloomFilter {
+
+	private static final int GROWTH = 2;
+
+	private static final double TIGHTENING = 0.5;
+
+	private volatile Stage[] stages;
+
+	/**
+	 * @param initialCapacity   itens no primeiro estágio
+	 * @param falsePositiveRate taxa máxima de falsos positivos do filtro todo
+	 */
+	public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+		// Soma da série geométrica: p0 / (1 - r) = falsePositiveRate.
+		this.stages = new Stage[] { new Stage(Math.max(1, initialCapacity), falsePositiveRate * (1 - TIGHTENING)) };
+	}
+
+	public boolean mightContain(String value) {
+		long[] hashes = hash(value);
+		for (Stage stage : stages) {
+			if (stage.mightContain(hashes[0], hashes[1])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Inclui o valor; valores que o filtro já responde como presentes não
+	 * ocupam capacidade.
+	 */
+	public void put(String value) {
+		long[] hashes = hash(value);
+		Stage[] current = stages;
+		for (Stage stage : current) {
+			if (stage.mightContain(hashes[0], hashes[1])) {
+				return;
+			}
+		}
+		Stage last = current[current.length - 1];
+		if (last.count >= last.capacity) {
+			last = new Stage(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING);
+			Stage[] grown = Arrays.copyOf(current, current.length + 1);
+			grown[current.length] = last;
+			stages = grown;
+		}
+		last.put(hashes[0], hashes[1]);
+	}
+
+	/**
+	 * Itens incluídos (sem contar repetições reconhecidas pelo filtro).
+	 */
+	public long size() {
+		long size = 0;
+		for (Stage stage : stages) {
+			size += stage.count;
+		}
+		return size;
+	}
+
+	public int stageCount() {
+		return stages.length;
+	}
+
+	public long bitSize() {
+		long bits = 0;
+		for (Stage stage : stages) {
+			bits += stage.bits;
+		}
+		return bits;
+	}
+
+	/**
+	 * Taxa de falsos positivos esperada com a ocupação atual de cada estágio.
+	 */
+	public double expectedFalsePositiveRate() {
+		double none = 1;
+		for (Stage stage : stages) {
+			none *= 1 - Math.pow(1 - Math.exp(-(double) stage.hashes * stage.count / stage.bits), stage.hashes);
+		}
+		return 1 - none;
+	}
+
+	// Dois hashes de 64 bits independentes; os índices são h1 + i * h2 (Kirsch e Mitzenmacher).
+	private static long[] hash(String value) {
+		long h1 = 0x9E3779B97F4A7C15L;
+		long h2 = 0xC2B2AE3D27D4EB4FL;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			h1 = (h1 ^ c) * 0x100000001B3L;
+			h2 = Long.rotateLeft(h2 ^ c, 31) * 0x9E3779B97F4A7C15L;
+		}
+		return new long[] { mix(h1), mix(h2) | 1 };
+	}
+
+	// Finalizador do MurmurHash3.
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+
+	private static final class Stage {
+
+		private final long capacity;
+
+		private final double falsePositiveRate;
+
+		private final long bits;
+
+		private final int hashes;
+
+		private final AtomicLongArray words;
+
+		private volatile long count;
+
+		private Stage(long capacity, double falsePositiveRate) {
+			this.capacity = capacity;
+			this.falsePositiveRate = falsePositiveRate;
+			double ln2 = Math.log(2);
+			long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / Long.SIZE);
+			this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, words)));
+			this.bits = (long) this.words.length() * Long.SIZE;
+			this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+		}
+
+		private boolean mightContain(long h1, long h2) {
+			for (int i = 0; i < hashes; i++) {
+				long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+				if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void put(long h1, long h2) {
+			for (int i = 0; i < hashes; i++) {
+				long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+				int word = (int) (bit >>> 6);
+				long mask = 1L << bit;
+				long current;
+				do {
+					current = words.get(word);
+				} while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+			}
+			count++;
+		}
+	}
+
+}
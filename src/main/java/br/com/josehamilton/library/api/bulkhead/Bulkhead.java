@@ -0,0 +1,205 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Compartimento isolado de uma carga de trabalho: limita as threads que a
+ * executam ao mesmo tempo e as conexões do banco que ela pode segurar. A thread
+ * que está dentro do bulkhead fica registrada em {@link #current()}, que é
+ * consultado pelo {@link ConnectionQuotaDataSource}.
+ */
+public class Bulkhead {
+
+	private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+	private final Workload workload;
+
+	private final BulkheadProperties.Limits limits;
+
+	private final Semaphore slots;
+
+	private final Semaphore connections;
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final AtomicInteger activeConnections = new AtomicInteger();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final LongAdder rejectedConnections = new LongAdder();
+
+	private volatile ThreadPoolExecutor executor;
+
+	public Bulkhead(Workload workload, BulkheadProperties.Limits limits) {
+		this.workload = workload;
+		this.limits = limits;
+		this.slots = new Semaphore(limits.getMaxConcurrent());
+		this.connections = new Semaphore(limits.getConnections());
+	}
+
+	public static Bulkhead current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Ocupa uma vaga, esperando no máximo {@code maxWait}, e associa a thread a
+	 * este bulkhead.
+	 *
+	 * @return false se não houve vaga no prazo
+	 */
+	public boolean tryEnter() {
+		boolean acquired;
+		try {
+			acquired = slots.tryAcquire(limits.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			rejected.increment();
+			return false;
+		}
+		active.incrementAndGet();
+		CURRENT.set(this);
+		return true;
+	}
+
+	public void exit() {
+		CURRENT.remove();
+		active.decrementAndGet();
+		slots.release();
+	}
+
+	/**
+	 * Executa a tarefa no pool de threads próprio do bulkhead, limitado a
+	 * {@code maxConcurrent} threads e {@code queueCapacity} tarefas em espera.
+	 *
+	 * @throws RejectedExecutionException se a fila estiver cheia
+	 */
+	public void execute(Runnable task) {
+		try {
+			executor().execute(() -> {
+				if (!tryEnter()) {
+					return;
+				}
+				try {
+					task.run();
+				} finally {
+					exit();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw e;
+		}
+	}
+
+	/**
+	 * Associa a este bulkhead a thread que executar a tarefa, sem ocupar vaga,
+	 * para que as conexões abertas por ela contem na cota. Usado pelas threads
+	 * auxiliares de uma tarefa que já está dentro do bulkhead.
+	 */
+	public Runnable propagate(Runnable task) {
+		return () -> {
+			Bulkhead previous = CURRENT.get();
+			CURRENT.set(this);
+			try {
+				task.run();
+			} finally {
+				if (previous != null) {
+					CURRENT.set(previous);
+				} else {
+					CURRENT.remove();
+				}
+			}
+		};
+	}
+
+	void acquireConnection() throws SQLTransientConnectionException {
+		boolean acquired;
+		try {
+			acquired = connections.tryAcquire(limits.getConnectionTimeout().toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			rejectedConnections.increment();
+			throw new SQLTransientConnectionException("Connection quota of bulkhead " + workload + " exhausted ("
+					+ limits.getConnections() + " connections).");
+		}
+		activeConnections.incrementAndGet();
+	}
+
+	void releaseConnection() {
+		activeConnections.decrementAndGet();
+		connections.release();
+	}
+
+	void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private ThreadPoolExecutor executor() {
+		ThreadPoolExecutor result = executor;
+		if (result == null) {
+			synchronized (this) {
+				if (executor == null) {
+					CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+							"bulkhead-" + workload.name().toLowerCase() + "-");
+					threadFactory.setDaemon(true);
+					executor = new ThreadPoolExecutor(limits.getMaxConcurrent(), limits.getMaxConcurrent(), 60,
+							TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, limits.getQueueCapacity())),
+							threadFactory);
+					executor.allowCoreThreadTimeOut(true);
+				}
+				result = executor;
+			}
+		}
+		return result;
+	}
+
+	public Workload getWorkload() {
+		return workload;
+	}
+
+	public int getMaxConcurrent() {
+		return limits.getMaxConcurrent();
+	}
+
+	public int getActive() {
+		return active.get();
+	}
+
+	public int getActiveConnections() {
+		return activeConnections.get();
+	}
+
+	public double getSaturation() {
+		return (double) active.get() / limits.getMaxConcurrent();
+	}
+
+	public double getConnectionSaturation() {
+		return (double) activeConnections.get() / limits.getConnections();
+	}
+
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	public long getRejectedConnections() {
+		return rejectedConnections.sum();
+	}
+
+}
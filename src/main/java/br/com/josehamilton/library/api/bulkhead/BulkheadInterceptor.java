@@ -0,0 +1,66 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import br.com.josehamilton.library.exception.LoadSheddingException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Executa cada requisição da API dentro do bulkhead da sua carga: GET e HEAD
+ * vão para {@link Workload#SEARCH} e os demais métodos para
+ * {@link Workload#WRITE}. Sem vaga dentro de {@code maxWait}, responde 503.
+ */
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String BULKHEAD = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+	private final BulkheadRegistry registry;
+
+	private final long retryAfterSeconds;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod)) {
+			return true;
+		}
+		Bulkhead bulkhead = registry.get(workload(request));
+		if (!bulkhead.tryEnter()) {
+			throw new LoadSheddingException("Server is overloaded, please retry later.", retryAfterSeconds);
+		}
+		request.setAttribute(BULKHEAD, bulkhead);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		exit(request);
+	}
+
+	// A thread do servlet é liberada no início do processamento assíncrono.
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		exit(request);
+	}
+
+	private static void exit(HttpServletRequest request) {
+		Bulkhead bulkhead = (Bulkhead) request.getAttribute(BULKHEAD);
+		if (bulkhead != null) {
+			request.removeAttribute(BULKHEAD);
+			bulkhead.exit();
+		}
+	}
+
+	private static Workload workload(HttpServletRequest request) {
+		HttpMethod method = HttpMethod.resolve(request.getMethod());
+		return method == HttpMethod.GET || method == HttpMethod.HEAD ? Workload.SEARCH : Workload.WRITE;
+	}
+
+}
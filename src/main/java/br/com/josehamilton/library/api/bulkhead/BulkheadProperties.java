@@ -0,0 +1,63 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Limites de cada bulkhead. A soma de {@code connections} não deve passar do
+ * tamanho do pool do banco (10 por padrão no Hikari), para que uma carga nunca
+ * consiga ocupar as conexões reservadas às outras.
+ */
+@Data
+@ConfigurationProperties("application.bulkhead")
+public class BulkheadProperties {
+
+	private boolean enabled = true;
+
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+	private Limits search = new Limits(16, Duration.ofMillis(100), 4, Duration.ofSeconds(5), 0);
+
+	private Limits write = new Limits(32, Duration.ofMillis(500), 4, Duration.ofSeconds(5), 0);
+
+	private Limits batch = new Limits(2, Duration.ofSeconds(5), 2, Duration.ofSeconds(30), 100);
+
+	public Limits get(Workload workload) {
+		switch (workload) {
+		case SEARCH:
+			return search;
+		case WRITE:
+			return write;
+		default:
+			return batch;
+		}
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Limits {
+
+		// Threads que podem executar ao mesmo tempo nesta carga.
+		private int maxConcurrent;
+
+		// Tempo máximo de espera por uma vaga antes de responder 503.
+		private Duration maxWait;
+
+		// Conexões do banco que a carga pode usar ao mesmo tempo.
+		private int connections;
+
+		// Tempo máximo de espera por uma das conexões da cota.
+		private Duration connectionTimeout;
+
+		// Tarefas aguardando no executor próprio da carga (usado pelos jobs).
+		private int queueCapacity;
+
+	}
+
+}
@@ -0,0 +1,59 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Bulkheads da aplicação, um por {@link Workload}, com as métricas de
+ * saturação bulkhead.* marcadas pela tag workload.
+ */
+public class BulkheadRegistry implements MeterBinder, DisposableBean {
+
+	private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+
+	public BulkheadRegistry(BulkheadProperties properties) {
+		for (Workload workload : Workload.values()) {
+			bulkheads.put(workload, new Bulkhead(workload, properties.get(workload)));
+		}
+	}
+
+	public Bulkhead get(Workload workload) {
+		return bulkheads.get(workload);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Bulkhead bulkhead : bulkheads.values()) {
+			String workload = bulkhead.getWorkload().name();
+			Gauge.builder("bulkhead.active", bulkhead, Bulkhead::getActive).tag("workload", workload)
+					.description("Threads running inside the bulkhead").register(registry);
+			Gauge.builder("bulkhead.saturation", bulkhead, Bulkhead::getSaturation).tag("workload", workload)
+					.description("Fraction of the bulkhead threads in use").register(registry);
+			Gauge.builder("bulkhead.connections.active", bulkhead, Bulkhead::getActiveConnections)
+					.tag("workload", workload).description("Database connections held by the bulkhead")
+					.register(registry);
+			Gauge.builder("bulkhead.connections.saturation", bulkhead, Bulkhead::getConnectionSaturation)
+					.tag("workload", workload).description("Fraction of the connection quota in use")
+					.register(registry);
+			FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejected).tag("workload", workload)
+					.tag("resource", "thread").description("Work rejected because the bulkhead was full")
+					.register(registry);
+			FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejectedConnections)
+					.tag("workload", workload).tag("resource", "connection")
+					.description("Connection requests rejected because the quota was exhausted").register(registry);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		bulkheads.values().forEach(Bulkhead::shutdown);
+	}
+
+}
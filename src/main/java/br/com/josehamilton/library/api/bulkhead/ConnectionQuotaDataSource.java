@@ -0,0 +1,85 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Aplica a cota de conexões do {@link Bulkhead#current() bulkhead corrente}:
+ * a vaga é ocupada ao obter a conexão e liberada no close(). Threads fora de
+ * um bulkhead (inicialização, aquecimento, monitores) usam o pool sem cota.
+ */
+public class ConnectionQuotaDataSource extends DelegatingDataSource implements Closeable {
+
+	public ConnectionQuotaDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Bulkhead bulkhead = Bulkhead.current();
+		if (bulkhead == null) {
+			return super.getConnection();
+		}
+		bulkhead.acquireConnection();
+		try {
+			return withQuota(super.getConnection(), bulkhead);
+		} catch (SQLException | RuntimeException e) {
+			bulkhead.releaseConnection();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		Bulkhead bulkhead = Bulkhead.current();
+		if (bulkhead == null) {
+			return super.getConnection(username, password);
+		}
+		bulkhead.acquireConnection();
+		try {
+			return withQuota(super.getConnection(username, password), bulkhead);
+		} catch (SQLException | RuntimeException e) {
+			bulkhead.releaseConnection();
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (getTargetDataSource() instanceof Closeable) {
+			((Closeable) getTargetDataSource()).close();
+		}
+	}
+
+	private static Connection withQuota(Connection connection, Bulkhead bulkhead) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(ConnectionQuotaDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("equals".equals(method.getName())) {
+						return proxy == args[0];
+					}
+					if ("hashCode".equals(method.getName())) {
+						return System.identityHashCode(proxy);
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					} finally {
+						if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+							bulkhead.releaseConnection();
+						}
+					}
+				});
+	}
+
+}
@@ -0,0 +1,14 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+public enum Workload {
+
+	// Consultas (GET) ao catálogo e aos empréstimos.
+	SEARCH,
+
+	// Cadastros, empréstimos e devoluções.
+	WRITE,
+
+	// Jobs em segundo plano (envio de emails, varreduras agendadas).
+	BATCH
+
+}
@@ -0,0 +1,56 @@
+package br.com.josehamilton.library.api.config;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.josehamilton.library.api.logging.MeteredAsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class AsyncLoggingMetricsConfig {
+
+	@Bean
+	public MeterBinder asyncLoggingMetrics() {
+		return registry -> {
+			FunctionCounter.builder("logging.async.discarded", this,
+					metric(appender -> appender.getDiscardedEvents()))
+					.description("Log events discarded because the async buffer was full").register(registry);
+			Gauge.builder("logging.async.queue.size", this, metric(appender -> appender.getNumberOfElementsInQueue()))
+					.description("Log events waiting in the async buffer").register(registry);
+			Gauge.builder("logging.async.queue.remaining", this, metric(appender -> appender.getRemainingCapacity()))
+					.description("Remaining capacity of the async buffer").register(registry);
+		};
+	}
+
+	// O appender é buscado a cada leitura pois o Spring Boot pode reinicializar o Logback.
+	private ToDoubleFunction<AsyncLoggingMetricsConfig> metric(ToDoubleFunction<MeteredAsyncAppender> value) {
+		return config -> findAppender().map(value::applyAsDouble).orElse(0d);
+	}
+
+	private Optional<MeteredAsyncAppender> findAppender() {
+		if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+			return Optional.empty();
+		}
+		LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+		while (appenders.hasNext()) {
+			Appender<ILoggingEvent> appender = appenders.next();
+			if (appender instanceof MeteredAsyncAppender) {
+				return Optional.of((MeteredAsyncAppender) appender);
+			}
+		}
+		return Optional.empty();
+	}
+
+}
@@ -0,0 +1,46 @@
+package br.com.josehamilton.library.api.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Negociação de conteúdo binário (application/cbor e application/x-jackson-smile)
+ * para requisições e respostas da API. Os conversores usam o mesmo ObjectMapper
+ * configurado pelo Spring Boot (inclusive os serializadores @JsonComponent) e
+ * ficam depois do conversor JSON, que continua sendo o padrão para Accept: *\/*.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+	private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+				|| converter instanceof MappingJackson2SmileHttpMessageConverter);
+		int index = 0;
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+				index = i + 1;
+			}
+		}
+		converters.add(index, new MappingJackson2SmileHttpMessageConverter(
+				objectMapperBuilder.factory(new SmileFactory()).build()));
+		converters.add(index, new MappingJackson2CborHttpMessageConverter(
+				objectMapperBuilder.factory(new CBORFactory()).build()));
+	}
+
+}
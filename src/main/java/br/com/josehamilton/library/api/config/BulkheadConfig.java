@@ -0,0 +1,61 @@
+package br.com.josehamilton.library.api.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.josehamilton.library.api.bulkhead.BulkheadInterceptor;
+import br.com.josehamilton.library.api.bulkhead.BulkheadProperties;
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.bulkhead.ConnectionQuotaDataSource;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bulkheads separando consultas, escritas e jobs: cada carga tem seu limite de
+ * threads e sua cota de conexões do pool, para que uma busca pesada ou a
+ * varredura agendada não deixem POST /api/loans sem conexão.
+ *
+ * O interceptor dos bulkheads roda antes do controle de admissão: uma
+ * requisição recusada pelo bulkhead não conta como lentidão no limite
+ * adaptativo.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@RequiredArgsConstructor
+public class BulkheadConfig implements WebMvcConfigurer {
+
+	private final BulkheadProperties properties;
+
+	@Bean
+	public BulkheadRegistry bulkheadRegistry() {
+		return new BulkheadRegistry(properties);
+	}
+
+	// O pool de réplica, quando existe, é embrulhado pelo DataSourceRoutingConfig.
+	@Bean
+	public static BeanPostProcessor connectionQuotaPostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return bean instanceof HikariDataSource ? new ConnectionQuotaDataSource((HikariDataSource) bean) : bean;
+			}
+
+		};
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		if (properties.isEnabled()) {
+			registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry(), properties.getRetryAfter().getSeconds()))
+					.addPathPatterns("/api/**").order(Ordered.HIGHEST_PRECEDENCE);
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+package br.com.josehamilton.library.api.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.classmate.TypeResolver;
+
+import lombok.extern.slf4j.Slf4j;
+import springfox.documentation.spi.service.RequestHandlerProvider;
+import springfox.documentation.spi.service.contexts.Defaults;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsManager;
+import springfox.documentation.spring.web.scanners.ApiDocumentationScanner;
+
+/**
+ * Adia a varredura dos controllers feita pelo Springfox, que normalmente
+ * acontece durante a inicialização, para a primeira requisição da
+ * documentação (/v2/api-docs ou /swagger-resources).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "application.swagger.lazy", havingValue = "true")
+public class LazyDocumentationConfig {
+
+	private static final String[] DOCUMENTATION_URLS = { "/v2/api-docs", "/swagger-resources",
+			"/swagger-resources/*" };
+
+	@Bean
+	public static BeanFactoryPostProcessor lazyDocumentationBootstrapper() {
+		return beanFactory -> {
+			for (String name : beanFactory.getBeanNamesForType(DocumentationPluginsBootstrapper.class, true, false)) {
+				BeanDefinition definition = beanFactory.getBeanDefinition(name);
+				if (definition instanceof AbstractBeanDefinition) {
+					((AbstractBeanDefinition) definition).setBeanClass(LazyDocumentationPluginsBootstrapper.class);
+				}
+			}
+		};
+	}
+
+	@Bean
+	public FilterRegistrationBean<OncePerRequestFilter> documentationBootstrapFilter(
+			DocumentationPluginsBootstrapper bootstrapper) {
+		OncePerRequestFilter filter = new OncePerRequestFilter() {
+
+			// isRunning() do Springfox fica true antes do fim da varredura, por isso o controle próprio.
+			private volatile boolean scanned;
+
+			@Override
+			protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+					FilterChain filterChain) throws ServletException, IOException {
+				if (!scanned) {
+					synchronized (this) {
+						if (!scanned) {
+							log.info("Scanning API documentation on first request");
+							bootstrapper.start();
+							scanned = true;
+						}
+					}
+				}
+				filterChain.doFilter(request, response);
+			}
+		};
+		FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns(DOCUMENTATION_URLS);
+		return registration;
+	}
+
+	/**
+	 * Bootstrapper do Springfox que não é iniciado junto com o contexto.
+	 */
+	public static class LazyDocumentationPluginsBootstrapper extends DocumentationPluginsBootstrapper {
+
+		public LazyDocumentationPluginsBootstrapper(DocumentationPluginsManager documentationPluginsManager,
+				List<RequestHandlerProvider> handlerProviders, DocumentationCache scanned,
+				ApiDocumentationScanner resourceListing, TypeResolver typeResolver, Defaults defaults,
+				ServletContext servletContext) {
+			super(documentationPluginsManager, handlerProviders, scanned, resourceListing, typeResolver, defaults,
+					servletContext);
+		}
+
+		@Override
+		public boolean isAutoStartup() {
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,38 @@
+package br.com.josehamilton.library.api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import br.com.josehamilton.library.api.limiter.AdmissionController;
+import br.com.josehamilton.library.api.limiter.LimiterProperties;
+import br.com.josehamilton.library.api.limiter.LoadSheddingInterceptor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controle de admissão dos endpoints /api/**: limites adaptativos por endpoint
+ * e 503 com Retry-After quando excedidos. As métricas http.limiter.* são
+ * registradas pelo próprio {@link AdmissionController} (MeterBinder).
+ */
+@Configuration
+@EnableConfigurationProperties(LimiterProperties.class)
+@ConditionalOnProperty(name = "application.limiter.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+	private final LimiterProperties properties;
+
+	@Bean
+	public AdmissionController admissionController() {
+		return new AdmissionController(properties);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new LoadSheddingInterceptor(admissionController())).addPathPatterns("/api/**");
+	}
+
+}
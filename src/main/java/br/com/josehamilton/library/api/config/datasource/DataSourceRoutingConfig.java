@@ -0,0 +1,56 @@
+package br.com.josehamilton.library.api.config.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.josehamilton.library.api.bulkhead.ConnectionQuotaDataSource;
+
+/**
+ * Ativado quando application.datasource.replica.url é informado: as leituras
+ * em @Transactional(readOnly = true) passam a usar o pool da réplica.
+ *
+ * Os pools não são registrados como beans próprios para que o Spring Boot
+ * enxergue apenas o DataSource de roteamento.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+	@Bean
+	@Primary
+	public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties,
+			ReplicaDataSourceProperties replicaProperties) {
+		HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		primary.setPoolName("primary");
+
+		HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+				.url(replicaProperties.getUrl()).username(replicaProperties.getUsername())
+				.password(replicaProperties.getPassword()).driverClassName(replicaProperties.getDriverClassName())
+				.build();
+		replica.setPoolName("replica");
+		replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+		replica.setReadOnly(true);
+
+		// As cotas de conexão dos bulkheads valem para os dois pools.
+		return new ReadWriteRoutingDataSource(new ConnectionQuotaDataSource(primary),
+				new ConnectionQuotaDataSource(replica));
+	}
+
+	// Criado mesmo com inicialização lazy: a verificação é agendada na criação do bean.
+	@Bean
+	@Lazy(false)
+	public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource dataSource,
+			ReplicaDataSourceProperties properties) {
+		return new ReplicaLagMonitor(dataSource, properties.getLagQuery(), properties.getMaxLag());
+	}
+
+}
@@ -0,0 +1,84 @@
+package br.com.josehamilton.library.api.config.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia as transações somente leitura para a réplica e as demais para o banco
+ * principal. A conexão física só é obtida no primeiro comando SQL, quando a
+ * transação já foi marcada como readOnly; por isso o roteamento fica atrás de um
+ * LazyConnectionDataSourceProxy.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private final DataSource primary;
+
+	private final DataSource replica;
+
+	private volatile boolean replicaAvailable = true;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+		this.primary = primary;
+		this.replica = replica;
+		Router router = new Router();
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(Route.PRIMARY, primary);
+		targets.put(Route.REPLICA, replica);
+		router.setTargetDataSources(targets);
+		router.setDefaultTargetDataSource(primary);
+		router.afterPropertiesSet();
+		setTargetDataSource(router);
+		afterPropertiesSet();
+	}
+
+	public Route currentRoute() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaAvailable) {
+			return Route.REPLICA;
+		}
+		return Route.PRIMARY;
+	}
+
+	public DataSource getReplica() {
+		return replica;
+	}
+
+	public boolean isReplicaAvailable() {
+		return replicaAvailable;
+	}
+
+	public void setReplicaAvailable(boolean replicaAvailable) {
+		this.replicaAvailable = replicaAvailable;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (replica instanceof Closeable) {
+			((Closeable) replica).close();
+		}
+		if (primary instanceof Closeable) {
+			((Closeable) primary).close();
+		}
+	}
+
+	private class Router extends AbstractRoutingDataSource {
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			return currentRoute();
+		}
+
+	}
+
+}
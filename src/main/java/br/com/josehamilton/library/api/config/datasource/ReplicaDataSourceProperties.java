@@ -0,0 +1,28 @@
+package br.com.josehamilton.library.api.config.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+	private String url;
+
+	private String username;
+
+	private String password;
+
+	private String driverClassName;
+
+	private int maximumPoolSize = 10;
+
+	// Consulta executada na réplica que retorna o atraso de replicação em segundos.
+	private String lagQuery = "SELECT 0";
+
+	private Duration maxLag = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,49 @@
+package br.com.josehamilton.library.api.config.datasource;
+
+import java.time.Duration;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+	private final ReadWriteRoutingDataSource dataSource;
+
+	private final JdbcTemplate replicaTemplate;
+
+	private final String lagQuery;
+
+	private final Duration maxLag;
+
+	public ReplicaLagMonitor(ReadWriteRoutingDataSource dataSource, String lagQuery, Duration maxLag) {
+		this.dataSource = dataSource;
+		this.replicaTemplate = new JdbcTemplate(dataSource.getReplica());
+		this.lagQuery = lagQuery;
+		this.maxLag = maxLag;
+	}
+
+	@Scheduled(fixedDelayString = "${application.datasource.replica.lag-check-interval:5000}")
+	public void check() {
+		boolean available;
+		try {
+			Number lag = replicaTemplate.queryForObject(lagQuery, Number.class);
+			long lagMillis = lag == null ? 0 : (long) (lag.doubleValue() * 1000);
+			available = lagMillis <= maxLag.toMillis();
+			if (!available) {
+				log.warn("Replica lag of {} ms exceeds {} ms, routing reads to primary.", lagMillis, maxLag.toMillis());
+			}
+		} catch (DataAccessException e) {
+			log.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+			available = false;
+		}
+		if (available && !dataSource.isReplicaAvailable()) {
+			log.info("Replica is back within the allowed lag, routing reads to replica.");
+		}
+		dataSource.setReplicaAvailable(available);
+	}
+
+}
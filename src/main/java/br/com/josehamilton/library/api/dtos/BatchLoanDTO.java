@@ -0,0 +1,43 @@
+package br.com.josehamilton.library.api.dtos;
+
+import java.util.List;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLoanDTO {
+
+	public static final int MAX_ISBNS = 50;
+
+	public enum Mode {
+		// Nenhum empréstimo é criado se algum ISBN não puder ser emprestado.
+		ALL_OR_NOTHING,
+		// Cria os empréstimos possíveis e informa o motivo dos demais.
+		BEST_EFFORT
+	}
+
+	@NotEmpty
+	@Size(max = MAX_ISBNS)
+	private List<@NotEmpty String> isbns;
+
+	@NotEmpty
+	private String customer;
+
+	@NotEmpty
+	private String email;
+
+	@NotNull
+	@Builder.Default
+	private Mode mode = Mode.ALL_OR_NOTHING;
+
+}
@@ -0,0 +1,44 @@
+package br.com.josehamilton.library.api.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLoanResultDTO {
+
+	private int created;
+
+	private List<Item> loans;
+
+	public enum Status {
+		CREATED,
+		NOT_FOUND,
+		ALREADY_LOANED,
+		// ISBN repetido na mesma requisição.
+		DUPLICATED,
+		// Livro disponível, mas não emprestado porque outro ISBN falhou (ALL_OR_NOTHING).
+		SKIPPED
+	}
+
+	@Data
+	@Builder
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Item {
+
+		private String isbn;
+
+		private Status status;
+
+		private Long loanId;
+
+	}
+
+}
@@ -0,0 +1,24 @@
+package br.com.josehamilton.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestionDTO {
+
+	private Long id;
+
+	private String isbn;
+
+	private String title;
+
+	private String author;
+
+	private long loans;
+
+}
@@ -0,0 +1,20 @@
+package br.com.josehamilton.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerDTO {
+
+	private Long id;
+
+	private String name;
+
+	private String email;
+
+}
@@ -0,0 +1,38 @@
+package br.com.josehamilton.library.api.dtos;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobExecutionDTO {
+
+	private String job;
+
+	private Long id;
+
+	private String key;
+
+	private String status;
+
+	private LocalDateTime startedAt;
+
+	private LocalDateTime updatedAt;
+
+	private LocalDateTime endedAt;
+
+	private Long readCount;
+
+	private Long writeCount;
+
+	private Long checkpoint;
+
+	private String error;
+
+}
@@ -1,5 +1,10 @@
 package br.com.josehamilton.library.api.dtos;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import javax.validation.constraints.NotEmpty;
 
 import lombok.AllArgsConstructor;
@@ -13,6 +18,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class LoanDTO {
 
+	public static final Set<String> FIELDS = Collections
+			.unmodifiableSet(new LinkedHashSet<>(Arrays.asList("id", "isbn", "customer", "email", "book")));
+
 	private Long id;
 
 	@NotEmpty
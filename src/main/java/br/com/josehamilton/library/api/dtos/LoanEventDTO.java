@@ -0,0 +1,30 @@
+package br.com.josehamilton.library.api.dtos;
+
+import br.com.josehamilton.library.api.events.LoanEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanEventDTO {
+
+	private Long id;
+
+	private LoanEventType type;
+
+	private Long loanId;
+
+	private Long bookId;
+
+	private String isbn;
+
+	private Long customerId;
+
+	// Disponibilidade do livro depois do evento.
+	private Boolean available;
+
+}
@@ -0,0 +1,45 @@
+package br.com.josehamilton.library.api.dtos;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+
+import br.com.josehamilton.library.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Envelope compacto das respostas paginadas. Substitui a serialização do
+ * PageImpl (pageable, sort repetido, first/last/empty...) e permite limitar os
+ * campos de cada item com o parâmetro "fields".
+ */
+@Getter
+@AllArgsConstructor
+public class PageEnvelope<T> {
+
+	public static final int VERSION = 1;
+
+	private final List<T> content;
+
+	private final int page;
+
+	private final int size;
+
+	private final long totalElements;
+
+	private final int totalPages;
+
+	private final Set<String> fields;
+
+	public static <T> PageEnvelope<T> of(Page<T> page, Set<String> fields, Set<String> allowedFields) {
+		Set<String> selectedFields = fields == null ? Collections.emptySet() : fields;
+		selectedFields.stream().filter(field -> !allowedFields.contains(field)).findFirst().ifPresent(field -> {
+			throw new BusinessException("Invalid field: " + field);
+		});
+		return new PageEnvelope<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+				page.getTotalPages(), selectedFields);
+	}
+
+}
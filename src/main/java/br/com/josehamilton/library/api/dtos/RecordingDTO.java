@@ -0,0 +1,30 @@
+package br.com.josehamilton.library.api.dtos;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingDTO {
+
+	private Long id;
+
+	private String name;
+
+	private String state;
+
+	private Instant startTime;
+
+	private Instant stopTime;
+
+	private Long size;
+
+	private String destination;
+
+}
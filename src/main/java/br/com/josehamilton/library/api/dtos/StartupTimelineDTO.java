@@ -0,0 +1,53 @@
+package br.com.josehamilton.library.api.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartupTimelineDTO {
+
+	private double totalMillis;
+
+	private boolean ready;
+
+	private List<PhaseDTO> phases;
+
+	private List<BeanTimingDTO> beans;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PhaseDTO {
+
+		private String name;
+
+		private double millis;
+
+	}
+
+	@Data
+	@Builder
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class BeanTimingDTO {
+
+		private String name;
+
+		private String type;
+
+		private double millis;
+
+		private double selfMillis;
+
+		private boolean afterStartup;
+
+	}
+
+}
@@ -0,0 +1,341 @@
+package br.com.josehamilton.library.api.events;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.josehamilton.library.api.dtos.LoanEventDTO;
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.transaction.TransactionCallbacks;
+import br.com.josehamilton.library.exception.LoadSheddingException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distribui os eventos de empréstimo para as conexões Server-Sent Events de
+ * /api/loans/events.
+ *
+ * <ul>
+ * <li>Os eventos são publicados depois do commit e numerados em sequência; os
+ * últimos {@code replayCapacity} ficam guardados para o cliente que reconecta
+ * com Last-Event-ID. Se o evento informado já saiu do buffer o cliente recebe
+ * {@link LoanEventType#RESET}.</li>
+ * <li>Cada conexão tem uma fila limitada, esvaziada por um pool pequeno de
+ * threads. Um cliente lento que enche a fila é desconectado e, ao reconectar,
+ * recebe o que perdeu a partir do buffer.</li>
+ * <li>Conexões ociosas não ocupam threads (processamento assíncrono do
+ * servlet); só recebem um comentário periódico para detectar clientes que
+ * sumiram.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(LoanEventProperties.class)
+public class LoanEventBroadcaster implements MeterBinder, DisposableBean {
+
+	private static final Message HEARTBEAT = new Message(null, null);
+
+	private final LoanEventProperties properties;
+
+	private final ObjectMapper objectMapper;
+
+	// Começa no relógio para que os ids continuem crescendo depois de um restart.
+	private final long firstId = System.currentTimeMillis() * 1000;
+
+	private final AtomicLong sequence = new AtomicLong(firstId);
+
+	private final Message[] buffer;
+
+	private int head;
+
+	private int buffered;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong disconnected = new AtomicLong();
+
+	private final ExecutorService dispatcher;
+
+	private final ScheduledExecutorService heartbeat;
+
+	@Autowired
+	public LoanEventBroadcaster(LoanEventProperties properties, ObjectMapper objectMapper) {
+		this(properties, objectMapper, Executors.newFixedThreadPool(properties.getDispatchThreads(),
+				daemonThreads("loan-events-")));
+	}
+
+	LoanEventBroadcaster(LoanEventProperties properties, ObjectMapper objectMapper, ExecutorService dispatcher) {
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.buffer = new Message[properties.getReplayCapacity()];
+		this.dispatcher = dispatcher;
+		this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("loan-events-heartbeat-"));
+		long period = properties.getHeartbeat().toMillis();
+		this.heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Publica o evento do empréstimo depois do commit da transação atual (ou
+	 * imediatamente, fora de transação).
+	 */
+	public void publish(LoanEventType type, Loan loan) {
+		LoanEventDTO event = LoanEventDTO.builder().type(type).loanId(loan.getId())
+				.bookId(loan.getBook() != null ? loan.getBook().getId() : null)
+				.isbn(loan.getBook() != null ? loan.getBook().getIsbn() : null)
+				.customerId(loan.getCustomer() != null ? loan.getCustomer().getId() : null)
+				.available(type == LoanEventType.RETURNED).build();
+		TransactionCallbacks.afterCommit(() -> broadcast(event));
+	}
+
+	/**
+	 * Abre o stream filtrado por isbn e/ou cliente, começando pelos eventos
+	 * posteriores a {@code lastEventId} que ainda estão no buffer.
+	 */
+	public SseEmitter subscribe(Set<String> isbns, Long customerId, Long lastEventId) {
+		if (subscribers.size() >= properties.getMaxSubscribers()) {
+			throw new LoadSheddingException("Too many event stream connections, please retry later.",
+					properties.getRetryAfter().getSeconds());
+		}
+		SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+		// ISBN-10 e isbns com hífens assinam o mesmo livro que o ISBN-13.
+		Set<String> canonicalIsbns = isbns == null ? Collections.emptySet()
+				: isbns.stream().map(Isbn::canonical).collect(Collectors.toSet());
+		Subscriber subscriber = new Subscriber(emitter, canonicalIsbns, customerId);
+		emitter.onCompletion(() -> remove(subscriber));
+		emitter.onError(error -> remove(subscriber));
+		emitter.onTimeout(() -> {
+			remove(subscriber);
+			emitter.complete();
+		});
+		synchronized (buffer) {
+			if (lastEventId != null) {
+				replay(subscriber, lastEventId);
+			}
+			if (!subscriber.closed) {
+				subscribers.add(subscriber);
+			}
+		}
+		return emitter;
+	}
+
+	public int getSubscribers() {
+		return subscribers.size();
+	}
+
+	public long getLastEventId() {
+		return sequence.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("loan.events.subscribers", this, LoanEventBroadcaster::getSubscribers)
+				.description("Open loan event streams").register(registry);
+		FunctionCounter.builder("loan.events.published", sequence, published -> published.get() - firstId)
+				.description("Loan events published since startup").register(registry);
+		FunctionCounter.builder("loan.events.disconnected", disconnected, AtomicLong::get)
+				.description("Slow loan event streams closed because their queue was full").register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		heartbeat.shutdownNow();
+		dispatcher.shutdownNow();
+		for (Subscriber subscriber : subscribers) {
+			remove(subscriber);
+			subscriber.emitter.complete();
+		}
+	}
+
+	private void broadcast(LoanEventDTO event) {
+		synchronized (buffer) {
+			event.setId(sequence.incrementAndGet());
+			Message message = new Message(event, json(event));
+			buffer[head] = message;
+			head = (head + 1) % buffer.length;
+			buffered = Math.min(buffered + 1, buffer.length);
+			for (Subscriber subscriber : subscribers) {
+				if (subscriber.accepts(message)) {
+					subscriber.offer(message);
+				}
+			}
+		}
+	}
+
+	// Chamado com o lock do buffer: nenhum evento é publicado entre a repetição e a inscrição.
+	private void replay(Subscriber subscriber, long lastEventId) {
+		long last = sequence.get();
+		long oldest = last - buffered + 1;
+		List<Message> missed = new ArrayList<>();
+		if (lastEventId <= last && lastEventId >= oldest - 1) {
+			for (long id = lastEventId + 1; id <= last; id++) {
+				Message message = buffer[(int) ((head - (last - id) - 1 + buffer.length) % buffer.length)];
+				if (subscriber.accepts(message)) {
+					missed.add(message);
+				}
+			}
+		}
+		// Evento fora do buffer ou mais eventos do que cabem na fila: o cliente recomeça do estado atual.
+		if (lastEventId > last || lastEventId < oldest - 1 || missed.size() > properties.getSubscriberQueue()) {
+			LoanEventDTO reset = LoanEventDTO.builder().id(last).type(LoanEventType.RESET).build();
+			subscriber.offer(new Message(reset, json(reset)));
+		} else {
+			missed.forEach(subscriber::offer);
+		}
+	}
+
+	private void sendHeartbeats() {
+		long idle = TimeUnit.MILLISECONDS.toNanos(properties.getHeartbeat().toMillis());
+		long now = System.nanoTime();
+		for (Subscriber subscriber : subscribers) {
+			if (now - subscriber.lastSent >= idle) {
+				subscriber.offer(HEARTBEAT);
+			}
+		}
+	}
+
+	private void remove(Subscriber subscriber) {
+		subscriber.closed = true;
+		subscribers.remove(subscriber);
+	}
+
+	private static CustomizableThreadFactory daemonThreads(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	private String json(LoanEventDTO event) {
+		try {
+			return objectMapper.writeValueAsString(event);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize loan event", e);
+		}
+	}
+
+	private static final class Message {
+
+		private final LoanEventDTO event;
+
+		private final String json;
+
+		// Isbn do evento na forma de Isbn.canonical, calculado uma vez para todos os assinantes.
+		private final String isbn;
+
+		private Message(LoanEventDTO event, String json) {
+			this.event = event;
+			this.json = json;
+			this.isbn = event != null ? Isbn.canonical(event.getIsbn()) : null;
+		}
+	}
+
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+
+		private final Set<String> isbns;
+
+		private final Long customerId;
+
+		private final Queue<Message> queue = new ArrayBlockingQueue<>(properties.getSubscriberQueue());
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private volatile boolean closed;
+
+		// Fila cheia: a conexão é encerrada pelo dispatcher.
+		private volatile boolean overflowed;
+
+		private volatile boolean completed;
+
+		private volatile long lastSent = System.nanoTime();
+
+		private Subscriber(SseEmitter emitter, Set<String> isbns, Long customerId) {
+			this.emitter = emitter;
+			this.isbns = isbns;
+			this.customerId = customerId;
+		}
+
+		private boolean accepts(Message message) {
+			LoanEventDTO event = message.event;
+			return event.getType() == LoanEventType.RESET
+					|| (isbns.isEmpty() || isbns.contains(message.isbn))
+							&& (customerId == null || customerId.equals(event.getCustomerId()));
+		}
+
+		private void offer(Message message) {
+			if (closed) {
+				return;
+			}
+			if (!queue.offer(message)) {
+				overflowed = true;
+				disconnected.incrementAndGet();
+				remove(this);
+				log.debug("Closing slow loan event stream with {} pending events", queue.size());
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				dispatcher.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				Message message;
+				while (!overflowed && !closed && (message = queue.poll()) != null) {
+					if (message == HEARTBEAT) {
+						emitter.send(SseEmitter.event().comment("heartbeat"));
+					} else {
+						emitter.send(SseEmitter.event().id(String.valueOf(message.event.getId()))
+								.name(message.event.getType().name().toLowerCase())
+								.data(message.json, MediaType.APPLICATION_JSON));
+					}
+					lastSent = System.nanoTime();
+				}
+				if (overflowed && !completed) {
+					completed = true;
+					queue.clear();
+					emitter.complete();
+				}
+			} catch (IOException | IllegalStateException e) {
+				// Cliente desconectado ou conexão já encerrada.
+				remove(this);
+			} finally {
+				scheduled.set(false);
+				if (!closed && !queue.isEmpty() || overflowed && !completed) {
+					schedule();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package br.com.josehamilton.library.api.events;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.loan-events")
+public class LoanEventProperties {
+
+	// Últimos eventos guardados para quem reconecta com Last-Event-ID.
+	private int replayCapacity = 1024;
+
+	// Eventos pendentes por cliente; acima disso o cliente lento é desconectado.
+	private int subscriberQueue = 256;
+
+	private int maxSubscribers = 5000;
+
+	// Threads que escrevem os eventos nas conexões.
+	private int dispatchThreads = 4;
+
+	// Tempo máximo de uma conexão; o cliente reconecta e continua do último evento.
+	private Duration timeout = Duration.ofMinutes(30);
+
+	// Comentário enviado às conexões sem eventos para detectar clientes desconectados.
+	private Duration heartbeat = Duration.ofSeconds(20);
+
+	private Duration retryAfter = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,9 @@
+package br.com.josehamilton.library.api.events;
+
+/**
+ * Tipos de evento do stream /api/loans/events. {@link #RESET} avisa o cliente
+ * que eventos foram perdidos e o estado deve ser relido pela API.
+ */
+public enum LoanEventType {
+	CREATED, RETURNED, OVERDUE, RESET
+}
@@ -8,6 +8,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
 import br.com.josehamilton.library.exception.BusinessException;
+import br.com.josehamilton.library.exception.LoadSheddingException;
 
 public class ApiErrors {
 	private List<String> errors;
@@ -21,6 +22,10 @@ public class ApiErrors {
 		this.errors = Arrays.asList(ex.getMessage());
 	}
 
+	public ApiErrors(LoadSheddingException ex) {
+		this.errors = Arrays.asList(ex.getMessage());
+	}
+
 	public ApiErrors(ResponseStatusException ex) {
 		this.errors = Arrays.asList(ex.getReason());
 	}
@@ -0,0 +1,148 @@
+package br.com.josehamilton.library.api.fines;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.model.entity.Customer;
+
+/**
+ * Calcula as multas dos empréstimos atrasados pelas políticas de
+ * {@link FineProperties}: cada campo vem da política do cliente, senão da do
+ * livro, senão da padrão.
+ *
+ * Um empréstimo é multado pelos dias desde o vencimento (mais a carência) ou
+ * desde o dia seguinte à última multa até a data do cálculo. Dias sem valor a
+ * cobrar (cliente isento, limite atingido) também são registrados, para que a
+ * mudança de uma política não cobre dias passados.
+ *
+ * Não guarda estado entre chamadas e pode ser usado por várias threads.
+ */
+public class FineCalculator {
+
+	private final int loanDays;
+
+	private final FineProperties.Policy defaults;
+
+	private final Map<Long, FineProperties.Policy> booksByIsbnKey = new HashMap<>();
+
+	// Isbns fora do padrão, comparados como texto.
+	private final Map<String, FineProperties.Policy> booksByIsbn = new HashMap<>();
+
+	private final Map<String, FineProperties.Policy> customers = new HashMap<>();
+
+	public FineCalculator(FineProperties properties, int loanDays) {
+		this.loanDays = loanDays;
+		this.defaults = properties.getDefaults();
+		properties.getBooks().forEach((isbn, policy) -> {
+			Long key = Isbn.key(isbn);
+			if (key != null) {
+				booksByIsbnKey.put(key, policy);
+			} else {
+				booksByIsbn.put(isbn, policy);
+			}
+		});
+		properties.getCustomers().forEach((email, policy) -> customers.put(Customer.emailKey(email), policy));
+	}
+
+	/**
+	 * Multa do empréstimo até {@code date}, ou null se não há dias novos.
+	 */
+	public FineCharge charge(OverdueLoan loan, LocalDate date) {
+		FineProperties.Policy book = loan.getIsbnKey() != null ? booksByIsbnKey.get(loan.getIsbnKey())
+				: booksByIsbn.get(loan.getIsbn());
+		FineProperties.Policy customer = loan.getEmailKey() != null ? customers.get(loan.getEmailKey()) : null;
+
+		Integer graceDays = pick(customer, book, FineProperties.Policy::getGraceDays);
+		LocalDate from = loan.getLastFinedDate() != null ? loan.getLastFinedDate().plusDays(1)
+				: loan.getLoanDate().plusDays(loanDays + (graceDays != null ? graceDays : 0));
+		if (from.isAfter(date)) {
+			return null;
+		}
+		int days = (int) ChronoUnit.DAYS.between(from, date) + 1;
+
+		BigDecimal dailyRate = pick(customer, book, FineProperties.Policy::getDailyRate);
+		BigDecimal amount = dailyRate != null ? dailyRate.multiply(BigDecimal.valueOf(days)) : BigDecimal.ZERO;
+		BigDecimal maxAmount = pick(customer, book, FineProperties.Policy::getMaxAmount);
+		if (maxAmount != null) {
+			BigDecimal fined = loan.getFinedAmount() != null ? loan.getFinedAmount() : BigDecimal.ZERO;
+			amount = amount.min(maxAmount.subtract(fined).max(BigDecimal.ZERO));
+		}
+		return new FineCharge(loan.getLoanId(), loan.getCustomerId(), from, date, days,
+				amount.setScale(2, RoundingMode.HALF_UP));
+	}
+
+	/**
+	 * Multas dos empréstimos, na ordem deles, calculadas em paralelo no pool
+	 * em partes de até {@code chunkSize} empréstimos.
+	 */
+	public List<FineCharge> chargeAll(List<OverdueLoan> loans, LocalDate date, ForkJoinPool pool, int chunkSize) {
+		if (loans.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return pool.invoke(new ChargeTask(loans, date, 0, loans.size(), Math.max(1, chunkSize)));
+	}
+
+	private <T> T pick(FineProperties.Policy customer, FineProperties.Policy book,
+			Function<FineProperties.Policy, T> field) {
+		T value = customer != null ? field.apply(customer) : null;
+		if (value == null && book != null) {
+			value = field.apply(book);
+		}
+		return value != null ? value : field.apply(defaults);
+	}
+
+	private final class ChargeTask extends RecursiveTask<List<FineCharge>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<OverdueLoan> loans;
+
+		private final LocalDate date;
+
+		private final int from;
+
+		private final int to;
+
+		private final int chunkSize;
+
+		private ChargeTask(List<OverdueLoan> loans, LocalDate date, int from, int to, int chunkSize) {
+			this.loans = loans;
+			this.date = date;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected List<FineCharge> compute() {
+			if (to - from <= chunkSize) {
+				List<FineCharge> charges = new ArrayList<>(to - from);
+				for (int i = from; i < to; i++) {
+					FineCharge charge = charge(loans.get(i), date);
+					if (charge != null) {
+						charges.add(charge);
+					}
+				}
+				return charges;
+			}
+			int middle = (from + to) >>> 1;
+			ChargeTask right = new ChargeTask(loans, date, middle, to, chunkSize);
+			right.fork();
+			List<FineCharge> charges = new ChargeTask(loans, date, from, middle, chunkSize).compute();
+			charges.addAll(right.join());
+			return charges;
+		}
+	}
+
+}
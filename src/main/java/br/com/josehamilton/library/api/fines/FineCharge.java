@@ -0,0 +1,28 @@
+package br.com.josehamilton.library.api.fines;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Multa calculada para um empréstimo, ainda não gravada.
+ */
+@Getter
+@AllArgsConstructor
+public class FineCharge {
+
+	private final long loanId;
+
+	private final Long customerId;
+
+	private final LocalDate fromDate;
+
+	private final LocalDate toDate;
+
+	private final int days;
+
+	private final BigDecimal amount;
+
+}
@@ -0,0 +1,59 @@
+package br.com.josehamilton.library.api.fines;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@ConfigurationProperties("application.fines")
+public class FineProperties {
+
+	private boolean enabled = true;
+
+	// Horário do cálculo diário (usado diretamente no @Scheduled).
+	private String cron = "0 30 0 * * ?";
+
+	// Empréstimos atrasados lidos do banco por consulta.
+	private int pageSize = 10000;
+
+	// Empréstimos calculados por tarefa do fork-join; páginas menores que isso não são divididas.
+	private int chunkSize = 1000;
+
+	// Multas por lote de INSERT.
+	private int batchSize = 500;
+
+	// Threads do cálculo.
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	// Política de todos os empréstimos; os campos das políticas abaixo que estiverem preenchidos a substituem.
+	private Policy defaults = new Policy(new BigDecimal("1.00"), 0, null);
+
+	// Políticas por isbn do livro (ISBN-10 e ISBN-13 equivalentes valem para o mesmo livro).
+	private Map<String, Policy> books = new HashMap<>();
+
+	// Políticas por email do cliente; prevalecem sobre as do livro.
+	private Map<String, Policy> customers = new HashMap<>();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Policy {
+
+		// Valor por dia de atraso.
+		private BigDecimal dailyRate;
+
+		// Dias de atraso sem cobrança, contados a partir do vencimento.
+		private Integer graceDays;
+
+		// Total máximo por empréstimo; sem limite quando vazio.
+		private BigDecimal maxAmount;
+
+	}
+
+}
@@ -0,0 +1,39 @@
+package br.com.josehamilton.library.api.fines;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Empréstimo atrasado com o que já foi multado dele (linha de
+ * FineRepository.findOverdueLoansAfter).
+ */
+@Getter
+@AllArgsConstructor
+public class OverdueLoan {
+
+	private final long loanId;
+
+	private final LocalDate loanDate;
+
+	private final Long isbnKey;
+
+	private final String isbn;
+
+	private final Long customerId;
+
+	private final String emailKey;
+
+	// Último dia já multado; null se o empréstimo ainda não tem multa.
+	private final LocalDate lastFinedDate;
+
+	private final BigDecimal finedAmount;
+
+	public static OverdueLoan of(Object[] row) {
+		return new OverdueLoan((Long) row[0], (LocalDate) row[1], (Long) row[2], (String) row[3], (Long) row[4],
+				(String) row[5], (LocalDate) row[6], (BigDecimal) row[7]);
+	}
+
+}
@@ -0,0 +1,275 @@
+package br.com.josehamilton.library.api.invalidation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.CacheInvalidation;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.CacheInvalidationRepository;
+import br.com.josehamilton.library.api.services.BookResponseCacheService;
+import br.com.josehamilton.library.api.services.BookSearchService;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.CatalogSnapshotService;
+import br.com.josehamilton.library.api.services.IsbnFilterService;
+import br.com.josehamilton.library.api.services.IsbnIndexService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém os caches em memória das várias instâncias coerentes usando o
+ * próprio banco como canal.
+ *
+ * <ul>
+ * <li>As escritas de livros e empréstimos gravam um {@link CacheInvalidation}
+ * na mesma transação; a instância que escreveu atualiza seus caches depois do
+ * commit, como antes.</li>
+ * <li>Cada instância lê a tabela a cada {@code poll-interval} a partir do
+ * último id visto e aplica os registros das outras instâncias: remove o livro
+ * do cache de segundo nível e do cache de findByIsbn e atualiza os índices de
+ * sugestão e de busca, o filtro e o índice de isbns e o snapshot do catálogo
+ * com o estado atual do banco, descartando a resposta serializada do livro. O
+ * atraso até a aplicação é medido em cache.invalidation.delay.</li>
+ * <li>Ids são gerados antes do commit, então um id menor pode aparecer depois
+ * de um maior. Ids pulados ficam pendentes e são consultados de novo até
+ * aparecerem ou até {@code gap-timeout} (rollback).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@Lazy(false) // A leitura só é agendada quando o bean é criado, mesmo com inicialização lazy
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class CacheInvalidationBus implements MeterBinder {
+
+	private final String instanceId = UUID.randomUUID().toString();
+
+	private final InvalidationProperties properties;
+
+	private final CacheInvalidationRepository repository;
+
+	private final BookRepository bookRepository;
+
+	private final BookSuggestionService suggestionService;
+
+	private final BookSearchService searchService;
+
+	private final IsbnFilterService isbnFilter;
+
+	private final IsbnIndexService isbnIndex;
+
+	private final CatalogSnapshotService catalogSnapshot;
+
+	private final BookResponseCacheService responseCache;
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	// Maior id lido; null até a primeira leitura.
+	private Long lastId;
+
+	// Ids pulados ainda esperados, com o prazo (System.nanoTime) de cada um.
+	private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+	private final AtomicLong applied = new AtomicLong();
+
+	private final AtomicLong expiredGaps = new AtomicLong();
+
+	private Counter published;
+
+	private Timer delay;
+
+	// Proxies lazy: o agendamento não obriga a criação do JPA e dos índices na inicialização
+	public CacheInvalidationBus(InvalidationProperties properties, @Lazy CacheInvalidationRepository repository,
+			@Lazy BookRepository bookRepository, @Lazy BookSuggestionService suggestionService,
+			@Lazy BookSearchService searchService, @Lazy IsbnFilterService isbnFilter,
+			@Lazy IsbnIndexService isbnIndex, @Lazy CatalogSnapshotService catalogSnapshot,
+			@Lazy BookResponseCacheService responseCache, @Lazy EntityManagerFactory entityManagerFactory) {
+		this.properties = properties;
+		this.repository = repository;
+		this.bookRepository = bookRepository;
+		this.suggestionService = suggestionService;
+		this.searchService = searchService;
+		this.isbnFilter = isbnFilter;
+		this.isbnIndex = isbnIndex;
+		this.catalogSnapshot = catalogSnapshot;
+		this.responseCache = responseCache;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	/**
+	 * Marca o ponto de partida antes das reconstruções dos índices: o que for
+	 * gravado depois é aplicado pela leitura, mesmo que a reconstrução já o
+	 * tenha visto.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void onApplicationReady() {
+		try {
+			if (lastId == null) {
+				lastId = repository.findMaxId();
+			}
+		} catch (RuntimeException e) {
+			// A posição é lida de novo na primeira execução de poll.
+			log.warn("Cache invalidation position could not be read", e);
+		}
+	}
+
+	/**
+	 * Registra a alteração do livro na transação atual para as outras
+	 * instâncias.
+	 */
+	public void publish(InvalidationType type, Book book) {
+		repository.save(CacheInvalidation.builder().type(type).bookId(book.getId()).origin(instanceId)
+				.createdAt(LocalDateTime.now()).build());
+		if (published != null) {
+			published.increment();
+		}
+	}
+
+	public void publishAll(InvalidationType type, List<Book> books) {
+		List<CacheInvalidation> invalidations = new ArrayList<>(books.size());
+		LocalDateTime now = LocalDateTime.now();
+		for (Book book : books) {
+			invalidations.add(CacheInvalidation.builder().type(type).bookId(book.getId()).origin(instanceId)
+					.createdAt(now).build());
+		}
+		repository.saveAll(invalidations);
+		if (published != null) {
+			published.increment(books.size());
+		}
+	}
+
+	// Transação de escrita: a leitura vai para o banco principal, nunca para a réplica.
+	@Transactional
+	@Scheduled(fixedDelayString = "${application.invalidation.poll-interval:1000}")
+	public synchronized void poll() {
+		if (lastId == null) {
+			lastId = repository.findMaxId();
+			return;
+		}
+		if (!gaps.isEmpty()) {
+			for (CacheInvalidation invalidation : repository.findByIdInOrderByIdAsc(new ArrayList<>(gaps.keySet()))) {
+				gaps.remove(invalidation.getId());
+				apply(invalidation);
+			}
+		}
+		List<CacheInvalidation> batch;
+		do {
+			batch = repository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, properties.getBatchSize()));
+			long deadline = System.nanoTime() + properties.getGapTimeout().toNanos();
+			for (CacheInvalidation invalidation : batch) {
+				for (long missing = lastId + 1; missing < invalidation.getId(); missing++) {
+					gaps.put(missing, deadline);
+				}
+				lastId = invalidation.getId();
+				apply(invalidation);
+			}
+		} while (batch.size() == properties.getBatchSize());
+		expireGaps();
+	}
+
+	@Transactional
+	@Scheduled(fixedDelayString = "${application.invalidation.purge-interval:600000}")
+	public void purge() {
+		int deleted = repository.deleteByCreatedAtBefore(LocalDateTime.now().minus(properties.getRetention()));
+		if (deleted > 0) {
+			log.debug("Purged {} cache invalidation records", deleted);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		published = Counter.builder("cache.invalidation.published")
+				.description("Cache invalidations recorded for other instances").register(registry);
+		FunctionCounter.builder("cache.invalidation.applied", applied, AtomicLong::get)
+				.description("Cache invalidations from other instances applied locally").register(registry);
+		FunctionCounter.builder("cache.invalidation.expired.gaps", expiredGaps, AtomicLong::get)
+				.description("Skipped invalidation ids given up after the gap timeout").register(registry);
+		delay = Timer.builder("cache.invalidation.delay")
+				.description("Time between a change on another instance and its local invalidation")
+				.register(registry);
+	}
+
+	private void apply(CacheInvalidation invalidation) {
+		if (instanceId.equals(invalidation.getOrigin())) {
+			return;
+		}
+		Long bookId = invalidation.getBookId();
+		evict(bookId);
+		switch (invalidation.getType()) {
+		case BOOK_CHANGED:
+			responseCache.bookChanged(Book.builder().id(bookId).build());
+			Optional<Book> book = bookRepository.findById(bookId);
+			if (book.isPresent()) {
+				suggestionService.bookSaved(book.get());
+				searchService.bookSaved(book.get());
+				isbnFilter.bookSaved(book.get());
+				isbnIndex.bookSaved(book.get());
+				catalogSnapshot.bookSaved(book.get());
+			} else {
+				Book removed = Book.builder().id(bookId).build();
+				suggestionService.bookDeleted(removed);
+				searchService.bookDeleted(removed);
+				isbnFilter.bookDeleted(removed);
+				catalogSnapshot.bookDeleted(removed);
+			}
+			break;
+		case BOOK_BORROWED:
+			suggestionService.bookBorrowed(Book.builder().id(bookId).build());
+			break;
+		default:
+			break;
+		}
+		applied.incrementAndGet();
+		if (delay != null && invalidation.getCreatedAt() != null) {
+			// Relógios de instâncias diferentes: valores negativos são descartados pelo Timer.
+			delay.record(Duration.between(invalidation.getCreatedAt(), LocalDateTime.now()).toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void evict(Long bookId) {
+		entityManagerFactory.getCache().evict(Book.class, bookId);
+		// O cache de findByIsbn é indexado pelo isbn, que pode ter mudado: a região é descartada inteira.
+		entityManagerFactory.unwrap(SessionFactory.class).getCache()
+				.evictQueryRegion(BookRepository.ISBN_CACHE_REGION);
+	}
+
+	private void expireGaps() {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getValue() - now < 0) {
+				iterator.remove();
+				expiredGaps.incrementAndGet();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package br.com.josehamilton.library.api.invalidation;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.invalidation")
+public class InvalidationProperties {
+
+	// Intervalos em ms, usados diretamente nos @Scheduled.
+	private long pollInterval = 1000;
+
+	private long purgeInterval = 600000;
+
+	// Registros lidos por consulta.
+	private int batchSize = 500;
+
+	// Tempo de espera por ids pulados, que podem ser de transações ainda não confirmadas.
+	private Duration gapTimeout = Duration.ofSeconds(30);
+
+	// Registros mais antigos são apagados; uma instância parada por mais tempo reconstrói os índices ao subir.
+	private Duration retention = Duration.ofHours(1);
+
+}
@@ -0,0 +1,12 @@
+package br.com.josehamilton.library.api.invalidation;
+
+public enum InvalidationType {
+
+	// Livro cadastrado, alterado ou removido: o estado atual é relido do banco.
+	BOOK_CHANGED,
+
+	BOOK_BORROWED,
+
+	BOOK_RETURNED
+
+}
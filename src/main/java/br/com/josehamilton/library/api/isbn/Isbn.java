@@ -0,0 +1,93 @@
+package br.com.josehamilton.library.api.isbn;
+
+import java.util.Arrays;
+
+/**
+ * Normalização de ISBN-10 e ISBN-13 (com ou sem hífens e espaços) para o
+ * ISBN-13 como número, usado como chave de busca dos livros.
+ */
+public final class Isbn {
+
+	private Isbn() {
+	}
+
+	/**
+	 * ISBN-13 do isbn informado ou null se ele não for um ISBN-10 ou ISBN-13
+	 * com dígito verificador válido.
+	 */
+	public static Long key(String isbn) {
+		if (isbn == null) {
+			return null;
+		}
+		char[] digits = new char[13];
+		int length = 0;
+		for (int i = 0; i < isbn.length(); i++) {
+			char c = isbn.charAt(i);
+			if (c == '-' || c == ' ') {
+				continue;
+			}
+			if (length == 13 || !(c >= '0' && c <= '9' || (c == 'X' || c == 'x') && length == 9)) {
+				return null;
+			}
+			digits[length++] = c;
+		}
+		if (length == 10) {
+			return isbn10(digits);
+		}
+		if (length == 13 && digits[9] != 'X' && digits[9] != 'x' && checkDigit(digits) == digits[12] - '0') {
+			return Long.parseLong(new String(digits));
+		}
+		return null;
+	}
+
+	/**
+	 * Forma usada para comparar isbns: o ISBN-13 sem hífens quando o isbn é
+	 * válido, senão o próprio valor informado.
+	 */
+	public static String canonical(String isbn) {
+		Long key = key(isbn);
+		return key != null ? key.toString() : isbn;
+	}
+
+	/**
+	 * ISBN-13 formado pelos 12 primeiros dígitos informados e o dígito
+	 * verificador calculado.
+	 */
+	public static String withCheckDigit(String first12Digits) {
+		if (first12Digits == null || !first12Digits.matches("\\d{12}")) {
+			throw new IllegalArgumentException("Expected the first 12 digits of an ISBN-13: " + first12Digits);
+		}
+		char[] digits = Arrays.copyOf(first12Digits.toCharArray(), 13);
+		digits[12] = (char) ('0' + checkDigit(digits));
+		return new String(digits);
+	}
+
+	private static Long isbn10(char[] digits) {
+		int sum = 0;
+		for (int i = 0; i < 10; i++) {
+			// 'X' (10) só é aceito na última posição.
+			int digit = digits[i] == 'X' || digits[i] == 'x' ? 10 : digits[i] - '0';
+			sum += digit * (10 - i);
+		}
+		if (sum % 11 != 0) {
+			return null;
+		}
+		char[] isbn13 = new char[13];
+		isbn13[0] = '9';
+		isbn13[1] = '7';
+		isbn13[2] = '8';
+		System.arraycopy(digits, 0, isbn13, 3, 9);
+		isbn13[12] = (char) ('0' + checkDigit(isbn13));
+		return Long.parseLong(new String(isbn13));
+	}
+
+	private static int checkDigit(char[] digits) {
+		int sum = 0;
+		for (int i = 0; i < 12; i++) {
+			int digit = digits[i] - '0';
+			sum += i % 2 == 0 ? digit : digit * 3;
+		}
+		return (10 - sum % 10) % 10;
+	}
+
+}
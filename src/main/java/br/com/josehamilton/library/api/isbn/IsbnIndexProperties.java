@@ -0,0 +1,14 @@
+package br.com.josehamilton.library.api.isbn;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.isbn-index")
+public class IsbnIndexProperties {
+
+	// Livros lidos do banco por consulta durante a reconstrução.
+	private int pageSize = 10000;
+
+}
@@ -0,0 +1,178 @@
+package br.com.josehamilton.library.api.isbn;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mapa de long para long com endereçamento aberto (sondagem linear) em um
+ * único long[]: chave e valor ficam lado a lado, então cada busca costuma ler
+ * uma linha de cache. Não há objeto por entrada, e o array de primitivos não é
+ * percorrido pelo coletor de lixo, por isso o mapa pode guardar dezenas de
+ * milhões de entradas (16 bytes por posição, ocupação de até 75%).
+ *
+ * A chave 0 marca posição vazia e não pode ser usada. Remoções deslocam as
+ * entradas seguintes para trás, sem marcadores de remoção.
+ */
+public class LongLongHashMap {
+
+	public static final long MISSING = -1;
+
+	private static final long EMPTY = 0;
+
+	private static final int MAX_CAPACITY = 1 << 29;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private long[] table;
+
+	private int mask;
+
+	private int size;
+
+	public LongLongHashMap(int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	public long get(long key) {
+		lock.readLock().lock();
+		try {
+			int slot = find(key);
+			return table[slot << 1] == EMPTY ? MISSING : table[(slot << 1) + 1];
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Grava o valor e retorna o anterior ou {@link #MISSING}.
+	 */
+	public long put(long key, long value) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Key 0 is reserved for empty slots");
+		}
+		lock.writeLock().lock();
+		try {
+			int slot = find(key);
+			int index = slot << 1;
+			if (table[index] != EMPTY) {
+				long previous = table[index + 1];
+				table[index + 1] = value;
+				return previous;
+			}
+			table[index] = key;
+			table[index + 1] = value;
+			if (++size > threshold()) {
+				resize();
+			}
+			return MISSING;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove a chave somente se ela ainda estiver associada ao valor
+	 * informado.
+	 */
+	public boolean remove(long key, long value) {
+		lock.writeLock().lock();
+		try {
+			int slot = find(key);
+			if (table[slot << 1] == EMPTY || table[(slot << 1) + 1] != value) {
+				return false;
+			}
+			delete(slot);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public long bytes() {
+		lock.readLock().lock();
+		try {
+			return (long) table.length * Long.BYTES;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Posição da chave ou a posição vazia onde ela entraria.
+	private int find(long key) {
+		int slot = hash(key) & mask;
+		while (table[slot << 1] != EMPTY && table[slot << 1] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void delete(int slot) {
+		size--;
+		int gap = slot;
+		int next = (gap + 1) & mask;
+		while (table[next << 1] != EMPTY) {
+			int ideal = hash(table[next << 1]) & mask;
+			// A entrada pode ocupar o buraco se ele não fica antes da sua posição ideal.
+			if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+				table[gap << 1] = table[next << 1];
+				table[(gap << 1) + 1] = table[(next << 1) + 1];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		table[gap << 1] = EMPTY;
+		table[(gap << 1) + 1] = 0;
+	}
+
+	private void resize() {
+		if (mask + 1 == MAX_CAPACITY) {
+			// Sem crescer além do máximo; uma posição vazia precisa sobrar para as buscas terminarem.
+			if (size >= MAX_CAPACITY - 1) {
+				throw new IllegalStateException("LongLongHashMap is full");
+			}
+			return;
+		}
+		long[] old = table;
+		allocate((mask + 1) << 1);
+		for (int i = 0; i < old.length; i += 2) {
+			if (old[i] != EMPTY) {
+				int slot = find(old[i]);
+				table[slot << 1] = old[i];
+				table[(slot << 1) + 1] = old[i + 1];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		table = new long[capacity << 1];
+		mask = capacity - 1;
+	}
+
+	private int threshold() {
+		return (mask + 1) / 4 * 3;
+	}
+
+	private static int capacityFor(int expectedSize) {
+		long needed = Math.max(16, (long) expectedSize * 4 / 3 + 1);
+		return (int) Math.min(MAX_CAPACITY, Long.highestOneBit(needed - 1) << 1);
+	}
+
+	// Finalizador do MurmurHash3: ISBNs sequenciais ficam espalhados pela tabela.
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		key *= 0xC4CEB9FE1A85EC53L;
+		return (int) (key ^ (key >>> 33));
+	}
+
+}
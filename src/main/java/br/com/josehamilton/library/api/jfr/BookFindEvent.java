@@ -0,0 +1,36 @@
+package br.com.josehamilton.library.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import lombok.Setter;
+
+@Name(BookFindEvent.NAME)
+@Label("Book Find")
+@Category({ "Library API", "Books" })
+@Description("Busca paginada de livros em BookServiceImpl.find.")
+@StackTrace(false)
+@Setter
+public class BookFindEvent extends jdk.jfr.Event {
+
+	public static final String NAME = "br.com.josehamilton.library.BookFind";
+
+	@Label("Title Filter")
+	private String title;
+
+	@Label("Author Filter")
+	private String author;
+
+	@Label("Page Number")
+	private int pageNumber;
+
+	@Label("Page Size")
+	private int pageSize;
+
+	@Label("Total Elements")
+	private long totalElements;
+
+}
@@ -0,0 +1,27 @@
+package br.com.josehamilton.library.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import lombok.Setter;
+
+@Name(LateLoansMailEvent.NAME)
+@Label("Late Loans Mail")
+@Category({ "Library API", "Schedule" })
+@Description("Encerramento do job late-loans-mail, com os destinatários de toda a execução.")
+@StackTrace(false)
+@Setter
+public class LateLoansMailEvent extends jdk.jfr.Event {
+
+	public static final String NAME = "br.com.josehamilton.library.LateLoansMail";
+
+	@Label("Late Loans")
+	private int lateLoans;
+
+	@Label("Recipients")
+	private int recipients;
+
+}
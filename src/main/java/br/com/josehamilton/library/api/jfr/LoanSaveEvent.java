@@ -0,0 +1,30 @@
+package br.com.josehamilton.library.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import lombok.Setter;
+
+@Name(LoanSaveEvent.NAME)
+@Label("Loan Save")
+@Category({ "Library API", "Loans" })
+@Description("Criação de um empréstimo em LoanServiceImpl.save.")
+@StackTrace(false)
+@Setter
+public class LoanSaveEvent extends jdk.jfr.Event {
+
+	public static final String NAME = "br.com.josehamilton.library.LoanSave";
+
+	@Label("Book Id")
+	private long bookId;
+
+	@Label("ISBN")
+	private String isbn;
+
+	@Label("Already Loaned")
+	private boolean alreadyLoaned;
+
+}
@@ -0,0 +1,57 @@
+package br.com.josehamilton.library.api.jfr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Perfis pré-definidos de gravação do Java Flight Recorder. Cada perfil parte da
+ * configuração "default" do JDK e liga os eventos necessários para a análise,
+ * além dos eventos de domínio da aplicação.
+ */
+public enum RecordingProfile {
+
+	CPU {
+		@Override
+		protected void customize(Map<String, String> settings) {
+			settings.put("jdk.ExecutionSample#enabled", "true");
+			settings.put("jdk.ExecutionSample#period", "10 ms");
+			settings.put("jdk.NativeMethodSample#enabled", "true");
+			settings.put("jdk.NativeMethodSample#period", "20 ms");
+		}
+	},
+
+	ALLOCATION {
+		@Override
+		protected void customize(Map<String, String> settings) {
+			settings.put("jdk.ObjectAllocationInNewTLAB#enabled", "true");
+			settings.put("jdk.ObjectAllocationInNewTLAB#stackTrace", "true");
+			settings.put("jdk.ObjectAllocationOutsideTLAB#enabled", "true");
+			settings.put("jdk.ObjectAllocationOutsideTLAB#stackTrace", "true");
+		}
+	},
+
+	LOCKING {
+		@Override
+		protected void customize(Map<String, String> settings) {
+			settings.put("jdk.JavaMonitorEnter#enabled", "true");
+			settings.put("jdk.JavaMonitorEnter#threshold", "10 ms");
+			settings.put("jdk.JavaMonitorEnter#stackTrace", "true");
+			settings.put("jdk.JavaMonitorWait#enabled", "true");
+			settings.put("jdk.JavaMonitorWait#threshold", "10 ms");
+			settings.put("jdk.ThreadPark#enabled", "true");
+			settings.put("jdk.ThreadPark#threshold", "10 ms");
+		}
+	};
+
+	protected abstract void customize(Map<String, String> settings);
+
+	public Map<String, String> settings(Map<String, String> defaults) {
+		Map<String, String> settings = new HashMap<>(defaults);
+		customize(settings);
+		settings.put(LoanSaveEvent.NAME + "#enabled", "true");
+		settings.put(BookFindEvent.NAME + "#enabled", "true");
+		settings.put(LateLoansMailEvent.NAME + "#enabled", "true");
+		return settings;
+	}
+
+}
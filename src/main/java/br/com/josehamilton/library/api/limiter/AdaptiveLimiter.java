@@ -0,0 +1,134 @@
+package br.com.josehamilton.library.api.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência observada (AIMD).
+ * O limite só muda quando está em uso (ao menos metade dele ocupada no início
+ * da requisição): {@code congestionSamples} respostas seguidas acima de
+ * {@code tolerance} vezes a menor latência da janela reduzem o limite
+ * multiplicando por {@code backoffRatio}, e cada resposta rápida aumenta o
+ * limite em uma unidade. Em tráfego baixo uma resposta lenta não é sinal de
+ * congestionamento e o limite fica como está.
+ */
+public class AdaptiveLimiter {
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double tolerance;
+
+	private final double backoffRatio;
+
+	private final int congestionSamples;
+
+	private final long windowNanos;
+
+	private final AtomicInteger inflight = new AtomicInteger();
+
+	private volatile double limit;
+
+	private long minLatencyNanos = Long.MAX_VALUE;
+
+	private long windowStart;
+
+	// Respostas lentas seguidas com o limite em uso.
+	private int congested;
+
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+			int congestionSamples, long windowNanos) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.backoffRatio = backoffRatio;
+		this.congestionSamples = Math.max(1, congestionSamples);
+		this.windowNanos = windowNanos;
+		this.windowStart = System.nanoTime();
+	}
+
+	/**
+	 * Reserva uma vaga se houver espaço na fração {@code share} do limite.
+	 *
+	 * @return a quantidade de requisições em andamento antes desta, ou -1 se
+	 *         não houver vaga
+	 */
+	public int tryAcquire(double share) {
+		int allowed = Math.max(1, (int) (limit * share));
+		while (true) {
+			int current = inflight.get();
+			if (current >= allowed) {
+				return -1;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return current;
+			}
+		}
+	}
+
+	/**
+	 * Libera a vaga sem registrar latência (requisição não executada ou
+	 * assíncrona).
+	 */
+	public void cancel() {
+		inflight.decrementAndGet();
+	}
+
+	/**
+	 * Libera a vaga e ajusta o limite pela latência da requisição.
+	 *
+	 * @param inflightAtStart valor retornado por {@link #tryAcquire(double)}
+	 * @param dropped         requisição terminou com erro do servidor
+	 * @return a latência dividida pela menor latência da janela
+	 */
+	public double release(int inflightAtStart, long latencyNanos, boolean dropped) {
+		double ratio;
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (now - windowStart > windowNanos) {
+				minLatencyNanos = latencyNanos;
+				windowStart = now;
+			} else {
+				minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+			}
+			ratio = (double) latencyNanos / Math.max(1, minLatencyNanos);
+		}
+		releaseWithRatio(inflightAtStart, ratio, dropped);
+		return ratio;
+	}
+
+	/**
+	 * Libera a vaga e ajusta o limite pela razão entre a latência e a menor
+	 * latência já calculada por outro limiter. Usado pelo limite global com a
+	 * razão do endpoint, para que endpoints lentos não pareçam congestionamento
+	 * perto dos rápidos.
+	 */
+	public void releaseWithRatio(int inflightAtStart, double latencyRatio, boolean dropped) {
+		inflight.decrementAndGet();
+		synchronized (this) {
+			if (inflightAtStart * 2 < (int) limit) {
+				congested = 0;
+				return;
+			}
+			if (dropped || latencyRatio > tolerance) {
+				if (++congested >= congestionSamples) {
+					limit = Math.max(minLimit, limit * backoffRatio);
+					congested = 0;
+				}
+			} else {
+				congested = 0;
+				limit = Math.min(maxLimit, limit + 1);
+			}
+		}
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	public int getInflight() {
+		return inflight.get();
+	}
+
+}
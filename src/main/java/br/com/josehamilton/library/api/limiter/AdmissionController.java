@@ -0,0 +1,127 @@
+package br.com.josehamilton.library.api.limiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import br.com.josehamilton.library.exception.LoadSheddingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Controle de admissão das requisições da API: cada endpoint tem o seu
+ * {@link AdaptiveLimiter} e todos compartilham um limite global, do qual as
+ * requisições de prioridade {@link RequestPriority#NORMAL} só podem usar a
+ * fração {@code normalShare}. O limite global é ajustado pela latência de
+ * cada requisição relativa à menor latência do seu endpoint. Requisições
+ * acima dos limites são recusadas na hora com {@link LoadSheddingException},
+ * em vez de esperar por threads do Tomcat e conexões do banco.
+ */
+public class AdmissionController implements MeterBinder {
+
+	private static final String GLOBAL = "global";
+
+	private final LimiterProperties properties;
+
+	private final AdaptiveLimiter global;
+
+	private final Map<String, AdaptiveLimiter> endpoints = new ConcurrentHashMap<>();
+
+	private volatile MeterRegistry registry;
+
+	public AdmissionController(LimiterProperties properties) {
+		this.properties = properties;
+		this.global = new AdaptiveLimiter(properties.getGlobalInitialLimit(), properties.getMinLimit(),
+				properties.getGlobalMaxLimit(), properties.getTolerance(), properties.getBackoffRatio(),
+				properties.getCongestionSamples(), properties.getLatencyWindow().toNanos());
+	}
+
+	public Permit acquire(String endpoint, RequestPriority priority) {
+		AdaptiveLimiter limiter = endpoints.computeIfAbsent(endpoint, this::newLimiter);
+		int endpointInflight = limiter.tryAcquire(1);
+		if (endpointInflight < 0) {
+			throw reject(endpoint, priority);
+		}
+		int globalInflight = global
+				.tryAcquire(priority == RequestPriority.CRITICAL ? 1 : properties.getNormalShare());
+		if (globalInflight < 0) {
+			limiter.cancel();
+			throw reject(endpoint, priority);
+		}
+		return new Permit(limiter, endpointInflight, globalInflight);
+	}
+
+	public AdaptiveLimiter getLimiter(String endpoint) {
+		return GLOBAL.equals(endpoint) ? global : endpoints.get(endpoint);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		register(GLOBAL, global);
+		endpoints.forEach(this::register);
+	}
+
+	private AdaptiveLimiter newLimiter(String endpoint) {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+				properties.getMaxLimit(), properties.getTolerance(), properties.getBackoffRatio(),
+				properties.getCongestionSamples(), properties.getLatencyWindow().toNanos());
+		if (registry != null) {
+			register(endpoint, limiter);
+		}
+		return limiter;
+	}
+
+	private void register(String endpoint, AdaptiveLimiter limiter) {
+		Gauge.builder("http.limiter.limit", limiter, AdaptiveLimiter::getLimit).tags("endpoint", endpoint)
+				.description("Current concurrency limit").register(registry);
+		Gauge.builder("http.limiter.inflight", limiter, AdaptiveLimiter::getInflight).tags("endpoint", endpoint)
+				.description("Requests currently admitted").register(registry);
+	}
+
+	private LoadSheddingException reject(String endpoint, RequestPriority priority) {
+		if (registry != null) {
+			Counter.builder("http.limiter.rejected").tags(Tags.of("endpoint", endpoint, "priority", priority.name()))
+					.description("Requests rejected by the concurrency limiter").register(registry).increment();
+		}
+		return new LoadSheddingException("Server is overloaded, please retry later.",
+				properties.getRetryAfter().getSeconds());
+	}
+
+	/**
+	 * Vaga concedida a uma requisição; deve ser liberada uma única vez.
+	 */
+	public class Permit {
+
+		private final AdaptiveLimiter endpoint;
+
+		private final int endpointInflight;
+
+		private final int globalInflight;
+
+		private final long start;
+
+		Permit(AdaptiveLimiter endpoint, int endpointInflight, int globalInflight) {
+			this.endpoint = endpoint;
+			this.endpointInflight = endpointInflight;
+			this.globalInflight = globalInflight;
+			this.start = System.nanoTime();
+		}
+
+		public void release(boolean dropped) {
+			long latency = System.nanoTime() - start;
+			// O global usa a razão do endpoint: uma menor latência única misturaria endpoints rápidos e lentos.
+			double ratio = endpoint.release(endpointInflight, latency, dropped);
+			global.releaseWithRatio(globalInflight, ratio, dropped);
+		}
+
+		public void cancel() {
+			endpoint.cancel();
+			global.cancel();
+		}
+
+	}
+
+}
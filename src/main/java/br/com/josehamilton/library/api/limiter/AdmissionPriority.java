@@ -0,0 +1,20 @@
+package br.com.josehamilton.library.api.limiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prioridade do endpoint no controle de admissão. Endpoints sem a anotação têm
+ * prioridade {@link RequestPriority#NORMAL}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionPriority {
+
+	RequestPriority value();
+
+}
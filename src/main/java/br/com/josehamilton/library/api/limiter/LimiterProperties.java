@@ -0,0 +1,46 @@
+package br.com.josehamilton.library.api.limiter;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.limiter")
+public class LimiterProperties {
+
+	private boolean enabled = true;
+
+	// Limites de requisições simultâneas por endpoint.
+	private int initialLimit = 20;
+
+	private int minLimit = 2;
+
+	private int maxLimit = 200;
+
+	// Limites de requisições simultâneas somando todos os endpoints.
+	private int globalInitialLimit = 50;
+
+	private int globalMaxLimit = 400;
+
+	// Latência acima de tolerance x menor latência observada no endpoint reduz o limite.
+	private double tolerance = 2.0;
+
+	// Fator aplicado ao limite quando a latência passa da tolerância.
+	private double backoffRatio = 0.9;
+
+	// Respostas lentas seguidas, com o limite em uso, antes de reduzir o limite: uma amostra isolada
+	// (uma pausa do GC, uma página fria) não é congestionamento.
+	private int congestionSamples = 3;
+
+	// Janela após a qual a menor latência observada é recalculada.
+	private Duration latencyWindow = Duration.ofSeconds(30);
+
+	// Fração do limite global disponível para requisições de prioridade NORMAL;
+	// o restante fica reservado para as CRITICAL (empréstimos e devoluções).
+	private double normalShare = 0.75;
+
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,59 @@
+package br.com.josehamilton.library.api.limiter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aplica o {@link AdmissionController} aos métodos dos controllers. O nome do
+ * endpoint é Controller.metodo e a prioridade vem de {@link AdmissionPriority}.
+ */
+@RequiredArgsConstructor
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String PERMIT = LoadSheddingInterceptor.class.getName() + ".permit";
+
+	private final AdmissionController admissionController;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod)) {
+			return true;
+		}
+		HandlerMethod method = (HandlerMethod) handler;
+		AdmissionPriority priority = method.getMethodAnnotation(AdmissionPriority.class);
+		request.setAttribute(PERMIT, admissionController.acquire(endpoint(method),
+				priority != null ? priority.value() : RequestPriority.NORMAL));
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		AdmissionController.Permit permit = (AdmissionController.Permit) request.getAttribute(PERMIT);
+		if (permit != null) {
+			request.removeAttribute(PERMIT);
+			permit.release(ex != null || response.getStatus() >= 500);
+		}
+	}
+
+	// Respostas assíncronas (streams) não ocupam vaga enquanto ficam abertas.
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		AdmissionController.Permit permit = (AdmissionController.Permit) request.getAttribute(PERMIT);
+		if (permit != null) {
+			request.removeAttribute(PERMIT);
+			permit.cancel();
+		}
+	}
+
+	private static String endpoint(HandlerMethod method) {
+		return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+	}
+
+}
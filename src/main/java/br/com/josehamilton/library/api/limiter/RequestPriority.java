@@ -0,0 +1,11 @@
+package br.com.josehamilton.library.api.limiter;
+
+public enum RequestPriority {
+
+	// Operações que alteram o acervo (empréstimos e devoluções): podem usar todo o limite global.
+	CRITICAL,
+
+	// Consultas ao catálogo: usam apenas parte do limite global.
+	NORMAL
+
+}
@@ -0,0 +1,30 @@
+package br.com.josehamilton.library.api.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * {@link AsyncAppender} que contabiliza os eventos descartados quando o buffer
+ * está acima do limite de descarte. Assim como no AsyncAppender, apenas eventos
+ * TRACE, DEBUG e INFO são descartados; WARN e ERROR bloqueiam até haver espaço.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+	private final AtomicLong discardedEvents = new AtomicLong();
+
+	@Override
+	protected boolean isDiscardable(ILoggingEvent event) {
+		boolean discardable = super.isDiscardable(event);
+		if (discardable && getRemainingCapacity() < getDiscardingThreshold()) {
+			discardedEvents.incrementAndGet();
+		}
+		return discardable;
+	}
+
+	public long getDiscardedEvents() {
+		return discardedEvents.get();
+	}
+
+}
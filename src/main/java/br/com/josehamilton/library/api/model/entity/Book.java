@@ -1,15 +1,27 @@
 package br.com.josehamilton.library.api.model.entity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import br.com.josehamilton.library.api.isbn.Isbn;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,9 +32,20 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table
+@Table(indexes = { @Index(name = "ux_book_isbn", columnList = "isbn", unique = true),
+		@Index(name = "ux_book_isbn_key", columnList = "isbn_key", unique = true),
+		@Index(name = "ix_book_deleted_at", columnList = "deleted_at") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+// Exclusão lógica: remove() só marca deleted_at e as consultas JPA deixam de ver o livro.
+// O isbn é liberado na hora para um novo cadastro; a linha e os empréstimos dela são apagados
+// depois pelo BookPurgeService.
+@SQLDelete(sql = "UPDATE book SET deleted_at = CURRENT_TIMESTAMP, isbn = NULL, isbn_key = NULL WHERE id = ?")
+@Where(clause = "deleted_at IS NULL")
 public class Book {
 
+	public static final String CACHE_REGION = "book";
+
 	@Id
 	@Column
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,7 +60,21 @@ public class Book {
 	@Column
 	private String isbn;
 
+	// ISBN-13 como número (ver Isbn.key); null para isbns fora do padrão.
+	@Column(name = "isbn_key")
+	private Long isbnKey;
+
+	// Preenchida apenas pelo @SQLDelete; livros visíveis têm sempre null.
+	@Column(name = "deleted_at")
+	private LocalDateTime deletedAt;
+
 	@OneToMany(mappedBy = "book")
 	private List<Loan> loans;
 
+	@PrePersist
+	@PreUpdate
+	void updateIsbnKey() {
+		isbnKey = Isbn.key(isbn);
+	}
+
 }
@@ -0,0 +1,52 @@
+package br.com.josehamilton.library.api.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro de alteração gravado na mesma transação da escrita e lido pelas
+ * demais instâncias para atualizar seus caches (ver CacheInvalidationBus).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cache_invalidation", indexes = @Index(name = "ix_cache_invalidation_created_at", columnList = "created_at"))
+public class CacheInvalidation {
+
+	@Id
+	@Column
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(length = 20)
+	@Enumerated(EnumType.STRING)
+	private InvalidationType type;
+
+	@Column(name = "book_id")
+	private Long bookId;
+
+	// Instância que fez a alteração; ela mesma já atualizou seus caches.
+	@Column(length = 36)
+	private String origin;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+
+}
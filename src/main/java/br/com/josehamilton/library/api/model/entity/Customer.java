@@ -0,0 +1,61 @@
+package br.com.josehamilton.library.api.model.entity;
+
+import java.util.Locale;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cliente dos empréstimos. As buscas usam as chaves normalizadas (minúsculas,
+ * espaços simplificados), que são indexadas; o email identifica o cliente.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = { @Index(name = "ix_customer_name_key", columnList = "name_key"),
+		@Index(name = "ux_customer_email_key", columnList = "email_key", unique = true) })
+public class Customer {
+
+	@Id
+	@Column
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(length = 100)
+	private String name;
+
+	@Column
+	private String email;
+
+	@Column(name = "name_key", length = 100)
+	private String nameKey;
+
+	@Column(name = "email_key")
+	private String emailKey;
+
+	public static Customer of(String name, String email) {
+		return Customer.builder().name(name).email(email).nameKey(nameKey(name)).emailKey(emailKey(email)).build();
+	}
+
+	// Mesma normalização do script db/customer-migration.sql.
+	public static String nameKey(String name) {
+		return name == null ? null : name.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+	}
+
+	public static String emailKey(String email) {
+		return email == null ? null : email.toLowerCase(Locale.ROOT).trim();
+	}
+
+}
@@ -0,0 +1,66 @@
+package br.com.josehamilton.library.api.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Multa de um empréstimo atrasado pelos dias de {@code fromDate} a
+ * {@code toDate}, inclusive. Cada cálculo grava uma linha por empréstimo com os
+ * dias desde a multa anterior, então cada dia de atraso é cobrado uma única
+ * vez. As linhas são gravadas em lote pelo FineService, fora do JPA.
+ *
+ * Os ids do empréstimo e do cliente não são chaves estrangeiras: a multa
+ * continua registrada depois que o livro excluído e seus empréstimos são
+ * apagados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "fine", indexes = {
+		@Index(name = "ux_fine_loan_from_date", columnList = "loan_id, from_date", unique = true),
+		@Index(name = "ix_fine_customer", columnList = "customer_id") })
+public class Fine {
+
+	@Id
+	@Column
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "loan_id")
+	private Long loanId;
+
+	@Column(name = "customer_id")
+	private Long customerId;
+
+	@Column(name = "from_date")
+	private LocalDate fromDate;
+
+	@Column(name = "to_date")
+	private LocalDate toDate;
+
+	@Column
+	private Integer days;
+
+	@Column(precision = 12, scale = 2)
+	private BigDecimal amount;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,51 @@
+package br.com.josehamilton.library.api.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chunk gravado por uma execução de job, com as posições (after, last] que ele
+ * cobriu. É gravado na mesma transação da escrita do chunk e apagado quando a
+ * execução termina com sucesso.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_checkpoint", indexes = @Index(name = "ix_job_checkpoint_execution", columnList = "execution_id"))
+public class JobCheckpoint {
+
+	@Id
+	@Column
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "execution_id")
+	private Long executionId;
+
+	@Column(name = "after_position")
+	private long afterPosition;
+
+	@Column(name = "last_position")
+	private long lastPosition;
+
+	@Column
+	private int items;
+
+	@Column(name = "committed_at")
+	private LocalDateTime committedAt;
+
+}
@@ -0,0 +1,83 @@
+package br.com.josehamilton.library.api.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import br.com.josehamilton.library.api.batch.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Execução de um BatchJob. Só a instância dona ({@code owner}) altera a
+ * execução enquanto ela roda, e o índice único de {@code runningJob},
+ * preenchido só enquanto a execução está ativa, impede duas execuções do mesmo
+ * job ao mesmo tempo, também entre instâncias.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_execution", indexes = {
+		@Index(name = "ix_job_execution_name_key", columnList = "job_name, job_key"),
+		@Index(name = "ux_job_execution_running_job", columnList = "running_job", unique = true) })
+public class JobExecution {
+
+	@Id
+	@Column
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "job_name", length = 100)
+	private String jobName;
+
+	@Column(name = "job_key", length = 100)
+	private String jobKey;
+
+	@Column(length = 20)
+	@Enumerated(EnumType.STRING)
+	private JobStatus status;
+
+	// Nome do job enquanto RUNNING ou STOPPING; vazio nas execuções encerradas.
+	@Column(name = "running_job", length = 100)
+	private String runningJob;
+
+	// Token de quem está executando, renovado a cada retomada.
+	@Column(length = 36)
+	private String owner;
+
+	@Column(name = "started_at")
+	private LocalDateTime startedAt;
+
+	// Sinal de vida: atualizado antes de cada leitura.
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	@Column(name = "ended_at")
+	private LocalDateTime endedAt;
+
+	@Column(name = "read_count")
+	private long readCount;
+
+	@Column(name = "write_count")
+	private long writeCount;
+
+	// Posição até a qual todos os chunks foram gravados.
+	@Column
+	private long checkpoint;
+
+	@Column(length = 500)
+	private String error;
+
+}
@@ -4,11 +4,16 @@ import java.time.LocalDate;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Where;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,6 +25,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = @Index(name = "ix_loan_customer", columnList = "id_customer, loanDate"))
+// Empréstimos de livros excluídos somem das consultas junto com o livro, até serem apagados pela limpeza.
+@Where(clause = "NOT EXISTS (SELECT 1 FROM book b WHERE b.id = id_book AND b.deleted_at IS NOT NULL)")
 public class Loan {
 
 	@Id
@@ -27,11 +35,10 @@ public class Loan {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(length = 100)
-	private String customer;
-
-	@Column(name = "customer_email")
-	private String customerEmail;
+	// Carregado com JOIN FETCH pelas consultas que expõem o cliente.
+	@JoinColumn(name = "id_customer")
+	@ManyToOne(fetch = FetchType.LAZY)
+	private Customer customer;
 
 	@JoinColumn(name = "id_book")
 	@ManyToOne
@@ -1,14 +1,70 @@
 package br.com.josehamilton.library.api.model.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.josehamilton.library.api.model.entity.Book;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+	String ISBN_CACHE_REGION = "book-by-isbn";
+
 	boolean existsByIsbn(String isbn);
 
+	boolean existsByIsbnKey(Long isbnKey);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = ISBN_CACHE_REGION) })
 	Optional<Book> findByIsbn(String isbn);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = ISBN_CACHE_REGION) })
+	Optional<Book> findByIsbnKey(Long isbnKey);
+
+	List<Book> findByIsbnIn(Collection<String> isbns);
+
+	List<Book> findByIsbnKeyIn(Collection<Long> isbnKeys);
+
+	// Paginação por id: cada página continua do último id da anterior, sem OFFSET.
+	@Query(value = "SELECT b.id, b.isbn, b.isbnKey FROM Book b WHERE b.id > :lastId ORDER BY b.id")
+	List<Object[]> findIsbnsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	// Mesma paginação para o snapshot do catálogo; só as colunas, sem carregar entidades.
+	@Query(value = "SELECT b.id, b.title, b.author, b.isbn FROM Book b WHERE b.id > :lastId ORDER BY b.id")
+	List<Object[]> findBooksAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	// Preenche a chave de livros gravados antes da coluna isbn_key.
+	@Transactional
+	@Modifying
+	@Query(value = "UPDATE Book b SET b.isbnKey = :isbnKey WHERE b.id = :id AND b.isbnKey IS NULL")
+	int updateIsbnKey(@Param("id") Long id, @Param("isbnKey") Long isbnKey);
+
+	// Livros excluídos logicamente: consultas nativas, que não recebem o @Where de Book.
+	@Query(value = "SELECT b.id FROM book b WHERE b.deleted_at IS NOT NULL AND b.id > :lastId ORDER BY b.id",
+			nativeQuery = true)
+	List<Number> findDeletedIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	@Query(value = "SELECT COUNT(*) FROM book b WHERE b.deleted_at IS NOT NULL", nativeQuery = true)
+	long countDeleted();
+
+	@Query(value = "SELECT MIN(b.deleted_at) FROM book b WHERE b.deleted_at IS NOT NULL", nativeQuery = true)
+	LocalDateTime findOldestDeletedAt();
+
+	// Livros que ainda têm empréstimos ficam para a próxima limpeza.
+	@Modifying
+	@Query(value = "DELETE FROM book WHERE id IN (:ids) AND deleted_at IS NOT NULL"
+			+ " AND NOT EXISTS (SELECT 1 FROM loan l WHERE l.id_book = book.id)", nativeQuery = true)
+	int purgeDeleted(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,32 @@
+package br.com.josehamilton.library.api.model.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import br.com.josehamilton.library.api.model.entity.CacheInvalidation;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+	@Query(value = "SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidation c")
+	long findMaxId();
+
+	List<CacheInvalidation> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	List<CacheInvalidation> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+	@Query(value = "SELECT DISTINCT c.bookId FROM CacheInvalidation c WHERE c.type = :type AND c.createdAt >= :since")
+	List<Long> findBookIdsChangedSince(@Param("type") InvalidationType type, @Param("since") LocalDateTime since);
+
+	@Modifying
+	@Query(value = "DELETE FROM CacheInvalidation c WHERE c.createdAt < :before")
+	int deleteByCreatedAtBefore(@Param("before") LocalDateTime before);
+
+}
@@ -0,0 +1,13 @@
+package br.com.josehamilton.library.api.model.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.josehamilton.library.api.model.entity.Customer;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+	Optional<Customer> findByEmailKey(String emailKey);
+
+}
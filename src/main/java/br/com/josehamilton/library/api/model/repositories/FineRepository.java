@@ -0,0 +1,26 @@
+package br.com.josehamilton.library.api.model.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.josehamilton.library.api.model.entity.Fine;
+
+public interface FineRepository extends JpaRepository<Fine, Long> {
+
+	List<Fine> findByLoanIdOrderByFromDate(Long loanId);
+
+	// Empréstimos atrasados (mesmo critério de getAllLateLoans) com a última data e o total já multados.
+	// Paginação por id: cada página continua do último id da anterior, sem OFFSET.
+	@Query(value = "SELECT l.id, l.loanDate, b.isbnKey, b.isbn, c.id, c.emailKey, MAX(f.toDate), SUM(f.amount)"
+			+ " FROM Loan l JOIN l.book b LEFT JOIN l.customer c LEFT JOIN Fine f ON f.loanId = l.id"
+			+ " WHERE l.id > :lastId AND l.loanDate <= :lateLoanDate AND ( l.returned is null or l.returned is false )"
+			+ " GROUP BY l.id, l.loanDate, b.isbnKey, b.isbn, c.id, c.emailKey ORDER BY l.id")
+	List<Object[]> findOverdueLoansAfter(@Param("lastId") Long lastId, @Param("lateLoanDate") LocalDate lateLoanDate,
+			Pageable pageable);
+
+}
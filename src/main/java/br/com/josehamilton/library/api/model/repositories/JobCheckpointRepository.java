@@ -0,0 +1,20 @@
+package br.com.josehamilton.library.api.model.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.josehamilton.library.api.model.entity.JobCheckpoint;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+
+	List<JobCheckpoint> findByExecutionId(Long executionId);
+
+	@Modifying
+	@Query(value = "DELETE FROM JobCheckpoint c WHERE c.executionId = :executionId")
+	int deleteByExecutionId(@Param("executionId") Long executionId);
+
+}
@@ -0,0 +1,66 @@
+package br.com.josehamilton.library.api.model.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.josehamilton.library.api.batch.JobStatus;
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+
+public interface JobExecutionRepository extends JpaRepository<JobExecution, Long> {
+
+	Optional<JobExecution> findFirstByJobNameAndJobKeyOrderByIdDesc(String jobName, String jobKey);
+
+	Optional<JobExecution> findFirstByJobNameOrderByIdDesc(String jobName);
+
+	List<JobExecution> findByJobNameOrderByIdDesc(String jobName, Pageable pageable);
+
+	// Retoma uma execução parada, que falhou ou abandonada por outra instância; 0 se outra já a retomou.
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE JobExecution e SET e.status = :running, e.runningJob = e.jobName, e.owner = :owner,"
+			+ " e.updatedAt = :now, e.endedAt = NULL, e.error = NULL WHERE e.id = :id AND ( e.status IN :resumable"
+			+ " OR ( e.status IN :active AND e.updatedAt < :staleBefore ) )")
+	int claim(@Param("id") Long id, @Param("owner") String owner, @Param("running") JobStatus running,
+			@Param("resumable") Collection<JobStatus> resumable, @Param("active") Collection<JobStatus> active,
+			@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+	// Encerra a execução de outra chave abandonada por uma instância que caiu, liberando o índice de running_job.
+	@Modifying
+	@Query(value = "UPDATE JobExecution e SET e.status = :failed, e.runningJob = NULL, e.error = :error,"
+			+ " e.endedAt = :now WHERE e.runningJob = :jobName AND e.jobKey <> :jobKey AND e.updatedAt < :staleBefore")
+	int failAbandoned(@Param("jobName") String jobName, @Param("jobKey") String jobKey,
+			@Param("failed") JobStatus failed, @Param("error") String error,
+			@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+	// 0 quando a parada foi pedida ou a execução passou para outra instância.
+	@Modifying
+	@Query(value = "UPDATE JobExecution e SET e.updatedAt = :now, e.checkpoint = :checkpoint"
+			+ " WHERE e.id = :id AND e.owner = :owner AND e.status = :running")
+	int heartbeat(@Param("id") Long id, @Param("owner") String owner, @Param("running") JobStatus running,
+			@Param("checkpoint") long checkpoint, @Param("now") LocalDateTime now);
+
+	@Modifying
+	@Query(value = "UPDATE JobExecution e SET e.readCount = e.readCount + :read, e.writeCount = e.writeCount + :written"
+			+ " WHERE e.id = :id AND e.owner = :owner")
+	int addCounts(@Param("id") Long id, @Param("owner") String owner, @Param("read") long read,
+			@Param("written") long written);
+
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE JobExecution e SET e.status = :stopping WHERE e.jobName = :jobName AND e.status = :running")
+	int requestStop(@Param("jobName") String jobName, @Param("running") JobStatus running,
+			@Param("stopping") JobStatus stopping);
+
+	@Modifying
+	@Query(value = "UPDATE JobExecution e SET e.status = :status, e.runningJob = NULL, e.checkpoint = :checkpoint,"
+			+ " e.error = :error, e.updatedAt = :now, e.endedAt = :now WHERE e.id = :id AND e.owner = :owner")
+	int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") JobStatus status,
+			@Param("checkpoint") long checkpoint, @Param("error") String error, @Param("now") LocalDateTime now);
+
+}
@@ -3,13 +3,16 @@ package br.com.josehamilton.library.api.model.repositories;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
@@ -18,12 +21,64 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 			+ " FROM Loan l WHERE l.book = :book AND ( l.returned is null or l.returned is false )")
 	boolean existsByBookAndNotReturned(@Param("book") Book book);
 
-	@Query(value = "SELECT l FROM Loan as l JOIN l.book as b WHERE b.isbn = :isbn or l.customer = :customer")
-	Page<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer,
-			Pageable pageRequest);
+	// Isbn pelo ISBN-13 (isbnKey); o texto só é comparado para isbns fora do padrão.
+	@Query(value = "SELECT l FROM Loan as l JOIN FETCH l.book as b JOIN FETCH l.customer as c"
+			+ " WHERE b.isbnKey = :isbnKey or b.isbn = :isbn or c.nameKey = :customer",
+			countQuery = "SELECT COUNT(l) FROM Loan as l JOIN l.book as b JOIN l.customer as c"
+					+ " WHERE b.isbnKey = :isbnKey or b.isbn = :isbn or c.nameKey = :customer")
+	Page<Loan> findByBookIsbnOrCustomer(@Param("isbnKey") Long isbnKey, @Param("isbn") String isbn,
+			@Param("customer") String customer, Pageable pageRequest);
 
-	Page<Loan> findByBook(Book book, Pageable pageable);
+	@Query(value = "SELECT l FROM Loan as l JOIN FETCH l.customer WHERE l.book = :book",
+			countQuery = "SELECT COUNT(l) FROM Loan as l WHERE l.book = :book")
+	Page<Loan> findByBook(@Param("book") Book book, Pageable pageable);
 
-    @Query(value = "SELECT l FROM Loan as l WHERE l.loanDate <= :threeDaysAgo AND ( l.returned is null or l.returned is false )")
+	@Query(value = "SELECT l FROM Loan as l JOIN FETCH l.book JOIN FETCH l.customer WHERE l.customer = :customer",
+			countQuery = "SELECT COUNT(l) FROM Loan as l WHERE l.customer = :customer")
+	Page<Loan> findByCustomer(@Param("customer") Customer customer, Pageable pageable);
+
+	@Query(value = "SELECT l FROM Loan as l JOIN FETCH l.book JOIN FETCH l.customer WHERE l.customer = :customer"
+			+ " AND ( l.returned is null or l.returned is false )", countQuery = "SELECT COUNT(l) FROM Loan as l"
+					+ " WHERE l.customer = :customer AND ( l.returned is null or l.returned is false )")
+	Page<Loan> findByCustomerAndNotReturned(@Param("customer") Customer customer, Pageable pageable);
+
+    @Query(value = "SELECT l FROM Loan as l JOIN FETCH l.customer WHERE l.loanDate <= :threeDaysAgo AND ( l.returned is null or l.returned is false )")
 	List<Loan> findByLoanDateLessThanAndNotReturned(@Param("threeDaysAgo") LocalDate threeDaysAgo);
-}
\ No newline at end of file
+
+	// Emails já sem repetição: o cliente com vários livros atrasados recebe um único email.
+	@Query(value = "SELECT DISTINCT c.email FROM Loan as l JOIN l.customer as c WHERE l.loanDate <= :threeDaysAgo"
+			+ " AND ( l.returned is null or l.returned is false ) AND c.email is not null")
+	List<String> findCustomerEmailsByLoanDateLessThanAndNotReturned(@Param("threeDaysAgo") LocalDate threeDaysAgo);
+
+	// Clientes com empréstimos atrasados em ordem de id, em páginas a partir de lastId.
+	@Query(value = "SELECT DISTINCT c FROM Loan as l JOIN l.customer as c WHERE c.id > :lastId"
+			+ " AND l.loanDate <= :threeDaysAgo AND ( l.returned is null or l.returned is false )"
+			+ " AND c.email is not null ORDER BY c.id")
+	List<Customer> findLateCustomersAfter(@Param("lastId") Long lastId, @Param("threeDaysAgo") LocalDate threeDaysAgo,
+			Pageable pageable);
+
+	@Query(value = "SELECT COUNT(l) FROM Loan as l WHERE l.loanDate <= :threeDaysAgo"
+			+ " AND ( l.returned is null or l.returned is false )")
+	long countByLoanDateLessThanAndNotReturned(@Param("threeDaysAgo") LocalDate threeDaysAgo);
+
+	@Query(value = "SELECT l.book.id FROM Loan l WHERE l.book IN :books AND ( l.returned is null or l.returned is false )")
+	List<Long> findNotReturnedBookIds(@Param("books") Collection<Book> books);
+
+	@Query(value = "SELECT l FROM Loan as l JOIN FETCH l.book WHERE l.loanDate = :loanDate"
+			+ " AND ( l.returned is null or l.returned is false )")
+	List<Loan> findByLoanDateAndNotReturned(@Param("loanDate") LocalDate loanDate);
+
+	@Query(value = "SELECT l.book.id, COUNT(l.id) FROM Loan as l GROUP BY l.book.id")
+	List<Object[]> countLoansByBook();
+
+	@Query(value = "SELECT l.book.id FROM Loan as l GROUP BY l.book.id ORDER BY COUNT(l.id) DESC")
+	List<Long> findMostBorrowedBookIds(Pageable pageable);
+
+	// Nativas: o @Where de Loan esconde justamente os empréstimos de livros excluídos.
+	@Query(value = "SELECT l.id FROM loan l WHERE l.id_book IN (:bookIds) ORDER BY l.id", nativeQuery = true)
+	List<Number> findIdsByBookIds(@Param("bookIds") Collection<Long> bookIds, Pageable pageable);
+
+	@Modifying
+	@Query(value = "DELETE FROM loan WHERE id IN (:ids)", nativeQuery = true)
+	int deleteByIds(@Param("ids") Collection<Long> ids);
+}
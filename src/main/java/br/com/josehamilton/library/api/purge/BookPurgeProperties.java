@@ -0,0 +1,24 @@
+package br.com.josehamilton.library.api.purge;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.book-purge")
+public class BookPurgeProperties {
+
+	private boolean enabled = true;
+
+	// Intervalo entre execuções da limpeza, em ms (usado diretamente no @Scheduled).
+	private long interval = 60000;
+
+	// Livros ou empréstimos apagados por transação.
+	private int batchSize = 500;
+
+	// Espera entre dois lotes, para a limpeza não disputar o banco com as requisições.
+	private Duration pause = Duration.ofMillis(200);
+
+}
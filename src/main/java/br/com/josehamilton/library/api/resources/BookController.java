@@ -1,6 +1,8 @@
 package br.com.josehamilton.library.api.resources;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
@@ -11,25 +13,36 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.dtos.BookSuggestionDTO;
 import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.dtos.PageEnvelope;
 import br.com.josehamilton.library.api.model.entity.Book;
 import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.response.CachedResponse;
+import br.com.josehamilton.library.api.response.ResponseNegotiation;
+import br.com.josehamilton.library.api.search.SearchMode;
+import br.com.josehamilton.library.api.services.BookResponseCacheService;
 import br.com.josehamilton.library.api.services.BookService;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
 import br.com.josehamilton.library.api.services.LoanService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +57,8 @@ public class BookController {
 	private final BookService service;
 	private final ModelMapper modelMapper;
 	private final LoanService loanService;
+	private final BookSuggestionService suggestionService;
+	private final BookResponseCacheService responseCache;
 
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
@@ -60,13 +75,26 @@ public class BookController {
 	}
 
 	@GetMapping("{id}")
-	@ResponseStatus(HttpStatus.OK)
 	@ApiOperation("Obtains a book details by id.")
 	@ApiResponses({ @ApiResponse(code = 200, message = "Book succesfully finded.") })
-	public BookDTO get(@PathVariable Long id) {
+	public ResponseEntity<?> get(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
 		log.info("Obtaining details for book id: {}", id);
-		return service.getById(id).map(book -> modelMapper.map(book, BookDTO.class))
+		if (!ResponseNegotiation.prefersJson(headers.getAccept())) {
+			// CBOR e Smile seguem pelos conversores de mensagem.
+			return ResponseEntity
+					.ok(findBook(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+		}
+		CachedResponse response = responseCache.getJson(id, this::findBook)
 				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		// Com o tipo definido aqui os bytes vão direto para a resposta, sem passar pelo Jackson.
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+		if (response.getGzipBody() != null) {
+			builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			if (ResponseNegotiation.acceptsGzip(headers)) {
+				return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzipBody());
+			}
+		}
+		return builder.body(response.getBody());
 	}
 
 	@DeleteMapping("{id}")
@@ -94,32 +122,46 @@ public class BookController {
 	}
 
 	@GetMapping
-	@ApiOperation("Find books by params.")
+	@ApiOperation("Find books by params. FUZZY mode ranks books by title and author similarity.")
 	@ApiResponses({ @ApiResponse(code = 200, message = "Books succesfully finded.") })
-	public Page<BookDTO> find(BookDTO dto, Pageable pageRequest) {
+	public PageEnvelope<BookDTO> find(BookDTO dto, Pageable pageRequest,
+			@RequestParam(required = false) Set<String> fields,
+			@RequestParam(defaultValue = "EXACT") SearchMode mode) {
 		Book filter = modelMapper.map(dto, Book.class);
-		Page<Book> result = service.find(filter, pageRequest);
-		List<BookDTO> list = result.getContent().stream().map(entity -> modelMapper.map(entity, BookDTO.class))
-				.collect(Collectors.toList());
-		return new PageImpl<BookDTO>(list, pageRequest, result.getTotalElements());
+		Page<Book> result = mode == SearchMode.FUZZY ? service.findSimilar(filter, pageRequest)
+				: service.find(filter, pageRequest);
+		Page<BookDTO> page = result.map(entity -> modelMapper.map(entity, BookDTO.class));
+		return PageEnvelope.of(page, fields, BookDTO.FIELDS);
+	}
+
+	@GetMapping("suggest")
+	@ApiOperation("Suggests books whose title or author has a word starting with the given prefix.")
+	@ApiResponses({ @ApiResponse(code = 200, message = "Suggestions ordered by number of loans.") })
+	public List<BookSuggestionDTO> suggest(@RequestParam("q") String prefix,
+			@RequestParam(defaultValue = "10") int limit) {
+		return suggestionService.suggest(prefix, limit).stream()
+				.map(entry -> modelMapper.map(entry, BookSuggestionDTO.class)).collect(Collectors.toList());
 	}
 
 	@GetMapping("{id}/loans")
 	@ApiOperation("Find loans by book.")
 	@ApiResponses({ @ApiResponse(code = 200, message = "Loans succesfully finded.") })
-	public Page<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable) {
+	public PageEnvelope<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable,
+			@RequestParam(required = false) Set<String> fields) {
 		Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 		Page<Loan> result = loanService.getLoansByBook(book, pageable);
-		List<LoanDTO> list = result.getContent()
-				.stream()
-				.map(entity -> {
-					Book loanBook = entity.getBook();
-					BookDTO bookDTO = modelMapper.map(loanBook, BookDTO.class);
-					LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
-					loanDTO.setBook(bookDTO);
-					return loanDTO;
-				}).collect(Collectors.toList());
-		return new PageImpl<LoanDTO>(list, pageable, result.getTotalElements());
+		Page<LoanDTO> page = result.map(entity -> {
+			Book loanBook = entity.getBook();
+			BookDTO bookDTO = modelMapper.map(loanBook, BookDTO.class);
+			LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
+			loanDTO.setBook(bookDTO);
+			return loanDTO;
+		});
+		return PageEnvelope.of(page, fields, LoanDTO.FIELDS);
+	}
+
+	private Optional<BookDTO> findBook(Long id) {
+		return service.getReadOnlyById(id).map(book -> modelMapper.map(book, BookDTO.class));
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package br.com.josehamilton.library.api.resources;
+
+import java.util.Set;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.dtos.CustomerDTO;
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.dtos.PageEnvelope;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.services.CustomerService;
+import br.com.josehamilton.library.api.services.LoanService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+@Api("Customer API")
+public class CustomerController {
+
+	private final CustomerService service;
+	private final LoanService loanService;
+	private final ModelMapper modelMapper;
+
+	@GetMapping
+	@ApiOperation("Obtains a customer by email.")
+	@ApiResponses({ @ApiResponse(code = 200, message = "Customer succesfully obtained."),
+			@ApiResponse(code = 404, message = "Customer not found.") })
+	public CustomerDTO getByEmail(@RequestParam String email) {
+		return service.getByEmail(email).map(customer -> modelMapper.map(customer, CustomerDTO.class))
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+	}
+
+	@GetMapping("{id}/loans")
+	@ApiOperation("Find the loan history of a customer.")
+	@ApiResponses({ @ApiResponse(code = 200, message = "Loans succesfully finded.") })
+	public PageEnvelope<LoanDTO> loans(@PathVariable Long id, Pageable pageable,
+			@RequestParam(required = false) Set<String> fields) {
+		return loans(id, false, pageable, fields);
+	}
+
+	@GetMapping("{id}/loans/active")
+	@ApiOperation("Find the loans not yet returned by a customer.")
+	@ApiResponses({ @ApiResponse(code = 200, message = "Loans succesfully finded.") })
+	public PageEnvelope<LoanDTO> activeLoans(@PathVariable Long id, Pageable pageable,
+			@RequestParam(required = false) Set<String> fields) {
+		return loans(id, true, pageable, fields);
+	}
+
+	private PageEnvelope<LoanDTO> loans(Long id, boolean activeOnly, Pageable pageable, Set<String> fields) {
+		Customer customer = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		Page<Loan> result = loanService.getLoansByCustomer(customer, activeOnly, pageable);
+		Page<LoanDTO> page = result.map(entity -> {
+			LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
+			loanDTO.setBook(modelMapper.map(entity.getBook(), BookDTO.class));
+			return loanDTO;
+		});
+		return PageEnvelope.of(page, fields, LoanDTO.FIELDS);
+	}
+
+}
@@ -1,8 +1,7 @@
 package br.com.josehamilton.library.api.resources;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import javax.validation.Valid;
 
@@ -12,24 +11,35 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import br.com.josehamilton.library.api.dtos.BatchLoanDTO;
+import br.com.josehamilton.library.api.dtos.BatchLoanResultDTO;
 import br.com.josehamilton.library.api.dtos.BookDTO;
 import br.com.josehamilton.library.api.dtos.LoanDTO;
 import br.com.josehamilton.library.api.dtos.LoanFilterDTO;
+import br.com.josehamilton.library.api.dtos.PageEnvelope;
 import br.com.josehamilton.library.api.dtos.ReturnedLoanDTO;
+import br.com.josehamilton.library.api.events.LoanEventBroadcaster;
+import br.com.josehamilton.library.api.limiter.AdmissionPriority;
+import br.com.josehamilton.library.api.limiter.RequestPriority;
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
 import br.com.josehamilton.library.api.services.BookService;
 import br.com.josehamilton.library.api.services.LoanService;
@@ -45,41 +55,68 @@ public class LoanController {
 	private final BookService bookService;
 	private final ModelMapper modelMapper;
 
+	private final LoanEventBroadcaster events;
+
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
 	@ApiOperation("Creates a loan.")
 	@ApiResponses({ @ApiResponse(code = 201, message = "Loan succesfully created.") })
+	@AdmissionPriority(RequestPriority.CRITICAL)
 	public Long create(@RequestBody @Valid LoanDTO dto) {
 		Book book = bookService.getBookByIsbn(dto.getIsbn()).orElseThrow(
 				() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isbn."));
-		Loan entity = Loan.builder().book(book).customer(dto.getCustomer()).loanDate(LocalDate.now()).build();
+		Loan entity = Loan.builder().book(book).customer(Customer.of(dto.getCustomer(), dto.getEmail()))
+				.loanDate(LocalDate.now()).build();
 		entity = service.save(entity);
 		return entity.getId();
 	}
 
+	@PostMapping("batch")
+	@ApiOperation("Creates loans of several books for the same customer.")
+	@ApiResponses({ @ApiResponse(code = 201, message = "Loans succesfully created."),
+			@ApiResponse(code = 400, message = "No loan could be created.") })
+	@AdmissionPriority(RequestPriority.CRITICAL)
+	public ResponseEntity<BatchLoanResultDTO> createBatch(@RequestBody @Valid BatchLoanDTO dto) {
+		BatchLoanResultDTO result = service.saveAll(dto);
+		return ResponseEntity.status(result.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST)
+				.body(result);
+	}
+
 	@PatchMapping("{id}")
 	@ResponseStatus(HttpStatus.OK)
 	@ApiOperation("Returns a book.")
 	@ApiResponses({ @ApiResponse(code = 200, message = "Book succesfully returned.") })
+	@AdmissionPriority(RequestPriority.CRITICAL)
 	public void returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto) {
 		Loan loan = this.service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 		loan.setReturned(dto.getReturned());
 		this.service.update(loan);
 	}
 
+	@GetMapping(path = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ApiOperation("Streams loan created, returned and overdue events (Server-Sent Events).")
+	@ApiResponses({ @ApiResponse(code = 200, message = "Event stream opened."),
+			@ApiResponse(code = 503, message = "Too many open streams.") })
+	public SseEmitter events(@RequestParam(required = false) Set<String> isbn,
+			@RequestParam(required = false) Long customerId,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		return events.subscribe(isbn, customerId, lastEventId);
+	}
+
 	@GetMapping
 	@ApiOperation("Find loans by params.")
 	@ApiResponses({ @ApiResponse(code = 200, message = "Loan succesfully finded.") })
-	public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageRequest) {
+	public PageEnvelope<LoanDTO> find(LoanFilterDTO dto, Pageable pageRequest,
+			@RequestParam(required = false) Set<String> fields) {
 		Page<Loan> result = service.find(dto, pageRequest);
-		List<LoanDTO> loans = result.getContent().stream().map(entity -> {
+		Page<LoanDTO> loans = result.map(entity -> {
 			Book book = entity.getBook();
 			BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
 			LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
 			loanDTO.setBook(bookDTO);
 			return loanDTO;
-		}).collect(Collectors.toList());
-		return new PageImpl<LoanDTO>(loans, pageRequest, result.getTotalElements());
+		});
+		return PageEnvelope.of(loans, fields, LoanDTO.FIELDS);
 	}
 
 }
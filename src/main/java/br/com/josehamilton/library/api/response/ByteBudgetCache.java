@@ -0,0 +1,141 @@
+package br.com.josehamilton.library.api.response;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache LRU limitado pelo total de bytes dos valores, dividido em partes com
+ * locks próprios para que leituras concorrentes não disputem um único lock
+ * (cada leitura altera a ordem de acesso).
+ *
+ * Cada parte tem uma versão incrementada a cada invalidação: quem carrega um
+ * valor lê {@link #version(Object)} antes e o {@link #put} é ignorado se houve
+ * invalidação no meio, então um valor antigo não volta ao cache depois de
+ * invalidado.
+ */
+public class ByteBudgetCache<K, V> {
+
+	private static final int STRIPES = 16;
+
+	private final List<Stripe> stripes = new ArrayList<>(STRIPES);
+
+	private final ToLongFunction<V> weigher;
+
+	public ByteBudgetCache(long maxBytes, ToLongFunction<V> weigher) {
+		this.weigher = weigher;
+		for (int i = 0; i < STRIPES; i++) {
+			stripes.add(new Stripe(maxBytes / STRIPES));
+		}
+	}
+
+	public V get(K key) {
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			Entry<V> entry = stripe.entries.get(key);
+			return entry == null ? null : entry.value;
+		}
+	}
+
+	public long version(K key) {
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			return stripe.version;
+		}
+	}
+
+	/**
+	 * Guarda o valor se a parte da chave não foi invalidada desde
+	 * {@code version}. Valores maiores que uma parte não são guardados.
+	 */
+	public boolean put(K key, V value, long version) {
+		long weight = weigher.applyAsLong(value);
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			if (stripe.version != version || weight > stripe.maxBytes) {
+				return false;
+			}
+			Entry<V> previous = stripe.entries.put(key, new Entry<>(value, weight));
+			stripe.bytes += weight - (previous == null ? 0 : previous.weight);
+			Iterator<Entry<V>> eldest = stripe.entries.values().iterator();
+			while (stripe.bytes > stripe.maxBytes) {
+				stripe.bytes -= eldest.next().weight;
+				eldest.remove();
+				stripe.evictions++;
+			}
+			return true;
+		}
+	}
+
+	public void invalidate(K key) {
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			stripe.version++;
+			Entry<V> removed = stripe.entries.remove(key);
+			if (removed != null) {
+				stripe.bytes -= removed.weight;
+			}
+		}
+	}
+
+	public long bytes() {
+		return sum(stripe -> stripe.bytes);
+	}
+
+	public long size() {
+		return sum(stripe -> stripe.entries.size());
+	}
+
+	public long evictions() {
+		return sum(stripe -> stripe.evictions);
+	}
+
+	private long sum(ToLongFunction<Stripe> value) {
+		long total = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				total += value.applyAsLong(stripe);
+			}
+		}
+		return total;
+	}
+
+	private Stripe stripe(K key) {
+		int hash = key.hashCode();
+		return stripes.get((hash ^ (hash >>> 16)) & (STRIPES - 1));
+	}
+
+	private final class Stripe {
+
+		private final long maxBytes;
+
+		// Ordem de acesso: o primeiro é o menos usado recentemente.
+		private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		private long bytes;
+
+		private long version;
+
+		private long evictions;
+
+		private Stripe(long maxBytes) {
+			this.maxBytes = maxBytes;
+		}
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+
+		private final long weight;
+
+		private Entry(V value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package br.com.josehamilton.library.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Corpo de resposta já serializado, com a versão compactada quando ela
+ * compensa (null caso contrário).
+ */
+@Getter
+@AllArgsConstructor
+public class CachedResponse {
+
+	// Referências, cabeçalhos dos arrays e entrada do mapa.
+	private static final int OVERHEAD = 96;
+
+	private final byte[] body;
+
+	private final byte[] gzipBody;
+
+	public long bytes() {
+		return OVERHEAD + body.length + (gzipBody == null ? 0 : gzipBody.length);
+	}
+
+}
@@ -0,0 +1,20 @@
+package br.com.josehamilton.library.api.response;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.response-cache")
+public class ResponseCacheProperties {
+
+	// Desligado, as respostas continuam sendo escritas a partir dos bytes, sem guardá-los.
+	private boolean enabled = true;
+
+	// Total de bytes das respostas guardadas.
+	private long maxBytes = 64L * 1024 * 1024;
+
+	// Respostas menores que isso não são compactadas; o gzip de um JSON pequeno fica maior que ele.
+	private int gzipMinSize = 1024;
+
+}
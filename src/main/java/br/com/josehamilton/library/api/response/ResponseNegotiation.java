@@ -0,0 +1,62 @@
+package br.com.josehamilton.library.api.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+/**
+ * Negociação das respostas escritas a partir de bytes prontos, que não passam
+ * pelos conversores de mensagem.
+ */
+public final class ResponseNegotiation {
+
+	private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	private ResponseNegotiation() {
+	}
+
+	/**
+	 * Verdadeiro quando os conversores escolheriam JSON: o JSON vem antes de
+	 * CBOR e Smile, então vale o primeiro tipo aceito, em ordem de preferência,
+	 * que seja compatível com algum deles.
+	 */
+	public static boolean prefersJson(List<MediaType> accept) {
+		if (accept.isEmpty()) {
+			return true;
+		}
+		List<MediaType> sorted = new ArrayList<>(accept);
+		MediaType.sortBySpecificityAndQuality(sorted);
+		for (MediaType type : sorted) {
+			if (type.getQualityValue() == 0) {
+				continue;
+			}
+			if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+				return true;
+			}
+			if (type.isCompatibleWith(CBOR) || type.isCompatibleWith(SMILE)) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	public static boolean acceptsGzip(HttpHeaders headers) {
+		for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+			for (String coding : StringUtils.commaDelimitedListToStringArray(value)) {
+				String[] parts = coding.trim().split(";");
+				String name = parts[0].trim();
+				boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+				if (("gzip".equalsIgnoreCase(name) || "*".equals(name)) && !refused) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,66 @@
+package br.com.josehamilton.library.api.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import br.com.josehamilton.library.api.transaction.TransactionCallbacks;
+
+/**
+ * Índice em memória mantido por alterações incrementais e substituído por
+ * inteiro nas reconstruções.
+ *
+ * Alterações feitas dentro de uma transação só são aplicadas depois do
+ * commit. Alterações recebidas durante uma reconstrução são aplicadas também
+ * ao novo índice antes de ele substituir o atual, por isso precisam poder ser
+ * repetidas (um empréstimo já lido pela reconstrução pode ser contado duas
+ * vezes, o que só afeta a ordenação das sugestões).
+ */
+public class LiveIndex<T> {
+
+	private final Object changes = new Object();
+
+	private volatile T index;
+
+	// Alterações recebidas durante a reconstrução; null fora dela.
+	private List<Consumer<T>> pending;
+
+	public LiveIndex(T index) {
+		this.index = index;
+	}
+
+	public T get() {
+		return index;
+	}
+
+	public void apply(Consumer<T> change) {
+		TransactionCallbacks.afterCommit(() -> {
+			synchronized (changes) {
+				change.accept(index);
+				if (pending != null) {
+					pending.add(change);
+				}
+			}
+		});
+	}
+
+	public synchronized T rebuild(Supplier<T> builder) {
+		synchronized (changes) {
+			pending = new ArrayList<>();
+		}
+		try {
+			T built = builder.get();
+			synchronized (changes) {
+				pending.forEach(change -> change.accept(built));
+				index = built;
+			}
+			return built;
+		} finally {
+			synchronized (changes) {
+				pending = null;
+			}
+		}
+	}
+
+}
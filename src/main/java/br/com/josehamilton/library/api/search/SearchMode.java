@@ -0,0 +1,9 @@
+package br.com.josehamilton.library.api.search;
+
+/**
+ * Modo de busca de livros por título e autor: trecho exato (LIKE no banco) ou
+ * aproximado pelo {@link TrigramIndex}.
+ */
+public enum SearchMode {
+	EXACT, FUZZY
+}
@@ -0,0 +1,23 @@
+package br.com.josehamilton.library.api.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.search")
+public class SearchProperties {
+
+	// Fração mínima dos trigramas da busca que o título ou autor precisa conter.
+	private double threshold = 0.5;
+
+	// Máximo de livros ordenados por similaridade em uma busca aproximada.
+	private int maxResults = 1000;
+
+	// Threads usadas na reconstrução do índice.
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	// Livros lidos do banco por consulta durante a reconstrução.
+	private int pageSize = 1000;
+
+}
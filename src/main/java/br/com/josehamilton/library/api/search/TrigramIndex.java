@@ -0,0 +1,394 @@
+package br.com.josehamilton.library.api.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import br.com.josehamilton.library.api.suggest.PrefixIndex;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Índice de trigramas sobre títulos e autores para busca tolerante a erros de
+ * digitação.
+ *
+ * Cada palavra normalizada é completada com dois espaços antes e um depois
+ * ("  tolkien ") e quebrada em sequências de três caracteres. Para cada
+ * trigrama e campo é mantida a lista ordenada dos livros (slots) que o contêm.
+ * A consulta conta quantos trigramas da busca cada livro tem e a nota do campo
+ * é a fração dos trigramas da busca encontrados; o desempate é a similaridade
+ * completa (trigramas em comum sobre trigramas distintos dos dois textos).
+ *
+ * Os trigramas de cada slot são guardados, então alterar ou remover um livro
+ * mexe só nas listas dos seus trigramas. Slots liberados são reaproveitados
+ * pelas próximas inclusões (inseridos na posição certa de cada lista), e
+ * salvar um livro sem alterar título e autor não muda nada.
+ */
+public class TrigramIndex {
+
+	public enum Field {
+		TITLE, AUTHOR
+	}
+
+	// Abaixo deste número de livros a construção não é mais dividida entre tarefas.
+	private static final int BUILD_CHUNK = 4096;
+
+	private static final long[] NO_GRAMS = new long[0];
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Chave: trigrama (3 x 16 bits) com o campo no bit 48.
+	private Map<Long, Postings> postings = new HashMap<>();
+
+	private final Map<Long, Integer> slots = new HashMap<>();
+
+	private long[] ids = new long[16];
+
+	// Trigramas distintos de cada campo, por slot.
+	private long[][][] terms = { new long[16][], new long[16][] };
+
+	// Slots liberados por livros alterados ou removidos, reaproveitados antes de crescer.
+	private int[] free = new int[16];
+
+	private int freeCount;
+
+	private int size;
+
+	/**
+	 * Monta o índice com um {@link RecursiveTask} que divide os livros em
+	 * faixas: cada faixa gera seu próprio mapa de trigramas e os mapas são
+	 * concatenados na volta, já que as faixas da esquerda têm slots menores.
+	 */
+	public static TrigramIndex build(List<Entry> entries, ForkJoinPool pool) {
+		TrigramIndex index = new TrigramIndex();
+		for (Entry entry : entries) {
+			index.allocate(entry.getId());
+		}
+		index.postings = pool.invoke(new BuildTask(index, entries, 0, entries.size()));
+		index.postings.values().forEach(Postings::trim);
+		return index;
+	}
+
+	/**
+	 * Trigramas distintos e ordenados do texto normalizado.
+	 */
+	public static long[] trigrams(String text) {
+		String normalized = PrefixIndex.normalize(text);
+		if (normalized.isEmpty()) {
+			return NO_GRAMS;
+		}
+		long[] result = new long[normalized.length() * 3];
+		int count = 0;
+		for (String word : normalized.split(" ")) {
+			String padded = "  " + word + " ";
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				result[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16)
+						| padded.charAt(i + 2);
+			}
+		}
+		Arrays.sort(result, 0, count);
+		int distinct = 0;
+		for (int i = 0; i < count; i++) {
+			if (distinct == 0 || result[distinct - 1] != result[i]) {
+				result[distinct++] = result[i];
+			}
+		}
+		return Arrays.copyOf(result, distinct);
+	}
+
+	/**
+	 * Livros cujo título e autor (os informados) têm pelo menos
+	 * {@code threshold} dos trigramas da busca, do mais para o menos parecido.
+	 */
+	public List<Match> search(String title, String author, double threshold, int limit) {
+		long[][] queries = { trigrams(title), trigrams(author) };
+		lock.readLock().lock();
+		try {
+			// Trigramas da busca presentes em cada livro, por campo (null para campo não buscado).
+			short[][] shared = new short[2][];
+			for (Field field : Field.values()) {
+				if (queries[field.ordinal()].length > 0) {
+					shared[field.ordinal()] = count(field, queries[field.ordinal()]);
+				}
+			}
+			if (shared[0] == null && shared[1] == null) {
+				return Collections.emptyList();
+			}
+			List<Match> matches = new ArrayList<>();
+			for (int slot = 0; slot < size; slot++) {
+				double score = 0;
+				double similarity = 0;
+				int fields = 0;
+				for (Field field : Field.values()) {
+					short[] counts = shared[field.ordinal()];
+					if (counts == null) {
+						continue;
+					}
+					int query = queries[field.ordinal()].length;
+					double fraction = (double) counts[slot] / query;
+					if (counts[slot] == 0 || fraction < threshold) {
+						fields = 0;
+						break;
+					}
+					score += fraction;
+					similarity += (double) counts[slot]
+							/ (query + terms[field.ordinal()][slot].length - counts[slot]);
+					fields++;
+				}
+				if (fields > 0) {
+					matches.add(new Match(ids[slot], score / fields, similarity / fields));
+				}
+			}
+			matches.sort(Comparator.comparingDouble(Match::getScore).reversed()
+					.thenComparing(Comparator.comparingDouble(Match::getSimilarity).reversed())
+					.thenComparingLong(Match::getId));
+			return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void put(long id, String title, String author) {
+		long[] titleGrams = trigrams(title);
+		long[] authorGrams = trigrams(author);
+		lock.writeLock().lock();
+		try {
+			Integer current = slots.get(id);
+			if (current != null && Arrays.equals(terms[Field.TITLE.ordinal()][current], titleGrams)
+					&& Arrays.equals(terms[Field.AUTHOR.ordinal()][current], authorGrams)) {
+				return;
+			}
+			unlink(id);
+			int slot = allocate(id);
+			index(slot, Field.TITLE, titleGrams, postings);
+			index(slot, Field.AUTHOR, authorGrams, postings);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			unlink(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slots.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Slots livres, à espera de uma inclusão; a busca ainda percorre esses slots.
+	public int deadSlots() {
+		lock.readLock().lock();
+		try {
+			return freeCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int trigramCount() {
+		lock.readLock().lock();
+		try {
+			return postings.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private int allocate(long id) {
+		int slot;
+		if (freeCount > 0) {
+			slot = free[--freeCount];
+		} else {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				terms[0] = Arrays.copyOf(terms[0], size * 2);
+				terms[1] = Arrays.copyOf(terms[1], size * 2);
+			}
+			slot = size++;
+		}
+		ids[slot] = id;
+		slots.put(id, slot);
+		return slot;
+	}
+
+	private void index(int slot, Field field, long[] trigrams, Map<Long, Postings> target) {
+		terms[field.ordinal()][slot] = trigrams;
+		for (long gram : trigrams) {
+			target.computeIfAbsent(key(field, gram), k -> new Postings()).add(slot);
+		}
+	}
+
+	private void unlink(long id) {
+		Integer slot = slots.remove(id);
+		if (slot == null) {
+			return;
+		}
+		for (Field field : Field.values()) {
+			for (long gram : terms[field.ordinal()][slot]) {
+				Long key = key(field, gram);
+				Postings list = postings.get(key);
+				if (list != null && list.remove(slot) && list.size == 0) {
+					postings.remove(key);
+				}
+			}
+			terms[field.ordinal()][slot] = NO_GRAMS;
+		}
+		ids[slot] = -1;
+		if (freeCount == free.length) {
+			free = Arrays.copyOf(free, freeCount * 2);
+		}
+		free[freeCount++] = slot;
+	}
+
+	private short[] count(Field field, long[] query) {
+		short[] counts = new short[size];
+		for (long gram : query) {
+			Postings list = postings.get(key(field, gram));
+			if (list != null) {
+				for (int i = 0; i < list.size; i++) {
+					counts[list.slots[i]]++;
+				}
+			}
+		}
+		return counts;
+	}
+
+	private static Long key(Field field, long gram) {
+		return ((long) field.ordinal() << 48) | gram;
+	}
+
+	private static final class BuildTask extends RecursiveTask<Map<Long, Postings>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient TrigramIndex index;
+
+		private final transient List<Entry> entries;
+
+		private final int from;
+
+		private final int to;
+
+		private BuildTask(TrigramIndex index, List<Entry> entries, int from, int to) {
+			this.index = index;
+			this.entries = entries;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Map<Long, Postings> compute() {
+			if (to - from <= BUILD_CHUNK) {
+				Map<Long, Postings> local = new HashMap<>();
+				for (int slot = from; slot < to; slot++) {
+					Entry entry = entries.get(slot);
+					index.index(slot, Field.TITLE, trigrams(entry.getTitle()), local);
+					index.index(slot, Field.AUTHOR, trigrams(entry.getAuthor()), local);
+				}
+				return local;
+			}
+			int middle = (from + to) >>> 1;
+			BuildTask left = new BuildTask(index, entries, from, middle);
+			left.fork();
+			Map<Long, Postings> right = new BuildTask(index, entries, middle, to).compute();
+			Map<Long, Postings> merged = left.join();
+			right.forEach((key, list) -> merged.merge(key, list, Postings::append));
+			return merged;
+		}
+	}
+
+	// Lista crescente de slots.
+	private static final class Postings {
+
+		private int[] slots = new int[4];
+
+		private int size;
+
+		// Na construção os slots chegam em ordem; um slot reaproveitado é inserido no meio.
+		private void add(int slot) {
+			int position = size > 0 && slots[size - 1] >= slot ? Arrays.binarySearch(slots, 0, size, slot)
+					: -size - 1;
+			if (position >= 0) {
+				return;
+			}
+			position = -position - 1;
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+			}
+			System.arraycopy(slots, position, slots, position + 1, size - position);
+			slots[position] = slot;
+			size++;
+		}
+
+		private boolean remove(int slot) {
+			int position = Arrays.binarySearch(slots, 0, size, slot);
+			if (position < 0) {
+				return false;
+			}
+			System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+			size--;
+			return true;
+		}
+
+		private Postings append(Postings other) {
+			if (size + other.size > slots.length) {
+				slots = Arrays.copyOf(slots, size + other.size);
+			}
+			System.arraycopy(other.slots, 0, slots, size, other.size);
+			size += other.size;
+			return this;
+		}
+
+		private void trim() {
+			if (slots.length > size) {
+				slots = Arrays.copyOf(slots, size);
+			}
+		}
+	}
+
+	@Data
+	@Builder
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Entry {
+
+		private long id;
+
+		private String title;
+
+		private String author;
+	}
+
+	@Data
+	@AllArgsConstructor
+	public static class Match {
+
+		private long id;
+
+		// Média, entre os campos buscados, da fração dos trigramas da busca presentes no campo.
+		private double score;
+
+		private double similarity;
+	}
+
+}
@@ -0,0 +1,50 @@
+package br.com.josehamilton.library.api.serialization;
+
+import static br.com.josehamilton.library.api.serialization.PageEnvelopeSerializer.isSelected;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+
+@JsonComponent
+public class BookDTOSerializer extends StdSerializer<BookDTO> {
+
+	private static final long serialVersionUID = 1L;
+
+	public BookDTOSerializer() {
+		super(BookDTO.class);
+	}
+
+	@Override
+	public void serialize(BookDTO book, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject();
+		if (isSelected(provider, "id")) {
+			writeNumberField(gen, "id", book.getId());
+		}
+		if (isSelected(provider, "title")) {
+			gen.writeStringField("title", book.getTitle());
+		}
+		if (isSelected(provider, "author")) {
+			gen.writeStringField("author", book.getAuthor());
+		}
+		if (isSelected(provider, "isbn")) {
+			gen.writeStringField("isbn", book.getIsbn());
+		}
+		gen.writeEndObject();
+	}
+
+	static void writeNumberField(JsonGenerator gen, String name, Long value) throws IOException {
+		if (value == null) {
+			gen.writeNullField(name);
+		} else {
+			gen.writeNumberField(name, value);
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package br.com.josehamilton.library.api.serialization;
+
+import static br.com.josehamilton.library.api.serialization.PageEnvelopeSerializer.FIELDS_ATTRIBUTE;
+import static br.com.josehamilton.library.api.serialization.PageEnvelopeSerializer.isSelected;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+
+@JsonComponent
+public class LoanDTOSerializer extends StdSerializer<LoanDTO> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final BookDTOSerializer bookSerializer = new BookDTOSerializer();
+
+	public LoanDTOSerializer() {
+		super(LoanDTO.class);
+	}
+
+	@Override
+	public void serialize(LoanDTO loan, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject();
+		if (isSelected(provider, "id")) {
+			BookDTOSerializer.writeNumberField(gen, "id", loan.getId());
+		}
+		if (isSelected(provider, "isbn")) {
+			gen.writeStringField("isbn", loan.getIsbn());
+		}
+		if (isSelected(provider, "customer")) {
+			gen.writeStringField("customer", loan.getCustomer());
+		}
+		if (isSelected(provider, "email")) {
+			gen.writeStringField("email", loan.getEmail());
+		}
+		if (isSelected(provider, "book")) {
+			gen.writeFieldName("book");
+			if (loan.getBook() == null) {
+				gen.writeNull();
+			} else {
+				// O livro do empréstimo é sempre escrito completo.
+				Object fields = provider.getAttribute(FIELDS_ATTRIBUTE);
+				provider.setAttribute(FIELDS_ATTRIBUTE, null);
+				bookSerializer.serialize(loan.getBook(), gen, provider);
+				provider.setAttribute(FIELDS_ATTRIBUTE, fields);
+			}
+		}
+		gen.writeEndObject();
+	}
+
+}
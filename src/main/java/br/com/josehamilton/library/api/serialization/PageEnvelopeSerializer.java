@@ -0,0 +1,54 @@
+package br.com.josehamilton.library.api.serialization;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import br.com.josehamilton.library.api.dtos.PageEnvelope;
+
+@JsonComponent
+@SuppressWarnings("rawtypes")
+public class PageEnvelopeSerializer extends StdSerializer<PageEnvelope> {
+
+	private static final long serialVersionUID = 1L;
+
+	// Atributo lido pelos serializadores dos itens para aplicar o parâmetro "fields".
+	public static final String FIELDS_ATTRIBUTE = PageEnvelopeSerializer.class.getName() + ".fields";
+
+	public PageEnvelopeSerializer() {
+		super(PageEnvelope.class);
+	}
+
+	@Override
+	public void serialize(PageEnvelope envelope, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject();
+		gen.writeNumberField("version", PageEnvelope.VERSION);
+		gen.writeNumberField("page", envelope.getPage());
+		gen.writeNumberField("size", envelope.getSize());
+		gen.writeNumberField("totalElements", envelope.getTotalElements());
+		gen.writeNumberField("totalPages", envelope.getTotalPages());
+		gen.writeArrayFieldStart("content");
+		Set<?> fields = envelope.getFields();
+		provider.setAttribute(FIELDS_ATTRIBUTE, fields.isEmpty() ? null : fields);
+		try {
+			for (Object item : envelope.getContent()) {
+				provider.findValueSerializer(item.getClass()).serialize(item, gen, provider);
+			}
+		} finally {
+			provider.setAttribute(FIELDS_ATTRIBUTE, null);
+		}
+		gen.writeEndArray();
+		gen.writeEndObject();
+	}
+
+	static boolean isSelected(SerializerProvider provider, String field) {
+		Set<?> fields = (Set<?>) provider.getAttribute(FIELDS_ATTRIBUTE);
+		return fields == null || fields.contains(field);
+	}
+
+}
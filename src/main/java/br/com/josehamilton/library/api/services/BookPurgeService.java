@@ -0,0 +1,10 @@
+package br.com.josehamilton.library.api.services;
+
+public interface BookPurgeService {
+
+	/**
+	 * Apaga do banco os livros excluídos logicamente e os empréstimos deles,
+	 * em lotes. Retorna o número de livros apagados.
+	 */
+	int purge();
+}
@@ -0,0 +1,22 @@
+package br.com.josehamilton.library.api.services;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.response.CachedResponse;
+
+public interface BookResponseCacheService {
+
+	/**
+	 * Resposta JSON do livro pronta para escrita. Na falta dela o livro é obtido
+	 * pelo loader, serializado e guardado; vazio quando o livro não existe.
+	 */
+	Optional<CachedResponse> getJson(Long id, Function<Long, Optional<BookDTO>> loader);
+
+	/**
+	 * Descarta a resposta do livro depois do commit da transação atual.
+	 */
+	void bookChanged(Book book);
+}
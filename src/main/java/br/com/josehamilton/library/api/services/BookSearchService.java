@@ -0,0 +1,17 @@
+package br.com.josehamilton.library.api.services;
+
+import java.util.List;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.search.TrigramIndex;
+
+public interface BookSearchService {
+
+	List<TrigramIndex.Match> search(String title, String author);
+
+	void bookSaved(Book book);
+
+	void bookDeleted(Book book);
+
+	void rebuild();
+}
@@ -13,11 +13,23 @@ public interface BookService {
 
 	Optional<Book> getById(Long id);
 
+	/**
+	 * Livro somente para leitura: vem do snapshot do catálogo quando ele está
+	 * pronto e não é gerenciado pelo JPA.
+	 */
+	Optional<Book> getReadOnlyById(Long id);
+
+	/**
+	 * Marca o livro como excluído; ele e seus empréstimos deixam de aparecer
+	 * nas consultas e são apagados do banco em segundo plano.
+	 */
 	void delete(Book book);
 
 	Book update(Book book);
 
 	Page<Book> find(Book filter, Pageable pageRequest);
 
+	Page<Book> findSimilar(Book filter, Pageable pageRequest);
+
 	Optional<Book> getBookByIsbn(String isbn);
 }
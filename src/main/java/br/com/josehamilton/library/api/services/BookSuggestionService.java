@@ -0,0 +1,19 @@
+package br.com.josehamilton.library.api.services;
+
+import java.util.List;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.suggest.PrefixIndex;
+
+public interface BookSuggestionService {
+
+	List<PrefixIndex.Entry> suggest(String prefix, int limit);
+
+	void bookSaved(Book book);
+
+	void bookDeleted(Book book);
+
+	void bookBorrowed(Book book);
+
+	void rebuild();
+}
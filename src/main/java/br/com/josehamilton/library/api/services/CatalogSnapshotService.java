@@ -0,0 +1,27 @@
+package br.com.josehamilton.library.api.services;
+
+import java.util.Optional;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+
+public interface CatalogSnapshotService {
+
+	/**
+	 * Verdadeiro quando há um snapshot aberto; até lá as leituras devem ir ao
+	 * banco.
+	 */
+	boolean isReady();
+
+	/**
+	 * Livro do snapshot com as alterações posteriores a ele. Só pode ser
+	 * chamado com {@link #isReady()}; o livro não é gerenciado pelo JPA e não
+	 * deve ser alterado.
+	 */
+	Optional<Book> getById(Long id);
+
+	void bookSaved(Book book);
+
+	void bookDeleted(Book book);
+
+	void regenerate();
+}
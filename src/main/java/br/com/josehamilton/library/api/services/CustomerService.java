@@ -0,0 +1,15 @@
+package br.com.josehamilton.library.api.services;
+
+import java.util.Optional;
+
+import br.com.josehamilton.library.api.model.entity.Customer;
+
+public interface CustomerService {
+
+	Customer getOrCreate(String name, String email);
+
+	Optional<Customer> getById(Long id);
+
+	Optional<Customer> getByEmail(String email);
+
+}
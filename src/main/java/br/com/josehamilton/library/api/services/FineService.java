@@ -0,0 +1,13 @@
+package br.com.josehamilton.library.api.services;
+
+import java.time.LocalDate;
+
+public interface FineService {
+
+	/**
+	 * Grava as multas dos empréstimos atrasados pelos dias ainda não multados
+	 * até a data informada. Pode ser repetido ou retomado depois de uma falha
+	 * sem cobrar o mesmo dia duas vezes. Retorna o número de multas gravadas.
+	 */
+	int computeFines(LocalDate date);
+}
@@ -0,0 +1,23 @@
+package br.com.josehamilton.library.api.services;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import br.com.josehamilton.library.api.jfr.RecordingProfile;
+import jdk.jfr.Recording;
+
+public interface FlightRecorderService {
+
+	Recording start(RecordingProfile profile, Duration duration);
+
+	List<Recording> getRecordings();
+
+	Optional<Recording> getById(Long id);
+
+	Path dump(Recording recording);
+
+	Path stop(Recording recording);
+
+}
@@ -0,0 +1,14 @@
+package br.com.josehamilton.library.api.services;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+
+public interface IsbnFilterService {
+
+	boolean exists(String isbn);
+
+	void bookSaved(Book book);
+
+	void bookDeleted(Book book);
+
+	void rebuild();
+}
@@ -0,0 +1,18 @@
+package br.com.josehamilton.library.api.services;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+
+public interface IsbnIndexService {
+
+	/**
+	 * Id do livro com o ISBN-13 informado ou LongLongHashMap.MISSING quando o
+	 * índice não o conhece (ou ainda não foi montado).
+	 */
+	long findBookId(long isbnKey);
+
+	void bookSaved(Book book);
+
+	void bookDeleted(Book book);
+
+	void rebuild();
+}
@@ -0,0 +1,37 @@
+package br.com.josehamilton.library.api.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+
+public interface JobService {
+
+	List<String> getJobNames();
+
+	Optional<JobExecution> getLastExecution(String jobName);
+
+	List<JobExecution> getExecutions(String jobName);
+
+	/**
+	 * Executa o job na thread atual e retorna a execução encerrada. Retoma a
+	 * última execução da mesma chave se ela falhou ou foi parada. Vazio se o job
+	 * já estiver rodando.
+	 *
+	 * @throws IllegalArgumentException se o job não existir
+	 */
+	Optional<JobExecution> run(String jobName);
+
+	/**
+	 * Como {@link #run(String)}, mas executa no bulkhead BATCH e retorna a
+	 * execução assim que ela é criada ou retomada.
+	 */
+	Optional<JobExecution> launch(String jobName);
+
+	/**
+	 * Pede a parada da execução em andamento: os chunks em processamento são
+	 * gravados e a execução fica STOPPED, pronta para ser retomada. Retorna a
+	 * última execução do job.
+	 */
+	Optional<JobExecution> stop(String jobName);
+}
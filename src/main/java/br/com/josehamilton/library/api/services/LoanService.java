@@ -6,14 +6,25 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import br.com.josehamilton.library.api.dtos.BatchLoanDTO;
+import br.com.josehamilton.library.api.dtos.BatchLoanResultDTO;
 import br.com.josehamilton.library.api.dtos.LoanFilterDTO;
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
 
 public interface LoanService {
 
 	Loan save(Loan loan);
 
+	/**
+	 * Executa as consultas do cadastro de empréstimo (disponibilidade do livro
+	 * e cliente pelo email) sem gravar nada.
+	 */
+	void validate(Loan loan);
+
+	BatchLoanResultDTO saveAll(BatchLoanDTO batch);
+
 	Optional<Loan> getById(Long id);
 
 	Loan update(Loan loan);
@@ -22,5 +33,17 @@ public interface LoanService {
 
 	Page<Loan> getLoansByBook(Book book, Pageable pageable);
 
+	Page<Loan> getLoansByCustomer(Customer customer, boolean activeOnly, Pageable pageable);
+
 	List<Loan> getAllLateLoans();
+
+	List<String> getLateLoansCustomerEmails();
+
+	List<Customer> getLateLoansCustomers(Long lastId, int limit);
+
+	long countLateLoans();
+
+	int publishOverdueLoans();
+
+	List<Long> getMostBorrowedBookIds(int limit);
 }
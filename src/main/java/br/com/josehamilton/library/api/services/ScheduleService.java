@@ -1,36 +1,28 @@
 package br.com.josehamilton.library.api.services;
 
-import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.batch.LateLoansMailJob;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Service
+@Lazy(false) // O job só é agendado quando o bean é criado, mesmo com inicialização lazy
 @EnableScheduling
 @RequiredArgsConstructor
 public class ScheduleService {
 
     private final static String CRON_LATE_LOANS = "0 0 0 1/1 * ?";
 
-    @Value("${application.mail.lateloans.message}")
-    private String message;
-
-    private final LoanService loanService;
-    private final EmailService emailService;
+    // Proxy lazy: o agendamento não obriga a criação do JPA e do envio de email na inicialização
+    @Lazy
+    private final JobService jobService;
 
+    // O job roda em chunks no pool do bulkhead BATCH (ver LateLoansMailJob); se já estiver rodando, nada é feito
     @Scheduled(cron = CRON_LATE_LOANS)
     public void sendMailToLateLoans() {
-        List<Loan> allLateLoans = loanService.getAllLateLoans();
-        List<String> mailList = allLateLoans.stream()
-                .map(loan -> loan.getCustomerEmail())
-                .collect(Collectors.toList());
-
-        emailService.sendMails(message, mailList);
+        jobService.launch(LateLoansMailJob.NAME);
     }
 
-}
\ No newline at end of file
+}
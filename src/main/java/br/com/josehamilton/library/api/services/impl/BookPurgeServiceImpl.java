@@ -0,0 +1,200 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.bulkhead.Workload;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+import br.com.josehamilton.library.api.purge.BookPurgeProperties;
+import br.com.josehamilton.library.api.services.BookPurgeService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limpeza dos livros excluídos logicamente (deleted_at preenchido pelo
+ * {@code @SQLDelete} de Book): a exclusão pela API só marca o livro, e esta
+ * limpeza apaga depois os empréstimos dele e a própria linha.
+ *
+ * <ul>
+ * <li>Cada lote de {@code batch-size} empréstimos ou livros é apagado na sua
+ * própria transação, pelo banco principal, com {@code pause} entre os lotes;
+ * a execução roda no bulkhead BATCH.</li>
+ * <li>Os livros são percorridos por id a partir do último lote. Um livro que
+ * recebeu um empréstimo depois de excluído fica para a execução seguinte.</li>
+ * <li>Livros pendentes e o atraso do mais antigo deles são atualizados a cada
+ * execução (book.purge.pending e book.purge.lag).</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@Lazy(false) // A limpeza só é agendada quando o bean é criado, mesmo com inicialização lazy
+@EnableConfigurationProperties(BookPurgeProperties.class)
+public class BookPurgeServiceImpl implements BookPurgeService, MeterBinder {
+
+	private final BookPurgeProperties properties;
+
+	private final BookRepository bookRepository;
+
+	private final LoanRepository loanRepository;
+
+	private final BulkheadRegistry bulkheadRegistry;
+
+	// Transações de escrita: as leituras vão para o banco principal, nunca para a réplica.
+	private final TransactionTemplate transactionTemplate;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final AtomicLong purgedBooks = new AtomicLong();
+
+	private final AtomicLong purgedLoans = new AtomicLong();
+
+	private final AtomicLong pending = new AtomicLong();
+
+	private volatile LocalDateTime oldestDeletedAt;
+
+	// Proxies lazy: o agendamento não obriga a criação do JPA na inicialização
+	public BookPurgeServiceImpl(BookPurgeProperties properties, @Lazy BookRepository bookRepository,
+			@Lazy LoanRepository loanRepository, BulkheadRegistry bulkheadRegistry,
+			@Lazy PlatformTransactionManager transactionManager) {
+		this.properties = properties;
+		this.bookRepository = bookRepository;
+		this.loanRepository = loanRepository;
+		this.bulkheadRegistry = bulkheadRegistry;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(initialDelayString = "${application.book-purge.interval:60000}",
+			fixedDelayString = "${application.book-purge.interval:60000}")
+	public void scheduledPurge() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		try {
+			bulkheadRegistry.get(Workload.BATCH).execute(() -> {
+				try {
+					purge();
+				} catch (RuntimeException e) {
+					// O que sobrou é apagado na próxima execução.
+					log.warn("Book purge failed", e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			log.debug("Book purge skipped: batch bulkhead is full");
+		}
+	}
+
+	@Override
+	public int purge() {
+		// O agendamento não espera a execução no bulkhead: uma execução por vez.
+		if (!running.compareAndSet(false, true)) {
+			return 0;
+		}
+		try {
+			long start = System.nanoTime();
+			refreshProgress();
+			int books = 0;
+			int loans = 0;
+			Long lastId = 0L;
+			List<Long> ids;
+			do {
+				Long after = lastId;
+				ids = transactionTemplate.execute(status -> toLongs(
+						bookRepository.findDeletedIdsAfter(after, PageRequest.of(0, properties.getBatchSize()))));
+				if (ids.isEmpty()) {
+					break;
+				}
+				lastId = ids.get(ids.size() - 1);
+				loans += purgeLoans(ids);
+				List<Long> batch = ids;
+				int purged = transactionTemplate.execute(status -> bookRepository.purgeDeleted(batch));
+				books += purged;
+				purgedBooks.addAndGet(purged);
+			} while (ids.size() == properties.getBatchSize() && pause());
+			refreshProgress();
+			if (books > 0 || loans > 0) {
+				log.info("Purged {} deleted books and {} loans in {} ms, {} books pending", books, loans,
+						(System.nanoTime() - start) / 1_000_000, pending.get());
+			}
+			return books;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("book.purge.deleted", purgedBooks, AtomicLong::get).tag("type", "book")
+				.description("Deleted books removed from the database").register(registry);
+		FunctionCounter.builder("book.purge.deleted", purgedLoans, AtomicLong::get).tag("type", "loan")
+				.description("Loans of deleted books removed from the database").register(registry);
+		Gauge.builder("book.purge.pending", pending, AtomicLong::get)
+				.description("Deleted books still in the database at the last purge").register(registry);
+		Gauge.builder("book.purge.lag", this, BookPurgeServiceImpl::lagSeconds)
+				.description("Seconds since the oldest deleted book still in the database was deleted")
+				.baseUnit("seconds").register(registry);
+	}
+
+	// Empréstimos dos livros do lote, também em lotes.
+	private int purgeLoans(List<Long> bookIds) {
+		int loans = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> {
+				List<Long> ids = toLongs(
+						loanRepository.findIdsByBookIds(bookIds, PageRequest.of(0, properties.getBatchSize())));
+				return ids.isEmpty() ? 0 : loanRepository.deleteByIds(ids);
+			});
+			loans += deleted;
+			purgedLoans.addAndGet(deleted);
+		} while (deleted == properties.getBatchSize() && pause());
+		return loans;
+	}
+
+	// Falso quando a thread foi interrompida (aplicação parando): a execução termina no lote atual.
+	private boolean pause() {
+		try {
+			Thread.sleep(properties.getPause().toMillis());
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void refreshProgress() {
+		transactionTemplate.execute(status -> {
+			pending.set(bookRepository.countDeleted());
+			oldestDeletedAt = bookRepository.findOldestDeletedAt();
+			return null;
+		});
+	}
+
+	private double lagSeconds() {
+		LocalDateTime oldest = oldestDeletedAt;
+		return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds());
+	}
+
+	// Consultas nativas: o tipo do id depende do driver.
+	private static List<Long> toLongs(List<Number> ids) {
+		return ids.stream().map(Number::longValue).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,117 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.response.ByteBudgetCache;
+import br.com.josehamilton.library.api.response.CachedResponse;
+import br.com.josehamilton.library.api.response.ResponseCacheProperties;
+import br.com.josehamilton.library.api.services.BookResponseCacheService;
+import br.com.josehamilton.library.api.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Respostas de GET /api/books/{id} já serializadas em JSON (e compactadas,
+ * quando compensa), para que um acerto não passe pelo ModelMapper nem pelo
+ * Jackson. O ObjectMapper é o mesmo dos conversores de mensagem, então os
+ * bytes são os que eles escreveriam.
+ *
+ * As respostas são descartadas quando o livro é alterado ou removido, nesta
+ * instância depois do commit e nas demais pelo {@code CacheInvalidationBus}.
+ */
+@Service
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class BookResponseCacheServiceImpl implements BookResponseCacheService, MeterBinder {
+
+	private final ResponseCacheProperties properties;
+
+	private final ObjectMapper objectMapper;
+
+	private final ByteBudgetCache<Long, CachedResponse> cache;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public BookResponseCacheServiceImpl(ResponseCacheProperties properties, ObjectMapper objectMapper) {
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.cache = new ByteBudgetCache<>(properties.isEnabled() ? properties.getMaxBytes() : 0,
+				CachedResponse::bytes);
+	}
+
+	@Override
+	public Optional<CachedResponse> getJson(Long id, Function<Long, Optional<BookDTO>> loader) {
+		CachedResponse cached = cache.get(id);
+		if (cached != null) {
+			hits.incrementAndGet();
+			return Optional.of(cached);
+		}
+		misses.incrementAndGet();
+		// Lida antes do carregamento: uma alteração confirmada durante ele impede que o livro antigo seja guardado.
+		long version = cache.version(id);
+		Optional<CachedResponse> response = loader.apply(id).map(this::serialize);
+		response.ifPresent(serialized -> cache.put(id, serialized, version));
+		return response;
+	}
+
+	@Override
+	public void bookChanged(Book book) {
+		Long id = book.getId();
+		TransactionCallbacks.afterCommit(() -> cache.invalidate(id));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("book.response.cache.requests", hits, AtomicLong::get).tag("result", "hit")
+				.description("Book responses written from cached bytes").register(registry);
+		FunctionCounter.builder("book.response.cache.requests", misses, AtomicLong::get).tag("result", "miss")
+				.description("Book responses serialized on request").register(registry);
+		Gauge.builder("book.response.cache.hit.ratio", this, BookResponseCacheServiceImpl::hitRatio)
+				.description("Hits over all book responses since startup").register(registry);
+		Gauge.builder("book.response.cache.bytes", cache, ByteBudgetCache::bytes)
+				.description("Bytes of cached book responses").baseUnit("bytes").register(registry);
+		Gauge.builder("book.response.cache.entries", cache, ByteBudgetCache::size)
+				.description("Cached book responses").register(registry);
+		FunctionCounter.builder("book.response.cache.evictions", cache, ByteBudgetCache::evictions)
+				.description("Book responses evicted to stay within max-bytes").register(registry);
+	}
+
+	private double hitRatio() {
+		long total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double) hits.get() / total;
+	}
+
+	private CachedResponse serialize(BookDTO book) {
+		try {
+			byte[] body = objectMapper.writeValueAsBytes(book);
+			return new CachedResponse(body, body.length >= properties.getGzipMinSize() ? gzip(body) : null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(body);
+		}
+		return compressed.size() < body.length ? compressed.toByteArray() : null;
+	}
+
+}
@@ -0,0 +1,112 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.search.LiveIndex;
+import br.com.josehamilton.library.api.search.SearchProperties;
+import br.com.josehamilton.library.api.search.TrigramIndex;
+import br.com.josehamilton.library.api.services.BookSearchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Busca aproximada de títulos e autores em memória ({@link TrigramIndex}).
+ *
+ * O índice é reconstruído em paralelo quando a aplicação sobe e depois
+ * mantido a cada livro cadastrado, alterado ou removido (ver
+ * {@link LiveIndex}).
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(SearchProperties.class)
+public class BookSearchServiceImpl implements BookSearchService, MeterBinder {
+
+	private final SearchProperties properties;
+
+	private final BookRepository bookRepository;
+
+	private final LiveIndex<TrigramIndex> index;
+
+	public BookSearchServiceImpl(SearchProperties properties, BookRepository bookRepository) {
+		this.properties = properties;
+		this.bookRepository = bookRepository;
+		this.index = new LiveIndex<>(new TrigramIndex());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			// Sem a reconstrução o índice contém só os livros alterados desde a inicialização.
+			log.warn("Trigram index rebuild failed", e);
+		}
+	}
+
+	@Override
+	public List<TrigramIndex.Match> search(String title, String author) {
+		return index.get().search(title, author, properties.getThreshold(), properties.getMaxResults());
+	}
+
+	@Override
+	public void bookSaved(Book book) {
+		index.apply(current -> current.put(book.getId(), book.getTitle(), book.getAuthor()));
+	}
+
+	@Override
+	public void bookDeleted(Book book) {
+		index.apply(current -> current.remove(book.getId()));
+	}
+
+	@Override
+	public void rebuild() {
+		long start = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+		try {
+			TrigramIndex built = index.rebuild(() -> TrigramIndex.build(load(), pool));
+			log.info("Trigram index rebuilt with {} books and {} trigrams in {} ms", built.size(),
+					built.trigramCount(), (System.nanoTime() - start) / 1_000_000);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("book.search.entries", this, service -> service.index.get().size())
+				.description("Books in the trigram index").register(registry);
+		Gauge.builder("book.search.trigrams", this, service -> service.index.get().trigramCount())
+				.description("Distinct trigrams per field in the trigram index").register(registry);
+		Gauge.builder("book.search.dead.slots", this, service -> service.index.get().deadSlots())
+				.description("Slots of removed books not yet reused in the trigram index").register(registry);
+	}
+
+	private List<TrigramIndex.Entry> load() {
+		List<TrigramIndex.Entry> entries = new ArrayList<>();
+		Page<Book> page;
+		int number = 0;
+		do {
+			page = bookRepository.findAll(PageRequest.of(number++, properties.getPageSize(), Sort.by("id")));
+			for (Book book : page) {
+				entries.add(TrigramIndex.Entry.builder().id(book.getId()).title(book.getTitle())
+						.author(book.getAuthor()).build());
+			}
+		} while (page.hasNext());
+		return entries;
+	}
+
+}
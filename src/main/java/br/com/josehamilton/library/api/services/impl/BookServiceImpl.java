@@ -1,16 +1,36 @@
 package br.com.josehamilton.library.api.services.impl;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.josehamilton.library.api.invalidation.CacheInvalidationBus;
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.isbn.LongLongHashMap;
+import br.com.josehamilton.library.api.jfr.BookFindEvent;
 import br.com.josehamilton.library.api.model.entity.Book;
 import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.search.TrigramIndex;
+import br.com.josehamilton.library.api.services.BookResponseCacheService;
+import br.com.josehamilton.library.api.services.BookSearchService;
 import br.com.josehamilton.library.api.services.BookService;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.CatalogSnapshotService;
+import br.com.josehamilton.library.api.services.IsbnFilterService;
+import br.com.josehamilton.library.api.services.IsbnIndexService;
 import br.com.josehamilton.library.exception.BusinessException;
 
 @Service
@@ -18,47 +38,161 @@ public class BookServiceImpl implements BookService {
 
 	private BookRepository repository;
 
-	public BookServiceImpl(BookRepository repository) {
+	private BookSuggestionService suggestionService;
+
+	private BookSearchService searchService;
+
+	private CacheInvalidationBus invalidationBus;
+
+	private IsbnFilterService isbnFilter;
+
+	private IsbnIndexService isbnIndex;
+
+	private CatalogSnapshotService catalogSnapshot;
+
+	private BookResponseCacheService responseCache;
+
+	public BookServiceImpl(BookRepository repository, BookSuggestionService suggestionService,
+			BookSearchService searchService, CacheInvalidationBus invalidationBus, IsbnFilterService isbnFilter,
+			IsbnIndexService isbnIndex, CatalogSnapshotService catalogSnapshot,
+			BookResponseCacheService responseCache) {
 		this.repository = repository;
+		this.suggestionService = suggestionService;
+		this.searchService = searchService;
+		this.invalidationBus = invalidationBus;
+		this.isbnFilter = isbnFilter;
+		this.isbnIndex = isbnIndex;
+		this.catalogSnapshot = catalogSnapshot;
+		this.responseCache = responseCache;
 	}
 
 	@Override
+	@Transactional
 	public Book save(Book book) {
-		if (repository.existsByIsbn(book.getIsbn())) {
+		if (isbnFilter.exists(book.getIsbn())) {
 			throw new BusinessException("Isbn já cadastrado.");
 		}
-		return repository.save(book);
+		Book saved;
+		try {
+			saved = repository.save(book);
+		} catch (DataIntegrityViolationException e) {
+			// Índice único do isbn: cadastro simultâneo ou isbn ainda não visto pelo filtro desta instância.
+			throw new BusinessException("Isbn já cadastrado.");
+		}
+		suggestionService.bookSaved(saved);
+		searchService.bookSaved(saved);
+		isbnFilter.bookSaved(saved);
+		isbnIndex.bookSaved(saved);
+		catalogSnapshot.bookSaved(saved);
+		invalidationBus.publish(InvalidationType.BOOK_CHANGED, saved);
+		return saved;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Book> getById(Long id) {
 		return repository.findById(id);
 	}
 
+	// Sem transação: com o snapshot pronto a leitura não passa pelo banco.
+	@Override
+	public Optional<Book> getReadOnlyById(Long id) {
+		if (catalogSnapshot.isReady()) {
+			return catalogSnapshot.getById(id);
+		}
+		return repository.findById(id);
+	}
+
 	@Override
+	@Transactional
 	public void delete(Book book) {
 		if (book == null || book.getId() == null)
 			throw new IllegalArgumentException("Book id can not be null.");
+		// Exclusão lógica (@SQLDelete): os empréstimos do livro são apagados depois pelo BookPurgeService.
 		this.repository.delete(book);
+		suggestionService.bookDeleted(book);
+		searchService.bookDeleted(book);
+		isbnFilter.bookDeleted(book);
+		isbnIndex.bookDeleted(book);
+		catalogSnapshot.bookDeleted(book);
+		responseCache.bookChanged(book);
+		invalidationBus.publish(InvalidationType.BOOK_CHANGED, book);
 	}
 
 	@Override
+	@Transactional
 	public Book update(Book book) {
 		if (book == null || book.getId() == null)
 			throw new IllegalArgumentException("Book id can not be null.");
-		return this.repository.save(book);
+		Book updated = this.repository.save(book);
+		suggestionService.bookSaved(updated);
+		searchService.bookSaved(updated);
+		isbnFilter.bookSaved(updated);
+		isbnIndex.bookSaved(updated);
+		catalogSnapshot.bookSaved(updated);
+		responseCache.bookChanged(updated);
+		invalidationBus.publish(InvalidationType.BOOK_CHANGED, updated);
+		return updated;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Book> find(Book filter, Pageable pageRequest) {
+		BookFindEvent event = new BookFindEvent();
+		event.begin();
 		Example<Book> example = Example.of(filter, ExampleMatcher.matching().withIgnoreCase().withIgnoreNullValues()
 				.withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-		return this.repository.findAll(example, pageRequest);
+		Page<Book> result = this.repository.findAll(example, pageRequest);
+		if (event.shouldCommit()) {
+			event.setTitle(filter.getTitle());
+			event.setAuthor(filter.getAuthor());
+			event.setPageNumber(pageRequest.getPageNumber());
+			event.setPageSize(pageRequest.getPageSize());
+			event.setTotalElements(result.getTotalElements());
+			event.commit();
+		}
+		return result;
 	}
 
+	/**
+	 * Busca aproximada por título e autor, ordenada por similaridade. Apenas a
+	 * página pedida é lida do banco; o isbn do filtro não é considerado.
+	 */
 	@Override
+	@Transactional(readOnly = true)
+	public Page<Book> findSimilar(Book filter, Pageable pageRequest) {
+		List<TrigramIndex.Match> matches = searchService.search(filter.getTitle(), filter.getAuthor());
+		List<Long> ids = matches.stream().skip(pageRequest.isPaged() ? pageRequest.getOffset() : 0)
+				.limit(pageRequest.isPaged() ? pageRequest.getPageSize() : matches.size())
+				.map(TrigramIndex.Match::getId).collect(Collectors.toList());
+		Map<Long, Book> books = repository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Book::getId, Function.identity()));
+		List<Book> content = ids.stream().map(books::get).filter(Objects::nonNull).collect(Collectors.toList());
+		return new PageImpl<>(content, pageRequest, matches.size());
+	}
+
+	/**
+	 * ISBN-10 e ISBN-13, com ou sem hífens, são procurados pelo ISBN-13
+	 * numérico: primeiro no índice em memória (o livro vem do cache de
+	 * entidades) e, se ele não souber, na coluna isbn_key. Isbns fora do padrão
+	 * são comparados como texto.
+	 */
+	@Override
+	@Transactional(readOnly = true)
 	public Optional<Book> getBookByIsbn(String isbn) {
-		return this.repository.findByIsbn(isbn);
+		Long key = Isbn.key(isbn);
+		if (key == null) {
+			return this.repository.findByIsbn(isbn);
+		}
+		long id = isbnIndex.findBookId(key);
+		if (id != LongLongHashMap.MISSING) {
+			// O índice pode não ter visto ainda uma troca de isbn feita em outra instância.
+			Optional<Book> book = repository.findById(id).filter(found -> key.equals(Isbn.key(found.getIsbn())));
+			if (book.isPresent()) {
+				return book;
+			}
+		}
+		return this.repository.findByIsbnKey(key);
 	}
 
 }
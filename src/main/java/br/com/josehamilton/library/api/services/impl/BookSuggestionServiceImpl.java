@@ -0,0 +1,127 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+import br.com.josehamilton.library.api.search.LiveIndex;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.suggest.PrefixIndex;
+import br.com.josehamilton.library.api.suggest.SuggestProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Autocomplete de títulos e autores em memória ({@link PrefixIndex}).
+ *
+ * O índice é reconstruído em paralelo quando a aplicação sobe e depois
+ * mantido a cada livro cadastrado, alterado ou removido e a cada empréstimo
+ * (ver {@link LiveIndex}).
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(SuggestProperties.class)
+public class BookSuggestionServiceImpl implements BookSuggestionService, MeterBinder {
+
+	private final SuggestProperties properties;
+
+	private final BookRepository bookRepository;
+
+	private final LoanRepository loanRepository;
+
+	private final LiveIndex<PrefixIndex> index;
+
+	public BookSuggestionServiceImpl(SuggestProperties properties, BookRepository bookRepository,
+			LoanRepository loanRepository) {
+		this.properties = properties;
+		this.bookRepository = bookRepository;
+		this.loanRepository = loanRepository;
+		this.index = new LiveIndex<>(new PrefixIndex(properties.getMaxResults(), properties.getMaxKeyLength()));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			// Sem a reconstrução o índice contém só os livros alterados desde a inicialização.
+			log.warn("Suggestion index rebuild failed", e);
+		}
+	}
+
+	@Override
+	public List<PrefixIndex.Entry> suggest(String prefix, int limit) {
+		return index.get().find(prefix, Math.min(limit, properties.getMaxResults()));
+	}
+
+	@Override
+	public void bookSaved(Book book) {
+		index.apply(current -> current.put(book.getId(), book.getIsbn(), book.getTitle(), book.getAuthor()));
+	}
+
+	@Override
+	public void bookDeleted(Book book) {
+		index.apply(current -> current.remove(book.getId()));
+	}
+
+	@Override
+	public void bookBorrowed(Book book) {
+		index.apply(current -> current.addLoans(book.getId(), 1));
+	}
+
+	@Override
+	public void rebuild() {
+		long start = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+		try {
+			PrefixIndex built = index.rebuild(() -> PrefixIndex.build(load(), properties.getMaxResults(),
+					properties.getMaxKeyLength(), pool));
+			log.info("Suggestion index rebuilt with {} books and {} nodes in {} ms", built.size(), built.nodes(),
+					(System.nanoTime() - start) / 1_000_000);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("book.suggest.entries", this, service -> service.index.get().size())
+				.description("Books in the suggestion index").register(registry);
+		Gauge.builder("book.suggest.nodes", this, service -> service.index.get().nodes())
+				.description("Nodes in the suggestion index").register(registry);
+	}
+
+	private List<PrefixIndex.Entry> load() {
+		Map<Long, Long> loans = new HashMap<>();
+		for (Object[] row : loanRepository.countLoansByBook()) {
+			loans.put((Long) row[0], (Long) row[1]);
+		}
+		List<PrefixIndex.Entry> entries = new ArrayList<>();
+		Page<Book> page;
+		int number = 0;
+		do {
+			page = bookRepository.findAll(PageRequest.of(number++, properties.getPageSize(), Sort.by("id")));
+			for (Book book : page) {
+				entries.add(PrefixIndex.Entry.builder().id(book.getId()).isbn(book.getIsbn()).title(book.getTitle())
+						.author(book.getAuthor()).loans(loans.getOrDefault(book.getId(), 0L)).build());
+			}
+		} while (page.hasNext());
+		return entries;
+	}
+
+}
@@ -0,0 +1,284 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.josehamilton.library.api.invalidation.InvalidationProperties;
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.CacheInvalidationRepository;
+import br.com.josehamilton.library.api.services.CatalogSnapshotService;
+import br.com.josehamilton.library.api.snapshot.CatalogSnapshot;
+import br.com.josehamilton.library.api.snapshot.CatalogSnapshotProperties;
+import br.com.josehamilton.library.api.snapshot.CatalogSnapshotWriter;
+import br.com.josehamilton.library.api.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leituras de livro por id sem banco: um {@link CatalogSnapshot} mapeado em
+ * memória com os livros de quando foi gerado e, na frente dele, um mapa com os
+ * livros cadastrados, alterados ou removidos depois, preenchido após o commit
+ * nesta instância e pelo {@code CacheInvalidationBus} para as demais.
+ *
+ * <ul>
+ * <li>O snapshot é gerado em segundo plano a cada {@code regenerate-interval};
+ * ao ser trocado, as alterações anteriores ao início da geração saem do mapa.
+ * As páginas são lidas pelo banco principal, sem o atraso da réplica.</li>
+ * <li>Na inicialização o arquivo existente é reaproveitado se o registro de
+ * invalidações ainda cobre o período desde a geração: os livros alterados
+ * nesse período são lidos do banco para o mapa. Caso contrário um novo
+ * snapshot é gerado e, até ele ficar pronto, as leituras vão ao banco.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(CatalogSnapshotProperties.class)
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService, MeterBinder {
+
+	private final CatalogSnapshotProperties properties;
+
+	private final InvalidationProperties invalidationProperties;
+
+	private final BookRepository bookRepository;
+
+	private final CacheInvalidationRepository invalidationRepository;
+
+	// Transações de escrita: as leituras vão para o banco principal, nunca para a réplica.
+	private final TransactionTemplate transactionTemplate;
+
+	private volatile CatalogSnapshot snapshot;
+
+	// Livros alterados depois do snapshot atual; book null para removidos.
+	private final Map<Long, Change> overlay = new ConcurrentHashMap<>();
+
+	private final AtomicLong changes = new AtomicLong();
+
+	private final AtomicLong snapshotReads = new AtomicLong();
+
+	private final AtomicLong overlayReads = new AtomicLong();
+
+	public CatalogSnapshotServiceImpl(CatalogSnapshotProperties properties,
+			InvalidationProperties invalidationProperties, BookRepository bookRepository,
+			CacheInvalidationRepository invalidationRepository, PlatformTransactionManager transactionManager) {
+		this.properties = properties;
+		this.invalidationProperties = invalidationProperties;
+		this.bookRepository = bookRepository;
+		this.invalidationRepository = invalidationRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		try {
+			if (reopen()) {
+				return;
+			}
+		} catch (IOException | RuntimeException e) {
+			log.warn("Catalog snapshot {} could not be reused", properties.getFile(), e);
+		}
+		// A geração lê o catálogo inteiro: fica fora da thread de inicialização.
+		Thread thread = new Thread(this::scheduledRegenerate, "catalog-snapshot");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Scheduled(initialDelayString = "${application.catalog-snapshot.regenerate-interval:1800000}",
+			fixedDelayString = "${application.catalog-snapshot.regenerate-interval:1800000}")
+	public void scheduledRegenerate() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		try {
+			regenerate();
+		} catch (RuntimeException e) {
+			// O snapshot anterior e o mapa de alterações continuam valendo.
+			log.warn("Catalog snapshot regeneration failed", e);
+		}
+	}
+
+	@Override
+	public boolean isReady() {
+		return snapshot != null;
+	}
+
+	@Override
+	public Optional<Book> getById(Long id) {
+		CatalogSnapshot current = snapshot;
+		if (current == null) {
+			throw new IllegalStateException("Catalog snapshot is not ready");
+		}
+		Change change = overlay.get(id);
+		if (change != null) {
+			overlayReads.incrementAndGet();
+			return Optional.ofNullable(change.book);
+		}
+		snapshotReads.incrementAndGet();
+		return Optional.ofNullable(current.get(id));
+	}
+
+	@Override
+	public void bookSaved(Book book) {
+		if (properties.isEnabled()) {
+			Book copy = copy(book);
+			TransactionCallbacks.afterCommit(() -> record(copy.getId(), copy));
+		}
+	}
+
+	@Override
+	public void bookDeleted(Book book) {
+		if (properties.isEnabled()) {
+			Long id = book.getId();
+			TransactionCallbacks.afterCommit(() -> record(id, null));
+		}
+	}
+
+	@Override
+	public synchronized void regenerate() {
+		long start = System.nanoTime();
+		long sequence = changes.get();
+		long generatedAt = System.currentTimeMillis();
+		Path file = Paths.get(properties.getFile());
+		long invalidationId = transactionTemplate.execute(status -> invalidationRepository.findMaxId());
+		CatalogSnapshot generated;
+		try {
+			try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, generatedAt, invalidationId)) {
+				Long lastId = 0L;
+				List<Object[]> page;
+				do {
+					Long after = lastId;
+					page = transactionTemplate.execute(status -> bookRepository.findBooksAfter(after,
+							PageRequest.of(0, properties.getPageSize())));
+					for (Object[] row : page) {
+						lastId = (Long) row[0];
+						writer.add(lastId, (String) row[1], (String) row[2], (String) row[3]);
+					}
+				} while (page.size() == properties.getPageSize());
+				writer.commit();
+			}
+			generated = CatalogSnapshot.open(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		snapshot = generated;
+		// As alterações confirmadas antes do início da geração já estão no arquivo.
+		overlay.values().removeIf(change -> change.sequence <= sequence);
+		log.info("Catalog snapshot generated with {} books in {} MB in {} ms", generated.size(),
+				generated.bytes() / 1_000_000, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("catalog.snapshot.reads", snapshotReads, AtomicLong::get).tag("source", "snapshot")
+				.description("Book reads answered by the memory-mapped snapshot").register(registry);
+		FunctionCounter.builder("catalog.snapshot.reads", overlayReads, AtomicLong::get).tag("source", "overlay")
+				.description("Book reads answered by changes made after the snapshot").register(registry);
+		Gauge.builder("catalog.snapshot.books", this, service -> service.current(CatalogSnapshot::size))
+				.description("Books in the current snapshot").register(registry);
+		Gauge.builder("catalog.snapshot.bytes", this, service -> service.current(CatalogSnapshot::bytes))
+				.description("Size of the current snapshot file").register(registry);
+		Gauge.builder("catalog.snapshot.overlay", overlay, Map::size)
+				.description("Books changed since the current snapshot").register(registry);
+		Gauge.builder("catalog.snapshot.age", this,
+				service -> service.snapshot == null ? 0
+						: (System.currentTimeMillis() - service.snapshot.getGeneratedAt()) / 1000.0)
+				.description("Seconds since the current snapshot was generated").baseUnit("seconds")
+				.register(registry);
+	}
+
+	private void record(Long id, Book book) {
+		overlay.put(id, new Change(changes.incrementAndGet(), book));
+	}
+
+	private double current(Function<CatalogSnapshot, Long> value) {
+		CatalogSnapshot current = snapshot;
+		return current == null ? 0 : value.apply(current);
+	}
+
+	private boolean reopen() throws IOException {
+		Path file = Paths.get(properties.getFile());
+		if (!Files.exists(file)) {
+			return false;
+		}
+		CatalogSnapshot existing = CatalogSnapshot.open(file);
+		// Margem para transações que começaram antes da geração e confirmaram depois.
+		LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(existing.getGeneratedAt()),
+				ZoneId.systemDefault()).minus(invalidationProperties.getGapTimeout());
+		if (since.isBefore(LocalDateTime.now().minus(invalidationProperties.getRetention()))) {
+			log.info("Catalog snapshot {} is older than the cache invalidation retention", file);
+			return false;
+		}
+		return transactionTemplate.execute(status -> {
+			if (invalidationRepository.findMaxId() < existing.getInvalidationId()) {
+				// O registro de invalidações é de outro banco ou foi recriado.
+				log.info("Catalog snapshot {} does not match the cache invalidation log", file);
+				return false;
+			}
+			List<Long> changed = invalidationRepository.findBookIdsChangedSince(InvalidationType.BOOK_CHANGED,
+					since);
+			for (int from = 0; from < changed.size(); from += properties.getPageSize()) {
+				List<Long> ids = changed.subList(from, Math.min(changed.size(), from + properties.getPageSize()));
+				Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+						.collect(Collectors.toMap(Book::getId, Function.identity()));
+				for (Long id : ids) {
+					Book book = books.get(id);
+					// Uma alteração já registrada veio de um commit posterior a esta leitura.
+					overlay.putIfAbsent(id, new Change(changes.incrementAndGet(), book == null ? null : copy(book)));
+				}
+			}
+			snapshot = existing;
+			log.info("Catalog snapshot {} reopened with {} books and {} later changes", file, existing.size(),
+					changed.size());
+			return true;
+		});
+	}
+
+	// Cópia sem a coleção de empréstimos: a entidade deixa de ser gerenciada com o fim da sessão.
+	private static Book copy(Book book) {
+		return Book.builder().id(book.getId()).title(book.getTitle()).author(book.getAuthor()).isbn(book.getIsbn())
+				.isbnKey(Isbn.key(book.getIsbn())).build();
+	}
+
+	private static final class Change {
+
+		private final long sequence;
+
+		private final Book book;
+
+		private Change(long sequence, Book book) {
+			this.sequence = sequence;
+			this.book = book;
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.repositories.CustomerRepository;
+import br.com.josehamilton.library.api.services.CustomerService;
+
+@Service
+public class CustomerServiceImpl implements CustomerService {
+
+	private static final String INSERT_CUSTOMER = "INSERT INTO customer (name, email, name_key, email_key)"
+			+ " VALUES (?, ?, ?, ?)";
+
+	private CustomerRepository repository;
+
+	// Cadastro por JDBC: sem proxy transacional nem sessão do Hibernate no caminho, a violação do índice
+	// único desfaz só o comando e não marca a transação do empréstimo para rollback.
+	private JdbcTemplate jdbcTemplate;
+
+	public CustomerServiceImpl(CustomerRepository repository, JdbcTemplate jdbcTemplate) {
+		this.repository = repository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Retorna o cliente do email informado, cadastrando-o no primeiro
+	 * empréstimo. O nome de um cliente existente não é alterado. O cadastro é
+	 * feito na transação de quem chamou, com a mesma conexão: é desfeito junto
+	 * com o empréstimo e não ocupa outra vaga da cota de conexões.
+	 */
+	@Override
+	@Transactional
+	public Customer getOrCreate(String name, String email) {
+		Customer customer = Customer.of(name, email);
+		Optional<Customer> existing = repository.findByEmailKey(customer.getEmailKey());
+		if (existing.isPresent()) {
+			return existing.get();
+		}
+		try {
+			jdbcTemplate.update(INSERT_CUSTOMER, customer.getName(), customer.getEmail(), customer.getNameKey(),
+					customer.getEmailKey());
+		} catch (DuplicateKeyException e) {
+			// Outro empréstimo cadastrou o mesmo cliente ao mesmo tempo.
+			return repository.findByEmailKey(customer.getEmailKey()).orElseThrow(() -> e);
+		}
+		// Relido pelo repositório, que passa a gerenciar o cliente.
+		return repository.findByEmailKey(customer.getEmailKey()).orElse(customer);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Customer> getById(Long id) {
+		return repository.findById(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Customer> getByEmail(String email) {
+		return repository.findByEmailKey(Customer.emailKey(email));
+	}
+
+}
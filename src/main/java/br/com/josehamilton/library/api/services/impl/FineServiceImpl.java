@@ -0,0 +1,209 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.bulkhead.Workload;
+import br.com.josehamilton.library.api.fines.FineCalculator;
+import br.com.josehamilton.library.api.fines.FineCharge;
+import br.com.josehamilton.library.api.fines.FineProperties;
+import br.com.josehamilton.library.api.fines.OverdueLoan;
+import br.com.josehamilton.library.api.model.repositories.FineRepository;
+import br.com.josehamilton.library.api.services.FineService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cálculo diário das multas dos empréstimos atrasados.
+ *
+ * <ul>
+ * <li>Os empréstimos são lidos em páginas por id, pelo banco principal, já
+ * com a última data e o total multados de cada um.</li>
+ * <li>Cada página é calculada em paralelo por um {@link ForkJoinPool} próprio
+ * de {@code parallelism} threads (ver {@link FineCalculator}) e gravada com
+ * INSERTs em lote pelo JDBC, em uma transação por página.</li>
+ * <li>Só os dias posteriores à última multa são cobrados, e o índice único
+ * (loan_id, from_date) impede a mesma multa duas vezes: uma execução
+ * interrompida é retomada pela seguinte, e repetir o cálculo no mesmo dia não
+ * grava nada.</li>
+ * </ul>
+ *
+ * O job roda no bulkhead BATCH; a vazão da última execução fica em
+ * fines.throughput.
+ */
+@Slf4j
+@Service
+@Lazy(false) // O job só é agendado quando o bean é criado, mesmo com inicialização lazy
+@EnableConfigurationProperties(FineProperties.class)
+public class FineServiceImpl implements FineService, MeterBinder, DisposableBean {
+
+	private static final String INSERT_FINE = "INSERT INTO fine (loan_id, customer_id, from_date, to_date, days,"
+			+ " amount, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	private final FineProperties properties;
+
+	private final FineRepository fineRepository;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final BulkheadRegistry bulkheadRegistry;
+
+	// Transações de escrita: as leituras vão para o banco principal, nunca para a réplica.
+	private final TransactionTemplate transactionTemplate;
+
+	private final FineCalculator calculator;
+
+	private final ForkJoinPool pool;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final AtomicLong loans = new AtomicLong();
+
+	private final AtomicLong fines = new AtomicLong();
+
+	private final DoubleAdder amount = new DoubleAdder();
+
+	// Empréstimos por segundo na última execução.
+	private volatile double throughput;
+
+	// Proxies lazy: o agendamento não obriga a criação do JPA na inicialização
+	public FineServiceImpl(FineProperties properties, @Lazy FineRepository fineRepository,
+			@Lazy JdbcTemplate jdbcTemplate, BulkheadRegistry bulkheadRegistry,
+			@Lazy PlatformTransactionManager transactionManager) {
+		this.properties = properties;
+		this.fineRepository = fineRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.bulkheadRegistry = bulkheadRegistry;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.calculator = new FineCalculator(properties, LoanServiceImpl.LOAN_DAYS);
+		this.pool = new ForkJoinPool(properties.getParallelism(), pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("fines-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	@Scheduled(cron = "${application.fines.cron:0 30 0 * * ?}")
+	public void scheduledComputeFines() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		LocalDate date = LocalDate.now();
+		try {
+			bulkheadRegistry.get(Workload.BATCH).execute(() -> {
+				try {
+					computeFines(date);
+				} catch (RuntimeException e) {
+					// As páginas gravadas ficam; o restante é calculado na próxima execução.
+					log.warn("Fine computation for {} failed", date, e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			log.warn("Fine computation for {} skipped: batch bulkhead is full", date);
+		}
+	}
+
+	@Override
+	public int computeFines(LocalDate date) {
+		if (!running.compareAndSet(false, true)) {
+			return 0;
+		}
+		try {
+			long start = System.nanoTime();
+			LocalDate lateLoanDate = LoanServiceImpl.lateLoanDate(date);
+			long processed = 0;
+			int created = 0;
+			Long lastId = 0L;
+			List<Object[]> page;
+			do {
+				Long after = lastId;
+				page = transactionTemplate.execute(status -> fineRepository.findOverdueLoansAfter(after, lateLoanDate,
+						PageRequest.of(0, properties.getPageSize())));
+				if (page.isEmpty()) {
+					break;
+				}
+				List<OverdueLoan> overdue = page.stream().map(OverdueLoan::of).collect(Collectors.toList());
+				lastId = overdue.get(overdue.size() - 1).getLoanId();
+				List<FineCharge> charges = calculator.chargeAll(overdue, date, pool, properties.getChunkSize());
+				transactionTemplate.execute(status -> {
+					insert(charges);
+					return null;
+				});
+				processed += overdue.size();
+				created += charges.size();
+				loans.addAndGet(overdue.size());
+				fines.addAndGet(charges.size());
+				amount.add(charges.stream().map(FineCharge::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add)
+						.doubleValue());
+			} while (page.size() == properties.getPageSize() && !Thread.currentThread().isInterrupted());
+			long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+			throughput = processed * 1000.0 / millis;
+			log.info("Computed {} fines for {} overdue loans up to {} in {} ms ({} loans/s, {} threads)", created,
+					processed, date, millis, (long) throughput, pool.getParallelism());
+			return created;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("fines.loans", loans, AtomicLong::get)
+				.description("Overdue loans processed by the fine computation").register(registry);
+		FunctionCounter.builder("fines.created", fines, AtomicLong::get).description("Fines recorded")
+				.register(registry);
+		FunctionCounter.builder("fines.amount", amount, DoubleAdder::sum).description("Total amount of recorded fines")
+				.register(registry);
+		Gauge.builder("fines.throughput", this, service -> service.throughput)
+				.description("Overdue loans per second in the last fine computation").register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		pool.shutdownNow();
+	}
+
+	private void insert(List<FineCharge> charges) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.batchUpdate(INSERT_FINE, charges, properties.getBatchSize(), (statement, charge) -> {
+			statement.setLong(1, charge.getLoanId());
+			if (charge.getCustomerId() != null) {
+				statement.setLong(2, charge.getCustomerId());
+			} else {
+				statement.setNull(2, Types.BIGINT);
+			}
+			statement.setDate(3, Date.valueOf(charge.getFromDate()));
+			statement.setDate(4, Date.valueOf(charge.getToDate()));
+			statement.setInt(5, charge.getDays());
+			statement.setBigDecimal(6, charge.getAmount());
+			statement.setTimestamp(7, now);
+		});
+	}
+
+}
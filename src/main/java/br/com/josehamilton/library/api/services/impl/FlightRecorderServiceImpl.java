@@ -0,0 +1,180 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.josehamilton.library.api.jfr.RecordingProfile;
+import br.com.josehamilton.library.api.services.FlightRecorderService;
+import br.com.josehamilton.library.exception.BusinessException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class FlightRecorderServiceImpl implements FlightRecorderService {
+
+	private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+	private final Path dumpDirectory;
+
+	private final int maxDumps;
+
+	private final long dumpRetentionMillis;
+
+	private final Map<String, String> defaultSettings;
+
+	public FlightRecorderServiceImpl(@Value("${application.jfr.dump-directory:${java.io.tmpdir}}") String dumpDirectory,
+			@Value("${application.jfr.max-dumps:10}") int maxDumps,
+			@Value("${application.jfr.dump-retention-hours:24}") long dumpRetentionHours) {
+		this.dumpDirectory = Paths.get(dumpDirectory);
+		this.maxDumps = Math.max(1, maxDumps);
+		this.dumpRetentionMillis = TimeUnit.HOURS.toMillis(dumpRetentionHours);
+		try {
+			this.defaultSettings = Configuration.getConfiguration("default").getSettings();
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("Unable to load default JFR configuration.", e);
+		}
+	}
+
+	@Override
+	public Recording start(RecordingProfile profile, Duration duration) {
+		if (profile == null)
+			throw new IllegalArgumentException("Recording profile can not be null.");
+		Recording recording = new Recording(profile.settings(defaultSettings));
+		recording.setName("library-" + profile.name().toLowerCase() + "-" + Instant.now().toEpochMilli());
+		recording.setToDisk(true);
+		if (duration != null) {
+			// A gravação para sozinha ao fim da duração e o JFR grava o arquivo final neste destino.
+			recording.setDuration(duration);
+			try {
+				Files.createDirectories(dumpDirectory);
+				deleteOldDumps();
+				recording.setDestination(dumpPath(recording));
+			} catch (IOException e) {
+				recording.close();
+				throw new UncheckedIOException(e);
+			}
+		}
+		recording.start();
+		recordings.put(recording.getId(), recording);
+		return recording;
+	}
+
+	@Override
+	public List<Recording> getRecordings() {
+		removeFinished();
+		return new ArrayList<>(recordings.values());
+	}
+
+	@Override
+	public Optional<Recording> getById(Long id) {
+		removeFinished();
+		return Optional.ofNullable(recordings.get(id));
+	}
+
+	@Override
+	public Path dump(Recording recording) {
+		if (recording.getState() == RecordingState.CLOSED || recording.getState() == RecordingState.NEW) {
+			throw new BusinessException("Recording has no data to dump.");
+		}
+		Path destination = dumpPath(recording);
+		try {
+			Files.createDirectories(dumpDirectory);
+			deleteOldDumps();
+			recording.dump(destination);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return destination;
+	}
+
+	@Override
+	public Path stop(Recording recording) {
+		if (recording.getState() == RecordingState.RUNNING) {
+			recording.stop();
+		}
+		Path destination = dump(recording);
+		recordings.remove(recording.getId());
+		recording.close();
+		return destination;
+	}
+
+	/**
+	 * Tira do mapa as gravações com duração que já pararam sozinhas (o arquivo
+	 * final já está no destino) e as encerradas por fora do serviço.
+	 */
+	private void removeFinished() {
+		recordings.values().removeIf(recording -> {
+			RecordingState state = recording.getState();
+			if (state != RecordingState.STOPPED && state != RecordingState.CLOSED) {
+				return false;
+			}
+			recording.close();
+			return true;
+		});
+	}
+
+	private Path dumpPath(Recording recording) {
+		return dumpDirectory.resolve(recording.getName() + "-" + Instant.now().toEpochMilli() + ".jfr");
+	}
+
+	/**
+	 * Apaga os dumps mais antigos que a retenção e os que passariam de
+	 * {@code maxDumps} com o novo dump, do mais antigo para o mais novo.
+	 */
+	private void deleteOldDumps() throws IOException {
+		List<Path> dumps;
+		try (Stream<Path> files = Files.list(dumpDirectory)) {
+			dumps = files.filter(file -> file.getFileName().toString().matches("library-.*\\.jfr"))
+					.sorted(Comparator.comparingLong(this::lastModified).reversed()).collect(Collectors.toList());
+		}
+		long oldest = System.currentTimeMillis() - dumpRetentionMillis;
+		for (int i = 0; i < dumps.size(); i++) {
+			Path dump = dumps.get(i);
+			if (i >= maxDumps - 1 || lastModified(dump) < oldest) {
+				try {
+					Files.deleteIfExists(dump);
+				} catch (IOException e) {
+					log.warn("Unable to delete flight recording dump {}", dump, e);
+				}
+			}
+		}
+	}
+
+	private long lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file).toMillis();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	@PreDestroy
+	public void closeAll() {
+		recordings.values().forEach(Recording::close);
+		recordings.clear();
+	}
+
+}
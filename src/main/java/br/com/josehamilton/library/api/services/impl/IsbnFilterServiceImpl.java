@@ -0,0 +1,172 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.josehamilton.library.api.bloom.IsbnFilterProperties;
+import br.com.josehamilton.library.api.bloom.ScalableBloomFilter;
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.search.LiveIndex;
+import br.com.josehamilton.library.api.services.IsbnFilterService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verificação de isbn já cadastrado com um {@link ScalableBloomFilter} na
+ * frente do banco: quando o filtro responde que o isbn não existe a consulta
+ * não é feita; só os possíveis acertos vão ao banco. Isbns válidos são
+ * comparados na forma ISBN-13 (ver {@link Isbn#canonical(String)}).
+ *
+ * O filtro é montado quando a aplicação sobe e recebe os livros cadastrados
+ * e alterados depois do commit (ver {@link LiveIndex}). Livros removidos
+ * continuam no filtro até a reconstrução periódica. Até a primeira
+ * reconstrução todas as verificações vão ao banco.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(IsbnFilterProperties.class)
+public class IsbnFilterServiceImpl implements IsbnFilterService, MeterBinder {
+
+	private final IsbnFilterProperties properties;
+
+	private final BookRepository bookRepository;
+
+	private final LiveIndex<ScalableBloomFilter> filter;
+
+	private volatile boolean ready;
+
+	private final AtomicLong negatives = new AtomicLong();
+
+	private final AtomicLong truePositives = new AtomicLong();
+
+	private final AtomicLong falsePositives = new AtomicLong();
+
+	// Livros removidos desde a última reconstrução.
+	private final AtomicLong stale = new AtomicLong();
+
+	public IsbnFilterServiceImpl(IsbnFilterProperties properties, BookRepository bookRepository) {
+		this.properties = properties;
+		this.bookRepository = bookRepository;
+		this.filter = new LiveIndex<>(
+				new ScalableBloomFilter(properties.getInitialCapacity(), properties.getFalsePositiveRate()));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			// Sem o filtro as verificações continuam indo ao banco.
+			log.warn("Isbn filter rebuild failed", e);
+		}
+	}
+
+	@Scheduled(initialDelayString = "${application.isbn-filter.rebuild-interval:21600000}",
+			fixedDelayString = "${application.isbn-filter.rebuild-interval:21600000}")
+	public void scheduledRebuild() {
+		onApplicationReady();
+	}
+
+	@Override
+	public boolean exists(String isbn) {
+		if (!ready || isbn == null) {
+			return existsInDatabase(isbn);
+		}
+		if (!filter.get().mightContain(Isbn.canonical(isbn))) {
+			negatives.incrementAndGet();
+			return false;
+		}
+		boolean exists = existsInDatabase(isbn);
+		(exists ? truePositives : falsePositives).incrementAndGet();
+		return exists;
+	}
+
+	@Override
+	public void bookSaved(Book book) {
+		if (book.getIsbn() != null) {
+			String canonical = Isbn.canonical(book.getIsbn());
+			filter.apply(current -> current.put(canonical));
+		}
+	}
+
+	@Override
+	public void bookDeleted(Book book) {
+		stale.incrementAndGet();
+	}
+
+	@Override
+	public void rebuild() {
+		long start = System.nanoTime();
+		long books = bookRepository.count();
+		stale.set(0);
+		// Folga de 50% sobre o catálogo atual antes de o filtro precisar de um segundo estágio.
+		ScalableBloomFilter built = filter.rebuild(() -> load(
+				new ScalableBloomFilter(Math.max(properties.getInitialCapacity(), books + books / 2),
+						properties.getFalsePositiveRate())));
+		ready = true;
+		log.info("Isbn filter rebuilt with {} isbns in {} bits in {} ms", built.size(), built.bitSize(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("book.isbn.filter.checks", negatives, AtomicLong::get).tag("result", "negative")
+				.description("Isbn checks answered by the filter without a database query").register(registry);
+		FunctionCounter.builder("book.isbn.filter.checks", truePositives, AtomicLong::get)
+				.tag("result", "true.positive").description("Isbn checks confirmed by the database")
+				.register(registry);
+		FunctionCounter.builder("book.isbn.filter.checks", falsePositives, AtomicLong::get)
+				.tag("result", "false.positive").description("Isbn checks the database found to be new")
+				.register(registry);
+		Gauge.builder("book.isbn.filter.false.positive.rate", this, IsbnFilterServiceImpl::observedFalsePositiveRate)
+				.description("False positives over all checks for new isbns since startup").register(registry);
+		Gauge.builder("book.isbn.filter.expected.false.positive.rate", this,
+				service -> service.filter.get().expectedFalsePositiveRate())
+				.description("False positive rate expected from the current filter occupancy").register(registry);
+		Gauge.builder("book.isbn.filter.entries", this, service -> service.filter.get().size())
+				.description("Isbns in the filter").register(registry);
+		Gauge.builder("book.isbn.filter.stages", this, service -> service.filter.get().stageCount())
+				.description("Stages of the scalable filter").register(registry);
+		Gauge.builder("book.isbn.filter.stale", stale, AtomicLong::get)
+				.description("Books deleted since the last rebuild").register(registry);
+	}
+
+	// O mesmo livro em ISBN-10 e ISBN-13 é encontrado pela chave numérica.
+	private boolean existsInDatabase(String isbn) {
+		Long key = Isbn.key(isbn);
+		return key != null ? bookRepository.existsByIsbnKey(key) : bookRepository.existsByIsbn(isbn);
+	}
+
+	private double observedFalsePositiveRate() {
+		long negative = falsePositives.get() + negatives.get();
+		return negative == 0 ? 0 : (double) falsePositives.get() / negative;
+	}
+
+	private ScalableBloomFilter load(ScalableBloomFilter built) {
+		Long lastId = 0L;
+		List<Object[]> page;
+		do {
+			page = bookRepository.findIsbnsAfter(lastId, PageRequest.of(0, properties.getPageSize()));
+			for (Object[] row : page) {
+				lastId = (Long) row[0];
+				if (row[1] != null) {
+					built.put(Isbn.canonical((String) row[1]));
+				}
+			}
+		} while (page.size() == properties.getPageSize());
+		return built;
+	}
+
+}
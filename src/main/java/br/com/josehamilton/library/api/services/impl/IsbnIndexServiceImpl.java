@@ -0,0 +1,144 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.isbn.IsbnIndexProperties;
+import br.com.josehamilton.library.api.isbn.LongLongHashMap;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.search.LiveIndex;
+import br.com.josehamilton.library.api.services.IsbnIndexService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice em memória de ISBN-13 para id do livro ({@link LongLongHashMap}).
+ *
+ * O índice é montado quando a aplicação sobe e depois mantido a cada livro
+ * cadastrado, alterado ou removido (ver {@link LiveIndex}). Uma entrada pode
+ * ficar desatualizada quando o isbn de um livro muda; quem consulta confere o
+ * isbn do livro encontrado.
+ *
+ * A montagem também preenche isbn_key dos livros gravados antes dessa coluna.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(IsbnIndexProperties.class)
+public class IsbnIndexServiceImpl implements IsbnIndexService, MeterBinder {
+
+	private final IsbnIndexProperties properties;
+
+	private final BookRepository bookRepository;
+
+	private final LiveIndex<LongLongHashMap> index;
+
+	private volatile boolean ready;
+
+	public IsbnIndexServiceImpl(IsbnIndexProperties properties, BookRepository bookRepository) {
+		this.properties = properties;
+		this.bookRepository = bookRepository;
+		this.index = new LiveIndex<>(new LongLongHashMap(0));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			// Sem o índice as buscas por isbn continuam indo ao banco.
+			log.warn("Isbn index rebuild failed", e);
+		}
+	}
+
+	@Override
+	public long findBookId(long isbnKey) {
+		return ready ? index.get().get(isbnKey) : LongLongHashMap.MISSING;
+	}
+
+	@Override
+	public void bookSaved(Book book) {
+		Long key = key(book);
+		if (key != null) {
+			index.apply(current -> current.put(key, book.getId()));
+		}
+	}
+
+	@Override
+	public void bookDeleted(Book book) {
+		Long key = key(book);
+		if (key != null) {
+			index.apply(current -> current.remove(key, book.getId()));
+		}
+	}
+
+	@Override
+	public void rebuild() {
+		long start = System.nanoTime();
+		int books = (int) Math.min(Integer.MAX_VALUE, bookRepository.count());
+		List<long[]> missingKeys = new ArrayList<>();
+		LongLongHashMap built = index.rebuild(() -> load(new LongLongHashMap(books), missingKeys));
+		ready = true;
+		log.info("Isbn index rebuilt with {} books in {} MB in {} ms", built.size(), built.bytes() / 1_000_000,
+				(System.nanoTime() - start) / 1_000_000);
+		backfill(missingKeys);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("book.isbn.index.entries", this, service -> service.index.get().size())
+				.description("Books in the isbn index").register(registry);
+		Gauge.builder("book.isbn.index.bytes", this, service -> service.index.get().bytes())
+				.description("Memory used by the isbn index table").register(registry);
+	}
+
+	private LongLongHashMap load(LongLongHashMap built, List<long[]> missingKeys) {
+		Long lastId = 0L;
+		List<Object[]> page;
+		do {
+			page = bookRepository.findIsbnsAfter(lastId, PageRequest.of(0, properties.getPageSize()));
+			for (Object[] row : page) {
+				lastId = (Long) row[0];
+				Long key = row[2] != null ? (Long) row[2] : Isbn.key((String) row[1]);
+				if (key != null) {
+					built.put(key, lastId);
+					if (row[2] == null) {
+						missingKeys.add(new long[] { lastId, key });
+					}
+				}
+			}
+		} while (page.size() == properties.getPageSize());
+		return built;
+	}
+
+	private void backfill(List<long[]> missingKeys) {
+		int updated = 0;
+		for (long[] missing : missingKeys) {
+			try {
+				updated += bookRepository.updateIsbnKey(missing[0], missing[1]);
+			} catch (DataIntegrityViolationException e) {
+				// O mesmo livro cadastrado como ISBN-10 e como ISBN-13: o segundo fica sem isbn_key.
+				log.warn("Book {} has the same ISBN-13 {} as another book", missing[0], missing[1]);
+			}
+		}
+		if (updated > 0) {
+			log.info("Filled isbn_key of {} books", updated);
+		}
+	}
+
+	// Calculada do isbn: isbn_key só é atualizada no flush, depois desta chamada.
+	private static Long key(Book book) {
+		return Isbn.key(book.getIsbn());
+	}
+
+}
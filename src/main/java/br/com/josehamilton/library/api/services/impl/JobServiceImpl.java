@@ -0,0 +1,399 @@
+package br.com.josehamilton.library.api.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.josehamilton.library.api.batch.BatchJob;
+import br.com.josehamilton.library.api.batch.BatchProperties;
+import br.com.josehamilton.library.api.batch.CheckpointTracker;
+import br.com.josehamilton.library.api.batch.JobStatus;
+import br.com.josehamilton.library.api.bulkhead.Bulkhead;
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.bulkhead.Workload;
+import br.com.josehamilton.library.api.model.entity.JobCheckpoint;
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+import br.com.josehamilton.library.api.model.repositories.JobCheckpointRepository;
+import br.com.josehamilton.library.api.model.repositories.JobExecutionRepository;
+import br.com.josehamilton.library.api.services.JobService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Execução dos {@link BatchJob} em chunks.
+ *
+ * <ul>
+ * <li>A execução lê os itens em páginas de {@code chunkSize} e cada página vira
+ * um chunk, processado e gravado em uma transação junto com o seu checkpoint e
+ * os contadores da execução.</li>
+ * <li>Com {@code parallelism} maior que 1, os chunks são gravados por threads
+ * próprias do job enquanto a próxima página é lida, com no máximo
+ * {@code parallelism} chunks e leituras ao mesmo tempo. As threads usam a cota
+ * de conexões do bulkhead de quem iniciou a execução.</li>
+ * <li>Antes de cada leitura a execução renova o sinal de vida; é aí que ela
+ * percebe um pedido de parada.</li>
+ * <li>Uma execução que falhou, foi parada ou ficou sem sinal de vida por
+ * {@code staleAfter} é retomada pela próxima com a mesma chave: os itens
+ * cobertos pelos checkpoints gravados são pulados.</li>
+ * </ul>
+ *
+ * Métricas em batch.job.items, batch.job.chunks e batch.job.running, por job.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(BatchProperties.class)
+public class JobServiceImpl implements JobService, MeterBinder {
+
+	private static final int MAX_ERROR_LENGTH = 500;
+
+	private final BatchProperties properties;
+
+	private final Map<String, BatchJob<?, ?>> jobs;
+
+	private final Map<String, JobCounters> counters;
+
+	private final JobExecutionRepository executionRepository;
+
+	private final JobCheckpointRepository checkpointRepository;
+
+	private final BulkheadRegistry bulkheadRegistry;
+
+	// Transações de escrita: as leituras vão para o banco principal, nunca para a réplica.
+	private final TransactionTemplate transactionTemplate;
+
+	// Proxies lazy: as métricas não obrigam a criação do JPA na inicialização
+	public JobServiceImpl(BatchProperties properties, List<BatchJob<?, ?>> jobs,
+			@Lazy JobExecutionRepository executionRepository, @Lazy JobCheckpointRepository checkpointRepository,
+			BulkheadRegistry bulkheadRegistry, @Lazy PlatformTransactionManager transactionManager) {
+		this.properties = properties;
+		this.jobs = jobs.stream()
+				.collect(Collectors.toMap(BatchJob::getName, Function.identity(), (a, b) -> {
+					throw new IllegalStateException("Duplicate batch job: " + a.getName());
+				}, TreeMap::new));
+		this.counters = this.jobs.keySet().stream()
+				.collect(Collectors.toMap(Function.identity(), name -> new JobCounters()));
+		this.executionRepository = executionRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.bulkheadRegistry = bulkheadRegistry;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public List<String> getJobNames() {
+		return new ArrayList<>(jobs.keySet());
+	}
+
+	@Override
+	public Optional<JobExecution> getLastExecution(String jobName) {
+		return executionRepository.findFirstByJobNameOrderByIdDesc(jobName);
+	}
+
+	@Override
+	public List<JobExecution> getExecutions(String jobName) {
+		return executionRepository.findByJobNameOrderByIdDesc(jobName, PageRequest.of(0, properties.getHistory()));
+	}
+
+	@Override
+	public Optional<JobExecution> run(String jobName) {
+		BatchJob<?, ?> job = job(jobName);
+		return claim(job).map(execution -> execute(job, execution));
+	}
+
+	@Override
+	public Optional<JobExecution> launch(String jobName) {
+		BatchJob<?, ?> job = job(jobName);
+		return claim(job).map(execution -> {
+			try {
+				bulkheadRegistry.get(Workload.BATCH).execute(() -> execute(job, execution));
+				return execution;
+			} catch (RejectedExecutionException e) {
+				log.warn("Job {} skipped: batch bulkhead is full", jobName);
+				finish(execution, JobStatus.FAILED, execution.getCheckpoint(), "Batch bulkhead is full");
+				return reload(execution);
+			}
+		});
+	}
+
+	@Override
+	public Optional<JobExecution> stop(String jobName) {
+		job(jobName);
+		return transactionTemplate.execute(status -> {
+			if (executionRepository.requestStop(jobName, JobStatus.RUNNING, JobStatus.STOPPING) > 0) {
+				log.info("Stop requested for job {}", jobName);
+			}
+			return executionRepository.findFirstByJobNameOrderByIdDesc(jobName);
+		});
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		counters.forEach((name, jobCounters) -> {
+			FunctionCounter.builder("batch.job.items", jobCounters.read, LongAdder::sum).tag("job", name)
+					.tag("type", "read").description("Items read by batch jobs").register(registry);
+			FunctionCounter.builder("batch.job.items", jobCounters.written, LongAdder::sum).tag("job", name)
+					.tag("type", "written").description("Items written by batch jobs").register(registry);
+			FunctionCounter.builder("batch.job.chunks", jobCounters.chunks, LongAdder::sum).tag("job", name)
+					.description("Chunks committed by batch jobs").register(registry);
+			Gauge.builder("batch.job.running", jobCounters.running, AtomicInteger::get).tag("job", name)
+					.description("Executions of the batch job running in this instance").register(registry);
+		});
+	}
+
+	private BatchJob<?, ?> job(String jobName) {
+		BatchJob<?, ?> job = jobs.get(jobName);
+		if (job == null) {
+			throw new IllegalArgumentException("Unknown batch job: " + jobName);
+		}
+		return job;
+	}
+
+	/**
+	 * Cria a execução ou retoma a última com a mesma chave. Uma execução de
+	 * outra chave sem sinal de vida há {@code staleAfter} é encerrada como
+	 * FAILED. Vazio se o job já estiver rodando, nesta ou em outra instância.
+	 */
+	private Optional<JobExecution> claim(BatchJob<?, ?> job) {
+		String owner = UUID.randomUUID().toString();
+		String key = job.key();
+		LocalDateTime now = LocalDateTime.now();
+		try {
+			return transactionTemplate.execute(status -> {
+				// Sem isso, a execução de um dia anterior que ficou RUNNING bloquearia o job para sempre
+				if (executionRepository.failAbandoned(job.getName(), key, JobStatus.FAILED, "Abandoned",
+						now.minus(properties.getStaleAfter()), now) > 0) {
+					log.warn("Abandoned execution of job {} marked as failed", job.getName());
+				}
+				Optional<JobExecution> last = executionRepository.findFirstByJobNameAndJobKeyOrderByIdDesc(job.getName(),
+						key);
+				if (last.isPresent() && last.get().getStatus() != JobStatus.COMPLETED) {
+					Long id = last.get().getId();
+					int claimed = executionRepository.claim(id, owner, JobStatus.RUNNING,
+							Arrays.asList(JobStatus.FAILED, JobStatus.STOPPED),
+							Arrays.asList(JobStatus.RUNNING, JobStatus.STOPPING), now.minus(properties.getStaleAfter()),
+							now);
+					return claimed > 0 ? executionRepository.findById(id) : Optional.<JobExecution>empty();
+				}
+				return Optional.of(executionRepository.save(JobExecution.builder().jobName(job.getName()).jobKey(key)
+						.status(JobStatus.RUNNING).runningJob(job.getName()).owner(owner).startedAt(now)
+						.updatedAt(now).build()));
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Índice único de running_job: outra execução do job está em andamento
+			return Optional.empty();
+		}
+	}
+
+	private JobExecution execute(BatchJob<?, ?> job, JobExecution execution) {
+		try {
+			return executeChunks(job, execution);
+		} catch (RuntimeException e) {
+			// Falha fora dos chunks (no banco, por exemplo); sem o sinal de vida, a execução é retomada depois de staleAfter.
+			log.warn("Execution {} of job {} failed", execution.getId(), job.getName(), e);
+			finish(execution, JobStatus.FAILED, execution.getCheckpoint(), e.toString());
+			return reload(execution);
+		}
+	}
+
+	private <I, O> JobExecution executeChunks(BatchJob<I, O> job, JobExecution execution) {
+		BatchProperties.Job settings = properties.getJob(job.getName());
+		JobCounters jobCounters = counters.get(job.getName());
+		int chunkSize = settings.getChunkSize();
+		int parallelism = Math.max(1, settings.getParallelism());
+		CheckpointTracker tracker = new CheckpointTracker();
+		transactionTemplate.execute(status -> {
+			checkpointRepository.findByExecutionId(execution.getId())
+					.forEach(checkpoint -> tracker.completed(checkpoint.getAfterPosition(), checkpoint.getLastPosition()));
+			return null;
+		});
+		if (tracker.getCheckpoint() > 0 || execution.getReadCount() > 0) {
+			log.info("Resuming execution {} of job {} from position {}", execution.getId(), job.getName(),
+					tracker.getCheckpoint());
+		}
+		ExecutorService workers = null;
+		if (parallelism > 1) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("job-" + job.getName() + "-");
+			threadFactory.setDaemon(true);
+			workers = Executors.newFixedThreadPool(parallelism, threadFactory);
+		}
+		// Uma permissão para cada leitura ou chunk em andamento: limita também as conexões da execução.
+		Semaphore permits = new Semaphore(parallelism);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Bulkhead bulkhead = Bulkhead.current();
+		boolean stopped = false;
+		jobCounters.running.incrementAndGet();
+		long start = System.nanoTime();
+		try {
+			long after = tracker.getCheckpoint();
+			boolean more = true;
+			while (more && failure.get() == null) {
+				permits.acquire();
+				boolean submitted = false;
+				try {
+					if (!heartbeat(execution, tracker.getCheckpoint())) {
+						stopped = true;
+						break;
+					}
+					long from = after;
+					List<I> items = transactionTemplate.execute(status -> job.read(from, chunkSize));
+					if (items.isEmpty()) {
+						break;
+					}
+					long last = job.position(items.get(items.size() - 1));
+					after = last;
+					more = items.size() == chunkSize;
+					List<I> pending = items.stream().filter(item -> !tracker.isDone(job.position(item)))
+							.collect(Collectors.toList());
+					if (pending.isEmpty()) {
+						continue;
+					}
+					Runnable chunk = () -> writeChunk(job, execution, tracker, jobCounters, from, last, pending,
+							failure);
+					if (workers == null) {
+						chunk.run();
+					} else {
+						Runnable task = () -> {
+							try {
+								chunk.run();
+							} finally {
+								permits.release();
+							}
+						};
+						workers.execute(bulkhead != null ? bulkhead.propagate(task) : task);
+						submitted = true;
+					}
+				} finally {
+					if (!submitted) {
+						permits.release();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, e);
+		} catch (RuntimeException e) {
+			failure.compareAndSet(null, e);
+		} finally {
+			// Espera os chunks em andamento antes de encerrar a execução
+			permits.acquireUninterruptibly(parallelism);
+			if (workers != null) {
+				workers.shutdown();
+			}
+			jobCounters.running.decrementAndGet();
+		}
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		Throwable error = failure.get();
+		if (error == null && !stopped) {
+			try {
+				job.completed(reload(execution));
+			} catch (RuntimeException e) {
+				error = e;
+			}
+		}
+		if (error != null) {
+			log.warn("Execution {} of job {} failed at position {} after {} ms", execution.getId(), job.getName(),
+					tracker.getCheckpoint(), millis, error);
+			finish(execution, JobStatus.FAILED, tracker.getCheckpoint(), error.toString());
+		} else if (stopped) {
+			log.info("Execution {} of job {} stopped at position {} after {} ms", execution.getId(), job.getName(),
+					tracker.getCheckpoint(), millis);
+			finish(execution, JobStatus.STOPPED, tracker.getCheckpoint(), null);
+		} else {
+			log.info("Execution {} of job {} completed in {} ms", execution.getId(), job.getName(), millis);
+			finish(execution, JobStatus.COMPLETED, tracker.getCheckpoint(), null);
+		}
+		return reload(execution);
+	}
+
+	private <I, O> void writeChunk(BatchJob<I, O> job, JobExecution execution, CheckpointTracker tracker,
+			JobCounters jobCounters, long after, long last, List<I> items, AtomicReference<Throwable> failure) {
+		if (failure.get() != null) {
+			return;
+		}
+		try {
+			int written = transactionTemplate.execute(status -> {
+				List<O> output = items.stream().map(job::process).filter(Objects::nonNull)
+						.collect(Collectors.toList());
+				if (!output.isEmpty()) {
+					job.write(output);
+				}
+				checkpointRepository.save(JobCheckpoint.builder().executionId(execution.getId()).afterPosition(after)
+						.lastPosition(last).items(items.size()).committedAt(LocalDateTime.now()).build());
+				if (executionRepository.addCounts(execution.getId(), execution.getOwner(), items.size(),
+						output.size()) == 0) {
+					throw new IllegalStateException("Execution " + execution.getId() + " of job " + job.getName()
+							+ " was resumed by another instance");
+				}
+				return output.size();
+			});
+			tracker.completed(after, last);
+			jobCounters.read.add(items.size());
+			jobCounters.written.add(written);
+			jobCounters.chunks.increment();
+		} catch (RuntimeException e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+
+	// false quando a parada foi pedida ou a execução passou para outra instância.
+	private boolean heartbeat(JobExecution execution, long checkpoint) {
+		return transactionTemplate.execute(status -> executionRepository.heartbeat(execution.getId(),
+				execution.getOwner(), JobStatus.RUNNING, checkpoint, LocalDateTime.now())) > 0;
+	}
+
+	private void finish(JobExecution execution, JobStatus status, long checkpoint, String error) {
+		String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH)
+				: error;
+		transactionTemplate.execute(transaction -> {
+			if (status == JobStatus.COMPLETED) {
+				checkpointRepository.deleteByExecutionId(execution.getId());
+			}
+			return executionRepository.finish(execution.getId(), execution.getOwner(), status, checkpoint, message,
+					LocalDateTime.now());
+		});
+	}
+
+	private JobExecution reload(JobExecution execution) {
+		return transactionTemplate.execute(status -> executionRepository.findById(execution.getId()))
+				.orElse(execution);
+	}
+
+	private static class JobCounters {
+
+		private final LongAdder read = new LongAdder();
+
+		private final LongAdder written = new LongAdder();
+
+		private final LongAdder chunks = new LongAdder();
+
+		private final AtomicInteger running = new AtomicInteger();
+
+	}
+
+}
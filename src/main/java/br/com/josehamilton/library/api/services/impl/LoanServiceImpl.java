@@ -1,62 +1,276 @@
 package br.com.josehamilton.library.api.services.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.josehamilton.library.api.dtos.BatchLoanDTO;
+import br.com.josehamilton.library.api.dtos.BatchLoanResultDTO;
 import br.com.josehamilton.library.api.dtos.LoanFilterDTO;
+import br.com.josehamilton.library.api.events.LoanEventBroadcaster;
+import br.com.josehamilton.library.api.events.LoanEventType;
+import br.com.josehamilton.library.api.invalidation.CacheInvalidationBus;
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.jfr.LoanSaveEvent;
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
 import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.CustomerService;
 import br.com.josehamilton.library.api.services.LoanService;
 import br.com.josehamilton.library.exception.BusinessException;
 
 @Service
 public class LoanServiceImpl implements LoanService {
 
+	// Prazo do empréstimo: no dia loanDate + LOAN_DAYS o livro já está atrasado.
+	static final int LOAN_DAYS = 4;
+
 	private LoanRepository repository;
 
-	public LoanServiceImpl(LoanRepository repository) {
+	private BookRepository bookRepository;
+
+	private CustomerService customerService;
+
+	private BookSuggestionService suggestionService;
+
+	private LoanEventBroadcaster events;
+
+	private CacheInvalidationBus invalidationBus;
+
+	public LoanServiceImpl(LoanRepository repository, BookRepository bookRepository,
+			CustomerService customerService, BookSuggestionService suggestionService, LoanEventBroadcaster events,
+			CacheInvalidationBus invalidationBus) {
 		this.repository = repository;
+		this.bookRepository = bookRepository;
+		this.customerService = customerService;
+		this.suggestionService = suggestionService;
+		this.events = events;
+		this.invalidationBus = invalidationBus;
 	}
 
 	@Override
+	@Transactional
 	public Loan save(Loan loan) {
+		LoanSaveEvent event = new LoanSaveEvent();
+		event.begin();
+		try {
+			if (loan.getBook() != null) {
+				event.setBookId(loan.getBook().getId() != null ? loan.getBook().getId() : 0L);
+				event.setIsbn(loan.getBook().getIsbn());
+			}
+			if (repository.existsByBookAndNotReturned(loan.getBook())) {
+				event.setAlreadyLoaned(true);
+				throw new BusinessException("Book already loaned.");
+			}
+			Customer customer = loan.getCustomer();
+			if (customer != null && customer.getId() == null) {
+				loan.setCustomer(customerService.getOrCreate(customer.getName(), customer.getEmail()));
+			}
+			Loan saved = this.repository.save(loan);
+			suggestionService.bookBorrowed(saved.getBook());
+			events.publish(LoanEventType.CREATED, saved);
+			invalidationBus.publish(InvalidationType.BOOK_BORROWED, saved.getBook());
+			return saved;
+		} finally {
+			event.commit();
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void validate(Loan loan) {
 		if (repository.existsByBookAndNotReturned(loan.getBook())) {
 			throw new BusinessException("Book already loaned.");
 		}
-		return this.repository.save(loan);
+		Customer customer = loan.getCustomer();
+		if (customer != null && customer.getId() == null) {
+			customerService.getByEmail(customer.getEmail());
+		}
+	}
+
+	/**
+	 * Empresta vários livros ao mesmo cliente em uma transação: os ISBNs são
+	 * resolvidos em uma consulta IN, a disponibilidade de todos os livros em
+	 * outra, e os empréstimos são gravados juntos. Como no empréstimo
+	 * individual, ISBN-10 e ISBNs com hífens são comparados pelo ISBN-13 (ver
+	 * {@link Isbn#canonical(String)}).
+	 */
+	@Override
+	@Transactional
+	public BatchLoanResultDTO saveAll(BatchLoanDTO batch) {
+		// Resultado na ordem da requisição; o mapa guarda a primeira ocorrência de cada ISBN.
+		List<BatchLoanResultDTO.Item> result = new ArrayList<>();
+		Map<String, BatchLoanResultDTO.Item> items = new LinkedHashMap<>();
+		Set<Long> isbnKeys = new HashSet<>();
+		Set<String> otherIsbns = new HashSet<>();
+		boolean failed = false;
+		for (String isbn : batch.getIsbns()) {
+			BatchLoanResultDTO.Item item = BatchLoanResultDTO.Item.builder().isbn(isbn).build();
+			Long key = Isbn.key(isbn);
+			if (items.putIfAbsent(key != null ? key.toString() : isbn, item) != null) {
+				item.setStatus(BatchLoanResultDTO.Status.DUPLICATED);
+				failed = true;
+			} else if (key != null) {
+				isbnKeys.add(key);
+			} else {
+				otherIsbns.add(isbn);
+			}
+			result.add(item);
+		}
+
+		// Só os isbns fora do padrão ISBN são comparados pelo texto.
+		List<Book> found = new ArrayList<>();
+		if (!isbnKeys.isEmpty()) {
+			found.addAll(bookRepository.findByIsbnKeyIn(isbnKeys));
+		}
+		if (!otherIsbns.isEmpty()) {
+			found.addAll(bookRepository.findByIsbnIn(otherIsbns));
+		}
+		Map<String, Book> books = found.stream()
+				.collect(Collectors.toMap(book -> Isbn.canonical(book.getIsbn()), Function.identity()));
+		Set<Long> loaned = books.isEmpty() ? new HashSet<>()
+				: new HashSet<>(repository.findNotReturnedBookIds(books.values()));
+
+		List<Loan> loans = new ArrayList<>();
+		for (Map.Entry<String, BatchLoanResultDTO.Item> entry : items.entrySet()) {
+			BatchLoanResultDTO.Item item = entry.getValue();
+			Book book = books.get(entry.getKey());
+			if (book == null) {
+				item.setStatus(BatchLoanResultDTO.Status.NOT_FOUND);
+				failed = true;
+			} else if (loaned.contains(book.getId())) {
+				item.setStatus(BatchLoanResultDTO.Status.ALREADY_LOANED);
+				failed = true;
+			} else {
+				loans.add(Loan.builder().book(book).loanDate(LocalDate.now()).build());
+			}
+		}
+
+		boolean create = !failed || batch.getMode() == BatchLoanDTO.Mode.BEST_EFFORT;
+		if (create && !loans.isEmpty()) {
+			Customer customer = customerService.getOrCreate(batch.getCustomer(), batch.getEmail());
+			loans.forEach(loan -> loan.setCustomer(customer));
+			repository.saveAll(loans);
+			for (Loan loan : loans) {
+				suggestionService.bookBorrowed(loan.getBook());
+				events.publish(LoanEventType.CREATED, loan);
+			}
+			invalidationBus.publishAll(InvalidationType.BOOK_BORROWED,
+					loans.stream().map(Loan::getBook).collect(Collectors.toList()));
+		}
+		for (Loan loan : loans) {
+			BatchLoanResultDTO.Item item = items.get(Isbn.canonical(loan.getBook().getIsbn()));
+			item.setStatus(create ? BatchLoanResultDTO.Status.CREATED : BatchLoanResultDTO.Status.SKIPPED);
+			item.setLoanId(loan.getId());
+		}
+
+		return BatchLoanResultDTO.builder().created(create ? loans.size() : 0).loans(result).build();
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Loan> getById(Long id) {
 		return this.repository.findById(id);
 	}
 
 	@Override
+	@Transactional
 	public Loan update(Loan loan) {
-		return this.repository.save(loan);
+		Loan updated = this.repository.save(loan);
+		if (Boolean.TRUE.equals(updated.getReturned())) {
+			events.publish(LoanEventType.RETURNED, updated);
+			invalidationBus.publish(InvalidationType.BOOK_RETURNED, updated.getBook());
+		}
+		return updated;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Loan> find(LoanFilterDTO filterDTO, Pageable pageable) {
-		return repository.findByBookIsbnOrCustomer(filterDTO.getIsbn(), filterDTO.getCustomer(), pageable);
+		Long isbnKey = Isbn.key(filterDTO.getIsbn());
+		return repository.findByBookIsbnOrCustomer(isbnKey, isbnKey == null ? filterDTO.getIsbn() : null,
+				Customer.nameKey(filterDTO.getCustomer()), pageable);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Loan> getLoansByBook(Book book, Pageable pageable) {
 		return repository.findByBook(book, pageable);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public Page<Loan> getLoansByCustomer(Customer customer, boolean activeOnly, Pageable pageable) {
+		return activeOnly ? repository.findByCustomerAndNotReturned(customer, pageable)
+				: repository.findByCustomer(customer, pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public List<Loan> getAllLateLoans() {
-		final Integer loanDays = 4;
-		LocalDate threeDaysAgo = LocalDate.now().minusDays(loanDays);
-		return repository.findByLoanDateLessThanAndNotReturned(threeDaysAgo);
+		return repository.findByLoanDateLessThanAndNotReturned(lateLoanDate());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<String> getLateLoansCustomerEmails() {
+		return repository.findCustomerEmailsByLoanDateLessThanAndNotReturned(lateLoanDate());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Customer> getLateLoansCustomers(Long lastId, int limit) {
+		return repository.findLateCustomersAfter(lastId, lateLoanDate(), PageRequest.of(0, limit));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long countLateLoans() {
+		return repository.countByLoanDateLessThanAndNotReturned(lateLoanDate());
+	}
+
+	/**
+	 * Publica um evento OVERDUE para cada empréstimo que ficou atrasado hoje
+	 * (os de dias anteriores já foram publicados pelas execuções anteriores).
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public int publishOverdueLoans() {
+		List<Loan> overdue = repository.findByLoanDateAndNotReturned(lateLoanDate());
+		overdue.forEach(loan -> events.publish(LoanEventType.OVERDUE, loan));
+		return overdue.size();
+	}
+
+	private static LocalDate lateLoanDate() {
+		return lateLoanDate(LocalDate.now());
+	}
+
+	// Empréstimos feitos até esta data estão atrasados na data informada.
+	static LocalDate lateLoanDate(LocalDate date) {
+		return date.minusDays(LOAN_DAYS);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> getMostBorrowedBookIds(int limit) {
+		return repository.findMostBorrowedBookIds(PageRequest.of(0, limit));
 	}
 
 }
@@ -0,0 +1,167 @@
+package br.com.josehamilton.library.api.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.model.entity.Book;
+
+/**
+ * Catálogo de livros somente leitura em um arquivo mapeado em memória.
+ *
+ * <pre>
+ * cabeçalho (48 bytes): magic, versão, bits do segmento, reservado (int),
+ *                       gerado em (epoch ms), último id de invalidação,
+ *                       quantidade de livros, posição do índice (long)
+ * registros:            título, autor e isbn como tamanho (int, -1 para null) + UTF-8
+ * índice:               (id, posição do registro) ordenado por id, 16 bytes cada
+ * </pre>
+ *
+ * O arquivo é mapeado em segmentos de 1 GB e nenhum registro atravessa o fim
+ * de um segmento. Nada é carregado no heap na abertura: as páginas são lidas
+ * pelo sistema operacional no primeiro acesso e cada busca decodifica só o
+ * registro encontrado. Leituras concorrentes são seguras.
+ */
+public final class CatalogSnapshot {
+
+	static final int MAGIC = 0x4C424353;
+
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 48;
+
+	static final int SEGMENT_BITS = 30;
+
+	static final int INDEX_ENTRY_SIZE = 16;
+
+	private final Path file;
+
+	private final ByteBuffer[] segments;
+
+	private final int segmentBits;
+
+	private final long generatedAt;
+
+	private final long invalidationId;
+
+	private final long count;
+
+	private final long indexOffset;
+
+	private final long bytes;
+
+	private CatalogSnapshot(Path file, ByteBuffer[] segments, int segmentBits, long generatedAt, long invalidationId,
+			long count, long indexOffset, long bytes) {
+		this.file = file;
+		this.segments = segments;
+		this.segmentBits = segmentBits;
+		this.generatedAt = generatedAt;
+		this.invalidationId = invalidationId;
+		this.count = count;
+		this.indexOffset = indexOffset;
+		this.bytes = bytes;
+	}
+
+	public static CatalogSnapshot open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+				// lê o cabeçalho inteiro
+			}
+			if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				throw new IOException("Not a catalog snapshot: " + file);
+			}
+			int segmentBits = header.getInt(8);
+			long count = header.getLong(32);
+			long indexOffset = header.getLong(40);
+			if (segmentBits < 6 || segmentBits > SEGMENT_BITS || count < 0 || indexOffset < HEADER_SIZE
+					|| indexOffset + count * INDEX_ENTRY_SIZE != size) {
+				throw new IOException("Catalog snapshot is truncated or corrupted: " + file);
+			}
+			long segmentSize = 1L << segmentBits;
+			ByteBuffer[] segments = new ByteBuffer[(int) ((size + segmentSize - 1) >>> segmentBits)];
+			for (int i = 0; i < segments.length; i++) {
+				long start = (long) i << segmentBits;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+			}
+			// O mapeamento continua válido depois que o canal é fechado.
+			return new CatalogSnapshot(file, segments, segmentBits, header.getLong(16), header.getLong(24), count,
+					indexOffset, size);
+		}
+	}
+
+	/**
+	 * Livro com o id informado ou null.
+	 */
+	public Book get(long id) {
+		long low = 0;
+		long high = count - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			long entry = indexOffset + middle * INDEX_ENTRY_SIZE;
+			long found = getLong(entry);
+			if (found < id) {
+				low = middle + 1;
+			} else if (found > id) {
+				high = middle - 1;
+			} else {
+				return read(id, getLong(entry + Long.BYTES));
+			}
+		}
+		return null;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public long getGeneratedAt() {
+		return generatedAt;
+	}
+
+	/**
+	 * Maior id do registro de invalidações quando a geração começou.
+	 */
+	public long getInvalidationId() {
+		return invalidationId;
+	}
+
+	public long size() {
+		return count;
+	}
+
+	public long bytes() {
+		return bytes;
+	}
+
+	private Book read(long id, long offset) {
+		ByteBuffer segment = segments[(int) (offset >>> segmentBits)];
+		int position = (int) (offset & ((1L << segmentBits) - 1));
+		String[] fields = new String[3];
+		for (int i = 0; i < fields.length; i++) {
+			int length = segment.getInt(position);
+			position += Integer.BYTES;
+			if (length >= 0) {
+				byte[] value = new byte[length];
+				for (int b = 0; b < length; b++) {
+					value[b] = segment.get(position + b);
+				}
+				fields[i] = new String(value, StandardCharsets.UTF_8);
+				position += length;
+			}
+		}
+		return Book.builder().id(id).title(fields[0]).author(fields[1]).isbn(fields[2]).isbnKey(Isbn.key(fields[2]))
+				.build();
+	}
+
+	// Entradas do índice têm 16 bytes e começam alinhadas, então nunca atravessam segmentos.
+	private long getLong(long offset) {
+		return segments[(int) (offset >>> segmentBits)].getLong((int) (offset & ((1L << segmentBits) - 1)));
+	}
+
+}
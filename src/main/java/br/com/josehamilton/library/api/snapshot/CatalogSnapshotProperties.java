@@ -0,0 +1,22 @@
+package br.com.josehamilton.library.api.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.catalog-snapshot")
+public class CatalogSnapshotProperties {
+
+	private boolean enabled = true;
+
+	// Reaproveitado na inicialização enquanto o registro de invalidações cobrir as alterações posteriores.
+	private String file = System.getProperty("java.io.tmpdir") + "/library-catalog.snapshot";
+
+	// Intervalo em ms, usado diretamente no @Scheduled; menor que a retenção das invalidações.
+	private long regenerateInterval = 1800000;
+
+	// Livros lidos do banco por consulta durante a geração.
+	private int pageSize = 10000;
+
+}
@@ -0,0 +1,149 @@
+package br.com.josehamilton.library.api.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava um {@link CatalogSnapshot}. Os livros devem ser incluídos em ordem
+ * crescente de id; registros e índice vão para arquivos temporários ao lado do
+ * destino, sem ficar em memória, e o arquivo completo só substitui o destino
+ * no {@link #commit()}. Sem commit, {@link #close()} apaga os temporários.
+ */
+public class CatalogSnapshotWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Path target;
+
+	private final Path records;
+
+	private final Path index;
+
+	private final DataOutputStream recordsOut;
+
+	private final DataOutputStream indexOut;
+
+	private final int segmentBits;
+
+	private final long generatedAt;
+
+	private final long invalidationId;
+
+	private long position = CatalogSnapshot.HEADER_SIZE;
+
+	private long count;
+
+	private long lastId = Long.MIN_VALUE;
+
+	private boolean committed;
+
+	public CatalogSnapshotWriter(Path target, long generatedAt, long invalidationId) throws IOException {
+		this(target, generatedAt, invalidationId, CatalogSnapshot.SEGMENT_BITS);
+	}
+
+	// Segmentos menores só nos testes, para exercitar registros que não cabem no fim de um segmento.
+	CatalogSnapshotWriter(Path target, long generatedAt, long invalidationId, int segmentBits) throws IOException {
+		this.target = target;
+		this.segmentBits = segmentBits;
+		this.generatedAt = generatedAt;
+		this.invalidationId = invalidationId;
+		Path directory = target.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		String prefix = target.getFileName().toString();
+		this.records = Files.createTempFile(directory, prefix, ".records");
+		this.index = Files.createTempFile(directory, prefix, ".index");
+		this.recordsOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(records), BUFFER_SIZE));
+		this.indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index), BUFFER_SIZE));
+		// O cabeçalho é preenchido no commit, quando a quantidade e a posição do índice são conhecidas.
+		recordsOut.write(new byte[CatalogSnapshot.HEADER_SIZE]);
+	}
+
+	public void add(long id, String title, String author, String isbn) throws IOException {
+		if (id <= lastId) {
+			throw new IllegalArgumentException("Books must be added in increasing id order");
+		}
+		byte[][] fields = { encode(title), encode(author), encode(isbn) };
+		long size = 0;
+		for (byte[] field : fields) {
+			size += Integer.BYTES + (field == null ? 0 : field.length);
+		}
+		long segmentEnd = ((position >>> segmentBits) + 1) << segmentBits;
+		if (position + size > segmentEnd) {
+			if (size > 1L << segmentBits) {
+				throw new IllegalArgumentException("Book " + id + " does not fit in a snapshot segment");
+			}
+			pad(segmentEnd - position);
+		}
+		indexOut.writeLong(id);
+		indexOut.writeLong(position);
+		for (byte[] field : fields) {
+			recordsOut.writeInt(field == null ? -1 : field.length);
+			if (field != null) {
+				recordsOut.write(field);
+			}
+		}
+		position += size;
+		count++;
+		lastId = id;
+	}
+
+	public long size() {
+		return count;
+	}
+
+	public void commit() throws IOException {
+		pad((CatalogSnapshot.INDEX_ENTRY_SIZE - position % CatalogSnapshot.INDEX_ENTRY_SIZE)
+				% CatalogSnapshot.INDEX_ENTRY_SIZE);
+		long indexOffset = position;
+		indexOut.close();
+		Files.copy(index, recordsOut);
+		recordsOut.close();
+		ByteBuffer header = ByteBuffer.allocate(CatalogSnapshot.HEADER_SIZE);
+		header.putInt(CatalogSnapshot.MAGIC).putInt(CatalogSnapshot.VERSION).putInt(segmentBits).putInt(0)
+				.putLong(generatedAt).putLong(invalidationId).putLong(count).putLong(indexOffset).flip();
+		try (FileChannel channel = FileChannel.open(records, StandardOpenOption.WRITE)) {
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+			channel.force(true);
+		}
+		// Leitores do arquivo anterior continuam com o mapeamento antigo.
+		Files.move(records, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		committed = true;
+		Files.deleteIfExists(index);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!committed) {
+			try {
+				recordsOut.close();
+				indexOut.close();
+			} finally {
+				Files.deleteIfExists(records);
+				Files.deleteIfExists(index);
+			}
+		}
+	}
+
+	private void pad(long bytes) throws IOException {
+		for (long i = 0; i < bytes; i++) {
+			recordsOut.write(0);
+		}
+		position += bytes;
+	}
+
+	private static byte[] encode(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
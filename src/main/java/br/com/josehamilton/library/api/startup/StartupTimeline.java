@@ -0,0 +1,138 @@
+package br.com.josehamilton.library.api.startup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+import br.com.josehamilton.library.api.dtos.StartupTimelineDTO;
+import br.com.josehamilton.library.api.dtos.StartupTimelineDTO.BeanTimingDTO;
+import br.com.josehamilton.library.api.dtos.StartupTimelineDTO.PhaseDTO;
+
+/**
+ * Tempos da inicialização da aplicação: duração de cada fase do
+ * SpringApplication e de criação de cada bean.
+ *
+ * O tempo de um bean vai do início da instanciação até o fim da inicialização.
+ * Beans criados durante a criação de outro (dependências) são descontados do
+ * tempo próprio ("self") do bean que os solicitou. Beans criados depois da
+ * aplicação pronta (inicialização lazy) são marcados como "afterStartup".
+ */
+public class StartupTimeline {
+
+	public static final String BEAN_NAME = "startupTimeline";
+
+	private final long start = System.nanoTime();
+
+	private final List<Mark> marks = new CopyOnWriteArrayList<>();
+
+	private final Map<String, BeanTimingDTO> beans = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<Deque<Frame>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private volatile boolean ready;
+
+	private final InstantiationAwareBeanPostProcessor beanPostProcessor = new InstantiationAwareBeanPostProcessor() {
+
+		@Override
+		public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+			creating.get().push(new Frame(beanName, beanClass.getName(), System.nanoTime()));
+			return null;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			Deque<Frame> stack = creating.get();
+			// Objetos de FactoryBean e beans criados fora do fluxo normal não têm início registrado.
+			if (stack.isEmpty() || !stack.peek().name.equals(beanName)) {
+				return bean;
+			}
+			Frame frame = stack.pop();
+			long total = System.nanoTime() - frame.start;
+			if (!stack.isEmpty()) {
+				stack.peek().children += total;
+			}
+			beans.put(beanName, BeanTimingDTO.builder().name(beanName).type(frame.type).millis(millis(total))
+					.selfMillis(millis(total - frame.children)).afterStartup(ready).build());
+			return bean;
+		}
+
+	};
+
+	public void mark(String phase) {
+		marks.add(new Mark(phase, System.nanoTime()));
+	}
+
+	public void ready() {
+		mark("ready");
+		ready = true;
+	}
+
+	/**
+	 * Registrado diretamente no BeanFactory. Não pode ser o próprio bean
+	 * "startupTimeline": um BeanPostProcessor registrado como singleton faz o
+	 * Spring acusar todos os beans como não processados.
+	 */
+	public InstantiationAwareBeanPostProcessor beanPostProcessor() {
+		return beanPostProcessor;
+	}
+
+	public StartupTimelineDTO snapshot() {
+		List<PhaseDTO> phases = new ArrayList<>();
+		long previous = start;
+		for (Mark mark : marks) {
+			phases.add(new PhaseDTO(mark.phase, millis(mark.time - previous)));
+			previous = mark.time;
+		}
+		List<BeanTimingDTO> timings = beans.values().stream()
+				.sorted(Comparator.comparingDouble(BeanTimingDTO::getSelfMillis).reversed())
+				.collect(Collectors.toList());
+		return StartupTimelineDTO.builder().totalMillis(millis(previous - start)).ready(ready).phases(phases)
+				.beans(timings).build();
+	}
+
+	private static double millis(long nanos) {
+		return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+	}
+
+	private static class Mark {
+
+		private final String phase;
+
+		private final long time;
+
+		Mark(String phase, long time) {
+			this.phase = phase;
+			this.time = time;
+		}
+
+	}
+
+	private static class Frame {
+
+		private final String name;
+
+		private final String type;
+
+		private final long start;
+
+		private long children;
+
+		Frame(String name, String type, long start) {
+			this.name = name;
+			this.type = type;
+			this.start = start;
+		}
+
+	}
+
+}
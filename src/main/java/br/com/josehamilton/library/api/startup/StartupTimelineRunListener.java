@@ -0,0 +1,67 @@
+package br.com.josehamilton.library.api.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import br.com.josehamilton.library.api.dtos.StartupTimelineDTO;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registra as fases da inicialização no {@link StartupTimeline} (registrado
+ * em META-INF/spring.factories) e, com a aplicação pronta, escreve no log as
+ * fases e os beans mais lentos.
+ */
+@Slf4j
+public class StartupTimelineRunListener implements SpringApplicationRunListener {
+
+	private static final int SLOWEST_BEANS = 10;
+
+	private final StartupTimeline timeline = new StartupTimeline();
+
+	public StartupTimelineRunListener(SpringApplication application, String[] args) {
+	}
+
+	@Override
+	public void environmentPrepared(ConfigurableEnvironment environment) {
+		timeline.mark("environment-prepared");
+	}
+
+	@Override
+	public void contextPrepared(ConfigurableApplicationContext context) {
+		timeline.mark("context-created");
+		context.getBeanFactory().addBeanPostProcessor(timeline.beanPostProcessor());
+		context.getBeanFactory().registerSingleton(StartupTimeline.BEAN_NAME, timeline);
+		context.addApplicationListener(event -> {
+			if (event instanceof ContextRefreshedEvent && ((ContextRefreshedEvent) event).getSource() == context) {
+				timeline.mark("context-refreshed");
+			} else if (event instanceof WebServerInitializedEvent) {
+				timeline.mark("web-server-started");
+			}
+		});
+	}
+
+	@Override
+	public void contextLoaded(ConfigurableApplicationContext context) {
+		timeline.mark("bean-definitions-loaded");
+	}
+
+	@Override
+	public void started(ConfigurableApplicationContext context) {
+		timeline.mark("started");
+	}
+
+	@Override
+	public void running(ConfigurableApplicationContext context) {
+		timeline.ready();
+		StartupTimelineDTO snapshot = timeline.snapshot();
+		log.info("Application ready in {} ms", snapshot.getTotalMillis());
+		snapshot.getPhases().forEach(phase -> log.info("  phase {}: {} ms", phase.getName(), phase.getMillis()));
+		snapshot.getBeans().stream().limit(SLOWEST_BEANS).forEach(bean -> log.info("  bean {} ({}): {} ms",
+				bean.getName(), bean.getType(), bean.getSelfMillis()));
+	}
+
+}
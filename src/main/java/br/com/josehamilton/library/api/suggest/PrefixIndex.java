@@ -0,0 +1,564 @@
+package br.com.josehamilton.library.api.suggest;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Índice de prefixos (árvore radix) sobre títulos e autores normalizados.
+ *
+ * Cada livro é indexado pelo início de cada palavra do título e do autor,
+ * então "pot" encontra "Harry Potter". As arestas guardam trechos inteiros
+ * de texto (compressão de caminho) e cada nó mantém os {@code topK} livros
+ * mais emprestados da sua subárvore: a consulta só percorre o prefixo e
+ * devolve essa lista pronta.
+ *
+ * Os dados dos livros ficam em um array indexado por posição (slot), e os nós
+ * guardam apenas os slots. As chaves são limitadas a {@code maxKeyLength}
+ * caracteres; consultas maiores são comparadas só até esse limite. Leituras e
+ * escritas são protegidas por um {@link ReadWriteLock}.
+ */
+public class PrefixIndex {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+	private static final int[] NO_SLOTS = new int[0];
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private final int topK;
+
+	private final int maxKeyLength;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Node root = new Node(new char[0]);
+
+	private final Map<Long, Integer> slots = new HashMap<>();
+
+	private final List<Integer> freeSlots = new ArrayList<>();
+
+	private Entry[] entries = new Entry[16];
+
+	private int size;
+
+	private int nodes = 1;
+
+	public PrefixIndex(int topK, int maxKeyLength) {
+		this.topK = topK;
+		this.maxKeyLength = maxKeyLength;
+	}
+
+	/**
+	 * Monta o índice em paralelo: as chaves são geradas em paralelo e cada
+	 * subárvore da raiz (uma por primeira letra) é construída em uma tarefa
+	 * separada do {@code pool}.
+	 */
+	public static PrefixIndex build(Collection<Entry> entries, int topK, int maxKeyLength, ForkJoinPool pool) {
+		PrefixIndex index = new PrefixIndex(topK, maxKeyLength);
+		for (Entry entry : entries) {
+			index.allocate(entry);
+		}
+		try {
+			List<Node> subtrees = pool.submit(() -> {
+				Map<Character, List<Key>> groups = IntStream.range(0, index.size).parallel().boxed()
+						.flatMap(slot -> index.keys(index.entries[slot]).stream().map(key -> new Key(key, slot)))
+						.collect(Collectors.groupingByConcurrent(key -> key.text.charAt(0)));
+				return groups.values().parallelStream().map(index::buildSubtree).collect(Collectors.toList());
+			}).get();
+			for (Node subtree : subtrees) {
+				index.nodes += index.count(subtree);
+				index.root.children = insertChild(index.root.children, subtree);
+			}
+			index.updateTop(index.root);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Prefix index build interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Prefix index build failed", e.getCause());
+		}
+		return index;
+	}
+
+	/**
+	 * Texto usado nas chaves e nas consultas: minúsculo, sem acentos e com
+	 * pontuação e espaços repetidos reduzidos a um espaço.
+	 */
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+		return SEPARATORS.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Livros cujo título ou autor tem uma palavra começando por {@code prefix},
+	 * do mais emprestado para o menos emprestado.
+	 */
+	public List<Entry> find(String prefix, int limit) {
+		String key = truncate(normalize(prefix));
+		if (key.isEmpty()) {
+			return Collections.emptyList();
+		}
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			int i = 0;
+			while (i < key.length()) {
+				int c = indexOf(node.children, key.charAt(i));
+				if (c < 0) {
+					return Collections.emptyList();
+				}
+				node = node.children[c];
+				for (int j = 0; j < node.label.length && i < key.length(); j++, i++) {
+					if (node.label[j] != key.charAt(i)) {
+						return Collections.emptyList();
+					}
+				}
+			}
+			int count = Math.min(limit, node.top.length);
+			List<Entry> result = new ArrayList<>(count);
+			for (int k = 0; k < count; k++) {
+				result.add(entries[node.top[k]].copy());
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Inclui o livro ou atualiza título e autor mantendo a contagem de
+	 * empréstimos já conhecida.
+	 */
+	public void put(long id, String isbn, String title, String author) {
+		lock.writeLock().lock();
+		try {
+			Integer slot = slots.get(id);
+			long loans = 0;
+			if (slot != null) {
+				Entry current = entries[slot];
+				if (current.getTitle().equals(nullToEmpty(title)) && current.getAuthor().equals(nullToEmpty(author))) {
+					current.setIsbn(isbn);
+					return;
+				}
+				loans = current.getLoans();
+				unlink(slot);
+			}
+			int added = allocate(new Entry(id, isbn, title, author, loans));
+			for (String key : keys(entries[added])) {
+				insert(key, added);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			Integer slot = slots.get(id);
+			if (slot != null) {
+				unlink(slot);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Soma {@code delta} empréstimos ao livro e reordena os nós do caminho de
+	 * cada uma das suas chaves.
+	 */
+	public void addLoans(long id, long delta) {
+		lock.writeLock().lock();
+		try {
+			Integer slot = slots.get(id);
+			if (slot == null) {
+				return;
+			}
+			entries[slot].setLoans(entries[slot].getLoans() + delta);
+			for (String key : keys(entries[slot])) {
+				refresh(key);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slots.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int nodes() {
+		lock.readLock().lock();
+		try {
+			return nodes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Chaves do livro: cada sufixo do título e do autor que começa em uma palavra.
+	Set<String> keys(Entry entry) {
+		Set<String> keys = new LinkedHashSet<>();
+		for (String field : new String[] { entry.getTitle(), entry.getAuthor() }) {
+			String text = normalize(field);
+			for (int i = 0; i < text.length(); i++) {
+				if (i == 0 || text.charAt(i - 1) == ' ') {
+					keys.add(truncate(text.substring(i)));
+				}
+			}
+		}
+		return keys;
+	}
+
+	private String truncate(String key) {
+		return key.length() > maxKeyLength ? key.substring(0, maxKeyLength).trim() : key;
+	}
+
+	private int allocate(Entry entry) {
+		int slot;
+		if (freeSlots.isEmpty()) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+			}
+			slot = size++;
+		} else {
+			slot = freeSlots.remove(freeSlots.size() - 1);
+		}
+		entries[slot] = new Entry(entry.getId(), entry.getIsbn(), nullToEmpty(entry.getTitle()),
+				nullToEmpty(entry.getAuthor()), entry.getLoans());
+		slots.put(entry.getId(), slot);
+		return slot;
+	}
+
+	private void unlink(int slot) {
+		for (String key : keys(entries[slot])) {
+			delete(key, slot);
+		}
+		slots.remove(entries[slot].getId());
+		entries[slot] = null;
+		freeSlots.add(slot);
+	}
+
+	private Node buildSubtree(List<Key> keys) {
+		Node subroot = new Node(new char[0]);
+		for (Key key : keys) {
+			insert(subroot, key.text, key.slot, null);
+		}
+		Node subtree = subroot.children[0];
+		computeTop(subtree);
+		return subtree;
+	}
+
+	private void insert(String key, int slot) {
+		List<Node> path = new ArrayList<>();
+		nodes += insert(root, key, slot, path);
+		for (int i = path.size() - 1; i >= 0; i--) {
+			updateTop(path.get(i));
+		}
+	}
+
+	// Insere a chave a partir de start e devolve quantos nós foram criados; path recebe os nós visitados.
+	private static int insert(Node start, String key, int slot, List<Node> path) {
+		Node node = start;
+		int created = 0;
+		int i = 0;
+		if (path != null) {
+			path.add(node);
+		}
+		while (i < key.length()) {
+			int c = indexOf(node.children, key.charAt(i));
+			if (c < 0) {
+				Node leaf = new Node(key.substring(i).toCharArray());
+				leaf.slots = new int[] { slot };
+				node.children = insertChild(node.children, leaf);
+				if (path != null) {
+					path.add(leaf);
+				}
+				return created + 1;
+			}
+			Node child = node.children[c];
+			int common = 0;
+			while (common < child.label.length && i + common < key.length()
+					&& child.label[common] == key.charAt(i + common)) {
+				common++;
+			}
+			if (common < child.label.length) {
+				// A chave diverge no meio da aresta: o trecho comum vira um nó intermediário.
+				Node middle = new Node(Arrays.copyOf(child.label, common));
+				child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+				middle.children = new Node[] { child };
+				middle.top = child.top;
+				node.children[c] = middle;
+				child = middle;
+				created++;
+			}
+			node = child;
+			i += common;
+			if (path != null) {
+				path.add(node);
+			}
+		}
+		if (!contains(node.slots, node.slots.length, slot)) {
+			node.slots = Arrays.copyOf(node.slots, node.slots.length + 1);
+			node.slots[node.slots.length - 1] = slot;
+		}
+		return created;
+	}
+
+	private void delete(String key, int slot) {
+		List<Node> path = walk(key);
+		if (path == null) {
+			return;
+		}
+		Node node = path.get(path.size() - 1);
+		node.slots = without(node.slots, slot);
+		for (int i = path.size() - 1; i > 0; i--) {
+			Node current = path.get(i);
+			Node parent = path.get(i - 1);
+			if (current.slots.length == 0 && current.children.length == 0) {
+				parent.children = without(parent.children, current);
+				nodes--;
+			} else if (current.slots.length == 0 && current.children.length == 1) {
+				// Nó intermediário sem livros próprios: a aresta é unida à do único filho.
+				Node child = current.children[0];
+				char[] label = Arrays.copyOf(current.label, current.label.length + child.label.length);
+				System.arraycopy(child.label, 0, label, current.label.length, child.label.length);
+				child.label = label;
+				parent.children[indexOf(parent.children, label[0])] = child;
+				nodes--;
+			} else {
+				updateTop(current);
+			}
+		}
+		updateTop(root);
+	}
+
+	private void refresh(String key) {
+		List<Node> path = walk(key);
+		if (path != null) {
+			for (int i = path.size() - 1; i >= 0; i--) {
+				updateTop(path.get(i));
+			}
+		}
+	}
+
+	// Nós do caminho da chave exata, ou null se ela não estiver no índice.
+	private List<Node> walk(String key) {
+		List<Node> path = new ArrayList<>();
+		Node node = root;
+		path.add(node);
+		int i = 0;
+		while (i < key.length()) {
+			int c = indexOf(node.children, key.charAt(i));
+			if (c < 0) {
+				return null;
+			}
+			node = node.children[c];
+			if (node.label.length > key.length() - i
+					|| !key.regionMatches(i, new String(node.label), 0, node.label.length)) {
+				return null;
+			}
+			i += node.label.length;
+			path.add(node);
+		}
+		return path;
+	}
+
+	private int count(Node node) {
+		int count = 1;
+		for (Node child : node.children) {
+			count += count(child);
+		}
+		return count;
+	}
+
+	private void computeTop(Node node) {
+		for (Node child : node.children) {
+			computeTop(child);
+		}
+		updateTop(node);
+	}
+
+	// Junta os livros do próprio nó com os melhores de cada filho e mantém os topK primeiros.
+	private void updateTop(Node node) {
+		int[] top = new int[topK];
+		int count = 0;
+		for (int slot : node.slots) {
+			count = offer(top, count, slot);
+		}
+		for (Node child : node.children) {
+			for (int slot : child.top) {
+				count = offer(top, count, slot);
+			}
+		}
+		node.top = count == topK ? top : Arrays.copyOf(top, count);
+	}
+
+	private int offer(int[] top, int count, int slot) {
+		if (contains(top, count, slot)) {
+			return count;
+		}
+		int position = count;
+		while (position > 0 && ranksBefore(slot, top[position - 1])) {
+			position--;
+		}
+		if (position >= topK) {
+			return count;
+		}
+		int moved = Math.min(count, topK - 1) - position;
+		System.arraycopy(top, position, top, position + 1, moved);
+		top[position] = slot;
+		return Math.min(count + 1, topK);
+	}
+
+	private boolean ranksBefore(int slot, int other) {
+		Entry a = entries[slot];
+		Entry b = entries[other];
+		return a.getLoans() != b.getLoans() ? a.getLoans() > b.getLoans() : a.getId() < b.getId();
+	}
+
+	private static boolean contains(int[] values, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int[] without(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				int[] result = new int[values.length - 1];
+				System.arraycopy(values, 0, result, 0, i);
+				System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+				return result;
+			}
+		}
+		return values;
+	}
+
+	private static Node[] without(Node[] children, Node child) {
+		Node[] result = new Node[children.length - 1];
+		int j = 0;
+		for (Node node : children) {
+			if (node != child) {
+				result[j++] = node;
+			}
+		}
+		return result;
+	}
+
+	// Filhos ordenados pelo primeiro caractere da aresta.
+	private static int indexOf(Node[] children, char c) {
+		int low = 0;
+		int high = children.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			char label = children[middle].label[0];
+			if (label < c) {
+				low = middle + 1;
+			} else if (label > c) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private static Node[] insertChild(Node[] children, Node child) {
+		int position = -(indexOf(children, child.label[0]) + 1);
+		Node[] result = new Node[children.length + 1];
+		System.arraycopy(children, 0, result, 0, position);
+		result[position] = child;
+		System.arraycopy(children, position, result, position + 1, children.length - position);
+		return result;
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+
+	private static final class Key {
+
+		private final String text;
+
+		private final int slot;
+
+		private Key(String text, int slot) {
+			this.text = text;
+			this.slot = slot;
+		}
+	}
+
+	private static final class Node {
+
+		private char[] label;
+
+		private Node[] children = NO_CHILDREN;
+
+		// Livros cuja chave termina exatamente neste nó.
+		private int[] slots = NO_SLOTS;
+
+		// Melhores livros da subárvore, do mais para o menos emprestado.
+		private int[] top = NO_SLOTS;
+
+		private Node(char[] label) {
+			this.label = label;
+		}
+	}
+
+	@Data
+	@Builder
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Entry {
+
+		private long id;
+
+		private String isbn;
+
+		private String title;
+
+		private String author;
+
+		private long loans;
+
+		private Entry copy() {
+			return new Entry(id, isbn, title, author, loans);
+		}
+	}
+
+}
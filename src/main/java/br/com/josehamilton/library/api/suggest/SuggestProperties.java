@@ -0,0 +1,23 @@
+package br.com.josehamilton.library.api.suggest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.suggest")
+public class SuggestProperties {
+
+	// Sugestões guardadas por nó do índice; é também o máximo devolvido por consulta.
+	private int maxResults = 10;
+
+	// Tamanho máximo de cada chave (e de cada consulta) em caracteres.
+	private int maxKeyLength = 32;
+
+	// Threads usadas na reconstrução do índice.
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	// Livros lidos do banco por consulta durante a reconstrução.
+	private int pageSize = 1000;
+
+}
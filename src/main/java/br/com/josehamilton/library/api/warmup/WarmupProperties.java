@@ -0,0 +1,31 @@
+package br.com.josehamilton.library.api.warmup;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("application.warmup")
+public class WarmupProperties {
+
+	private boolean enabled = false;
+
+	// Quantidade de livros mais emprestados carregados nos caches.
+	private int books = 100;
+
+	// Requisições sintéticas por rodada.
+	private int requestsPerRound = 50;
+
+	// Variação máxima da latência média entre rodadas para considerá-la estável.
+	private double tolerance = 0.1;
+
+	// Rodadas consecutivas dentro da tolerância para encerrar o aquecimento.
+	private int stableRounds = 2;
+
+	private int maxRounds = 50;
+
+	private Duration maxDuration = Duration.ofSeconds(60);
+
+}
@@ -0,0 +1,260 @@
+package br.com.josehamilton.library.api.warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.josehamilton.library.api.config.datasource.ReadWriteRoutingDataSource;
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.services.BookService;
+import br.com.josehamilton.library.api.services.LoanService;
+import br.com.josehamilton.library.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aquecimento executado após a inicialização e antes de a aplicação ser
+ * considerada pronta (ver
+ * {@link br.com.josehamilton.library.api.actuator.WarmupHealthIndicator}):
+ *
+ * <ol>
+ * <li>abre todas as conexões dos pools;</li>
+ * <li>carrega os livros mais emprestados nos caches (por id e por isbn);</li>
+ * <li>executa rodadas de requisições sintéticas nos endpoints principais até
+ * que a latência média se estabilize.</li>
+ * </ol>
+ *
+ * As requisições sintéticas não alteram dados: o cadastro de empréstimo via
+ * HTTP usa um isbn inexistente e, no serviço, só as consultas de validação do
+ * empréstimo são executadas.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupService {
+
+	public enum State {
+		PENDING, POOL, CACHES, REQUESTS, DONE, FAILED, DISABLED
+	}
+
+	private static final String MISSING_ISBN = "warmup-missing-isbn";
+
+	private final WarmupProperties properties;
+
+	private final DataSource dataSource;
+
+	private final BookService bookService;
+
+	private final LoanService loanService;
+
+	private final RestTemplateBuilder restTemplateBuilder;
+
+	private final Environment environment;
+
+	private volatile State state;
+
+	private volatile int poolConnections;
+
+	private volatile List<Book> books = Collections.emptyList();
+
+	private volatile int round;
+
+	private volatile double roundMillis;
+
+	private volatile String error;
+
+	// Serviços como proxies lazy: com o aquecimento desligado nada além do próprio bean é criado.
+	public WarmupService(WarmupProperties properties, DataSource dataSource, @Lazy BookService bookService,
+			@Lazy LoanService loanService, RestTemplateBuilder restTemplateBuilder, Environment environment) {
+		this.properties = properties;
+		this.dataSource = dataSource;
+		this.bookService = bookService;
+		this.loanService = loanService;
+		this.restTemplateBuilder = restTemplateBuilder;
+		this.environment = environment;
+		this.state = properties.isEnabled() ? State.PENDING : State.DISABLED;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (properties.isEnabled()) {
+			Thread thread = new Thread(this::run, "warmup");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	public void run() {
+		long start = System.nanoTime();
+		try {
+			state = State.POOL;
+			fillConnectionPools();
+			state = State.CACHES;
+			loadMostBorrowedBooks();
+			state = State.REQUESTS;
+			exerciseEndpoints(start);
+			state = State.DONE;
+			log.info("Warmup finished in {} ms after {} rounds ({} ms per request)",
+					(System.nanoTime() - start) / 1_000_000, round, roundMillis);
+		} catch (RuntimeException | SQLException e) {
+			log.warn("Warmup failed, application will report ready without it", e);
+			error = e.getMessage();
+			state = State.FAILED;
+		}
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public Map<String, Object> getDetails() {
+		Map<String, Object> details = new LinkedHashMap<>();
+		details.put("state", state);
+		details.put("poolConnections", poolConnections);
+		details.put("cachedBooks", books.size());
+		details.put("round", round);
+		details.put("roundMillis", roundMillis);
+		if (error != null) {
+			details.put("error", error);
+		}
+		return details;
+	}
+
+	private void fillConnectionPools() throws SQLException {
+		List<DataSource> pools = new ArrayList<>();
+		pools.add(unwrapPool(dataSource));
+		if (dataSource instanceof ReadWriteRoutingDataSource) {
+			pools.add(unwrapPool(((ReadWriteRoutingDataSource) dataSource).getReplica()));
+		}
+		for (DataSource pool : pools) {
+			int size = pool instanceof HikariDataSource ? ((HikariDataSource) pool).getMaximumPoolSize() : 1;
+			// As conexões ficam abertas ao mesmo tempo para que o pool crie todas agora.
+			List<Connection> connections = new ArrayList<>(size);
+			try {
+				for (int i = 0; i < size; i++) {
+					connections.add(pool.getConnection());
+				}
+				poolConnections += connections.size();
+			} finally {
+				for (Connection connection : connections) {
+					connection.close();
+				}
+			}
+		}
+	}
+
+	private static DataSource unwrapPool(DataSource dataSource) throws SQLException {
+		return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : dataSource;
+	}
+
+	private void loadMostBorrowedBooks() {
+		List<Book> loaded = new ArrayList<>();
+		for (Long id : loanService.getMostBorrowedBookIds(properties.getBooks())) {
+			bookService.getById(id).ifPresent(book -> {
+				bookService.getBookByIsbn(book.getIsbn());
+				loaded.add(book);
+			});
+		}
+		books = loaded;
+	}
+
+	private void exerciseEndpoints(long start) {
+		Optional<RestTemplate> http = Optional.ofNullable(environment.getProperty("local.server.port"))
+				.map(port -> restTemplateBuilder.rootUri("http://localhost:" + port).build());
+		if (!http.isPresent()) {
+			log.info("No local server port, warming up services only");
+		}
+		long deadline = start + properties.getMaxDuration().toNanos();
+		int stable = 0;
+		double previous = 0;
+		while (round < properties.getMaxRounds() && stable < properties.getStableRounds()
+				&& System.nanoTime() < deadline) {
+			long roundStart = System.nanoTime();
+			for (int i = 0; i < properties.getRequestsPerRound(); i++) {
+				request(http, i);
+			}
+			double current = (System.nanoTime() - roundStart) / 1e6 / properties.getRequestsPerRound();
+			stable = previous > 0 && Math.abs(current - previous) / previous <= properties.getTolerance() ? stable + 1
+					: 0;
+			previous = current;
+			roundMillis = Math.round(current * 1000) / 1000.0;
+			round++;
+		}
+	}
+
+	private void request(Optional<RestTemplate> http, int i) {
+		Book book = books.isEmpty() ? null : books.get(i % books.size());
+		String isbn = book != null ? book.getIsbn() : MISSING_ISBN;
+		try {
+			switch (i % 4) {
+			case 0:
+				if (http.isPresent()) {
+					http.get().getForObject("/api/books?isbn={isbn}", String.class, isbn);
+				} else {
+					bookService.getBookByIsbn(isbn);
+				}
+				break;
+			case 1:
+				if (http.isPresent()) {
+					String title = book != null ? book.getTitle() : "";
+					http.get().getForObject("/api/books?title={title}&page=0&size=10", String.class, title);
+				}
+				break;
+			case 2:
+				if (http.isPresent()) {
+					http.get().postForEntity("/api/loans", json(LoanDTO.builder().isbn(MISSING_ISBN)
+							.customer("warmup").email("warmup@library-api.com").build()), String.class);
+				}
+				break;
+			default:
+				if (book != null) {
+					validateLoan(book);
+				}
+			}
+		} catch (RestClientException e) {
+			// Respostas 4xx são esperadas (isbn inexistente); o caminho já foi exercitado.
+		}
+	}
+
+	// Só as consultas: a gravação, mesmo desfeita, tem efeitos fora da transação (contadores, eventos JFR).
+	private void validateLoan(Book book) {
+		try {
+			loanService.validate(Loan.builder().book(book).customer(Customer.of("warmup", "warmup@library-api.com"))
+					.loanDate(LocalDate.now()).build());
+		} catch (BusinessException e) {
+			// Livro já emprestado: a recusa também faz parte do caminho aquecido.
+		}
+	}
+
+	private static HttpEntity<LoanDTO> json(LoanDTO dto) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return new HttpEntity<>(dto, headers);
+	}
+
+}
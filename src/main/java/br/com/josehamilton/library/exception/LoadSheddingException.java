@@ -0,0 +1,16 @@
+package br.com.josehamilton.library.exception;
+
+public class LoadSheddingException extends RuntimeException {
+	private static final long serialVersionUID = 3861722455914838014L;
+
+	private final long retryAfterSeconds;
+
+	public LoadSheddingException(String s, long retryAfterSeconds) {
+		super(s);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
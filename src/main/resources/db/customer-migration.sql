@@ -0,0 +1,36 @@
+-- Migração de bancos existentes (H2) para a tabela customer: as colunas de texto
+-- loan.customer e loan.customer_email passam a ser a referência loan.id_customer.
+-- As chaves normalizadas seguem Customer.nameKey e Customer.emailKey.
+
+CREATE TABLE customer (
+	id BIGINT AUTO_INCREMENT PRIMARY KEY,
+	name VARCHAR(100),
+	email VARCHAR(255),
+	name_key VARCHAR(100),
+	email_key VARCHAR(255)
+);
+CREATE UNIQUE INDEX ux_customer_email_key ON customer (email_key);
+CREATE INDEX ix_customer_name_key ON customer (name_key);
+
+-- Um cliente por email
+INSERT INTO customer (name, email, name_key, email_key)
+	SELECT MAX(customer), MAX(customer_email), TRIM(REGEXP_REPLACE(LOWER(MAX(customer)), '\s+', ' ')),
+		TRIM(LOWER(customer_email))
+	FROM loan WHERE customer_email IS NOT NULL GROUP BY TRIM(LOWER(customer_email));
+
+-- Empréstimos sem email: um cliente por nome
+INSERT INTO customer (name, name_key)
+	SELECT MAX(customer), TRIM(REGEXP_REPLACE(LOWER(customer), '\s+', ' '))
+	FROM loan WHERE customer_email IS NULL GROUP BY TRIM(REGEXP_REPLACE(LOWER(customer), '\s+', ' '));
+
+ALTER TABLE loan ADD COLUMN id_customer BIGINT;
+UPDATE loan SET id_customer = (SELECT c.id FROM customer c WHERE c.email_key = TRIM(LOWER(loan.customer_email)))
+	WHERE customer_email IS NOT NULL;
+UPDATE loan SET id_customer = (SELECT c.id FROM customer c WHERE c.email_key IS NULL
+	AND c.name_key = TRIM(REGEXP_REPLACE(LOWER(loan.customer), '\s+', ' ')))
+	WHERE customer_email IS NULL;
+ALTER TABLE loan ADD CONSTRAINT fk_loan_customer FOREIGN KEY (id_customer) REFERENCES customer (id);
+CREATE INDEX ix_loan_customer ON loan (id_customer, loan_date);
+
+ALTER TABLE loan DROP COLUMN customer;
+ALTER TABLE loan DROP COLUMN customer_email;
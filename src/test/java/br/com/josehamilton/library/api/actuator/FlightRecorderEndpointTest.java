@@ -0,0 +1,29 @@
+package br.com.josehamilton.library.api.actuator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import br.com.josehamilton.library.api.services.FlightRecorderService;
+
+public class FlightRecorderEndpointTest {
+
+	@Test
+	@DisplayName("Deve recusar como erro do cliente um perfil de gravação desconhecido, listando os perfis aceitos.")
+	public void unknownProfileTest() {
+		// Cenário
+		FlightRecorderService service = Mockito.mock(FlightRecorderService.class);
+		FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(service);
+		// Execução
+		Throwable error = catchThrowable(() -> endpoint.start("memoria", null));
+		// Verificações
+		assertThat(error).isInstanceOf(InvalidEndpointRequestException.class).hasMessageContaining("CPU")
+				.hasMessageContaining("ALLOCATION");
+		Mockito.verifyNoInteractions(service);
+	}
+
+}
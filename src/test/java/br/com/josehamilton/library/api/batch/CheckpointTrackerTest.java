@@ -0,0 +1,48 @@
+package br.com.josehamilton.library.api.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CheckpointTrackerTest {
+
+	@Test
+	@DisplayName("Deve avançar o checkpoint só quando os chunks anteriores forem gravados.")
+	public void completedTest() {
+		// Cenário
+		CheckpointTracker tracker = new CheckpointTracker();
+		// Execução
+		long afterThird = tracker.completed(20, 30);
+		long afterSecond = tracker.completed(10, 20);
+		long afterFirst = tracker.completed(0, 10);
+		long afterRepeated = tracker.completed(0, 10);
+		// Verificações
+		assertThat(afterThird).isZero();
+		assertThat(afterSecond).isZero();
+		assertThat(afterFirst).isEqualTo(30);
+		assertThat(afterRepeated).isEqualTo(30);
+	}
+
+	@Test
+	@DisplayName("Deve reconhecer as posições dos chunks gravados depois do checkpoint.")
+	public void isDoneTest() {
+		// Cenário
+		CheckpointTracker tracker = new CheckpointTracker();
+		tracker.completed(0, 5);
+		tracker.completed(12, 15);
+		tracker.completed(15, 18);
+		tracker.completed(30, 40);
+		// Execução e verificações
+		assertThat(tracker.getCheckpoint()).isEqualTo(5);
+		assertThat(tracker.isDone(5)).isTrue();
+		assertThat(tracker.isDone(6)).isFalse();
+		assertThat(tracker.isDone(12)).isFalse();
+		assertThat(tracker.isDone(13)).isTrue();
+		assertThat(tracker.isDone(18)).isTrue();
+		assertThat(tracker.isDone(19)).isFalse();
+		assertThat(tracker.isDone(31)).isTrue();
+		assertThat(tracker.isDone(41)).isFalse();
+	}
+
+}
@@ -0,0 +1,106 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.josehamilton.library.api.logging.MeteredAsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Latência (p50/p99) de uma chamada log.info feita por threads de requisição,
+ * como em BookController, com o appender de arquivo síncrono e com o
+ * {@link MeteredAsyncAppender}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class AsyncLoggingBenchmark {
+
+	@Param({ "sync", "async" })
+	private String mode;
+
+	private Path directory;
+
+	private LoggerContext context;
+
+	private Logger logger;
+
+	private MeteredAsyncAppender asyncAppender;
+
+	@Setup
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("logging-benchmark");
+		context = new LoggerContext();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n");
+		encoder.start();
+
+		FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+		fileAppender.setContext(context);
+		fileAppender.setFile(directory.resolve("appfile.log").toString());
+		fileAppender.setEncoder(encoder);
+		fileAppender.start();
+
+		Appender<ILoggingEvent> appender = fileAppender;
+		if ("async".equals(mode)) {
+			asyncAppender = new MeteredAsyncAppender();
+			asyncAppender.setContext(context);
+			asyncAppender.setQueueSize(8192);
+			asyncAppender.addAppender(fileAppender);
+			asyncAppender.start();
+			appender = asyncAppender;
+		}
+
+		logger = context.getLogger("br.com.josehamilton.library.api.resources.BookController");
+		logger.setLevel(Level.INFO);
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		if (asyncAppender != null) {
+			System.out.println("Discarded log events: " + asyncAppender.getDiscardedEvents());
+		}
+		context.stop();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public void logRequest() {
+		logger.info("Obtaining details for book id: {}", 42L);
+	}
+
+}
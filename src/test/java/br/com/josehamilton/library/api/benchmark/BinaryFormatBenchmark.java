@@ -0,0 +1,109 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.dtos.PageEnvelope;
+import br.com.josehamilton.library.api.serialization.BookDTOSerializer;
+import br.com.josehamilton.library.api.serialization.LoanDTOSerializer;
+import br.com.josehamilton.library.api.serialization.PageEnvelopeSerializer;
+
+/**
+ * Custo de codificação e decodificação de uma página de 20 empréstimos e de um
+ * BookDTO de requisição em JSON, CBOR e Smile. O tamanho do payload de cada
+ * formato é impresso no início da execução.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+	private static final TypeReference<List<LoanDTO>> LOAN_LIST = new TypeReference<List<LoanDTO>>() {
+	};
+
+	@Param({ "json", "cbor", "smile" })
+	private String format;
+
+	private ObjectMapper mapper;
+
+	private PageEnvelope<LoanDTO> loanPage;
+
+	private BookDTO book;
+
+	private byte[] encodedLoans;
+
+	private byte[] encodedBook;
+
+	@Setup
+	public void setUp() throws IOException {
+		JsonFactory factory = "cbor".equals(format) ? new CBORFactory()
+				: "smile".equals(format) ? new SmileFactory() : new JsonFactory();
+		mapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+		mapper.registerModule(new SimpleModule().addSerializer(new PageEnvelopeSerializer())
+				.addSerializer(new BookDTOSerializer()).addSerializer(new LoanDTOSerializer()));
+
+		List<LoanDTO> loans = new ArrayList<>();
+		for (long i = 0; i < 20; i++) {
+			BookDTO loanBook = BookDTO.builder().id(i).title("As Aventuras de Tim Tim " + i).author("Hergé")
+					.isbn("978-85-359-0277-" + i).build();
+			loans.add(LoanDTO.builder().id(i).isbn(loanBook.getIsbn()).customer("Fulano " + i)
+					.email("fulano" + i + "@mail.com").book(loanBook).build());
+		}
+		loanPage = PageEnvelope.of(new PageImpl<>(loans, PageRequest.of(0, 20), 1000), null, LoanDTO.FIELDS);
+		book = loans.get(0).getBook();
+		encodedLoans = mapper.writeValueAsBytes(loans);
+		encodedBook = mapper.writeValueAsBytes(book);
+
+		System.out.printf("%n%s bytes: loan page=%d, book=%d%n", format, encodeLoanPage().length, encodedBook.length);
+	}
+
+	@Benchmark
+	public byte[] encodeLoanPage() throws IOException {
+		return mapper.writeValueAsBytes(loanPage);
+	}
+
+	@Benchmark
+	public List<LoanDTO> decodeLoans() throws IOException {
+		return mapper.readValue(encodedLoans, LOAN_LIST);
+	}
+
+	@Benchmark
+	public byte[] encodeBook() throws IOException {
+		return mapper.writeValueAsBytes(book);
+	}
+
+	@Benchmark
+	public BookDTO decodeBook() throws IOException {
+		return mapper.readValue(encodedBook, BookDTO.class);
+	}
+
+}
@@ -0,0 +1,117 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.response.ResponseCacheProperties;
+import br.com.josehamilton.library.api.serialization.BookDTOSerializer;
+import br.com.josehamilton.library.api.services.impl.BookResponseCacheServiceImpl;
+
+/**
+ * Trabalho de GET /api/books/{id} depois de o livro ser obtido: ModelMapper e
+ * Jackson a cada requisição contra os bytes do BookResponseCacheService. No
+ * início da execução são impressos os bytes alocados por requisição em cada
+ * caminho (medidos pela JVM para a thread atual).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookResponseBenchmark {
+
+	private static final int BOOKS = 1000;
+
+	private static final OutputStream DISCARD = new OutputStream() {
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	};
+
+	private ModelMapper modelMapper;
+
+	private ObjectMapper objectMapper;
+
+	private BookResponseCacheServiceImpl responseCache;
+
+	private Book[] books;
+
+	private int request;
+
+	@Setup
+	public void setUp() throws IOException {
+		modelMapper = new ModelMapper();
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		objectMapper.registerModule(new SimpleModule().addSerializer(new BookDTOSerializer()));
+		responseCache = new BookResponseCacheServiceImpl(new ResponseCacheProperties(), objectMapper);
+		books = new Book[BOOKS];
+		for (int i = 0; i < BOOKS; i++) {
+			books[i] = Book.builder().id((long) i).title("As Aventuras de Tim Tim " + i).author("Hergé")
+					.isbn("978-85-359-0277-" + i).build();
+		}
+		for (int i = 0; i < 20_000; i++) {
+			serialized();
+			cached();
+		}
+		System.out.printf("%nBytes allocated per request: serialized %d, cached %d%n", allocatedPerRequest(false),
+				allocatedPerRequest(true));
+	}
+
+	@Benchmark
+	public void serialized() throws IOException {
+		Book book = books[request++ % BOOKS];
+		objectMapper.writeValue(DISCARD, modelMapper.map(book, BookDTO.class));
+	}
+
+	@Benchmark
+	public void cached() throws IOException {
+		Book book = books[request++ % BOOKS];
+		byte[] body = responseCache.getJson(book.getId(), id -> Optional.of(modelMapper.map(book, BookDTO.class)))
+				.get().getBody();
+		DISCARD.write(body, 0, body.length);
+	}
+
+	private long allocatedPerRequest(boolean cached) throws IOException {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		int requests = 100_000;
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < requests; i++) {
+			if (cached) {
+				cached();
+			} else {
+				serialized();
+			}
+		}
+		return (threads.getThreadAllocatedBytes(threadId) - before) / requests;
+	}
+
+}
@@ -0,0 +1,87 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.josehamilton.library.api.dataset.DatasetGenerator;
+import br.com.josehamilton.library.api.fines.FineCalculator;
+import br.com.josehamilton.library.api.fines.FineCharge;
+import br.com.josehamilton.library.api.fines.FineProperties;
+import br.com.josehamilton.library.api.fines.OverdueLoan;
+import br.com.josehamilton.library.api.isbn.Isbn;
+
+/**
+ * Cálculo das multas de um milhão de empréstimos atrasados pelo
+ * {@link FineCalculator} com diferentes números de threads no fork-join, com
+ * políticas por livro e por cliente. Mostra quanto o cálculo escala com os
+ * núcleos da máquina, sem o banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FineCalculatorBenchmark {
+
+	private static final LocalDate TODAY = LocalDate.of(2020, 3, 20);
+
+	@Param({ "1", "2", "4", "8" })
+	private int parallelism;
+
+	private List<OverdueLoan> loans;
+
+	private FineCalculator calculator;
+
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setUp() {
+		FineProperties properties = new FineProperties();
+		Random random = new Random(42);
+		for (int i = 1; i <= 1000; i++) {
+			properties.getBooks().put(DatasetGenerator.isbn(i * 97),
+					new FineProperties.Policy(null, random.nextInt(3), null));
+			properties.getCustomers().put("cliente" + i * 13 + "@email.com",
+					new FineProperties.Policy(null, null, new BigDecimal("20.00")));
+		}
+		calculator = new FineCalculator(properties, 4);
+		loans = new ArrayList<>(1_000_000);
+		for (int i = 0; i < 1_000_000; i++) {
+			String isbn = DatasetGenerator.isbn(random.nextInt(100_000) + 1);
+			loans.add(new OverdueLoan(i + 1, TODAY.minusDays(4 + random.nextInt(60)), Isbn.key(isbn), isbn,
+					(long) random.nextInt(50_000), "cliente" + random.nextInt(50_000) + "@email.com",
+					random.nextInt(4) == 0 ? TODAY.minusDays(1) : null, null));
+		}
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public List<FineCharge> chargeAll() {
+		return calculator.chargeAll(loans, TODAY, pool, 1000);
+	}
+
+}
@@ -0,0 +1,92 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.josehamilton.library.api.dataset.DatasetGenerator;
+import br.com.josehamilton.library.api.isbn.LongLongHashMap;
+
+/**
+ * Busca de id por ISBN-13 no {@link LongLongHashMap} comparada com um
+ * HashMap de String para Long com os mesmos livros. No início de cada
+ * configuração é impressa a memória ocupada por cada mapa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx8g")
+public class IsbnIndexBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	private int books;
+
+	private long[] keys;
+
+	private String[] isbns;
+
+	private LongLongHashMap primitive;
+
+	private Map<String, Long> boxed;
+
+	private int query;
+
+	@Setup
+	public void setUp() {
+		keys = new long[books];
+		isbns = new String[books];
+		for (int i = 0; i < books; i++) {
+			isbns[i] = DatasetGenerator.isbn(i + 1);
+			keys[i] = Long.parseLong(isbns[i]);
+		}
+
+		long before = usedMemory();
+		primitive = new LongLongHashMap(books);
+		for (int i = 0; i < books; i++) {
+			primitive.put(keys[i], i + 1);
+		}
+		long primitiveBytes = usedMemory() - before;
+
+		before = usedMemory();
+		boxed = new HashMap<>(books * 4 / 3 + 1);
+		for (int i = 0; i < books; i++) {
+			boxed.put(new String(isbns[i]), (long) i + 1);
+		}
+		long boxedBytes = usedMemory() - before;
+		System.out.printf("%n%d books: LongLongHashMap %.1f MB (%d bytes per book), HashMap %.1f MB (%d bytes per book)%n",
+				books, primitiveBytes / 1e6, primitiveBytes / books, boxedBytes / 1e6, boxedBytes / books);
+	}
+
+	@Benchmark
+	public long primitive() {
+		return primitive.get(keys[query++ % books]);
+	}
+
+	@Benchmark
+	public Long hashMap() {
+		return boxed.get(isbns[query++ % books]);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
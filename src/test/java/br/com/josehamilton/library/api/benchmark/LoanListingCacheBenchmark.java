@@ -0,0 +1,124 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.josehamilton.library.api.LibraryApiApplication;
+import br.com.josehamilton.library.api.dtos.LoanFilterDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.CustomerRepository;
+import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+import br.com.josehamilton.library.api.services.LoanService;
+
+/**
+ * Listagem de empréstimos por cliente (LoanService.find) com e sem o cache de
+ * segundo nível de Book. Ao final de cada configuração é impressa a quantidade
+ * de comandos SQL por listagem: sem cache cada página relê os livros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanListingCacheBenchmark {
+
+	private static final int BOOKS = 200;
+	private static final int CUSTOMERS = 100;
+	private static final int LOANS_PER_CUSTOMER = 50;
+
+	@Param({ "true", "false" })
+	private String secondLevelCache;
+
+	private ConfigurableApplicationContext context;
+
+	private LoanService loanService;
+
+	private Statistics statistics;
+
+	private long listings;
+
+	private int customer;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(LibraryApiApplication.class).run(
+				"--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+				"--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache, "--server.port=0",
+				"--spring.boot.admin.client.enabled=false", "--logging.file=target/benchmark.log");
+		loanService = context.getBean(LoanService.class);
+		statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+		Random random = new Random(42);
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < BOOKS; i++) {
+			books.add(Book.builder().isbn("isbn-" + i).title("Title " + i).author("Author " + (i % 37)).build());
+		}
+		books = context.getBean(BookRepository.class).saveAll(books);
+		List<Loan> loans = new ArrayList<>();
+		CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+		for (int c = 0; c < CUSTOMERS; c++) {
+			Customer customer = customerRepository.save(Customer.of("customer-" + c, "customer-" + c + "@mail.com"));
+			for (int l = 0; l < LOANS_PER_CUSTOMER; l++) {
+				loans.add(Loan.builder().customer(customer)
+						.book(books.get(random.nextInt(BOOKS))).loanDate(LocalDate.now().minusDays(l))
+						.returned(true).build());
+			}
+		}
+		context.getBean(LoanRepository.class).saveAll(loans);
+	}
+
+	@Setup(Level.Iteration)
+	public void resetStatistics() {
+		statistics.clear();
+		listings = 0;
+	}
+
+	@TearDown(Level.Iteration)
+	public void printStatistics() {
+		System.out.printf("%nSQL statements per listing: %.2f (second level cache hits: %d)%n",
+				(double) statistics.getPrepareStatementCount() / listings, statistics.getSecondLevelCacheHitCount());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<Loan> listLoansByCustomer() {
+		listings++;
+		customer = (customer + 1) % CUSTOMERS;
+		LoanFilterDTO filter = LoanFilterDTO.builder().customer("customer-" + customer).build();
+		return loanService.find(filter, PageRequest.of(0, LOANS_PER_CUSTOMER));
+	}
+
+}
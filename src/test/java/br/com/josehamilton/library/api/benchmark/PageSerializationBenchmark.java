@@ -0,0 +1,118 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.dtos.PageEnvelope;
+import br.com.josehamilton.library.api.serialization.BookDTOSerializer;
+import br.com.josehamilton.library.api.serialization.LoanDTOSerializer;
+import br.com.josehamilton.library.api.serialization.PageEnvelopeSerializer;
+
+/**
+ * Tempo de serialização de uma página de 20 livros e de 20 empréstimos no
+ * formato antigo (PageImpl serializado por reflexão) e no PageEnvelope. Os bytes
+ * por resposta de cada formato são impressos no início da execução.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+	private static final int PAGE_SIZE = 20;
+
+	private ObjectMapper pageImplMapper;
+
+	private ObjectMapper envelopeMapper;
+
+	private Page<BookDTO> bookPage;
+
+	private Page<LoanDTO> loanPage;
+
+	private PageEnvelope<BookDTO> bookEnvelope;
+
+	private PageEnvelope<BookDTO> sparseBookEnvelope;
+
+	private PageEnvelope<LoanDTO> loanEnvelope;
+
+	@Setup
+	public void setUp() throws IOException {
+		pageImplMapper = Jackson2ObjectMapperBuilder.json().build();
+		envelopeMapper = Jackson2ObjectMapperBuilder.json().build();
+		envelopeMapper.registerModule(new SimpleModule().addSerializer(new PageEnvelopeSerializer())
+				.addSerializer(new BookDTOSerializer()).addSerializer(new LoanDTOSerializer()));
+
+		List<BookDTO> books = new ArrayList<>();
+		List<LoanDTO> loans = new ArrayList<>();
+		for (long i = 0; i < PAGE_SIZE; i++) {
+			BookDTO book = BookDTO.builder().id(i).title("As Aventuras de Tim Tim " + i).author("Hergé")
+					.isbn("978-85-359-0277-" + i).build();
+			books.add(book);
+			loans.add(LoanDTO.builder().id(i).isbn(book.getIsbn()).customer("Fulano " + i)
+					.email("fulano" + i + "@mail.com").book(book).build());
+		}
+		PageRequest pageRequest = PageRequest.of(3, PAGE_SIZE);
+		bookPage = new PageImpl<>(books, pageRequest, 1000);
+		loanPage = new PageImpl<>(loans, pageRequest, 1000);
+		bookEnvelope = PageEnvelope.of(bookPage, null, BookDTO.FIELDS);
+		sparseBookEnvelope = PageEnvelope.of(bookPage, new HashSet<>(Arrays.asList("title", "isbn")), BookDTO.FIELDS);
+		loanEnvelope = PageEnvelope.of(loanPage, Collections.emptySet(), LoanDTO.FIELDS);
+
+		System.out.printf("%nBytes per response: books PageImpl=%d envelope=%d sparse=%d; loans PageImpl=%d envelope=%d%n",
+				pageImplBooks().length, envelopeBooks().length, sparseEnvelopeBooks().length, pageImplLoans().length,
+				envelopeLoans().length);
+	}
+
+	@Benchmark
+	public byte[] pageImplBooks() throws IOException {
+		return pageImplMapper.writeValueAsBytes(bookPage);
+	}
+
+	@Benchmark
+	public byte[] envelopeBooks() throws IOException {
+		return envelopeMapper.writeValueAsBytes(bookEnvelope);
+	}
+
+	@Benchmark
+	public byte[] sparseEnvelopeBooks() throws IOException {
+		return envelopeMapper.writeValueAsBytes(sparseBookEnvelope);
+	}
+
+	@Benchmark
+	public byte[] pageImplLoans() throws IOException {
+		return pageImplMapper.writeValueAsBytes(loanPage);
+	}
+
+	@Benchmark
+	public byte[] envelopeLoans() throws IOException {
+		return envelopeMapper.writeValueAsBytes(loanEnvelope);
+	}
+
+}
@@ -0,0 +1,103 @@
+package br.com.josehamilton.library.api.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.josehamilton.library.api.dataset.DatasetGenerator;
+import br.com.josehamilton.library.api.search.TrigramIndex;
+
+/**
+ * Busca aproximada e construção em paralelo do {@link TrigramIndex} sobre um
+ * catálogo sintético (títulos e autores do DatasetGenerator). No início de
+ * cada configuração é impressa a memória ocupada pelo índice e a estimativa
+ * por milhão de livros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TrigramIndexBenchmark {
+
+	private static final String[] AUTHOR_TYPOS = { "Ana Almieda", "Bruno Barbos", "Carla Cardozo", "Danel Dias" };
+
+	private static final String[] TITLE_TYPOS = { "introdution spring", "tales histroy", "beyond jav" };
+
+	@Param({ "100000", "1000000" })
+	private int books;
+
+	private List<TrigramIndex.Entry> entries;
+
+	private TrigramIndex index;
+
+	private ForkJoinPool pool;
+
+	private int query;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		entries = new ArrayList<>(books);
+		for (long id = 1; id <= books; id++) {
+			entries.add(TrigramIndex.Entry.builder().id(id).title(DatasetGenerator.title(random))
+					.author(DatasetGenerator.author(random.nextInt(Math.max(1, books / 8)))).build());
+		}
+		pool = new ForkJoinPool();
+
+		long before = usedMemory();
+		index = TrigramIndex.build(entries, pool);
+		long bytes = usedMemory() - before;
+		System.out.printf("%n%d books, %d trigrams: %.1f MB, %d bytes per book, %.0f MB per million books%n", books,
+				index.trigramCount(), bytes / 1e6, bytes / books, bytes / 1e6 * 1_000_000 / books);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public List<TrigramIndex.Match> searchAuthor() {
+		return index.search(null, AUTHOR_TYPOS[query++ % AUTHOR_TYPOS.length], 0.5, 1000);
+	}
+
+	@Benchmark
+	public List<TrigramIndex.Match> searchTitle() {
+		return index.search(TITLE_TYPOS[query++ % TITLE_TYPOS.length], null, 0.5, 1000);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public TrigramIndex build() {
+		return TrigramIndex.build(entries, pool);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,54 @@
+package br.com.josehamilton.library.api.bloom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ScalableBloomFilterTest {
+
+	@Test
+	@DisplayName("Deve reconhecer todos os isbns incluídos e criar estágios quando a capacidade acabar.")
+	public void noFalseNegativesTest() {
+		// Cenário
+		ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+		// Execução
+		for (int i = 0; i < 10000; i++) {
+			filter.put(isbn(i));
+		}
+		filter.put(isbn(0));
+		// Verificações
+		for (int i = 0; i < 10000; i++) {
+			assertThat(filter.mightContain(isbn(i))).isTrue();
+		}
+		assertThat(filter.stageCount()).isEqualTo(4);
+		assertThat(filter.size()).isBetween(9900L, 10000L);
+	}
+
+	@Test
+	@DisplayName("Deve manter a taxa de falsos positivos abaixo da configurada mesmo depois de crescer.")
+	public void falsePositiveRateTest() {
+		// Cenário
+		ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+		for (int i = 0; i < 20000; i++) {
+			filter.put(isbn(i));
+		}
+		// Execução
+		int falsePositives = 0;
+		for (int i = 20000; i < 220000; i++) {
+			if (filter.mightContain(isbn(i))) {
+				falsePositives++;
+			}
+		}
+		// Verificações
+		double rate = falsePositives / 200000.0;
+		assertThat(rate).isLessThan(0.01);
+		assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01).isCloseTo(rate, offset(0.003));
+	}
+
+	private static String isbn(int i) {
+		return String.format("978%010d", i);
+	}
+
+}
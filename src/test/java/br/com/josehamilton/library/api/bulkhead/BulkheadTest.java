@@ -0,0 +1,215 @@
+package br.com.josehamilton.library.api.bulkhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.CustomerRepository;
+import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.boot.admin.client.enabled=false", "application.limiter.enabled=false",
+		"application.bulkhead.search.max-concurrent=2", "application.bulkhead.search.max-wait=0ms",
+		"application.bulkhead.search.connections=2", "application.bulkhead.search.connection-timeout=200ms",
+		"application.bulkhead.write.connections=" + BulkheadTest.WRITE_CONNECTIONS,
+		"application.bulkhead.write.connection-timeout=1s" })
+public class BulkheadTest {
+
+	static final int WRITE_CONNECTIONS = 4;
+
+	private static final int CHECKOUTS = 20;
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	BulkheadRegistry bulkheadRegistry;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	BookRepository bookRepository;
+
+	@Autowired
+	LoanRepository loanRepository;
+
+	@Autowired
+	CustomerRepository customerRepository;
+
+	@AfterEach
+	public void tearDown() {
+		loanRepository.deleteAll();
+		customerRepository.deleteAll();
+		bookRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve limitar as conexões de uma carga sem afetar as demais.")
+	public void connectionQuotaTest() {
+		// Cenário
+		Bulkhead search = bulkheadRegistry.get(Workload.SEARCH);
+		Bulkhead write = bulkheadRegistry.get(Workload.WRITE);
+		List<Connection> held = new ArrayList<>();
+		assertThat(search.tryEnter()).isTrue();
+		Throwable exhausted;
+		try {
+			held.add(dataSource.getConnection());
+			held.add(dataSource.getConnection());
+			// Execução
+			exhausted = catchThrowable(dataSource::getConnection);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		} finally {
+			search.exit();
+		}
+		// Verificações
+		assertThat(exhausted).isInstanceOf(SQLTransientConnectionException.class);
+		assertThat(search.getActiveConnections()).isEqualTo(2);
+		assertThat(search.getRejectedConnections()).isEqualTo(1);
+
+		assertThat(write.tryEnter()).isTrue();
+		try (Connection connection = dataSource.getConnection()) {
+			assertThat(write.getActiveConnections()).isEqualTo(1);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		} finally {
+			write.exit();
+		}
+		held.forEach(this::close);
+		assertThat(search.getActiveConnections()).isZero();
+		assertThat(write.getActiveConnections()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve manter a latência dos empréstimos estável durante uma enxurrada de buscas.")
+	public void checkoutLatencyUnderSearchFloodTest() throws Exception {
+		// Cenário
+		for (int i = 0; i < CHECKOUTS * 2; i++) {
+			bookRepository.save(Book.builder().isbn("isbn-" + i).title("Aventuras " + i).author("Fulano").build());
+		}
+		long baseline = medianCheckoutMillis(0);
+
+		AtomicBoolean flooding = new AtomicBoolean(true);
+		AtomicInteger searches = new AtomicInteger();
+		AtomicInteger rejectedSearches = new AtomicInteger();
+		ExecutorService flood = Executors.newFixedThreadPool(6);
+		for (int i = 0; i < 6; i++) {
+			flood.execute(() -> {
+				while (flooding.get()) {
+					ResponseEntity<String> response = restTemplate.getForEntity("/api/books?title=Aventuras&size=50",
+							String.class);
+					searches.incrementAndGet();
+					if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+						rejectedSearches.incrementAndGet();
+					}
+				}
+			});
+		}
+
+		// Execução
+		long underFlood;
+		try {
+			Thread.sleep(200);
+			underFlood = medianCheckoutMillis(CHECKOUTS);
+		} finally {
+			flooding.set(false);
+			flood.shutdown();
+			flood.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		// Verificações
+		assertThat(searches.get()).isGreaterThan(rejectedSearches.get());
+		assertThat(rejectedSearches.get()).isPositive();
+		assertThat(bulkheadRegistry.get(Workload.SEARCH).getRejected()).isPositive();
+		assertThat(bulkheadRegistry.get(Workload.WRITE).getRejected()).isZero();
+		assertThat(underFlood).isLessThanOrEqualTo(baseline * 5 + 50);
+	}
+
+	@Test
+	@DisplayName("Deve cadastrar clientes novos em empréstimos simultâneos acima da cota de conexões de escrita.")
+	public void concurrentNewCustomerCheckoutsTest() throws Exception {
+		// Cenário
+		int checkouts = WRITE_CONNECTIONS * 3;
+		for (int i = 0; i < checkouts; i++) {
+			bookRepository.save(Book.builder().isbn("isbn-" + i).title("Aventuras " + i).author("Fulano").build());
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService clients = Executors.newFixedThreadPool(checkouts);
+		List<Future<HttpStatus>> statuses = new ArrayList<>();
+		// Execução
+		try {
+			for (int i = 0; i < checkouts; i++) {
+				LoanDTO dto = LoanDTO.builder().isbn("isbn-" + i).customer("Cliente " + i)
+						.email("cliente" + i + "@email.com").build();
+				statuses.add(clients.submit(() -> {
+					start.await();
+					return restTemplate.postForEntity("/api/loans", dto, String.class).getStatusCode();
+				}));
+			}
+			start.countDown();
+			// Verificações
+			for (Future<HttpStatus> status : statuses) {
+				assertThat(status.get(30, TimeUnit.SECONDS)).isEqualTo(HttpStatus.CREATED);
+			}
+		} finally {
+			clients.shutdownNow();
+		}
+		assertThat(customerRepository.count()).isEqualTo(checkouts);
+		assertThat(loanRepository.count()).isEqualTo(checkouts);
+		assertThat(bulkheadRegistry.get(Workload.WRITE).getRejectedConnections()).isZero();
+	}
+
+	private long medianCheckoutMillis(int firstBook) {
+		List<Long> latencies = new ArrayList<>();
+		for (int i = firstBook; i < firstBook + CHECKOUTS; i++) {
+			LoanDTO dto = LoanDTO.builder().isbn("isbn-" + i).customer("Fulano").email("fulano@email.com").build();
+			long start = System.nanoTime();
+			ResponseEntity<Long> response = restTemplate.postForEntity("/api/loans", dto, Long.class);
+			latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		}
+		Collections.sort(latencies);
+		return latencies.get(latencies.size() / 2);
+	}
+
+	private void close(Connection connection) {
+		try {
+			connection.close();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
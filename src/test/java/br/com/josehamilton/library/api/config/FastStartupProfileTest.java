@@ -0,0 +1,65 @@
+package br.com.josehamilton.library.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import springfox.documentation.spring.web.DocumentationCache;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles({ "test", "fast-startup" })
+@SpringBootTest(properties = "spring.boot.admin.client.enabled=false")
+@AutoConfigureMockMvc
+public class FastStartupProfileTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ConfigurableApplicationContext context;
+
+	@Autowired
+	DocumentationCache documentationCache;
+
+	@Test
+	@DisplayName("Deve criar os serviços somente no primeiro uso, exceto as tarefas agendadas.")
+	public void lazyInitializationTest() {
+		assertThat(context.getBeanFactory().containsSingleton("scheduleService")).isTrue();
+		assertThat(context.getBeanFactory().containsSingleton("bookServiceImpl")).isFalse();
+	}
+
+	@Test
+	@DisplayName("Deve gerar a documentação do Swagger somente na primeira requisição.")
+	public void lazyDocumentationTest() throws Exception {
+		assertThat(documentationCache.all()).isEmpty();
+
+		mvc.perform(get("/v2/api-docs")).andExpect(status().isOk())
+				.andExpect(jsonPath("paths['/api/books']").exists());
+
+		assertThat(documentationCache.all()).isNotEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve exibir o tempo de inicialização por fase e por bean.")
+	public void startupTimelineTest() throws Exception {
+		mvc.perform(get("/actuator/startuptimeline")).andExpect(status().isOk())
+				.andExpect(jsonPath("ready").value(true))
+				.andExpect(jsonPath("totalMillis").isNumber())
+				.andExpect(jsonPath("phases[*].name").value(hasItem("context-refreshed")))
+				.andExpect(jsonPath("beans[*].name").value(hasItem("scheduleService")));
+	}
+
+}
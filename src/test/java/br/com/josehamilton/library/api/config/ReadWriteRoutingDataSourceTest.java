@@ -0,0 +1,104 @@
+package br.com.josehamilton.library.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.josehamilton.library.api.config.datasource.ReadWriteRoutingDataSource;
+import br.com.josehamilton.library.api.config.datasource.ReplicaLagMonitor;
+
+public class ReadWriteRoutingDataSourceTest {
+
+	private EmbeddedDatabase primary;
+
+	private EmbeddedDatabase replica;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	public void setUp() {
+		primary = createDatabase("primary");
+		replica = createDatabase("replica");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	@DisplayName("Deve enviar transações somente leitura para a réplica.")
+	public void readOnlyTransactionUsesReplicaTest() {
+		// Cenário
+		ReplicaLagMonitor monitor = new ReplicaLagMonitor(route(), "SELECT 0", Duration.ofSeconds(5));
+		// Execução
+		monitor.check();
+		String readOnly = query(true);
+		String readWrite = query(false);
+		// Verificação
+		assertThat(readOnly).isEqualTo("replica");
+		assertThat(readWrite).isEqualTo("primary");
+	}
+
+	@Test
+	@DisplayName("Deve enviar leituras para o banco principal quando a réplica está atrasada.")
+	public void laggingReplicaFallsBackToPrimaryTest() {
+		// Cenário
+		ReplicaLagMonitor monitor = new ReplicaLagMonitor(route(), "SELECT 30", Duration.ofSeconds(5));
+		// Execução
+		monitor.check();
+		// Verificação
+		assertThat(query(true)).isEqualTo("primary");
+	}
+
+	@Test
+	@DisplayName("Deve enviar leituras para o banco principal quando a verificação da réplica falha.")
+	public void unreachableReplicaFallsBackToPrimaryTest() {
+		// Cenário
+		ReadWriteRoutingDataSource dataSource = route();
+		ReplicaLagMonitor monitor = new ReplicaLagMonitor(dataSource, "SELECT lag FROM missing_table",
+				Duration.ofSeconds(5));
+		// Execução
+		monitor.check();
+		// Verificação
+		assertThat(dataSource.isReplicaAvailable()).isFalse();
+		assertThat(query(true)).isEqualTo("primary");
+	}
+
+	private ReadWriteRoutingDataSource route() {
+		ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replica);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		return dataSource;
+	}
+
+	private String query(boolean readOnly) {
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate
+				.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	private EmbeddedDatabase createDatabase(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true).build();
+		JdbcTemplate template = new JdbcTemplate(database);
+		template.execute("CREATE TABLE node (name VARCHAR(20))");
+		template.update("INSERT INTO node (name) VALUES (?)", name);
+		return database;
+	}
+
+}
@@ -0,0 +1,298 @@
+package br.com.josehamilton.library.api.dataset;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import br.com.josehamilton.library.api.isbn.Isbn;
+import br.com.josehamilton.library.api.model.entity.Customer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gera livros e empréstimos em volume de produção diretamente por JDBC em
+ * lotes, sem passar pelo Hibernate.
+ *
+ * <ul>
+ * <li>livros com ISBN-13 válido, títulos combinados de um vocabulário e
+ * autores com quantidade de obras desigual;</li>
+ * <li>empréstimos concentrados em poucos livros (Zipf), com histórico de
+ * devoluções e uma fração em aberto e atrasada;</li>
+ * <li>clientes reaproveitados entre os empréstimos, poucos com muitos
+ * empréstimos;</li>
+ * <li>no máximo um empréstimo em aberto por livro, como exige a API.</li>
+ * </ul>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+	static final List<String> TITLE_WORDS = Collections.unmodifiableList(Arrays.asList("java", "spring", "history",
+			"garden", "river", "night", "code", "music", "ocean", "winter", "empire", "shadow", "science", "dragon",
+			"travel", "kitchen", "machine", "island", "secret", "city", "light", "storm", "letters", "mountain",
+			"war", "love", "journey", "silence", "stars", "glass"));
+
+	private static final String[] TITLE_PREFIXES = { "The", "A", "Beyond the", "Tales of the", "Introduction to",
+			"The Last", "Return of the", "Notes on" };
+
+	private static final String[] FIRST_NAMES = { "Ana", "Bruno", "Carla", "Daniel", "Elisa", "Fernando", "Gabriela",
+			"Hugo", "Isabel", "João", "Karen", "Lucas", "Marina", "Nelson", "Olivia", "Paulo", "Renata", "Sergio",
+			"Tereza", "Vitor" };
+
+	private static final String[] LAST_NAMES = { "Almeida", "Barbosa", "Cardoso", "Dias", "Esteves", "Ferreira",
+			"Gomes", "Hamilton", "Lima", "Martins", "Nogueira", "Oliveira", "Pereira", "Queiroz", "Ribeiro", "Santos",
+			"Teixeira", "Vieira" };
+
+	// Mesmo prazo usado por LoanService.getAllLateLoans.
+	private static final int LOAN_DAYS = 4;
+
+	private static final int MAX_OVERDUE_DAYS = 60;
+
+	private final DataSource dataSource;
+
+	public GeneratedDataset generate(DatasetSettings settings) {
+		try (Connection connection = dataSource.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				long start = System.nanoTime();
+				List<String> isbns = new ArrayList<>(settings.getBooks());
+				long[] bookIds = insertBooks(connection, settings, isbns);
+				log.info("{} books inserted in {} ms", bookIds.length, (System.nanoTime() - start) / 1_000_000);
+
+				start = System.nanoTime();
+				long[] customerIds = insertCustomers(connection, settings);
+				log.info("{} customers ready in {} ms", customerIds.length, (System.nanoTime() - start) / 1_000_000);
+
+				start = System.nanoTime();
+				int[] popularity = popularityOrder(bookIds.length, settings.getSeed());
+				long overdue = insertLoans(connection, settings, bookIds, customerIds, popularity);
+				log.info("{} loans inserted in {} ms", settings.getLoans(), (System.nanoTime() - start) / 1_000_000);
+
+				List<String> isbnsByPopularity = new ArrayList<>(isbns.size());
+				for (int index : popularity) {
+					isbnsByPopularity.add(isbns.get(index));
+				}
+				return new GeneratedDataset(isbnsByPopularity, openLoanIds(connection, bookIds), overdue,
+						TITLE_WORDS);
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not generate dataset", e);
+		}
+	}
+
+	/**
+	 * ISBN-13 com prefixo 978 para o número sequencial informado (até
+	 * 999.999.999), com o dígito verificador da validação da API.
+	 */
+	public static String isbn(long sequence) {
+		return Isbn.withCheckDigit(String.format("978%09d", sequence));
+	}
+
+	private long[] insertBooks(Connection connection, DatasetSettings settings, List<String> isbns)
+			throws SQLException {
+		Random random = new Random(settings.getSeed());
+		long previousMaxId = maxId(connection, "book");
+		int authors = Math.max(1, settings.getBooks() / 8);
+		ZipfDistribution authorDistribution = new ZipfDistribution(authors, 0.8);
+		try (PreparedStatement insert = connection
+				.prepareStatement("INSERT INTO book (title, author, isbn, isbn_key) VALUES (?, ?, ?, ?)")) {
+			for (int i = 0; i < settings.getBooks(); i++) {
+				String isbn = isbn(previousMaxId + 1 + i);
+				isbns.add(isbn);
+				insert.setString(1, title(random));
+				insert.setString(2, author(authorDistribution.sample(random)));
+				insert.setString(3, isbn);
+				insert.setLong(4, Long.parseLong(isbn));
+				addBatch(connection, insert, i, settings.getBatchSize());
+			}
+			flush(connection, insert);
+		}
+		return ids(connection, "SELECT id FROM book WHERE id > ? ORDER BY id", previousMaxId, settings.getBooks());
+	}
+
+	// Os clientes são identificados pelo email; execuções seguidas no mesmo banco reaproveitam os existentes.
+	private long[] insertCustomers(Connection connection, DatasetSettings settings) throws SQLException {
+		Map<String, Long> existing = customerIds(connection);
+		try (PreparedStatement insert = connection
+				.prepareStatement("INSERT INTO customer (name, email, name_key, email_key) VALUES (?, ?, ?, ?)")) {
+			int row = 0;
+			for (int i = 0; i < settings.getCustomers(); i++) {
+				Customer customer = customer(i);
+				if (existing.containsKey(customer.getEmailKey())) {
+					continue;
+				}
+				insert.setString(1, customer.getName());
+				insert.setString(2, customer.getEmail());
+				insert.setString(3, customer.getNameKey());
+				insert.setString(4, customer.getEmailKey());
+				addBatch(connection, insert, row++, settings.getBatchSize());
+			}
+			flush(connection, insert);
+		}
+		existing = customerIds(connection);
+		long[] ids = new long[settings.getCustomers()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = existing.get(customer(i).getEmailKey());
+		}
+		return ids;
+	}
+
+	private long insertLoans(Connection connection, DatasetSettings settings, long[] bookIds, long[] customerIds,
+			int[] popularity) throws SQLException {
+		// Semente própria: alterar a quantidade de empréstimos não altera os livros.
+		Random random = new Random(settings.getSeed() + 1);
+		ZipfDistribution bookDistribution = new ZipfDistribution(bookIds.length, settings.getPopularityExponent());
+		ZipfDistribution customerDistribution = new ZipfDistribution(settings.getCustomers(), 0.5);
+		BitSet loaned = new BitSet(bookIds.length);
+		LocalDate today = LocalDate.now();
+		long overdue = 0;
+		try (PreparedStatement insert = connection.prepareStatement(
+				"INSERT INTO loan (id_customer, id_book, loan_date, returned) VALUES (?, ?, ?, ?)")) {
+			for (int i = 0; i < settings.getLoans(); i++) {
+				int book = popularity[bookDistribution.sample(random)];
+				int customer = customerDistribution.sample(random);
+				boolean open = random.nextDouble() < settings.getOpenRatio() && !loaned.get(book);
+				int daysAgo;
+				if (!open) {
+					daysAgo = random.nextInt(settings.getHistoryDays()) + 1;
+				} else if (random.nextDouble() < settings.getOverdueRatio()) {
+					daysAgo = LOAN_DAYS + random.nextInt(MAX_OVERDUE_DAYS);
+					overdue++;
+				} else {
+					daysAgo = random.nextInt(LOAN_DAYS);
+				}
+				if (open) {
+					loaned.set(book);
+				}
+				insert.setLong(1, customerIds[customer]);
+				insert.setLong(2, bookIds[book]);
+				insert.setDate(3, Date.valueOf(today.minusDays(daysAgo)));
+				insert.setBoolean(4, !open);
+				addBatch(connection, insert, i, settings.getBatchSize());
+			}
+			flush(connection, insert);
+		}
+		return overdue;
+	}
+
+	private List<Long> openLoanIds(Connection connection, long[] bookIds) throws SQLException {
+		List<Long> ids = new ArrayList<>();
+		if (bookIds.length == 0) {
+			return ids;
+		}
+		try (PreparedStatement select = connection.prepareStatement(
+				"SELECT id FROM loan WHERE returned = false AND id_book BETWEEN ? AND ? ORDER BY id")) {
+			select.setLong(1, bookIds[0]);
+			select.setLong(2, bookIds[bookIds.length - 1]);
+			try (ResultSet result = select.executeQuery()) {
+				while (result.next()) {
+					ids.add(result.getLong(1));
+				}
+			}
+		}
+		return ids;
+	}
+
+	// Permutação das posições de popularidade, para que os livros mais populares não sejam os primeiros ids.
+	private static int[] popularityOrder(int books, long seed) {
+		int[] order = new int[books];
+		for (int i = 0; i < books; i++) {
+			order[i] = i;
+		}
+		Random random = new Random(seed + 2);
+		for (int i = books - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+		return order;
+	}
+
+	public static String title(Random random) {
+		StringBuilder title = new StringBuilder(TITLE_PREFIXES[random.nextInt(TITLE_PREFIXES.length)]);
+		int words = 1 + random.nextInt(3);
+		for (int w = 0; w < words; w++) {
+			String word = TITLE_WORDS.get(random.nextInt(TITLE_WORDS.size()));
+			title.append(' ').append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+		}
+		return title.toString();
+	}
+
+	private static Customer customer(int customer) {
+		return Customer.of("Customer " + customer, "customer" + customer + "@library-api.com");
+	}
+
+	private static Map<String, Long> customerIds(Connection connection) throws SQLException {
+		Map<String, Long> ids = new HashMap<>();
+		try (Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery(
+						"SELECT id, email_key FROM customer WHERE email_key LIKE 'customer%@library-api.com'")) {
+			while (result.next()) {
+				ids.put(result.getString(2), result.getLong(1));
+			}
+		}
+		return ids;
+	}
+
+	public static String author(int author) {
+		return FIRST_NAMES[author % FIRST_NAMES.length] + " "
+				+ LAST_NAMES[(author / FIRST_NAMES.length) % LAST_NAMES.length]
+				+ (author < FIRST_NAMES.length * LAST_NAMES.length ? ""
+						: " " + (author / (FIRST_NAMES.length * LAST_NAMES.length)));
+	}
+
+	private static void addBatch(Connection connection, PreparedStatement insert, int row, int batchSize)
+			throws SQLException {
+		insert.addBatch();
+		if ((row + 1) % batchSize == 0) {
+			flush(connection, insert);
+		}
+	}
+
+	private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+		insert.executeBatch();
+		connection.commit();
+	}
+
+	private static long maxId(Connection connection, String table) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+
+	private static long[] ids(Connection connection, String sql, long after, int expected) throws SQLException {
+		long[] ids = new long[expected];
+		int count = 0;
+		try (PreparedStatement select = connection.prepareStatement(sql)) {
+			select.setLong(1, after);
+			try (ResultSet result = select.executeQuery()) {
+				while (result.next() && count < expected) {
+					ids[count++] = result.getLong(1);
+				}
+			}
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,30 @@
+package br.com.josehamilton.library.api.dataset;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Popula um banco já existente (tabelas criadas pela aplicação) com a massa de
+ * dados sintética.
+ *
+ * <pre>
+ * mvn -Pdataset test-compile exec:java -Ddataset.url=jdbc:h2:file:./target/library -Ddataset.loans=10000000
+ * </pre>
+ */
+public class DatasetGeneratorCli {
+
+	public static void main(String[] args) {
+		String url = System.getProperty("dataset.url");
+		if (url == null) {
+			System.err.println("Usage: -Ddataset.url=<jdbc url> [-Ddataset.username=] [-Ddataset.password=]"
+					+ " [-Ddataset.books=] [-Ddataset.loans=] [-Ddataset.seed=] [-Ddataset.batch-size=]");
+			System.exit(1);
+		}
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+				System.getProperty("dataset.username", "sa"), System.getProperty("dataset.password", ""));
+		DatasetSettings settings = DatasetSettings.fromSystemProperties();
+		GeneratedDataset dataset = new DatasetGenerator(dataSource).generate(settings);
+		System.out.printf("books=%d loans=%d open=%d overdue=%d seed=%d%n", settings.getBooks(), settings.getLoans(),
+				dataset.getOpenLoanIds().size(), dataset.getOverdueLoans(), settings.getSeed());
+	}
+
+}
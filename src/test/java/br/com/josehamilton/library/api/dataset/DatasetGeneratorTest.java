@@ -0,0 +1,118 @@
+package br.com.josehamilton.library.api.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.josehamilton.library.api.isbn.Isbn;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DatasetGeneratorTest {
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.execute("DELETE FROM loan");
+		jdbcTemplate.execute("DELETE FROM book");
+		jdbcTemplate.execute("DELETE FROM customer");
+	}
+
+	@Test
+	@DisplayName("Deve gerar ISBN-13 com dígito verificador válido.")
+	public void isbnCheckDigitTest() {
+		assertThat(DatasetGenerator.isbn(30640615L)).isEqualTo("9780306406157");
+		assertThat(Isbn.key(DatasetGenerator.isbn(999_999_999L))).isNotNull();
+	}
+
+	@Test
+	@DisplayName("Deve concentrar as amostras nas primeiras posições da distribuição de Zipf.")
+	public void zipfDistributionTest() {
+		ZipfDistribution distribution = new ZipfDistribution(1_000, 1.0);
+		Random random = new Random(42);
+		int top = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (distribution.sample(random) < 100) {
+				top++;
+			}
+		}
+		// Com expoente 1.0 os 10% primeiros concentram cerca de 69% das amostras.
+		assertThat(top).isBetween(6_500, 7_300);
+	}
+
+	@Test
+	@DisplayName("Deve gerar livros e empréstimos conforme as configurações.")
+	public void generateTest() {
+		// Cenário
+		DatasetSettings settings = DatasetSettings.builder().books(500).loans(5_000).customers(300).batchSize(128)
+				.build();
+		// Execução
+		GeneratedDataset dataset = new DatasetGenerator(dataSource).generate(settings);
+		// Verificação
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Long.class)).isEqualTo(500);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan", Long.class)).isEqualTo(5_000);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class)).isEqualTo(300);
+		assertThat(jdbcTemplate.queryForList("SELECT isbn FROM book", String.class)).allMatch(isbn -> Isbn.key(isbn) != null);
+		assertThat(dataset.getIsbnsByPopularity()).hasSize(500).doesNotHaveDuplicates();
+
+		Long openLoans = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan WHERE returned = false", Long.class);
+		assertThat(dataset.getOpenLoanIds()).hasSize(openLoans.intValue());
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM (SELECT id_book FROM loan WHERE returned = false GROUP BY id_book HAVING COUNT(*) > 1)",
+				Long.class)).isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM loan WHERE returned = false AND loan_date <= ?", Long.class,
+				LocalDate.now().minusDays(4))).isEqualTo(dataset.getOverdueLoans()).isPositive();
+
+		String mostPopular = dataset.getIsbnsByPopularity().get(0);
+		Long mostPopularLoans = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM loan l JOIN book b ON b.id = l.id_book WHERE b.isbn = ?", Long.class,
+				mostPopular);
+		assertThat(mostPopularLoans).isGreaterThan(5_000 / 500 * 10);
+	}
+
+	@Test
+	@DisplayName("Deve gerar os mesmos dados para a mesma semente.")
+	public void deterministicTest() {
+		DatasetSettings settings = DatasetSettings.builder().books(100).loans(1_000).customers(50).build();
+
+		new DatasetGenerator(dataSource).generate(settings);
+		List<Map<String, Object>> first = snapshot();
+		tearDown();
+		jdbcTemplate.execute("ALTER TABLE book ALTER COLUMN id RESTART WITH 1");
+		jdbcTemplate.execute("ALTER TABLE loan ALTER COLUMN id RESTART WITH 1");
+		new DatasetGenerator(dataSource).generate(settings);
+
+		assertThat(snapshot()).isEqualTo(first);
+	}
+
+	private List<Map<String, Object>> snapshot() {
+		return jdbcTemplate.queryForList("SELECT b.isbn, b.title, b.author, c.name, l.loan_date, l.returned"
+				+ " FROM loan l JOIN book b ON b.id = l.id_book JOIN customer c ON c.id = l.id_customer ORDER BY l.id");
+	}
+
+}
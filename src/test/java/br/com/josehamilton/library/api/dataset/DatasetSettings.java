@@ -0,0 +1,61 @@
+package br.com.josehamilton.library.api.dataset;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Tamanho e distribuições da massa de dados gerada pelo
+ * {@link DatasetGenerator}. A mesma semente sempre gera os mesmos registros.
+ */
+@Value
+@Builder
+public class DatasetSettings {
+
+	@Builder.Default
+	private final int books = 100_000;
+
+	@Builder.Default
+	private final int loans = 1_000_000;
+
+	@Builder.Default
+	private final long seed = 42L;
+
+	// Expoente da distribuição de Zipf da popularidade dos livros (1.0 ~ 20% dos livros em 80% dos empréstimos).
+	@Builder.Default
+	private final double popularityExponent = 1.0;
+
+	// Fração dos empréstimos que ainda não foram devolvidos.
+	@Builder.Default
+	private final double openRatio = 0.1;
+
+	// Fração dos empréstimos em aberto que já passaram do prazo de devolução.
+	@Builder.Default
+	private final double overdueRatio = 0.3;
+
+	// Dias de histórico dos empréstimos devolvidos.
+	@Builder.Default
+	private final int historyDays = 365;
+
+	@Builder.Default
+	private final int customers = 50_000;
+
+	@Builder.Default
+	private final int batchSize = 1_000;
+
+	public static DatasetSettings fromSystemProperties() {
+		DatasetSettings defaults = DatasetSettings.builder().build();
+		return DatasetSettings.builder().books(Integer.getInteger("dataset.books", defaults.getBooks()))
+				.loans(Integer.getInteger("dataset.loans", defaults.getLoans()))
+				.seed(Long.getLong("dataset.seed", defaults.getSeed()))
+				.popularityExponent(Double.parseDouble(System.getProperty("dataset.popularity-exponent",
+						String.valueOf(defaults.getPopularityExponent()))))
+				.openRatio(Double.parseDouble(
+						System.getProperty("dataset.open-ratio", String.valueOf(defaults.getOpenRatio()))))
+				.overdueRatio(Double.parseDouble(
+						System.getProperty("dataset.overdue-ratio", String.valueOf(defaults.getOverdueRatio()))))
+				.historyDays(Integer.getInteger("dataset.history-days", defaults.getHistoryDays()))
+				.customers(Integer.getInteger("dataset.customers", defaults.getCustomers()))
+				.batchSize(Integer.getInteger("dataset.batch-size", defaults.getBatchSize())).build();
+	}
+
+}
@@ -0,0 +1,25 @@
+package br.com.josehamilton.library.api.dataset;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resumo do que foi inserido, para que testes e benchmarks possam escolher
+ * ISBNs e empréstimos existentes.
+ */
+@Getter
+@AllArgsConstructor
+public class GeneratedDataset {
+
+	// ISBNs em ordem de popularidade: o primeiro é o livro mais emprestado.
+	private final List<String> isbnsByPopularity;
+
+	private final List<Long> openLoanIds;
+
+	private final long overdueLoans;
+
+	private final List<String> titleWords;
+
+}
@@ -0,0 +1,33 @@
+package br.com.josehamilton.library.api.dataset;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribuição de Zipf sobre as posições 0..n-1: a posição k é escolhida com
+ * probabilidade proporcional a 1 / (k + 1)^exponent. A amostragem é uma busca
+ * binária na distribuição acumulada, calculada uma única vez.
+ */
+public class ZipfDistribution {
+
+	private final double[] cumulative;
+
+	public ZipfDistribution(int size, double exponent) {
+		cumulative = new double[size];
+		double total = 0;
+		for (int rank = 0; rank < size; rank++) {
+			total += 1 / Math.pow(rank + 1, exponent);
+			cumulative[rank] = total;
+		}
+		for (int rank = 0; rank < size; rank++) {
+			cumulative[rank] /= total;
+		}
+	}
+
+	public int sample(Random random) {
+		int index = Arrays.binarySearch(cumulative, random.nextDouble());
+		int rank = index >= 0 ? index : -index - 1;
+		return Math.min(rank, cumulative.length - 1);
+	}
+
+}
@@ -0,0 +1,145 @@
+package br.com.josehamilton.library.api.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.resources.LoanController;
+
+public class LoanEventBroadcasterTest {
+
+	private static final String EVENTS_API = "/api/loans/events";
+
+	private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+
+	private LoanEventBroadcaster broadcaster;
+
+	@AfterEach
+	public void tearDown() {
+		broadcaster.destroy();
+	}
+
+	@Test
+	@DisplayName("Deve enviar apenas os eventos do isbn filtrado.")
+	public void filterByIsbnTest() throws Exception {
+		// Cenário
+		MockMvc mvc = mockMvc(properties(256));
+		MvcResult stream = mvc.perform(get(EVENTS_API).param("isbn", "001")).andExpect(request().asyncStarted())
+				.andReturn();
+		// Execução
+		broadcaster.publish(LoanEventType.CREATED, loan(1l, "001"));
+		broadcaster.publish(LoanEventType.CREATED, loan(2l, "002"));
+		broadcaster.publish(LoanEventType.RETURNED, loan(1l, "001"));
+		// Verificações
+		String content = await(stream, "event:returned");
+		assertThat(content).contains("event:created", "\"loanId\":1", "\"available\":true",
+				"id:" + broadcaster.getLastEventId());
+		assertThat(content).doesNotContain("\"isbn\":\"002\"");
+	}
+
+	@Test
+	@DisplayName("Deve enviar os eventos do livro assinado pelo ISBN-10 ou com hífens.")
+	public void filterByEquivalentIsbnTest() throws Exception {
+		// Cenário
+		MockMvc mvc = mockMvc(properties(256));
+		MvcResult stream = mvc.perform(get(EVENTS_API).param("isbn", "0-306-40615-2"))
+				.andExpect(request().asyncStarted()).andReturn();
+		// Execução
+		broadcaster.publish(LoanEventType.CREATED, loan(2l, "002"));
+		broadcaster.publish(LoanEventType.CREATED, loan(1l, "978-0-306-40615-7"));
+		// Verificações
+		String content = await(stream, "\"loanId\":1");
+		assertThat(content).contains("\"loanId\":1").doesNotContain("\"loanId\":2");
+	}
+
+	@Test
+	@DisplayName("Deve reenviar os eventos posteriores ao Last-Event-ID e pedir RESET quando ele já saiu do buffer.")
+	public void replayFromLastEventIdTest() throws Exception {
+		// Cenário
+		MockMvc mvc = mockMvc(properties(256));
+		long before = broadcaster.getLastEventId();
+		broadcaster.publish(LoanEventType.CREATED, loan(1l, "001"));
+		broadcaster.publish(LoanEventType.CREATED, loan(2l, "002"));
+		broadcaster.publish(LoanEventType.CREATED, loan(3l, "003"));
+		// Execução
+		MvcResult resumed = mvc.perform(get(EVENTS_API).header("Last-Event-ID", before + 1)).andReturn();
+		MvcResult expired = mvc.perform(get(EVENTS_API).header("Last-Event-ID", before - 1)).andReturn();
+		// Verificações
+		String content = await(resumed, "\"loanId\":3");
+		assertThat(content).contains("id:" + (before + 2), "id:" + (before + 3)).doesNotContain("\"loanId\":1");
+		assertThat(await(expired, "event:reset")).contains("id:" + (before + 3)).doesNotContain("event:created");
+	}
+
+	@Test
+	@DisplayName("Deve desconectar o cliente que não acompanha os eventos.")
+	public void disconnectSlowSubscriberTest() throws Exception {
+		// Cenário
+		MockMvc mvc = mockMvc(properties(2));
+		MvcResult stream = mvc.perform(get(EVENTS_API)).andExpect(request().asyncStarted()).andReturn();
+		CountDownLatch busy = new CountDownLatch(1);
+		dispatcher.execute(() -> {
+			try {
+				busy.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		// Execução
+		for (long id = 1; id <= 3; id++) {
+			broadcaster.publish(LoanEventType.CREATED, loan(id, "001"));
+		}
+		// Verificações
+		assertThat(broadcaster.getSubscribers()).isZero();
+		busy.countDown();
+		stream.getAsyncResult(5000);
+		assertThat(stream.getResponse().getContentAsString()).doesNotContain("event:");
+	}
+
+	private MockMvc mockMvc(LoanEventProperties properties) {
+		broadcaster = new LoanEventBroadcaster(properties, new ObjectMapper(), dispatcher);
+		return MockMvcBuilders.standaloneSetup(new LoanController(null, null, null, broadcaster)).build();
+	}
+
+	private static LoanEventProperties properties(int subscriberQueue) {
+		LoanEventProperties properties = new LoanEventProperties();
+		properties.setReplayCapacity(3);
+		properties.setSubscriberQueue(subscriberQueue);
+		return properties;
+	}
+
+	private static Loan loan(Long id, String isbn) {
+		return Loan.builder().id(id).book(Book.builder().id(id).isbn(isbn).build())
+				.customer(Customer.builder().id(10l).build()).build();
+	}
+
+	private static String await(MvcResult result, String expected)
+			throws UnsupportedEncodingException, InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		String content = result.getResponse().getContentAsString();
+		while (!content.contains(expected) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			content = result.getResponse().getContentAsString();
+		}
+		assertThat(content).contains(expected);
+		return content;
+	}
+
+}
@@ -0,0 +1,85 @@
+package br.com.josehamilton.library.api.fines;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FineCalculatorTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2020, 3, 20);
+
+	@Test
+	@DisplayName("Deve cobrar os dias desde o vencimento e depois só os dias após a última multa.")
+	public void chargeTest() {
+		// Cenário
+		FineCalculator calculator = new FineCalculator(new FineProperties(), 4);
+		// Execução
+		FineCharge first = calculator.charge(loan(1, TODAY.minusDays(6), null, null, null), TODAY);
+		FineCharge next = calculator.charge(loan(1, TODAY.minusDays(6), null, TODAY.minusDays(1), "3.00"), TODAY);
+		FineCharge repeated = calculator.charge(loan(1, TODAY.minusDays(6), null, TODAY, "3.00"), TODAY);
+		// Verificações
+		assertThat(first.getFromDate()).isEqualTo(TODAY.minusDays(2));
+		assertThat(first.getDays()).isEqualTo(3);
+		assertThat(first.getAmount()).isEqualByComparingTo("3.00");
+		assertThat(next.getFromDate()).isEqualTo(TODAY);
+		assertThat(next.getDays()).isEqualTo(1);
+		assertThat(repeated).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve aplicar a política do cliente sobre a do livro e a do livro sobre a padrão.")
+	public void policiesTest() {
+		// Cenário
+		FineProperties properties = new FineProperties();
+		properties.getBooks().put("0-306-40615-2", new FineProperties.Policy(new BigDecimal("2.50"), 1, null));
+		properties.getCustomers().put("Isento@Email.com", new FineProperties.Policy(BigDecimal.ZERO, null, null));
+		properties.getCustomers().put("limite@email.com",
+				new FineProperties.Policy(null, null, new BigDecimal("10.00")));
+		FineCalculator calculator = new FineCalculator(properties, 4);
+		LocalDate loanDate = TODAY.minusDays(10);
+		// Execução
+		FineCharge book = calculator.charge(loan(1, loanDate, null, null, null), TODAY);
+		FineCharge exempt = calculator.charge(loan(2, loanDate, "isento@email.com", null, null), TODAY);
+		FineCharge capped = calculator.charge(loan(3, loanDate, "limite@email.com", null, "8.00"), TODAY);
+		// Verificações
+		assertThat(book.getDays()).isEqualTo(6);
+		assertThat(book.getAmount()).isEqualByComparingTo("15.00");
+		assertThat(exempt.getDays()).isEqualTo(6);
+		assertThat(exempt.getAmount()).isEqualByComparingTo("0");
+		assertThat(capped.getAmount()).isEqualByComparingTo("2.00");
+	}
+
+	@Test
+	@DisplayName("Deve calcular em paralelo as mesmas multas, na mesma ordem, do cálculo sequencial.")
+	public void chargeAllTest() {
+		// Cenário
+		FineCalculator calculator = new FineCalculator(new FineProperties(), 4);
+		List<OverdueLoan> loans = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			loans.add(loan(i, TODAY.minusDays(4 + i % 30), null, i % 7 == 0 ? TODAY : null, null));
+		}
+		ForkJoinPool pool = new ForkJoinPool(4);
+		// Execução
+		List<FineCharge> charges = calculator.chargeAll(loans, TODAY, pool, 64);
+		pool.shutdown();
+		// Verificações
+		List<Long> expected = loans.stream().filter(loan -> calculator.charge(loan, TODAY) != null)
+				.map(OverdueLoan::getLoanId).collect(Collectors.toList());
+		assertThat(charges).extracting(FineCharge::getLoanId).containsExactlyElementsOf(expected);
+	}
+
+	private static OverdueLoan loan(long id, LocalDate loanDate, String emailKey, LocalDate lastFinedDate,
+			String finedAmount) {
+		return new OverdueLoan(id, loanDate, 9780306406157L, "0306406152", id, emailKey, lastFinedDate,
+				finedAmount != null ? new BigDecimal(finedAmount) : null);
+	}
+
+}
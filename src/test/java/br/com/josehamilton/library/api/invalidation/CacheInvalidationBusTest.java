@@ -0,0 +1,112 @@
+package br.com.josehamilton.library.api.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.josehamilton.library.api.LibraryApiApplication;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.search.TrigramIndex;
+import br.com.josehamilton.library.api.services.BookSearchService;
+import br.com.josehamilton.library.api.services.BookService;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.LoanService;
+import br.com.josehamilton.library.api.suggest.PrefixIndex;
+
+/**
+ * Duas instâncias da aplicação no mesmo banco H2: as alterações feitas em uma
+ * devem chegar aos índices em memória da outra.
+ */
+public class CacheInvalidationBusTest {
+
+	private static ConfigurableApplicationContext first;
+
+	private static ConfigurableApplicationContext second;
+
+	@BeforeAll
+	public static void setUp() {
+		first = start();
+		second = start();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		second.close();
+		first.close();
+	}
+
+	@Test
+	@DisplayName("Deve atualizar os índices da outra instância quando um livro é cadastrado, alterado e removido.")
+	public void bookChangesTest() throws InterruptedException {
+		// Cenário
+		BookService books = first.getBean(BookService.class);
+		BookSuggestionService suggestions = second.getBean(BookSuggestionService.class);
+		BookSearchService search = second.getBean(BookSearchService.class);
+		// Execução
+		Book book = books.save(Book.builder().isbn("inv-001").title("Memorias Postumas").author("Machado").build());
+		// Verificações
+		assertThat(await(() -> suggestions.suggest("memorias", 10), 1)).extracting(PrefixIndex.Entry::getId)
+				.containsExactly(book.getId());
+		assertThat(await(() -> search.search("memorais postumas", null), 1)).extracting(TrigramIndex.Match::getId)
+				.containsExactly(book.getId());
+
+		book.setTitle("Dom Casmurro");
+		books.update(book);
+		assertThat(await(() -> suggestions.suggest("dom casm", 10), 1)).hasSize(1);
+		assertThat(suggestions.suggest("memorias", 10)).isEmpty();
+
+		books.delete(book);
+		assertThat(await(() -> suggestions.suggest("dom casm", 10), 0)).isEmpty();
+		assertThat(search.search("dom casmurro", null)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve contar na outra instância os empréstimos feitos em uma instância.")
+	public void loanChangesTest() throws InterruptedException {
+		// Cenário
+		Book book = first.getBean(BookService.class)
+				.save(Book.builder().isbn("inv-002").title("Quincas Borba").author("Machado").build());
+		BookSuggestionService suggestions = second.getBean(BookSuggestionService.class);
+		await(() -> suggestions.suggest("quincas", 10), 1);
+		// Execução
+		first.getBean(LoanService.class).save(Loan.builder().book(book)
+				.customer(Customer.of("Fulano", "fulano@email.com")).loanDate(LocalDate.now()).build());
+		// Verificações
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (suggestions.suggest("quincas", 10).get(0).getLoans() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertThat(suggestions.suggest("quincas", 10).get(0).getLoans()).isEqualTo(1);
+	}
+
+	private static ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(LibraryApiApplication.class).profiles("test")
+				.properties("spring.datasource.url=jdbc:h2:mem:invalidation;DB_CLOSE_DELAY=-1",
+						"spring.jpa.hibernate.ddl-auto=update", "spring.boot.admin.client.enabled=false",
+						"server.port=0", "application.invalidation.poll-interval=100")
+				.run();
+	}
+
+	private static <T> List<T> await(Supplier<List<T>> query, int size) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		List<T> result = query.get();
+		while (result.size() != size && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+			result = query.get();
+		}
+		return result;
+	}
+
+}
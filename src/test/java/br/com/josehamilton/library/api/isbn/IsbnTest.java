@@ -0,0 +1,44 @@
+package br.com.josehamilton.library.api.isbn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IsbnTest {
+
+	@Test
+	@DisplayName("Deve converter ISBN-10 e ISBN-13, com ou sem hífens, para o mesmo ISBN-13 numérico.")
+	public void keyTest() {
+		assertThat(Isbn.key("978-0-306-40615-7")).isEqualTo(9780306406157L);
+		assertThat(Isbn.key("9780306406157")).isEqualTo(9780306406157L);
+		assertThat(Isbn.key("0-306-40615-2")).isEqualTo(9780306406157L);
+		assertThat(Isbn.key("0 8044 2957 X")).isEqualTo(9780804429573L);
+		assertThat(Isbn.key("080442957x")).isEqualTo(9780804429573L);
+		assertThat(Isbn.canonical("0-306-40615-2")).isEqualTo("9780306406157");
+	}
+
+	@Test
+	@DisplayName("Deve recusar isbns com dígito verificador errado ou fora do padrão.")
+	public void invalidKeyTest() {
+		assertThat(Isbn.key("9780306406158")).isNull();
+		assertThat(Isbn.key("0306406153")).isNull();
+		assertThat(Isbn.key("X306406152")).isNull();
+		assertThat(Isbn.key("978030640615X")).isNull();
+		assertThat(Isbn.key("97803064061570")).isNull();
+		assertThat(Isbn.key("123")).isNull();
+		assertThat(Isbn.key(null)).isNull();
+		assertThat(Isbn.canonical("123")).isEqualTo("123");
+	}
+
+	@Test
+	@DisplayName("Deve completar os 12 primeiros dígitos com o dígito verificador do ISBN-13.")
+	public void withCheckDigitTest() {
+		assertThat(Isbn.withCheckDigit("978030640615")).isEqualTo("9780306406157");
+		assertThat(Isbn.key(Isbn.withCheckDigit("978000000000"))).isEqualTo(9780000000002L);
+		assertThat(catchThrowable(() -> Isbn.withCheckDigit("97803064061")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,58 @@
+package br.com.josehamilton.library.api.isbn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LongLongHashMapTest {
+
+	@Test
+	@DisplayName("Deve se comportar como um HashMap em inclusões, alterações e remoções com crescimento.")
+	public void randomOperationsTest() {
+		// Cenário
+		Random random = new Random(42);
+		LongLongHashMap map = new LongLongHashMap(0);
+		Map<Long, Long> expected = new HashMap<>();
+		// Execução
+		for (int i = 0; i < 200000; i++) {
+			// Poucas chaves distintas para forçar colisões, alterações e remoções no meio das sequências.
+			long key = 9780000000000L + random.nextInt(50000);
+			if (random.nextInt(3) == 0) {
+				Long value = expected.get(key);
+				assertThat(map.remove(key, value == null ? 1 : value)).isEqualTo(value != null);
+				expected.remove(key);
+			} else {
+				long value = random.nextInt(1000000) + 1;
+				Long previous = expected.put(key, value);
+				assertThat(map.put(key, value)).isEqualTo(previous == null ? LongLongHashMap.MISSING : previous);
+			}
+		}
+		// Verificações
+		assertThat(map.size()).isEqualTo(expected.size());
+		for (long key = 9780000000000L; key < 9780000050000L; key++) {
+			Long value = expected.get(key);
+			assertThat(map.get(key)).isEqualTo(value == null ? LongLongHashMap.MISSING : value);
+		}
+	}
+
+	@Test
+	@DisplayName("Deve remover somente quando a chave ainda aponta para o valor informado.")
+	public void conditionalRemoveTest() {
+		// Cenário
+		LongLongHashMap map = new LongLongHashMap(16);
+		map.put(9780306406157L, 1);
+		map.put(9780306406157L, 2);
+		// Execução e Verificações
+		assertThat(map.remove(9780306406157L, 1)).isFalse();
+		assertThat(map.get(9780306406157L)).isEqualTo(2);
+		assertThat(map.remove(9780306406157L, 2)).isTrue();
+		assertThat(map.get(9780306406157L)).isEqualTo(LongLongHashMap.MISSING);
+		assertThat(map.size()).isZero();
+	}
+
+}
@@ -0,0 +1,180 @@
+package br.com.josehamilton.library.api.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.josehamilton.library.api.ApplicationControllerAdvice;
+import br.com.josehamilton.library.exception.LoadSheddingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdmissionControllerTest {
+
+	private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	@DisplayName("Deve reduzir o limite em uso após respostas lentas seguidas e voltar a crescer com respostas rápidas.")
+	public void adaptLimitToLatencyTest() {
+		// Cenário
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 20, 2.0, 0.5, 2, TimeUnit.MINUTES.toNanos(1));
+		// Execução e Verificações
+		releaseSaturated(limiter, 10 * MILLI, false);
+		assertThat(limiter.getLimit()).isEqualTo(11);
+
+		releaseSaturated(limiter, 50 * MILLI, false);
+		assertThat(limiter.getLimit()).isEqualTo(11);
+
+		releaseSaturated(limiter, 50 * MILLI, false);
+		assertThat(limiter.getLimit()).isEqualTo(5);
+
+		limiter.release(limiter.tryAcquire(1), 50 * MILLI, true);
+		limiter.release(limiter.tryAcquire(1), 50 * MILLI, true);
+		assertThat(limiter.getLimit()).isEqualTo(5);
+
+		releaseSaturated(limiter, 10 * MILLI, true);
+		releaseSaturated(limiter, 10 * MILLI, true);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+
+		int first = limiter.tryAcquire(1);
+		int second = limiter.tryAcquire(1);
+		assertThat(limiter.tryAcquire(1)).isEqualTo(-1);
+		limiter.release(first, 10 * MILLI, false);
+		limiter.release(second, 10 * MILLI, false);
+		assertThat(limiter.getLimit()).isEqualTo(3);
+		assertThat(limiter.getInflight()).isZero();
+	}
+
+	@Test
+	@DisplayName("Não deve reduzir o limite global com tráfego sequencial misturando endpoints rápidos e lentos.")
+	public void mixedLatencyTrafficTest() throws InterruptedException {
+		// Cenário
+		LimiterProperties properties = new LimiterProperties();
+		properties.setGlobalInitialLimit(20);
+		AdmissionController admission = new AdmissionController(properties);
+		// Execução: tráfego leve, uma requisição por vez
+		replayMixedTraffic(admission, 200);
+		int idleLimit = admission.getLimiter("global").getLimit();
+		AdmissionController.Permit first = admission.acquire("BookController.get", RequestPriority.NORMAL);
+		AdmissionController.Permit second = admission.acquire("BookController.get", RequestPriority.NORMAL);
+		first.cancel();
+		second.cancel();
+		// Execução: mesmo tráfego com metade do limite global ocupada
+		List<AdmissionController.Permit> busy = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			busy.add(admission.acquire("LoanController.returnBook", RequestPriority.CRITICAL));
+		}
+		replayMixedTraffic(admission, 200);
+		busy.forEach(AdmissionController.Permit::cancel);
+		// Verificações
+		assertThat(idleLimit).isEqualTo(20);
+		assertThat(admission.getLimiter("global").getLimit()).isGreaterThanOrEqualTo(20);
+		assertThat(admission.getLimiter("LoanController.create").getLimit()).isEqualTo(20);
+		assertThat(admission.getLimiter("global").getInflight()).isZero();
+	}
+
+	// Requisição com metade do limite ocupada por outras.
+	private static void releaseSaturated(AdaptiveLimiter limiter, long latencyNanos, boolean dropped) {
+		int others = (limiter.getLimit() + 1) / 2;
+		for (int i = 0; i < others; i++) {
+			limiter.tryAcquire(1);
+		}
+		limiter.release(limiter.tryAcquire(1), latencyNanos, dropped);
+		for (int i = 0; i < others; i++) {
+			limiter.cancel();
+		}
+	}
+
+	// Alterna uma consulta instantânea e um empréstimo de ~3 ms.
+	private static void replayMixedTraffic(AdmissionController admission, int requests) throws InterruptedException {
+		for (int i = 0; i < requests; i++) {
+			if (i % 2 == 0) {
+				admission.acquire("BookController.get", RequestPriority.NORMAL).release(false);
+			} else {
+				AdmissionController.Permit permit = admission.acquire("LoanController.create", RequestPriority.CRITICAL);
+				Thread.sleep(3);
+				permit.release(false);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Deve reservar parte do limite global para empréstimos e devoluções.")
+	public void reserveGlobalLimitForCriticalTest() {
+		// Cenário
+		LimiterProperties properties = new LimiterProperties();
+		properties.setGlobalInitialLimit(4);
+		properties.setNormalShare(0.5);
+		properties.setRetryAfter(Duration.ofSeconds(3));
+		AdmissionController admission = new AdmissionController(properties);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		admission.bindTo(registry);
+		admission.acquire("BookController.find", RequestPriority.NORMAL);
+		admission.acquire("BookController.find", RequestPriority.NORMAL);
+
+		// Execução
+		Throwable rejected = catchThrowable(() -> admission.acquire("BookController.find", RequestPriority.NORMAL));
+		admission.acquire("LoanController.create", RequestPriority.CRITICAL);
+		admission.acquire("LoanController.create", RequestPriority.CRITICAL);
+
+		// Verificações
+		assertThat(rejected).isInstanceOf(LoadSheddingException.class);
+		assertThat(((LoadSheddingException) rejected).getRetryAfterSeconds()).isEqualTo(3);
+		assertThat(catchThrowable(() -> admission.acquire("LoanController.returnBook", RequestPriority.CRITICAL)))
+				.isInstanceOf(LoadSheddingException.class);
+		assertThat(registry.get("http.limiter.rejected").tag("endpoint", "BookController.find")
+				.tag("priority", "NORMAL").counter().count()).isEqualTo(1);
+		assertThat(registry.get("http.limiter.inflight").tag("endpoint", "global").gauge().value()).isEqualTo(4);
+		assertThat(registry.get("http.limiter.limit").tag("endpoint", "LoanController.create").gauge().value())
+				.isEqualTo(20);
+	}
+
+	@Test
+	@DisplayName("Deve responder 503 com Retry-After quando o limite do endpoint for excedido.")
+	public void serviceUnavailableWhenLimitExceededTest() throws Exception {
+		// Cenário
+		LimiterProperties properties = new LimiterProperties();
+		properties.setInitialLimit(1);
+		properties.setMinLimit(1);
+		AdmissionController admission = new AdmissionController(properties);
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new TestController())
+				.setControllerAdvice(new ApplicationControllerAdvice())
+				.addInterceptors(new LoadSheddingInterceptor(admission)).build();
+		mvc.perform(get("/test")).andExpect(status().isOk());
+		AdmissionController.Permit busy = admission.acquire("TestController.find", RequestPriority.NORMAL);
+
+		// Execução e Verificações
+		mvc.perform(get("/test")).andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("errors[0]").value("Server is overloaded, please retry later."));
+		busy.cancel();
+		mvc.perform(get("/test")).andExpect(status().isOk());
+		assertThat(admission.getLimiter("TestController.find").getInflight()).isZero();
+		assertThat(admission.getLimiter("global").getInflight()).isZero();
+	}
+
+	@RestController
+	static class TestController {
+
+		@GetMapping("/test")
+		public String find() {
+			return "ok";
+		}
+
+	}
+
+}
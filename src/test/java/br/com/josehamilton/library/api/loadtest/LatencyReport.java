@@ -0,0 +1,131 @@
+package br.com.josehamilton.library.api.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Latências por cenário em histogramas HDR (microssegundos). A latência é
+ * medida a partir do instante planejado da requisição e não do envio, para que
+ * a fila de espera do gerador também apareça nos percentis.
+ */
+public class LatencyReport {
+
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private final Map<Scenario, Histogram> histograms = new EnumMap<>(Scenario.class);
+
+	private final Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+
+	private final Map<Scenario, LongAdder> rejected = new EnumMap<>(Scenario.class);
+
+	public LatencyReport() {
+		for (Scenario scenario : Scenario.values()) {
+			histograms.put(scenario, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+			errors.put(scenario, new LongAdder());
+			rejected.put(scenario, new LongAdder());
+		}
+	}
+
+	public void record(Scenario scenario, long latencyNanos, int status) {
+		long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+		histograms.get(scenario).recordValue(micros);
+		if (status >= 500) {
+			errors.get(scenario).increment();
+		} else if (status >= 400) {
+			rejected.get(scenario).increment();
+		}
+	}
+
+	public void recordFailure(Scenario scenario, long latencyNanos) {
+		record(scenario, latencyNanos, 599);
+	}
+
+	public void reset() {
+		histograms.values().forEach(Histogram::reset);
+		errors.values().forEach(LongAdder::reset);
+		rejected.values().forEach(LongAdder::reset);
+	}
+
+	/**
+	 * Resumo com chaves em ordem fixa, para que relatórios de execuções
+	 * diferentes possam ser comparados com diff.
+	 */
+	public Map<String, Object> summary(LoadTestSettings settings, long elapsedNanos) {
+		double seconds = elapsedNanos / 1e9;
+		Map<String, Object> scenarios = new LinkedHashMap<>();
+		for (Scenario scenario : Scenario.values()) {
+			Histogram histogram = histograms.get(scenario);
+			if (histogram.getTotalCount() == 0) {
+				continue;
+			}
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("count", histogram.getTotalCount());
+			row.put("errors", errors.get(scenario).sum());
+			row.put("rejected", rejected.get(scenario).sum());
+			row.put("throughput", round(histogram.getTotalCount() / seconds));
+			for (double percentile : PERCENTILES) {
+				row.put("p" + format(percentile), millis(histogram.getValueAtPercentile(percentile)));
+			}
+			row.put("max", millis(histogram.getMaxValue()));
+			scenarios.put(scenario.name(), row);
+		}
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("rate", settings.getRate());
+		summary.put("durationSeconds", settings.getDurationSeconds());
+		summary.put("threads", settings.getThreads());
+		summary.put("books", settings.getBooks());
+		summary.put("loans", settings.getLoans());
+		summary.put("seed", settings.getSeed());
+		summary.put("mix", settings.getMix());
+		summary.put("latencyUnit", "ms");
+		summary.put("scenarios", scenarios);
+		return summary;
+	}
+
+	public void write(Path file, Map<String, Object> summary) throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+		Path text = file.resolveSibling(file.getFileName().toString().replaceFirst("\\.json$", "") + ".txt");
+		Files.write(text, table(summary).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@SuppressWarnings("unchecked")
+	public String table(Map<String, Object> summary) {
+		StringBuilder table = new StringBuilder(String.format("%-15s %8s %7s %8s %10s %9s %9s %9s %9s %9s%n",
+				"scenario", "count", "errors", "rejected", "req/s", "p50", "p90", "p99", "p99.9", "max"));
+		Map<String, Map<String, Object>> scenarios = (Map<String, Map<String, Object>>) summary.get("scenarios");
+		scenarios.forEach((name, row) -> table.append(String.format(
+				"%-15s %8d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, row.get("count"), row.get("errors"),
+				row.get("rejected"), row.get("throughput"), row.get("p50"), row.get("p90"), row.get("p99"),
+				row.get("p99.9"), row.get("max"))));
+		return table.toString();
+	}
+
+	private static String format(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+	}
+
+	private static double millis(long micros) {
+		return round(micros / 1000.0);
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+}
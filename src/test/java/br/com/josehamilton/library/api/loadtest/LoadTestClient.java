@@ -0,0 +1,116 @@
+package br.com.josehamilton.library.api.loadtest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import br.com.josehamilton.library.api.dataset.GeneratedDataset;
+import br.com.josehamilton.library.api.dataset.ZipfDistribution;
+import br.com.josehamilton.library.api.dtos.LoanDTO;
+import br.com.josehamilton.library.api.dtos.ReturnedLoanDTO;
+import br.com.josehamilton.library.api.services.LoanService;
+
+/**
+ * Cliente HTTP do teste de carga com o conhecimento da massa de dados: ISBNs
+ * existentes (sorteados pela popularidade), palavras dos títulos e empréstimos
+ * em aberto que podem ser devolvidos.
+ */
+public class LoadTestClient {
+
+	private final RestTemplate restTemplate;
+
+	private final String baseUrl;
+
+	private final LoanService loanService;
+
+	private final List<String> isbns;
+
+	private final ZipfDistribution popularity;
+
+	private final List<String> titleWords;
+
+	private final Queue<Long> openLoans;
+
+	public LoadTestClient(String baseUrl, int connections, LoanService loanService, GeneratedDataset dataset) {
+		// HttpURLConnection não envia PATCH, usado na devolução de empréstimos.
+		HttpClient httpClient = HttpClients.custom().setMaxConnTotal(connections).setMaxConnPerRoute(connections)
+				.build();
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+				httpClient);
+		requestFactory.setConnectTimeout(5_000);
+		requestFactory.setReadTimeout(30_000);
+		this.restTemplate = new RestTemplate(requestFactory);
+		this.baseUrl = baseUrl;
+		this.loanService = loanService;
+		this.isbns = dataset.getIsbnsByPopularity();
+		this.popularity = new ZipfDistribution(isbns.size(), 1.0);
+		this.titleWords = dataset.getTitleWords();
+		this.openLoans = new ConcurrentLinkedQueue<>(dataset.getOpenLoanIds());
+	}
+
+	String randomIsbn(Random random) {
+		return isbns.get(popularity.sample(random));
+	}
+
+	String randomTitleWord(Random random) {
+		return titleWords.get(random.nextInt(titleWords.size()));
+	}
+
+	int get(String path, Object... variables) {
+		return exchange(path, HttpMethod.GET, null, String.class, variables).getStatusCodeValue();
+	}
+
+	int checkout(String isbn, Random random) {
+		int customer = random.nextInt(100_000);
+		LoanDTO loan = LoanDTO.builder().isbn(isbn).customer("Customer " + customer)
+				.email("customer" + customer + "@library-api.com").build();
+		ResponseEntity<Long> response = exchange("/api/loans", HttpMethod.POST, loan, Long.class);
+		if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+			openLoans.add(response.getBody());
+		}
+		return response.getStatusCodeValue();
+	}
+
+	int returnLoan() {
+		Long id = openLoans.poll();
+		if (id == null) {
+			return 404;
+		}
+		return exchange("/api/loans/{id}", HttpMethod.PATCH, new ReturnedLoanDTO(true), Void.class, id)
+				.getStatusCodeValue();
+	}
+
+	int scanLateLoans() {
+		loanService.getAllLateLoans();
+		return 200;
+	}
+
+	private <T> ResponseEntity<T> exchange(String path, HttpMethod method, Object body, Class<T> responseType,
+			Object... variables) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+		if (body != null) {
+			headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+		try {
+			return restTemplate.exchange(baseUrl + path, method, new HttpEntity<>(body, headers), responseType,
+					variables);
+		} catch (HttpStatusCodeException e) {
+			return ResponseEntity.status(e.getRawStatusCode()).build();
+		}
+	}
+
+}
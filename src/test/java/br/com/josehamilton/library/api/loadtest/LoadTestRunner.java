@@ -0,0 +1,120 @@
+package br.com.josehamilton.library.api.loadtest;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.josehamilton.library.api.LibraryApiApplication;
+import br.com.josehamilton.library.api.dataset.DatasetGenerator;
+import br.com.josehamilton.library.api.dataset.DatasetSettings;
+import br.com.josehamilton.library.api.dataset.GeneratedDataset;
+import br.com.josehamilton.library.api.services.LoanService;
+
+/**
+ * Gerador de carga da API: sobe a aplicação em uma porta aleatória, cria a
+ * massa de dados e dispara as operações em taxa de chegada constante (modelo
+ * aberto), independente do tempo de resposta do servidor.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dloadtest.rate=300 -Dloadtest.duration=60
+ * </pre>
+ */
+public class LoadTestRunner {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApiApplication.class).run(
+				"--server.port=0", "--spring.boot.admin.client.enabled=false",
+				"--logging.file=target/loadtest/app.log");
+		try {
+			LoadTestClient client = seed(context, settings);
+			LatencyReport report = new LatencyReport();
+			long elapsed = run(settings, client, report);
+			Map<String, Object> summary = report.summary(settings, elapsed);
+			report.write(Paths.get(settings.getReport()), summary);
+			System.out.println(report.table(summary));
+		} finally {
+			context.close();
+		}
+	}
+
+	private static LoadTestClient seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+		DatasetSettings dataset = DatasetSettings.builder().books(settings.getBooks()).loans(settings.getLoans())
+				.seed(settings.getSeed()).build();
+		GeneratedDataset generated = new DatasetGenerator(context.getBean(DataSource.class)).generate(dataset);
+		String port = context.getEnvironment().getProperty("local.server.port");
+		return new LoadTestClient("http://localhost:" + port, settings.getThreads(),
+				context.getBean(LoanService.class), generated);
+	}
+
+	private static long run(LoadTestSettings settings, LoadTestClient client, LatencyReport report)
+			throws InterruptedException {
+		Scenario[] schedule = schedule(settings);
+		// Fila sem limite: atrasos do servidor viram espera na fila, nunca chegadas perdidas.
+		ThreadPoolExecutor workers = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+		long interval = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+		try {
+			dispatch(settings.getWarmupSeconds(), settings, schedule, interval, client, report, workers);
+			report.reset();
+			return dispatch(settings.getDurationSeconds(), settings, schedule, interval, client, report, workers);
+		} finally {
+			workers.shutdown();
+			workers.awaitTermination(1, TimeUnit.MINUTES);
+		}
+	}
+
+	private static long dispatch(int seconds, LoadTestSettings settings, Scenario[] schedule, long interval,
+			LoadTestClient client, LatencyReport report, ThreadPoolExecutor workers) throws InterruptedException {
+		long requests = (long) seconds * settings.getRate();
+		long start = System.nanoTime();
+		Random random = new Random(settings.getSeed());
+		for (long i = 0; i < requests; i++) {
+			long intended = start + i * interval;
+			long wait;
+			while ((wait = intended - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Scenario scenario = schedule[random.nextInt(schedule.length)];
+			workers.execute(() -> {
+				try {
+					int status = scenario.execute(client, ThreadLocalRandom.current());
+					report.record(scenario, System.nanoTime() - intended, status);
+				} catch (RuntimeException e) {
+					report.recordFailure(scenario, System.nanoTime() - intended);
+				}
+			});
+		}
+		// Aguarda as requisições em atraso antes de encerrar a fase.
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while ((workers.getActiveCount() > 0 || !workers.getQueue().isEmpty()) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		return System.nanoTime() - start;
+	}
+
+	// Cada cenário ocupa tantas posições quanto o seu peso no mix.
+	private static Scenario[] schedule(LoadTestSettings settings) {
+		List<Scenario> schedule = new ArrayList<>();
+		settings.getMix().forEach((scenario, weight) -> {
+			for (int i = 0; i < weight; i++) {
+				schedule.add(scenario);
+			}
+		});
+		return schedule.toArray(new Scenario[0]);
+	}
+
+}
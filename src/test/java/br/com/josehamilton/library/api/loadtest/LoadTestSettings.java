@@ -0,0 +1,57 @@
+package br.com.josehamilton.library.api.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Parâmetros do teste de carga, lidos das propriedades de sistema "loadtest.*".
+ */
+@Value
+@Builder
+public class LoadTestSettings {
+
+	// Chegadas por segundo (modelo aberto: independe do tempo de resposta).
+	private final int rate;
+
+	private final int warmupSeconds;
+
+	private final int durationSeconds;
+
+	private final int threads;
+
+	private final int books;
+
+	private final int loans;
+
+	private final long seed;
+
+	private final Map<Scenario, Integer> mix;
+
+	private final String report;
+
+	public static LoadTestSettings fromSystemProperties() {
+		return LoadTestSettings.builder().rate(Integer.getInteger("loadtest.rate", 200))
+				.warmupSeconds(Integer.getInteger("loadtest.warmup", 10))
+				.durationSeconds(Integer.getInteger("loadtest.duration", 60))
+				.threads(Integer.getInteger("loadtest.threads", 64))
+				.books(Integer.getInteger("loadtest.books", 10_000))
+				.loans(Integer.getInteger("loadtest.loans", 20_000))
+				.seed(Long.getLong("loadtest.seed", 42L))
+				.mix(parseMix(System.getProperty("loadtest.mix",
+						"ISBN_SEARCH=40,BOOK_SEARCH=30,CHECKOUT=15,RETURN=14,LATE_LOAN_SCAN=1")))
+				.report(System.getProperty("loadtest.report", "target/loadtest/report.json")).build();
+	}
+
+	static Map<Scenario, Integer> parseMix(String mix) {
+		Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+		for (String entry : mix.split(",")) {
+			String[] pair = entry.trim().split("=");
+			weights.put(Scenario.valueOf(pair[0].trim()), Integer.valueOf(pair[1].trim()));
+		}
+		return weights;
+	}
+
+}
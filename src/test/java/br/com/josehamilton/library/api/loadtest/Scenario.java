@@ -0,0 +1,52 @@
+package br.com.josehamilton.library.api.loadtest;
+
+import java.util.Random;
+
+/**
+ * Operações executadas pelo teste de carga. Cada uma retorna o status HTTP
+ * obtido (200 para operações executadas dentro da aplicação).
+ */
+public enum Scenario {
+
+	/**
+	 * Filtro {@code ?isbn=} da listagem de livros (busca por trecho do ISBN); não
+	 * há endpoint HTTP de consulta exata por ISBN.
+	 */
+	ISBN_SEARCH {
+		@Override
+		int execute(LoadTestClient client, Random random) {
+			return client.get("/api/books?isbn={isbn}", client.randomIsbn(random));
+		}
+	},
+
+	BOOK_SEARCH {
+		@Override
+		int execute(LoadTestClient client, Random random) {
+			return client.get("/api/books?title={title}&page=0&size=20", client.randomTitleWord(random));
+		}
+	},
+
+	CHECKOUT {
+		@Override
+		int execute(LoadTestClient client, Random random) {
+			return client.checkout(client.randomIsbn(random), random);
+		}
+	},
+
+	RETURN {
+		@Override
+		int execute(LoadTestClient client, Random random) {
+			return client.returnLoan();
+		}
+	},
+
+	LATE_LOAN_SCAN {
+		@Override
+		int execute(LoadTestClient client, Random random) {
+			return client.scanLateLoans();
+		}
+	};
+
+	abstract int execute(LoadTestClient client, Random random);
+
+}
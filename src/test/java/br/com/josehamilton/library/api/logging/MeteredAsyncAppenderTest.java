@@ -0,0 +1,99 @@
+package br.com.josehamilton.library.api.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+public class MeteredAsyncAppenderTest {
+
+	private LoggerContext context;
+
+	private Logger logger;
+
+	private MeteredAsyncAppender appender;
+
+	private BlockingAppender blockingAppender;
+
+	@BeforeEach
+	public void setUp() {
+		context = new LoggerContext();
+		logger = context.getLogger(MeteredAsyncAppenderTest.class);
+
+		blockingAppender = new BlockingAppender();
+		blockingAppender.setContext(context);
+		blockingAppender.start();
+
+		appender = new MeteredAsyncAppender();
+		appender.setContext(context);
+		appender.setQueueSize(4);
+		appender.setDiscardingThreshold(4);
+		appender.addAppender(blockingAppender);
+		appender.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		blockingAppender.release.countDown();
+		appender.stop();
+		context.stop();
+	}
+
+	@Test
+	@DisplayName("Deve descartar e contabilizar eventos INFO com o buffer cheio, mantendo os eventos WARN.")
+	public void discardInfoEventsWhenBufferIsFullTest() throws InterruptedException {
+		// Cenário: o worker fica preso entregando o primeiro evento
+		appender.doAppend(event(Level.INFO, "first"));
+		assertThat(blockingAppender.received.await(5, TimeUnit.SECONDS)).isTrue();
+		// Execução
+		appender.doAppend(event(Level.INFO, "queued"));
+		appender.doAppend(event(Level.INFO, "discarded 1"));
+		appender.doAppend(event(Level.INFO, "discarded 2"));
+		appender.doAppend(event(Level.WARN, "warn"));
+		blockingAppender.release.countDown();
+		appender.stop();
+		// Verificação
+		assertThat(appender.getDiscardedEvents()).isEqualTo(2);
+		assertThat(blockingAppender.messages).containsExactly("first", "queued", "warn");
+	}
+
+	private ILoggingEvent event(Level level, String message) {
+		return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+	}
+
+	private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+		private final CountDownLatch received = new CountDownLatch(1);
+
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private final List<String> messages = new CopyOnWriteArrayList<>();
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			messages.add(event.getMessage());
+			received.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
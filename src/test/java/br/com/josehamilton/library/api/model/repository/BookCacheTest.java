@@ -0,0 +1,103 @@
+package br.com.josehamilton.library.api.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookCacheTest {
+
+	@Autowired
+	BookRepository repository;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	public void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve obter um livro por id a partir do cache de segundo nível.")
+	public void findByIdFromCacheTest() {
+		// Cenário
+		Book book = repository.save(BookRepositoryTest.createNewBook("123"));
+		repository.findById(book.getId());
+		statistics.clear();
+		// Execução
+		repository.findById(book.getId());
+		repository.findById(book.getId());
+		// Verificação
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve obter um livro por isbn a partir do cache de consultas.")
+	public void findByIsbnFromQueryCacheTest() {
+		// Cenário
+		repository.save(BookRepositoryTest.createNewBook("123"));
+		// Execução
+		repository.findByIsbn("123");
+		repository.findByIsbn("123");
+		// Verificação
+		assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve atualizar o cache ao alterar um livro e invalidar o cache de consultas.")
+	public void updateBookRefreshesCacheTest() {
+		// Cenário
+		Book book = repository.save(BookRepositoryTest.createNewBook("123"));
+		repository.findByIsbn("123");
+		// Execução
+		book.setTitle("Novo título");
+		repository.save(book);
+		// Verificação
+		assertThat(repository.findById(book.getId()).get().getTitle()).isEqualTo("Novo título");
+		assertThat(repository.findByIsbn("123").get().getTitle()).isEqualTo("Novo título");
+		assertThat(statistics.getQueryCacheHitCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve remover o livro do cache ao excluí-lo.")
+	public void deleteBookEvictsCacheTest() {
+		// Cenário
+		Book book = repository.save(BookRepositoryTest.createNewBook("123"));
+		repository.findByIsbn("123");
+		// Execução
+		repository.delete(book);
+		// Verificação
+		assertThat(repository.findById(book.getId())).isNotPresent();
+		assertThat(repository.findByIsbn("123")).isNotPresent();
+	}
+
+}
@@ -2,6 +2,8 @@ package br.com.josehamilton.library.api.model.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -40,6 +43,70 @@ public class BookRepositoryTest {
 		assertThat(exists).isTrue();
 	}
 
+	@Test
+	@DisplayName("Deve obter os livros de vários isbns em uma consulta.")
+	public void findByIsbnInTest() {
+		// Cenário
+		Book book = createNewBook("123");
+		entityManager.persist(book);
+		entityManager.persist(createNewBook("456"));
+		// Execução
+		List<Book> books = repository.findByIsbnIn(Arrays.asList("123", "789"));
+		// Verificação
+		assertThat(books).containsExactly(book);
+	}
+
+	@Test
+	@DisplayName("Deve obter os livros de vários ISBN-13 numéricos em uma consulta.")
+	public void findByIsbnKeyInTest() {
+		// Cenário
+		Book book = createNewBook("0-306-40615-2");
+		entityManager.persist(book);
+		entityManager.persist(createNewBook("123"));
+		// Execução
+		List<Book> books = repository.findByIsbnKeyIn(Arrays.asList(9780306406157l, 9781234567897l));
+		// Verificação
+		assertThat(books).containsExactly(book);
+	}
+
+	@Test
+	@DisplayName("Deve gravar o ISBN-13 numérico do livro e encontrá-lo por ele.")
+	public void findByIsbnKeyTest() {
+		// Cenário
+		Book book = createNewBook("0-306-40615-2");
+		entityManager.persist(book);
+		entityManager.flush();
+		// Execução
+		Optional<Book> foundBook = repository.findByIsbnKey(9780306406157L);
+		// Verificação
+		assertThat(book.getIsbnKey()).isEqualTo(9780306406157L);
+		assertThat(foundBook).contains(book);
+		assertThat(repository.existsByIsbnKey(9780306406157L)).isTrue();
+	}
+
+	@Test
+	@DisplayName("Deve marcar o livro como excluído sem apagá-lo e não encontrá-lo mais nas consultas.")
+	public void softDeleteTest() {
+		// Cenário
+		Book book = createNewBook("123");
+		entityManager.persist(book);
+		entityManager.flush();
+		// Execução
+		repository.delete(book);
+		entityManager.flush();
+		entityManager.clear();
+		// Verificações
+		assertThat(repository.findById(book.getId())).isEmpty();
+		assertThat(repository.existsByIsbn("123")).isFalse();
+		assertThat(repository.countDeleted()).isGreaterThanOrEqualTo(1);
+		assertThat(repository.findOldestDeletedAt()).isNotNull();
+		assertThat(repository.findDeletedIdsAfter(book.getId() - 1, PageRequest.of(0, 10)))
+				.extracting(Number::longValue).containsExactly(book.getId());
+		// O isbn fica livre para um novo cadastro antes da limpeza.
+		entityManager.persist(createNewBook("123"));
+		entityManager.flush();
+	}
+
 	public static Book createNewBook(String isbn) {
 		return Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build();
 	}
@@ -0,0 +1,62 @@
+package br.com.josehamilton.library.api.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import br.com.josehamilton.library.api.model.entity.Customer;
+
+public class CustomerMigrationScriptTest {
+
+	private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+			.generateUniqueName(true).build();
+
+	private final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+
+	@AfterEach
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	@DisplayName("Deve migrar os clientes em texto dos empréstimos para a tabela customer.")
+	public void migrateLoanCustomersTest() throws Exception {
+		// Cenário: esquema anterior, com nome e email repetidos em cada empréstimo
+		jdbcTemplate.execute("CREATE TABLE book (id BIGINT AUTO_INCREMENT PRIMARY KEY, isbn VARCHAR(255))");
+		jdbcTemplate.execute("CREATE TABLE loan (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer VARCHAR(100),"
+				+ " customer_email VARCHAR(255), id_book BIGINT, loan_date DATE, returned BOOLEAN)");
+		jdbcTemplate.update("INSERT INTO book (isbn) VALUES ('123')");
+		jdbcTemplate.update("INSERT INTO loan (customer, customer_email, id_book) VALUES"
+				+ " ('Fulano', 'fulano@email.com', 1), ('Fulano  de Tal', ' Fulano@Email.com', 1),"
+				+ " ('  Ciclano ', NULL, 1), ('ciclano', NULL, 1)");
+		// Execução
+		try (java.sql.Connection connection = database.getConnection()) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-migration.sql"));
+		}
+		// Verificações
+		List<Map<String, Object>> customers = jdbcTemplate
+				.queryForList("SELECT name_key, email_key FROM customer ORDER BY id");
+		assertThat(customers).hasSize(2);
+		assertThat(customers.get(0).get("EMAIL_KEY")).isEqualTo(Customer.emailKey(" Fulano@Email.com"));
+		assertThat(customers.get(1).get("NAME_KEY")).isEqualTo(Customer.nameKey("  Ciclano "));
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id_customer) FROM loan", Long.class))
+				.isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan WHERE id_customer IS NULL", Long.class))
+				.isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'LOAN' AND column_name = 'CUSTOMER'",
+				Long.class)).isZero();
+	}
+
+}
@@ -3,6 +3,7 @@ package br.com.josehamilton.library.api.model.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +18,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
 import br.com.josehamilton.library.api.model.repositories.LoanRepository;
 
@@ -49,7 +51,7 @@ public class LoanRepositoryTest {
 		// Cenário
 		Loan loan = createAndPersistLoan(LocalDate.now());
 		// Execução
-		Page<Loan> result = repository.findByBookIsbnOrCustomer("123", "Fulano", PageRequest.of(0, 10));
+		Page<Loan> result = repository.findByBookIsbnOrCustomer(null, "123", "fulano", PageRequest.of(0, 10));
 		// Verificações
 		assertThat(result.getContent()).hasSize(1);
 		assertThat(result.getContent()).contains(loan);
@@ -58,6 +60,24 @@ public class LoanRepositoryTest {
 		assertThat(result.getTotalElements()).isEqualTo(1);
 	}
 
+	@Test
+	@DisplayName("Deve buscar empréstimo pelo ISBN-13 do livro, qualquer que seja a forma do isbn gravado.")
+	public void findByBookIsbnKeyTest() {
+		// Cenário
+		Book book = BookRepositoryTest.createNewBook("0-306-40615-2");
+		entityManager.persist(book);
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		entityManager.persist(customer);
+		Loan loan = entityManager
+				.persist(Loan.builder().customer(customer).book(book).loanDate(LocalDate.now()).build());
+		// Execução
+		Page<Loan> result = repository.findByBookIsbnOrCustomer(9780306406157l, null, "ciclano",
+				PageRequest.of(0, 10));
+		// Verificações
+		assertThat(result.getContent()).containsExactly(loan);
+		assertThat(result.getTotalElements()).isEqualTo(1);
+	}
+
 	@Test
 	@DisplayName("Deve obter empréstimos cuja data empréstimo for menor ou igual a três dias e não retornados.")
 	public void findByLoanDateLessThanAndNotReturnedTest() {
@@ -80,10 +100,162 @@ public class LoanRepositoryTest {
 		assertThat(result).isEmpty();
 	}
 
+	@Test
+	@DisplayName("Deve obter apenas os empréstimos não devolvidos da data informada.")
+	public void findByLoanDateAndNotReturnedTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now().minusDays(4));
+		Book older = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(older);
+		entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(older)
+				.loanDate(LocalDate.now().minusDays(5)).build());
+		// Execução
+		List<Loan> result = repository.findByLoanDateAndNotReturned(LocalDate.now().minusDays(4));
+		// Verificações
+		assertThat(result).containsExactly(loan);
+	}
+
+	@Test
+	@DisplayName("Deve obter os ids dos livros mais emprestados.")
+	public void findMostBorrowedBookIdsTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now());
+		Book popular = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(popular);
+		for (int i = 0; i < 3; i++) {
+			entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(popular).loanDate(LocalDate.now()).build());
+		}
+		// Execução
+		List<Long> result = repository.findMostBorrowedBookIds(PageRequest.of(0, 10));
+		// Verificações
+		assertThat(result).containsExactly(popular.getId(), loan.getBook().getId());
+	}
+
+	@Test
+	@DisplayName("Deve contar os empréstimos de cada livro.")
+	public void countLoansByBookTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now());
+		Book popular = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(popular);
+		for (int i = 0; i < 2; i++) {
+			entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(popular).loanDate(LocalDate.now()).build());
+		}
+		// Execução
+		List<Object[]> result = repository.countLoansByBook();
+		// Verificações
+		assertThat(result).containsExactlyInAnyOrder(new Object[] { loan.getBook().getId(), 1L },
+				new Object[] { popular.getId(), 2L });
+	}
+
+	@Test
+	@DisplayName("Deve retornar os ids dos livros com empréstimo não devolvido.")
+	public void findNotReturnedBookIdsTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now());
+		Book returned = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(returned);
+		entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(returned).loanDate(LocalDate.now())
+				.returned(true).build());
+		Book available = BookRepositoryTest.createNewBook("789");
+		entityManager.persist(available);
+		// Execução
+		List<Long> result = repository.findNotReturnedBookIds(Arrays.asList(loan.getBook(), returned, available));
+		// Verificações
+		assertThat(result).containsExactly(loan.getBook().getId());
+	}
+
+	@Test
+	@DisplayName("Deve retornar uma vez o email de cada cliente com empréstimo atrasado.")
+	public void findCustomerEmailsOfLateLoansTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now().minusDays(5));
+		Book other = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(other);
+		entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(other)
+				.loanDate(LocalDate.now().minusDays(10)).build());
+		// Execução
+		List<String> emails = repository
+				.findCustomerEmailsByLoanDateLessThanAndNotReturned(LocalDate.now().minusDays(4));
+		long lateLoans = repository.countByLoanDateLessThanAndNotReturned(LocalDate.now().minusDays(4));
+		// Verificações
+		assertThat(emails).containsExactly("fulano@email.com");
+		assertThat(lateLoans).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Deve retornar em páginas por id, sem repetição, os clientes com empréstimo atrasado.")
+	public void findLateCustomersAfterTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now().minusDays(5));
+		Book other = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(other);
+		entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(other)
+				.loanDate(LocalDate.now().minusDays(10)).build());
+		Customer second = Customer.of("Ciclano", "ciclano@email.com");
+		entityManager.persist(second);
+		Book third = BookRepositoryTest.createNewBook("789");
+		entityManager.persist(third);
+		entityManager.persist(Loan.builder().customer(second).book(third).loanDate(LocalDate.now().minusDays(6)).build());
+		LocalDate lateLoanDate = LocalDate.now().minusDays(4);
+		// Execução
+		List<Customer> first = repository.findLateCustomersAfter(0L, lateLoanDate, PageRequest.of(0, 1));
+		List<Customer> next = repository.findLateCustomersAfter(first.get(0).getId(), lateLoanDate,
+				PageRequest.of(0, 1));
+		List<Customer> last = repository.findLateCustomersAfter(next.get(0).getId(), lateLoanDate,
+				PageRequest.of(0, 1));
+		// Verificações
+		assertThat(first).extracting(Customer::getEmail).containsExactly("fulano@email.com");
+		assertThat(next).extracting(Customer::getEmail).containsExactly("ciclano@email.com");
+		assertThat(last).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve retornar o histórico e os empréstimos ativos de um cliente.")
+	public void findByCustomerTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now());
+		Book returned = BookRepositoryTest.createNewBook("456");
+		entityManager.persist(returned);
+		entityManager.persist(Loan.builder().customer(loan.getCustomer()).book(returned)
+				.loanDate(LocalDate.now().minusDays(10)).returned(true).build());
+		Customer other = Customer.of("Ciclano", "ciclano@email.com");
+		entityManager.persist(other);
+		Book otherBook = BookRepositoryTest.createNewBook("789");
+		entityManager.persist(otherBook);
+		entityManager.persist(Loan.builder().customer(other).book(otherBook).loanDate(LocalDate.now()).build());
+		// Execução
+		Page<Loan> history = repository.findByCustomer(loan.getCustomer(), PageRequest.of(0, 10));
+		Page<Loan> active = repository.findByCustomerAndNotReturned(loan.getCustomer(), PageRequest.of(0, 10));
+		// Verificações
+		assertThat(history.getTotalElements()).isEqualTo(2);
+		assertThat(active.getContent()).containsExactly(loan);
+	}
+
+	@Test
+	@DisplayName("Não deve retornar os empréstimos de um livro excluído.")
+	public void hideLoansOfDeletedBookTest() {
+		// Cenário
+		Loan loan = createAndPersistLoan(LocalDate.now().minusDays(5));
+		entityManager.remove(loan.getBook());
+		entityManager.flush();
+		entityManager.clear();
+		// Execução
+		Page<Loan> history = repository.findByCustomer(loan.getCustomer(), PageRequest.of(0, 10));
+		List<Number> ids = repository.findIdsByBookIds(Arrays.asList(loan.getBook().getId()), PageRequest.of(0, 10));
+		// Verificações
+		assertThat(history.getTotalElements()).isZero();
+		assertThat(repository.findById(loan.getId())).isEmpty();
+		assertThat(repository.countByLoanDateLessThanAndNotReturned(LocalDate.now())).isZero();
+		assertThat(ids).extracting(Number::longValue).containsExactly(loan.getId());
+	}
+
 	public Loan createAndPersistLoan(LocalDate loanDate) {
 		Book book = BookRepositoryTest.createNewBook("123");
 		entityManager.persist(book);
-		Loan loan = Loan.builder().customer("Fulano").book(book).loanDate(loanDate).build();
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		entityManager.persist(customer);
+		Loan loan = Loan.builder().customer(customer).book(book).loanDate(loanDate).build();
 		entityManager.persist(loan);
 		return loan;
 	}
@@ -1,6 +1,8 @@
 package br.com.josehamilton.library.api.resource;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,18 +33,26 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 import br.com.josehamilton.library.api.dtos.BookDTO;
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.resources.BookController;
 import br.com.josehamilton.library.api.services.BookService;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.impl.BookResponseCacheServiceImpl;
+import br.com.josehamilton.library.api.suggest.PrefixIndex;
 import br.com.josehamilton.library.exception.BusinessException;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = BookController.class)
 @AutoConfigureMockMvc
+@Import(BookResponseCacheServiceImpl.class)
 public class BookControllerTest {
 
 	static final String BOOK_API = "/api/books";
@@ -55,6 +66,9 @@ public class BookControllerTest {
 	@MockBean
 	private LoanService loanService;
 
+	@MockBean
+	private BookSuggestionService suggestionService;
+
 	@Test
 	@DisplayName("Deve criar um livro com sucesso.")
 	public void createBookTest() throws Exception {
@@ -81,6 +95,73 @@ public class BookControllerTest {
 
 	}
 
+	@Test
+	@DisplayName("Deve criar um livro recebendo e retornando CBOR.")
+	public void createBookWithCborTest() throws Exception {
+		// Cenário
+		BookDTO dto = createNewBook();
+		Book savedBook = Book.builder().id(1l).author("TimTim").title("As Aventuras de Tim Tim").isbn("001232").build();
+		BDDMockito.given(service.save(Mockito.any(Book.class))).willReturn(savedBook);
+		ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+		MediaType cbor = MediaType.parseMediaType("application/cbor");
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API).contentType(cbor).accept(cbor)
+				.content(cborMapper.writeValueAsBytes(dto));
+		// Verificação
+		byte[] response = mvc.perform(request).andExpect(status().isCreated())
+				.andExpect(content().contentTypeCompatibleWith(cbor)).andReturn().getResponse().getContentAsByteArray();
+		BookDTO createdBook = cborMapper.readValue(response, BookDTO.class);
+		assertThat(createdBook.getId()).isEqualTo(1l);
+		assertThat(createdBook.getIsbn()).isEqualTo(dto.getIsbn());
+	}
+
+	@Test
+	@DisplayName("Deve filtrar livros retornando Smile.")
+	public void findBooksWithSmileTest() throws Exception {
+		// Cenário
+		Book book = Book.builder().id(1l).title("As Aventuras de Tim Tim").author("TimTim").isbn("001232").build();
+		BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+		MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API).accept(smile);
+		// Verificação
+		byte[] response = mvc.perform(request).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(smile)).andReturn().getResponse().getContentAsByteArray();
+		JsonNode page = new ObjectMapper(new SmileFactory()).readTree(response);
+		assertThat(page.get("version").asInt()).isEqualTo(1);
+		assertThat(page.get("content").get(0).get("isbn").asText()).isEqualTo(book.getIsbn());
+	}
+
+	@Test
+	@DisplayName("Deve usar a busca aproximada no modo FUZZY.")
+	public void findBooksFuzzyTest() throws Exception {
+		// Cenário
+		Book book = Book.builder().id(1l).title("O Hobbit").author("J. R. R. Tolkien").isbn("001232").build();
+		BDDMockito.given(service.findSimilar(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 20), 1));
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(BOOK_API.concat("?author=tolkein&mode=FUZZY")).accept(MediaType.APPLICATION_JSON);
+		// Verificação
+		mvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(1)))
+				.andExpect(jsonPath("content[0].author").value("J. R. R. Tolkien"));
+		Mockito.verify(service, Mockito.never()).find(Mockito.any(Book.class), Mockito.any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Deve retornar JSON quando o cliente aceita qualquer formato.")
+	public void findBooksDefaultsToJsonTest() throws Exception {
+		// Cenário
+		BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(Arrays.asList(), PageRequest.of(0, 100), 0));
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API).accept(MediaType.ALL);
+		// Verificação
+		mvc.perform(request).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
 	@Test
 	@DisplayName("Deve lançar erro de validação quando não houver dados suficientes para criação do livro.")
 	public void createInvalidBookTest() throws Exception {
@@ -120,7 +201,7 @@ public class BookControllerTest {
 		Long id = 1l;
 		Book book = Book.builder().id(id).author(createNewBook().getAuthor()).title(createNewBook().getTitle())
 				.isbn(createNewBook().getIsbn()).build();
-		BDDMockito.given(service.getById(id)).willReturn(Optional.of(book));
+		BDDMockito.given(service.getReadOnlyById(id)).willReturn(Optional.of(book));
 
 		// Execução
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("/" + id))
@@ -133,11 +214,27 @@ public class BookControllerTest {
 				.andExpect(jsonPath("isbn").value(createNewBook().getIsbn()));
 	}
 
+	@Test
+	@DisplayName("Deve obter um livro em CBOR pelos conversores de mensagem.")
+	public void getBookDetailsAsCborTest() throws Exception {
+		// Cenário
+		Book book = Book.builder().id(1l).author("Fulano").title("As Aventuras").isbn("123").build();
+		BDDMockito.given(service.getReadOnlyById(1l)).willReturn(Optional.of(book));
+
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("/1"))
+				.accept(MediaType.parseMediaType("application/cbor"), MediaType.APPLICATION_JSON);
+
+		// Verificação
+		mvc.perform(request).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.parseMediaType("application/cbor")));
+	}
+
 	@Test
 	@DisplayName("Deve retornar resource not found quando o livro procurado não existir.")
 	public void bookNotFoundTest() throws Exception {
 		// Cenário
-		BDDMockito.given(service.getById(Mockito.anyLong())).willReturn(Optional.empty());
+		BDDMockito.given(service.getReadOnlyById(Mockito.anyLong())).willReturn(Optional.empty());
 
 		// Execução
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("/" + 1))
@@ -234,8 +331,45 @@ public class BookControllerTest {
 				.accept(MediaType.APPLICATION_JSON);
 
 		mvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(1)))
-				.andExpect(jsonPath("totalElements").value(1)).andExpect(jsonPath("pageable.pageSize").value(100))
-				.andExpect(jsonPath("pageable.pageNumber").value(0));
+				.andExpect(jsonPath("totalElements").value(1)).andExpect(jsonPath("size").value(100))
+				.andExpect(jsonPath("page").value(0)).andExpect(jsonPath("version").value(1))
+				.andExpect(jsonPath("pageable").doesNotExist());
+
+	}
+
+	@Test
+	@DisplayName("Deve filtrar livros retornando apenas os campos informados.")
+	public void findBooksWithFieldsTest() throws Exception {
+
+		Book book = Book.builder().id(1l).title(createNewBook().getTitle()).author(createNewBook().getAuthor())
+				.isbn(createNewBook().getIsbn()).build();
+
+		BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("?fields=title,isbn"))
+				.accept(MediaType.APPLICATION_JSON);
+
+		mvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(1)))
+				.andExpect(jsonPath("content[0].title").value(book.getTitle()))
+				.andExpect(jsonPath("content[0].isbn").value(book.getIsbn()))
+				.andExpect(jsonPath("content[0].id").doesNotExist())
+				.andExpect(jsonPath("content[0].author").doesNotExist());
+
+	}
+
+	@Test
+	@DisplayName("Deve retornar erro ao filtrar livros com um campo inexistente.")
+	public void findBooksWithInvalidFieldTest() throws Exception {
+
+		BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(Arrays.asList(), PageRequest.of(0, 100), 0));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("?fields=title,price"))
+				.accept(MediaType.APPLICATION_JSON);
+
+		mvc.perform(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", hasSize(1)))
+				.andExpect(jsonPath("errors[0]").value("Invalid field: price"));
 
 	}
 
@@ -245,7 +379,7 @@ public class BookControllerTest {
 		// Cenário
 		Long id = 1l;
 		Book book = Book.builder().author("TimTim").title("As Aventuras de Tim Tim").isbn("001232").build();;
-		Loan loan = Loan.builder().customer("Fulano").loanDate(LocalDate.now()).book(book).build();
+		Loan loan = Loan.builder().customer(Customer.of("Fulano", "fulano@email.com")).loanDate(LocalDate.now()).book(book).build();
 
 		BDDMockito.given( service.getById(Mockito.anyLong()) ).willReturn( Optional.of(book) );
 		BDDMockito.given( loanService.getLoansByBook( Mockito.any(Book.class), Mockito.any(Pageable.class) ) )
@@ -260,8 +394,8 @@ public class BookControllerTest {
 			.andExpect( status().isOk() )
 			.andExpect( jsonPath("content", hasSize(1)) )
 			.andExpect( jsonPath("totalElements").value(1) )
-			.andExpect( jsonPath("pageable.pageSize").value(20) )
-			.andExpect( jsonPath("pageable.pageNumber").value(0) )
+			.andExpect( jsonPath("size").value(20) )
+			.andExpect( jsonPath("page").value(0) )
 		;
 	}
 
@@ -284,6 +418,28 @@ public class BookControllerTest {
 		;
 	}
 
+	@Test
+	@DisplayName("Deve sugerir livros pelo prefixo do título ou autor.")
+	public void suggestBooksTest() throws Exception {
+		// Cenário
+		PrefixIndex.Entry entry = PrefixIndex.Entry.builder().id(1l).isbn("001232").title("As Aventuras de Tim Tim")
+				.author("TimTim").loans(3).build();
+		BDDMockito.given( suggestionService.suggest("aven", 5) ).willReturn( Arrays.asList( entry ) );
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(BOOK_API.concat("/suggest?q=aven&limit=5"))
+				.accept(MediaType.APPLICATION_JSON);
+		// Verificações
+		mvc
+				.perform(request)
+				.andExpect( status().isOk() )
+				.andExpect( jsonPath("$", hasSize(1)) )
+				.andExpect( jsonPath("$[0].id").value(1) )
+				.andExpect( jsonPath("$[0].title").value("As Aventuras de Tim Tim") )
+				.andExpect( jsonPath("$[0].loans").value(3) )
+		;
+	}
+
 	private BookDTO createNewBook() {
 		return BookDTO.builder().author("TimTim").title("As Aventuras de Tim Tim").isbn("001232").build();
 	}
@@ -0,0 +1,103 @@
+package br.com.josehamilton.library.api.resource;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.resources.CustomerController;
+import br.com.josehamilton.library.api.services.CustomerService;
+import br.com.josehamilton.library.api.services.LoanService;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = CustomerController.class)
+@AutoConfigureMockMvc
+public class CustomerControllerTest {
+
+	static final String CUSTOMER_API = "/api/customers";
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	private CustomerService customerService;
+
+	@MockBean
+	private LoanService loanService;
+
+	@Test
+	@DisplayName("Deve obter um cliente pelo email.")
+	public void getCustomerByEmailTest() throws Exception {
+		// Cenário
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		customer.setId(1l);
+		BDDMockito.given(customerService.getByEmail("Fulano@Email.com")).willReturn(Optional.of(customer));
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(CUSTOMER_API.concat("?email=Fulano@Email.com")).accept(MediaType.APPLICATION_JSON);
+		// Verificações
+		mvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("id").value(1))
+				.andExpect(jsonPath("name").value("Fulano")).andExpect(jsonPath("email").value("fulano@email.com"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar os empréstimos ativos de um cliente.")
+	public void activeLoansTest() throws Exception {
+		// Cenário
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		customer.setId(1l);
+		Book book = Book.builder().id(1l).isbn("123").title("Aventuras").author("Fulano").build();
+		Loan loan = Loan.builder().id(1l).customer(customer).book(book).loanDate(LocalDate.now()).build();
+		BDDMockito.given(customerService.getById(1l)).willReturn(Optional.of(customer));
+		BDDMockito.given(loanService.getLoansByCustomer(Mockito.eq(customer), Mockito.eq(true),
+				Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 20), 1));
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(CUSTOMER_API.concat("/1/loans/active"))
+				.accept(MediaType.APPLICATION_JSON);
+		// Verificações
+		mvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(1)))
+				.andExpect(jsonPath("content[0].customer").value("Fulano"))
+				.andExpect(jsonPath("content[0].email").value("fulano@email.com"))
+				.andExpect(jsonPath("content[0].book.isbn").value("123"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar 404 para o histórico de um cliente inexistente.")
+	public void loanHistoryOfMissingCustomerTest() throws Exception {
+		// Cenário
+		BDDMockito.given(customerService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(CUSTOMER_API.concat("/1/loans"))
+				.accept(MediaType.APPLICATION_JSON);
+		// Verificações
+		mvc.perform(request).andExpect(status().isNotFound());
+	}
+
+}
@@ -34,10 +34,14 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import br.com.josehamilton.library.api.dtos.BatchLoanDTO;
+import br.com.josehamilton.library.api.dtos.BatchLoanResultDTO;
 import br.com.josehamilton.library.api.dtos.LoanDTO;
 import br.com.josehamilton.library.api.dtos.LoanFilterDTO;
 import br.com.josehamilton.library.api.dtos.ReturnedLoanDTO;
+import br.com.josehamilton.library.api.events.LoanEventBroadcaster;
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
 import br.com.josehamilton.library.api.resources.LoanController;
 import br.com.josehamilton.library.api.service.LoanServiceTest;
@@ -62,6 +66,9 @@ public class LoanControllerTest {
 	@MockBean
 	private LoanService loanService;
 
+	@MockBean
+	private LoanEventBroadcaster events;
+
 	@Test
 	@DisplayName("Deve realizar um empréstimo.")
 	public void createLoanTest() throws Exception {
@@ -72,7 +79,7 @@ public class LoanControllerTest {
 		Book book = Book.builder().id(1l).isbn("123").build();
 		BDDMockito.given(bookService.getBookByIsbn("123")).willReturn(Optional.of(book));
 
-		Loan loan = Loan.builder().id(1l).customer("Fulano").book(book).loanDate(LocalDate.now()).build();
+		Loan loan = Loan.builder().id(1l).customer(Customer.of("Fulano", "customer@gmail.com")).book(book).loanDate(LocalDate.now()).build();
 		BDDMockito.given(loanService.save(Mockito.any(Loan.class))).willReturn(loan);
 		// Execução
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API).accept(MediaType.APPLICATION_JSON)
@@ -81,6 +88,62 @@ public class LoanControllerTest {
 		mvc.perform(request).andExpect(status().isCreated()).andExpect(content().string("1"));
 	}
 
+	@Test
+	@DisplayName("Deve realizar empréstimos de vários livros em uma requisição.")
+	public void createBatchLoanTest() throws Exception {
+		// Cenário
+		BatchLoanDTO dto = BatchLoanDTO.builder().isbns(Arrays.asList("123", "456")).customer("Fulano")
+				.email("customer@gmail.com").mode(BatchLoanDTO.Mode.BEST_EFFORT).build();
+		String json = new ObjectMapper().writeValueAsString(dto);
+		BatchLoanResultDTO result = BatchLoanResultDTO.builder().created(1).loans(Arrays.asList(
+				BatchLoanResultDTO.Item.builder().isbn("123").status(BatchLoanResultDTO.Status.CREATED).loanId(1l)
+						.build(),
+				BatchLoanResultDTO.Item.builder().isbn("456").status(BatchLoanResultDTO.Status.ALREADY_LOANED)
+						.build()))
+				.build();
+		BDDMockito.given(loanService.saveAll(dto)).willReturn(result);
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API.concat("/batch"))
+				.accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(json);
+		// Verificações
+		mvc.perform(request).andExpect(status().isCreated()).andExpect(jsonPath("created").value(1))
+				.andExpect(jsonPath("loans", hasSize(2))).andExpect(jsonPath("loans[0].loanId").value(1))
+				.andExpect(jsonPath("loans[1].status").value("ALREADY_LOANED"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar erro quando nenhum empréstimo do lote for realizado.")
+	public void noLoanCreatedOnBatchTest() throws Exception {
+		// Cenário
+		BatchLoanDTO dto = BatchLoanDTO.builder().isbns(Arrays.asList("123")).customer("Fulano")
+				.email("customer@gmail.com").build();
+		String json = new ObjectMapper().writeValueAsString(dto);
+		BatchLoanResultDTO result = BatchLoanResultDTO.builder().created(0).loans(Arrays.asList(
+				BatchLoanResultDTO.Item.builder().isbn("123").status(BatchLoanResultDTO.Status.NOT_FOUND).build()))
+				.build();
+		BDDMockito.given(loanService.saveAll(dto)).willReturn(result);
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API.concat("/batch"))
+				.accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(json);
+		// Verificações
+		mvc.perform(request).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("loans[0].status").value("NOT_FOUND"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar erro de validação para lote sem isbns.")
+	public void emptyBatchLoanTest() throws Exception {
+		// Cenário
+		String json = new ObjectMapper().writeValueAsString(
+				BatchLoanDTO.builder().isbns(Arrays.asList()).customer("Fulano").email("customer@gmail.com").build());
+		// Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API.concat("/batch"))
+				.accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(json);
+		// Verificações
+		mvc.perform(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", hasSize(1)));
+		verify(loanService, never()).saveAll(Mockito.any(BatchLoanDTO.class));
+	}
+
 	@Test
 	@DisplayName("Deve retornar erro ao tentar fazer emprestimo de livro inexistente.")
 	public void invalidIsbnCreateLoanTest() throws Exception {
@@ -157,14 +220,14 @@ public class LoanControllerTest {
 		BDDMockito.given(loanService.find(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
 				.willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), 1));
 
-		String queryString = String.format("?isbn=%s&customer=%s&page=0&size=10", book.getIsbn(), loan.getCustomer());
+		String queryString = String.format("?isbn=%s&customer=%s&page=0&size=10", book.getIsbn(), loan.getCustomer().getName());
 
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(LOAN_API.concat(queryString))
 				.accept(MediaType.APPLICATION_JSON);
 
 		mvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(1)))
-				.andExpect(jsonPath("totalElements").value(1)).andExpect(jsonPath("pageable.pageSize").value(10))
-				.andExpect(jsonPath("pageable.pageNumber").value(0));
+				.andExpect(jsonPath("totalElements").value(1)).andExpect(jsonPath("size").value(10))
+				.andExpect(jsonPath("page").value(0)).andExpect(jsonPath("content[0].book.isbn").value("321"));
 
 	}
 
@@ -0,0 +1,56 @@
+package br.com.josehamilton.library.api.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ByteBudgetCacheTest {
+
+	@Test
+	@DisplayName("Deve descartar os valores menos usados quando o total de bytes passa do limite.")
+	public void evictionTest() {
+		// Cenário: 16 partes de 100 bytes; as chaves múltiplas de 16 caem na mesma parte.
+		ByteBudgetCache<Integer, String> cache = new ByteBudgetCache<>(1600, String::length);
+		cache.put(0, repeat('a', 40), cache.version(0));
+		cache.put(16, repeat('b', 40), cache.version(16));
+		cache.get(0);
+		// Execução
+		cache.put(32, repeat('c', 40), cache.version(32));
+		// Verificações
+		assertThat(cache.get(0)).isNotNull();
+		assertThat(cache.get(16)).isNull();
+		assertThat(cache.get(32)).isNotNull();
+		assertThat(cache.bytes()).isEqualTo(80);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.evictions()).isEqualTo(1);
+		assertThat(cache.put(48, repeat('d', 101), cache.version(48))).isFalse();
+	}
+
+	@Test
+	@DisplayName("Não deve guardar um valor carregado antes de uma invalidação.")
+	public void versionTest() {
+		// Cenário
+		ByteBudgetCache<Long, String> cache = new ByteBudgetCache<>(1600, String::length);
+		cache.put(1L, "antigo", cache.version(1L));
+		long version = cache.version(1L);
+		// Execução
+		cache.invalidate(1L);
+		boolean stored = cache.put(1L, "antigo", version);
+		// Verificações
+		assertThat(stored).isFalse();
+		assertThat(cache.get(1L)).isNull();
+		assertThat(cache.bytes()).isZero();
+		assertThat(cache.put(1L, "novo", cache.version(1L))).isTrue();
+		assertThat(cache.get(1L)).isEqualTo("novo");
+	}
+
+	private static String repeat(char c, int times) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,107 @@
+package br.com.josehamilton.library.api.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TrigramIndexTest {
+
+	@Test
+	@DisplayName("Deve encontrar autores e títulos digitados com erro, do mais para o menos parecido.")
+	public void searchWithTyposTest() {
+		// Cenário
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "O Hobbit", "J. R. R. Tolkien");
+		index.put(2, "O Senhor dos Anéis", "J. R. R. Tolkien");
+		index.put(3, "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+		index.put(4, "Dom Casmurro", "Machado de Assis");
+		// Execução e Verificações
+		assertThat(ids(index.search(null, "tolkein", 0.5, 10))).containsExactly(1L, 2L);
+		assertThat(ids(index.search("casmuro", null, 0.5, 10))).containsExactly(4L);
+		assertThat(ids(index.search("senhor aneis", "tolkien", 0.5, 10))).containsExactly(2L);
+		assertThat(ids(index.search("postumas", "machadoo", 0.5, 10))).containsExactly(3L);
+		assertThat(ids(index.search(null, "asis", 0.5, 1))).containsExactly(3L);
+		assertThat(index.search(null, "saramago", 0.5, 10)).isEmpty();
+		assertThat(index.search(" ", null, 0.5, 10)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve atualizar o índice ao alterar e remover livros.")
+	public void incrementalUpdatesTest() {
+		// Cenário
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "Dom Casmurro", "Machado de Assis");
+		// Execução e Verificações
+		index.put(1, "Quincas Borba", "Machado de Assis");
+		assertThat(index.search("casmurro", null, 0.5, 10)).isEmpty();
+		assertThat(ids(index.search("quincas", null, 0.5, 10))).containsExactly(1L);
+		assertThat(index.size()).isEqualTo(1);
+
+		index.remove(1);
+		assertThat(index.search(null, "machado", 0.5, 10)).isEmpty();
+		assertThat(index.size()).isZero();
+		assertThat(index.trigramCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve reaproveitar os slots liberados e ignorar livros salvos sem alteração.")
+	public void reuseSlotsTest() {
+		// Cenário
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "Dom Casmurro", "Machado de Assis");
+		index.put(2, "Quincas Borba", "Machado de Assis");
+		index.put(3, "Iracema", "José de Alencar");
+		// Execução e Verificações
+		for (int i = 0; i < 100; i++) {
+			index.put(2, i % 2 == 0 ? "Helena" : "Quincas Borba", "Machado de Assis");
+			index.put(3, "Iracema", "José de Alencar");
+		}
+		assertThat(index.deadSlots()).isZero();
+		assertThat(ids(index.search(null, "machado", 0.5, 10))).containsExactly(1L, 2L);
+
+		index.remove(1);
+		assertThat(index.deadSlots()).isEqualTo(1);
+		index.put(4, "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+		assertThat(index.deadSlots()).isZero();
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(ids(index.search(null, "machado", 0.5, 10))).containsExactly(2L, 4L);
+		assertThat(ids(index.search("iracema", "alencar", 0.5, 10))).containsExactly(3L);
+	}
+
+	@Test
+	@DisplayName("Deve montar com fork-join o mesmo índice obtido com inclusões uma a uma.")
+	public void parallelBuildTest() {
+		// Cenário
+		Random random = new Random(42);
+		String[] words = { "amor", "amora", "arte", "casa", "caso", "cidade", "livro", "livre", "mar", "maria" };
+		List<TrigramIndex.Entry> entries = new ArrayList<>();
+		TrigramIndex incremental = new TrigramIndex();
+		for (long id = 1; id <= 10000; id++) {
+			String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+			String author = words[random.nextInt(words.length)];
+			entries.add(TrigramIndex.Entry.builder().id(id).title(title).author(author).build());
+			incremental.put(id, title, author);
+		}
+		// Execução
+		TrigramIndex built = TrigramIndex.build(entries, new ForkJoinPool(4));
+		// Verificações
+		assertThat(built.size()).isEqualTo(10000);
+		assertThat(built.trigramCount()).isEqualTo(incremental.trigramCount());
+		for (String query : new String[] { "amro", "cidadi", "livor", "mar" }) {
+			assertThat(ids(built.search(query, null, 0.5, 100))).isEqualTo(ids(incremental.search(query, null, 0.5, 100)));
+			assertThat(ids(built.search(null, query, 0.5, 100))).isEqualTo(ids(incremental.search(null, query, 0.5, 100)));
+		}
+	}
+
+	private static List<Long> ids(List<TrigramIndex.Match> matches) {
+		return matches.stream().map(TrigramIndex.Match::getId).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,98 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+import br.com.josehamilton.library.api.model.repository.BookRepositoryTest;
+import br.com.josehamilton.library.api.purge.BookPurgeProperties;
+import br.com.josehamilton.library.api.services.impl.BookPurgeServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class BookPurgeServiceTest {
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Autowired
+	BookRepository bookRepository;
+
+	@Autowired
+	LoanRepository loanRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	private BookPurgeServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		BookPurgeProperties properties = new BookPurgeProperties();
+		properties.setBatchSize(2);
+		properties.setPause(Duration.ZERO);
+		service = new BookPurgeServiceImpl(properties, bookRepository, loanRepository,
+				Mockito.mock(BulkheadRegistry.class), transactionManager);
+	}
+
+	@Test
+	@DisplayName("Deve apagar em lotes os livros excluídos e seus empréstimos, mantendo os demais.")
+	public void purgeTest() {
+		// Cenário
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		entityManager.persist(customer);
+		Book deleted = persistBook("123", customer, 3);
+		Book deletedWithoutLoans = persistBook("456", customer, 0);
+		Book kept = persistBook("789", customer, 1);
+		entityManager.remove(deleted);
+		entityManager.remove(deletedWithoutLoans);
+		entityManager.flush();
+		entityManager.clear();
+		// Execução
+		long deletedBefore = bookRepository.countDeleted();
+		int purged = service.purge();
+		// Verificações
+		assertThat(purged).isEqualTo(deletedBefore).isGreaterThanOrEqualTo(2);
+		assertThat(bookRepository.countDeleted()).isZero();
+		assertThat(count("SELECT COUNT(*) FROM book WHERE id IN (" + deleted.getId() + ", "
+				+ deletedWithoutLoans.getId() + ")")).isZero();
+		assertThat(count("SELECT COUNT(*) FROM loan WHERE id_book = " + deleted.getId())).isZero();
+		assertThat(count("SELECT COUNT(*) FROM loan WHERE id_book = " + kept.getId())).isEqualTo(1);
+		assertThat(bookRepository.findById(kept.getId())).isPresent();
+		assertThat(service.purge()).isZero();
+	}
+
+	private Book persistBook(String isbn, Customer customer, int loans) {
+		Book book = BookRepositoryTest.createNewBook(isbn);
+		entityManager.persist(book);
+		for (int i = 0; i < loans; i++) {
+			entityManager.persist(Loan.builder().customer(customer).book(book).loanDate(LocalDate.now()).build());
+		}
+		return book;
+	}
+
+	private long count(String sql) {
+		return ((Number) entityManager.getEntityManager().createNativeQuery(sql).getSingleResult()).longValue();
+	}
+
+}
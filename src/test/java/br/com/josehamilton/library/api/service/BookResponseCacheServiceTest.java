@@ -0,0 +1,115 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import br.com.josehamilton.library.api.dtos.BookDTO;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.response.CachedResponse;
+import br.com.josehamilton.library.api.response.ResponseCacheProperties;
+import br.com.josehamilton.library.api.serialization.BookDTOSerializer;
+import br.com.josehamilton.library.api.services.impl.BookResponseCacheServiceImpl;
+
+public class BookResponseCacheServiceTest {
+
+	private ObjectMapper objectMapper;
+
+	private ResponseCacheProperties properties;
+
+	private AtomicInteger loads;
+
+	private BookDTO book;
+
+	@BeforeEach
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		objectMapper.registerModule(new SimpleModule().addSerializer(new BookDTOSerializer()));
+		properties = new ResponseCacheProperties();
+		loads = new AtomicInteger();
+		book = BookDTO.builder().id(1l).title("As Aventuras").author("Fulano").isbn("123").build();
+	}
+
+	@Test
+	@DisplayName("Deve serializar o livro uma vez e responder as próximas leituras com os mesmos bytes.")
+	public void cacheHitTest() throws IOException {
+		// Cenário
+		BookResponseCacheServiceImpl service = new BookResponseCacheServiceImpl(properties, objectMapper);
+		// Execução
+		CachedResponse first = service.getJson(1l, loader()).get();
+		CachedResponse second = service.getJson(1l, loader()).get();
+		// Verificações
+		assertThat(second).isSameAs(first);
+		assertThat(loads).hasValue(1);
+		assertThat(first.getBody()).isEqualTo(objectMapper.writeValueAsBytes(book));
+		assertThat(first.getGzipBody()).isNull();
+		assertThat(service.getJson(2l, id -> Optional.empty())).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve serializar de novo o livro alterado.")
+	public void bookChangedTest() {
+		// Cenário
+		BookResponseCacheServiceImpl service = new BookResponseCacheServiceImpl(properties, objectMapper);
+		service.getJson(1l, loader());
+		// Execução
+		book.setTitle("As Aventuras, 2ª edição");
+		service.bookChanged(Book.builder().id(1l).build());
+		CachedResponse response = service.getJson(1l, loader()).get();
+		// Verificações
+		assertThat(loads).hasValue(2);
+		assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).contains("2ª edição");
+	}
+
+	@Test
+	@DisplayName("Deve guardar a versão compactada das respostas acima do tamanho mínimo.")
+	public void gzipTest() throws IOException {
+		// Cenário
+		properties.setGzipMinSize(64);
+		book.setTitle(new String(new char[200]).replace('\0', 'a'));
+		BookResponseCacheServiceImpl service = new BookResponseCacheServiceImpl(properties, objectMapper);
+		// Execução
+		CachedResponse response = service.getJson(1l, loader()).get();
+		// Verificações
+		assertThat(response.getGzipBody().length).isLessThan(response.getBody().length);
+		assertThat(StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getGzipBody()))))
+				.isEqualTo(response.getBody());
+	}
+
+	@Test
+	@DisplayName("Não deve guardar respostas com o cache desligado.")
+	public void disabledTest() {
+		// Cenário
+		properties.setEnabled(false);
+		BookResponseCacheServiceImpl service = new BookResponseCacheServiceImpl(properties, objectMapper);
+		// Execução
+		service.getJson(1l, loader());
+		service.getJson(1l, loader());
+		// Verificação
+		assertThat(loads).hasValue(2);
+	}
+
+	private Function<Long, Optional<BookDTO>> loader() {
+		return id -> {
+			loads.incrementAndGet();
+			return Optional.of(BookDTO.builder().id(id).title(book.getTitle()).author(book.getAuthor())
+					.isbn(book.getIsbn()).build());
+		};
+	}
+
+}
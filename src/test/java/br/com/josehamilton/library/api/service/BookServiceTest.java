@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -23,9 +24,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import br.com.josehamilton.library.api.invalidation.CacheInvalidationBus;
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import br.com.josehamilton.library.api.isbn.LongLongHashMap;
 import br.com.josehamilton.library.api.model.entity.Book;
 import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.search.TrigramIndex;
+import br.com.josehamilton.library.api.services.BookResponseCacheService;
+import br.com.josehamilton.library.api.services.BookSearchService;
 import br.com.josehamilton.library.api.services.BookService;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.CatalogSnapshotService;
+import br.com.josehamilton.library.api.services.IsbnFilterService;
+import br.com.josehamilton.library.api.services.IsbnIndexService;
 import br.com.josehamilton.library.api.services.impl.BookServiceImpl;
 import br.com.josehamilton.library.exception.BusinessException;
 
@@ -38,9 +49,31 @@ public class BookServiceTest {
 	@MockBean
 	private BookRepository repository;
 
+	@MockBean
+	private BookSuggestionService suggestionService;
+
+	@MockBean
+	private BookSearchService searchService;
+
+	@MockBean
+	private CacheInvalidationBus invalidationBus;
+
+	@MockBean
+	private IsbnFilterService isbnFilter;
+
+	@MockBean
+	private IsbnIndexService isbnIndex;
+
+	@MockBean
+	private CatalogSnapshotService catalogSnapshot;
+
+	@MockBean
+	private BookResponseCacheService responseCache;
+
 	@BeforeEach
 	public void setUp() {
-		this.service = new BookServiceImpl(repository);
+		this.service = new BookServiceImpl(repository, suggestionService, searchService, invalidationBus,
+				isbnFilter, isbnIndex, catalogSnapshot, responseCache);
 	}
 
 	@Test
@@ -48,7 +81,7 @@ public class BookServiceTest {
 	public void saveBookTest() {
 		// Cenário
 		Book book = createValidBook();
-		when(repository.existsByIsbn(Mockito.anyString())).thenReturn(false);
+		when(isbnFilter.exists(Mockito.anyString())).thenReturn(false);
 		when(repository.save(book))
 				.thenReturn(Book.builder().id(1l).title("As Aventuras").author("Fulano").isbn("123").build());
 		// Execução
@@ -58,6 +91,9 @@ public class BookServiceTest {
 		assertThat(savedBook.getAuthor()).isEqualTo(book.getAuthor());
 		assertThat(savedBook.getTitle()).isEqualTo(book.getTitle());
 		assertThat(savedBook.getIsbn()).isEqualTo(book.getIsbn());
+		verify(suggestionService).bookSaved(savedBook);
+		verify(invalidationBus).publish(InvalidationType.BOOK_CHANGED, savedBook);
+		verify(isbnFilter).bookSaved(savedBook);
 	}
 
 	@Test
@@ -65,7 +101,7 @@ public class BookServiceTest {
 	public void shouldNotSaveABookWithDuplicatedIsbn() {
 		// Cenario
 		Book book = createValidBook();
-		when(repository.existsByIsbn(Mockito.anyString())).thenReturn(true);
+		when(isbnFilter.exists(Mockito.anyString())).thenReturn(true);
 		// Execução
 		Throwable exception = Assertions.catchThrowable(() -> service.save(book));
 		// Verificação
@@ -73,6 +109,20 @@ public class BookServiceTest {
 		verify(repository, Mockito.never()).save(book);
 	}
 
+	@Test
+	@DisplayName("Deve lançar erro de regra de negócio quando o índice único do isbn recusar o livro.")
+	public void shouldNotSaveABookRejectedByIsbnIndex() {
+		// Cenario
+		Book book = createValidBook();
+		when(isbnFilter.exists(Mockito.anyString())).thenReturn(false);
+		when(repository.save(book)).thenThrow(new DataIntegrityViolationException("ux_book_isbn"));
+		// Execução
+		Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+		// Verificação
+		assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Isbn já cadastrado.");
+		verify(isbnFilter, Mockito.never()).bookSaved(Mockito.any());
+	}
+
 	@Test
 	@DisplayName("Deve obter um livro por id.")
 	public void getByIdTest() {
@@ -103,6 +153,34 @@ public class BookServiceTest {
 		assertThat(foundBook.isPresent()).isFalse();
 	}
 
+	@Test
+	@DisplayName("Deve obter um livro para leitura pelo snapshot do catálogo, sem consultar o banco.")
+	public void getReadOnlyByIdFromSnapshotTest() {
+		// Cenário
+		Book book = Book.builder().id(1l).title("As Aventuras").build();
+		when(catalogSnapshot.isReady()).thenReturn(true);
+		when(catalogSnapshot.getById(1l)).thenReturn(Optional.of(book));
+		// Execução
+		Optional<Book> foundBook = service.getReadOnlyById(1l);
+		// Verificações
+		assertThat(foundBook).contains(book);
+		verify(repository, Mockito.never()).findById(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve obter um livro para leitura pelo banco enquanto o snapshot não estiver pronto.")
+	public void getReadOnlyByIdBeforeSnapshotTest() {
+		// Cenário
+		Book book = Book.builder().id(1l).title("As Aventuras").build();
+		when(catalogSnapshot.isReady()).thenReturn(false);
+		when(repository.findById(1l)).thenReturn(Optional.of(book));
+		// Execução
+		Optional<Book> foundBook = service.getReadOnlyById(1l);
+		// Verificações
+		assertThat(foundBook).contains(book);
+		verify(catalogSnapshot, Mockito.never()).getById(Mockito.anyLong());
+	}
+
 	@Test
 	@DisplayName("Deve excluir um livro a partir do seu Id.")
 	public void deleteBookTest() {
@@ -112,6 +190,8 @@ public class BookServiceTest {
 		org.junit.jupiter.api.Assertions.assertDoesNotThrow(() -> service.delete(book));
 		// Verificação
 		verify(repository, Mockito.times(1)).delete(book);
+		verify(invalidationBus).publish(InvalidationType.BOOK_CHANGED, book);
+		verify(responseCache).bookChanged(book);
 	}
 
 	@Test
@@ -141,6 +221,8 @@ public class BookServiceTest {
 		assertThat(book.getAuthor()).isEqualTo(updatedBook.getAuthor());
 		assertThat(book.getTitle()).isEqualTo(updatedBook.getTitle());
 		assertThat(book.getIsbn()).isEqualTo(updatedBook.getIsbn());
+		verify(invalidationBus).publish(InvalidationType.BOOK_CHANGED, updatedBook);
+		verify(responseCache).bookChanged(updatedBook);
 	}
 
 	@Test
@@ -173,6 +255,25 @@ public class BookServiceTest {
 		assertThat(result.getPageable().getPageSize()).isEqualTo(10);
 	}
 
+	@Test
+	@DisplayName("Deve retornar a página pedida da busca aproximada na ordem de similaridade.")
+	public void findSimilarBookTest() {
+		// Cenário
+		Book filter = Book.builder().author("tolkein").build();
+		when(searchService.search(null, "tolkein")).thenReturn(Arrays.asList(new TrigramIndex.Match(3l, 0.9, 0.5),
+				new TrigramIndex.Match(1l, 0.8, 0.4), new TrigramIndex.Match(2l, 0.6, 0.3)));
+		Book first = Book.builder().id(3l).build();
+		Book second = Book.builder().id(1l).build();
+		when(repository.findAllById(Arrays.asList(3l, 1l))).thenReturn(Arrays.asList(second, first));
+		// Execução
+		Page<Book> result = service.findSimilar(filter, PageRequest.of(0, 2));
+		// Verificação
+		assertThat(result.getTotalElements()).isEqualTo(3);
+		assertThat(result.getTotalPages()).isEqualTo(2);
+		assertThat(result.getContent()).isEqualTo(Arrays.asList(first, second));
+		verify(repository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(Pageable.class));
+	}
+
 	@Test
 	@DisplayName("Deve obter um livro pelo isbn.")
 	public void getBookByIsbnTest() {
@@ -189,6 +290,48 @@ public class BookServiceTest {
 		verify(repository, Mockito.times(1)).findByIsbn(isbn);
 	}
 
+	@Test
+	@DisplayName("Deve obter pelo índice de isbns o livro de um ISBN-10 gravado como ISBN-13.")
+	public void getBookByIsbnFromIndexTest() {
+		// Cenário
+		Book book = Book.builder().id(1l).isbn("978-0-306-40615-7").build();
+		when(isbnIndex.findBookId(9780306406157L)).thenReturn(1l);
+		when(repository.findById(1l)).thenReturn(Optional.of(book));
+		// Execução
+		Optional<Book> foundedBook = this.service.getBookByIsbn("0-306-40615-2");
+		// Verificações
+		assertThat(foundedBook).contains(book);
+		verify(repository, Mockito.never()).findByIsbnKey(Mockito.anyLong());
+		verify(repository, Mockito.never()).findByIsbn(Mockito.anyString());
+	}
+
+	@Test
+	@DisplayName("Deve buscar pela chave no banco quando o índice aponta para um livro com outro isbn.")
+	public void getBookByIsbnWithStaleIndexTest() {
+		// Cenário
+		Book book = Book.builder().id(2l).isbn("9780306406157").build();
+		when(isbnIndex.findBookId(9780306406157L)).thenReturn(1l);
+		when(repository.findById(1l)).thenReturn(Optional.of(Book.builder().id(1l).isbn("9780804429573").build()));
+		when(repository.findByIsbnKey(9780306406157L)).thenReturn(Optional.of(book));
+		// Execução
+		Optional<Book> foundedBook = this.service.getBookByIsbn("9780306406157");
+		// Verificações
+		assertThat(foundedBook).contains(book);
+	}
+
+	@Test
+	@DisplayName("Deve buscar pela chave no banco quando o isbn não está no índice.")
+	public void getBookByIsbnMissingFromIndexTest() {
+		// Cenário
+		when(isbnIndex.findBookId(9780306406157L)).thenReturn(LongLongHashMap.MISSING);
+		when(repository.findByIsbnKey(9780306406157L)).thenReturn(Optional.empty());
+		// Execução
+		Optional<Book> foundedBook = this.service.getBookByIsbn("9780306406157");
+		// Verificações
+		assertThat(foundedBook).isEmpty();
+		verify(repository, Mockito.never()).findById(Mockito.anyLong());
+	}
+
 	// Metodo para criação de um livro válido
 	private Book createValidBook() {
 		return Book.builder().title("As Aventuras").author("Fulano").isbn("123").build();
@@ -0,0 +1,134 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.josehamilton.library.api.invalidation.InvalidationProperties;
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.CacheInvalidationRepository;
+import br.com.josehamilton.library.api.services.impl.CatalogSnapshotServiceImpl;
+import br.com.josehamilton.library.api.snapshot.CatalogSnapshotProperties;
+
+public class CatalogSnapshotServiceTest {
+
+	@TempDir
+	Path directory;
+
+	private CatalogSnapshotProperties properties;
+
+	private BookRepository bookRepository;
+
+	private CacheInvalidationRepository invalidationRepository;
+
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new CatalogSnapshotProperties();
+		properties.setFile(directory.resolve("catalog.snapshot").toString());
+		properties.setPageSize(2);
+		bookRepository = Mockito.mock(BookRepository.class);
+		invalidationRepository = Mockito.mock(CacheInvalidationRepository.class);
+		transactionManager = Mockito.mock(PlatformTransactionManager.class);
+		when(bookRepository.findBooksAfter(Mockito.eq(0L), Mockito.any(Pageable.class)))
+				.thenReturn(Arrays.asList(row(1L, "Aventuras"), row(2L, "Viagens")));
+		when(bookRepository.findBooksAfter(Mockito.eq(2L), Mockito.any(Pageable.class)))
+				.thenReturn(Collections.singletonList(row(5L, "Contos")));
+		when(invalidationRepository.findMaxId()).thenReturn(10L);
+	}
+
+	@Test
+	@DisplayName("Deve responder pelo snapshot gerado e pelas alterações feitas depois dele.")
+	public void regenerateAndOverlayTest() {
+		// Cenário
+		CatalogSnapshotServiceImpl service = newService();
+		assertThat(service.isReady()).isFalse();
+		// Execução
+		service.regenerate();
+		service.bookSaved(Book.builder().id(2L).title("Viagens, 2ª edição").isbn("123").build());
+		service.bookSaved(Book.builder().id(6L).title("Novo").isbn("456").build());
+		service.bookDeleted(Book.builder().id(5L).build());
+		// Verificações
+		assertThat(service.isReady()).isTrue();
+		assertThat(service.getById(1L).map(Book::getTitle)).contains("Aventuras");
+		assertThat(service.getById(2L).map(Book::getTitle)).contains("Viagens, 2ª edição");
+		assertThat(service.getById(6L).map(Book::getTitle)).contains("Novo");
+		assertThat(service.getById(5L)).isEmpty();
+		assertThat(service.getById(3L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve descartar as alterações já contidas no snapshot regenerado.")
+	public void regenerateDiscardsOverlayTest() {
+		// Cenário
+		CatalogSnapshotServiceImpl service = newService();
+		service.regenerate();
+		service.bookDeleted(Book.builder().id(5L).build());
+		// Execução: a nova geração ainda encontra o livro 5, que portanto voltou a existir no banco.
+		service.regenerate();
+		// Verificação
+		assertThat(service.getById(5L).map(Book::getTitle)).contains("Contos");
+	}
+
+	@Test
+	@DisplayName("Deve reaproveitar o arquivo na inicialização lendo do banco os livros alterados depois dele.")
+	public void reopenTest() {
+		// Cenário
+		newService().regenerate();
+		when(invalidationRepository.findBookIdsChangedSince(Mockito.eq(InvalidationType.BOOK_CHANGED),
+				Mockito.any(LocalDateTime.class))).thenReturn(Arrays.asList(1L, 5L));
+		when(bookRepository.findAllById(Arrays.asList(1L, 5L)))
+				.thenReturn(Collections.singletonList(Book.builder().id(1L).title("Aventuras 2").build()));
+		CatalogSnapshotServiceImpl service = newService();
+		// Execução
+		service.onApplicationReady();
+		// Verificações
+		assertThat(service.isReady()).isTrue();
+		assertThat(service.getById(1L).map(Book::getTitle)).contains("Aventuras 2");
+		assertThat(service.getById(2L).map(Book::getTitle)).contains("Viagens");
+		assertThat(service.getById(5L)).isEmpty();
+		Mockito.verify(bookRepository, Mockito.times(2)).findBooksAfter(Mockito.anyLong(), Mockito.any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Deve gerar um novo snapshot quando o registro de invalidações não cobre o arquivo existente.")
+	public void reopenWithNewDatabaseTest() throws InterruptedException {
+		// Cenário
+		newService().regenerate();
+		when(invalidationRepository.findMaxId()).thenReturn(3L);
+		CatalogSnapshotServiceImpl service = newService();
+		// Execução
+		service.onApplicationReady();
+		// Verificação: a geração roda em outra thread.
+		for (int i = 0; i < 100 && !service.isReady(); i++) {
+			Thread.sleep(50);
+		}
+		assertThat(service.isReady()).isTrue();
+		Mockito.verify(bookRepository, Mockito.times(4)).findBooksAfter(Mockito.anyLong(), Mockito.any(Pageable.class));
+	}
+
+	private CatalogSnapshotServiceImpl newService() {
+		return new CatalogSnapshotServiceImpl(properties, new InvalidationProperties(), bookRepository,
+				invalidationRepository, transactionManager);
+	}
+
+	private static Object[] row(Long id, String title) {
+		return new Object[] { id, title, "Fulano", "isbn-" + id };
+	}
+
+}
@@ -0,0 +1,99 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.repositories.CustomerRepository;
+import br.com.josehamilton.library.api.services.CustomerService;
+import br.com.josehamilton.library.api.services.impl.CustomerServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class CustomerServiceTest {
+
+	private CustomerService service;
+
+	@MockBean
+	private CustomerRepository repository;
+
+	@MockBean
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	public void setUp() {
+		this.service = new CustomerServiceImpl(repository, jdbcTemplate);
+	}
+
+	@Test
+	@DisplayName("Deve normalizar as chaves de nome e email do cliente.")
+	public void normalizedKeysTest() {
+		// Execução
+		Customer customer = Customer.of("  José   da Silva ", " Jose.Silva@Email.COM ");
+		// Verificações
+		assertThat(customer.getName()).isEqualTo("  José   da Silva ");
+		assertThat(customer.getNameKey()).isEqualTo("josé da silva");
+		assertThat(customer.getEmailKey()).isEqualTo("jose.silva@email.com");
+	}
+
+	@Test
+	@DisplayName("Deve reaproveitar o cliente existente com o mesmo email.")
+	public void getExistingCustomerTest() {
+		// Cenário
+		Customer existing = Customer.builder().id(1l).name("Fulano").email("fulano@email.com")
+				.emailKey("fulano@email.com").build();
+		when(repository.findByEmailKey("fulano@email.com")).thenReturn(Optional.of(existing));
+		// Execução
+		Customer customer = service.getOrCreate("Fulano de Tal", "Fulano@Email.com");
+		// Verificações
+		assertThat(customer).isSameAs(existing);
+		Mockito.verifyNoInteractions(jdbcTemplate);
+	}
+
+	@Test
+	@DisplayName("Deve cadastrar o cliente no primeiro empréstimo.")
+	public void createCustomerTest() {
+		// Cenário
+		Customer created = Customer.builder().id(1l).name("Fulano").nameKey("fulano").emailKey("fulano@email.com")
+				.build();
+		when(repository.findByEmailKey("fulano@email.com")).thenReturn(Optional.empty())
+				.thenReturn(Optional.of(created));
+		// Execução
+		Customer customer = service.getOrCreate("Fulano", "fulano@email.com");
+		// Verificações
+		assertThat(customer).isSameAs(created);
+		verify(jdbcTemplate).update(Mockito.anyString(), Mockito.eq("Fulano"), Mockito.eq("fulano@email.com"),
+				Mockito.eq("fulano"), Mockito.eq("fulano@email.com"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar o cliente cadastrado ao mesmo tempo por outro empréstimo.")
+	public void concurrentCreateCustomerTest() {
+		// Cenário
+		Customer existing = Customer.builder().id(1l).name("Fulano").emailKey("fulano@email.com").build();
+		when(repository.findByEmailKey("fulano@email.com")).thenReturn(Optional.empty())
+				.thenReturn(Optional.of(existing));
+		when(jdbcTemplate.update(Mockito.anyString(), Mockito.eq("Fulano"), Mockito.eq("fulano@email.com"),
+				Mockito.eq("fulano"), Mockito.eq("fulano@email.com")))
+						.thenThrow(new DuplicateKeyException("ux_customer_email_key"));
+		// Execução
+		Customer customer = service.getOrCreate("Fulano", "fulano@email.com");
+		// Verificações
+		assertThat(customer).isSameAs(existing);
+	}
+
+}
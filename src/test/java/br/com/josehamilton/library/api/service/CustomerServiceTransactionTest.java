@@ -0,0 +1,88 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.repositories.CustomerRepository;
+import br.com.josehamilton.library.api.services.impl.CustomerServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+// Sem a transação do teste: o cadastro concorrente precisa ser gravado de verdade antes do nosso
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CustomerServiceTransactionTest {
+
+	@Autowired
+	CustomerRepository customerRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void tearDown() {
+		customerRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve usar o cliente cadastrado ao mesmo tempo por outra transação sem desfazer a transação do empréstimo.")
+	public void concurrentCreateCustomerTest() {
+		// Cenário
+		TransactionTemplate other = new TransactionTemplate(transactionManager);
+		other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		CustomerRepository repository = Mockito.mock(CustomerRepository.class,
+				AdditionalAnswers.delegatesTo(customerRepository));
+		// A outra transação grava o cliente logo depois da nossa consulta não encontrá-lo
+		when(repository.findByEmailKey("fulano@email.com")).thenAnswer(invocation -> {
+			other.execute(status -> customerRepository.saveAndFlush(Customer.of("Fulano", "fulano@email.com")));
+			return Optional.empty();
+		}).thenAnswer(invocation -> customerRepository.findByEmailKey(invocation.getArgument(0)));
+		CustomerServiceImpl service = new CustomerServiceImpl(repository, jdbcTemplate);
+		// Execução
+		Customer customer = new TransactionTemplate(transactionManager)
+				.execute(status -> service.getOrCreate("Fulano de Tal", "Fulano@Email.com"));
+		// Verificações
+		assertThat(customer.getId()).isNotNull();
+		assertThat(customer.getName()).isEqualTo("Fulano");
+		assertThat(customerRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve desfazer o cadastro do cliente junto com a transação do empréstimo.")
+	public void rollbackCreateCustomerTest() {
+		// Cenário
+		CustomerServiceImpl service = new CustomerServiceImpl(customerRepository, jdbcTemplate);
+		// Execução
+		Customer customer = new TransactionTemplate(transactionManager).execute(status -> {
+			status.setRollbackOnly();
+			return service.getOrCreate("Fulano", "fulano@email.com");
+		});
+		// Verificações
+		assertThat(customer.getId()).isNotNull();
+		assertThat(customerRepository.count()).isZero();
+	}
+
+}
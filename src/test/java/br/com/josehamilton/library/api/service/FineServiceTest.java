@@ -0,0 +1,106 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.fines.FineProperties;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Fine;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.model.repositories.FineRepository;
+import br.com.josehamilton.library.api.model.repository.BookRepositoryTest;
+import br.com.josehamilton.library.api.services.impl.FineServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class FineServiceTest {
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Autowired
+	FineRepository fineRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	private FineServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		FineProperties properties = new FineProperties();
+		properties.setPageSize(2);
+		properties.setChunkSize(1);
+		properties.setBatchSize(2);
+		properties.setParallelism(2);
+		service = new FineServiceImpl(properties, fineRepository, jdbcTemplate, Mockito.mock(BulkheadRegistry.class),
+				transactionManager);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.destroy();
+	}
+
+	@Test
+	@DisplayName("Deve multar os empréstimos atrasados uma vez por dia, sem repetir dias já multados.")
+	public void computeFinesTest() {
+		// Cenário
+		LocalDate today = LocalDate.now();
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		entityManager.persist(customer);
+		Loan late = persistLoan("123", customer, today.minusDays(6), null);
+		Loan lateToo = persistLoan("456", customer, today.minusDays(4), false);
+		Loan returned = persistLoan("789", customer, today.minusDays(10), true);
+		Loan onTime = persistLoan("012", customer, today.minusDays(3), null);
+		Loan third = persistLoan("345", customer, today.minusDays(5), null);
+		entityManager.flush();
+		// Execução
+		service.computeFines(today.minusDays(1));
+		service.computeFines(today);
+		service.computeFines(today);
+		// Verificações
+		List<Fine> fines = fineRepository.findByLoanIdOrderByFromDate(late.getId());
+		assertThat(fines).extracting(Fine::getDays).containsExactly(2, 1);
+		assertThat(fines.get(1).getFromDate()).isEqualTo(today);
+		assertThat(fines.get(1).getAmount()).isEqualByComparingTo("1.00");
+		assertThat(fines.get(1).getCustomerId()).isEqualTo(customer.getId());
+		assertThat(fineRepository.findByLoanIdOrderByFromDate(lateToo.getId())).extracting(Fine::getDays)
+				.containsExactly(1);
+		assertThat(fineRepository.findByLoanIdOrderByFromDate(third.getId())).extracting(Fine::getDays)
+				.containsExactly(1, 1);
+		assertThat(fineRepository.findByLoanIdOrderByFromDate(returned.getId())).isEmpty();
+		assertThat(fineRepository.findByLoanIdOrderByFromDate(onTime.getId())).isEmpty();
+	}
+
+	private Loan persistLoan(String isbn, Customer customer, LocalDate loanDate, Boolean returned) {
+		Book book = BookRepositoryTest.createNewBook(isbn);
+		entityManager.persist(book);
+		Loan loan = Loan.builder().customer(customer).book(book).loanDate(loanDate).returned(returned).build();
+		entityManager.persist(loan);
+		return loan;
+	}
+
+}
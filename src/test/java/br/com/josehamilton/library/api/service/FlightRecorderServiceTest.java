@@ -0,0 +1,134 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.josehamilton.library.api.jfr.RecordingProfile;
+import br.com.josehamilton.library.api.services.impl.FlightRecorderServiceImpl;
+import br.com.josehamilton.library.exception.BusinessException;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+public class FlightRecorderServiceTest {
+
+	@TempDir
+	Path dumpDirectory;
+
+	private FlightRecorderServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		this.service = new FlightRecorderServiceImpl(dumpDirectory.toString(), 2, 24);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.service.closeAll();
+	}
+
+	@Test
+	@DisplayName("Deve iniciar uma gravação com o perfil informado.")
+	public void startRecordingTest() {
+		// Execução
+		Recording recording = service.start(RecordingProfile.CPU, null);
+		// Verificação
+		assertThat(recording.getState()).isEqualTo(RecordingState.RUNNING);
+		assertThat(recording.getSettings()).containsEntry("jdk.ExecutionSample#enabled", "true");
+		assertThat(service.getRecordings()).containsExactly(recording);
+		assertThat(service.getById(recording.getId())).contains(recording);
+	}
+
+	@Test
+	@DisplayName("Deve gerar um dump de uma gravação em execução.")
+	public void dumpRecordingTest() {
+		// Cenário
+		Recording recording = service.start(RecordingProfile.ALLOCATION, null);
+		// Execução
+		Path dump = service.dump(recording);
+		// Verificação
+		assertThat(Files.exists(dump)).isTrue();
+		assertThat(dump.getParent()).isEqualTo(dumpDirectory);
+		assertThat(recording.getState()).isEqualTo(RecordingState.RUNNING);
+	}
+
+	@Test
+	@DisplayName("Deve encerrar uma gravação gerando o arquivo final.")
+	public void stopRecordingTest() {
+		// Cenário
+		Recording recording = service.start(RecordingProfile.LOCKING, null);
+		// Execução
+		Path dump = service.stop(recording);
+		// Verificação
+		assertThat(Files.exists(dump)).isTrue();
+		assertThat(recording.getState()).isEqualTo(RecordingState.CLOSED);
+		assertThat(service.getRecordings()).isEmpty();
+		assertThat(service.getById(recording.getId())).isEqualTo(Optional.empty());
+	}
+
+	@Test
+	@DisplayName("Deve tirar da lista a gravação com duração que parou sozinha, mantendo o arquivo final.")
+	public void finishedRecordingTest() throws Exception {
+		// Cenário
+		Recording recording = service.start(RecordingProfile.CPU, Duration.ofMillis(100));
+		Path destination = recording.getDestination();
+		// Execução
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (recording.getState() == RecordingState.RUNNING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		// Verificação
+		assertThat(service.getRecordings()).isEmpty();
+		assertThat(service.getById(recording.getId())).isEqualTo(Optional.empty());
+		assertThat(recording.getState()).isEqualTo(RecordingState.CLOSED);
+		assertThat(destination.getParent()).isEqualTo(dumpDirectory);
+		assertThat(Files.exists(destination)).isTrue();
+	}
+
+	@Test
+	@DisplayName("Deve apagar os dumps antigos e os que passam do máximo ao gerar um novo dump.")
+	public void deleteOldDumpsTest() throws Exception {
+		// Cenário
+		Path expired = Files.createFile(dumpDirectory.resolve("library-cpu-1.jfr"));
+		Files.setLastModifiedTime(expired, FileTime.fromMillis(System.currentTimeMillis() - 48 * 3600 * 1000L));
+		Path other = Files.createFile(dumpDirectory.resolve("outro.jfr"));
+		Recording recording = service.start(RecordingProfile.CPU, null);
+		// Execução
+		Path first = service.dump(recording);
+		Files.setLastModifiedTime(first, FileTime.fromMillis(System.currentTimeMillis() - 2000));
+		Path second = service.dump(recording);
+		Files.setLastModifiedTime(second, FileTime.fromMillis(System.currentTimeMillis() - 1000));
+		Thread.sleep(2);
+		Path third = service.dump(recording);
+		// Verificação
+		assertThat(Files.exists(expired)).isFalse();
+		assertThat(Files.exists(first)).isFalse();
+		assertThat(Files.exists(second)).isTrue();
+		assertThat(Files.exists(third)).isTrue();
+		assertThat(Files.exists(other)).isTrue();
+	}
+
+	@Test
+	@DisplayName("Deve lançar erro de negócio ao gerar dump de uma gravação encerrada.")
+	public void dumpClosedRecordingTest() {
+		// Cenário
+		Recording recording = service.start(RecordingProfile.CPU, null);
+		service.stop(recording);
+		// Execução
+		Throwable exception = Assertions.catchThrowable(() -> service.dump(recording));
+		// Verificação
+		assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Recording has no data to dump.");
+	}
+
+}
@@ -0,0 +1,237 @@
+package br.com.josehamilton.library.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.josehamilton.library.api.batch.BatchJob;
+import br.com.josehamilton.library.api.batch.BatchProperties;
+import br.com.josehamilton.library.api.batch.JobStatus;
+import br.com.josehamilton.library.api.bulkhead.BulkheadRegistry;
+import br.com.josehamilton.library.api.model.entity.JobExecution;
+import br.com.josehamilton.library.api.model.repositories.JobCheckpointRepository;
+import br.com.josehamilton.library.api.model.repositories.JobExecutionRepository;
+import br.com.josehamilton.library.api.services.impl.JobServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+// Sem a transação do teste: cada chunk precisa ser gravado, ou desfeito, na sua própria transação
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JobServiceTest {
+
+	private static final String JOB = "test-job";
+
+	@Autowired
+	JobExecutionRepository executionRepository;
+
+	@Autowired
+	JobCheckpointRepository checkpointRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	private JobServiceImpl service;
+
+	@AfterEach
+	public void tearDown() {
+		checkpointRepository.deleteAll();
+		executionRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve retomar a execução que falhou a partir do último chunk gravado.")
+	public void resumeTest() {
+		// Cenário
+		TestJob job = new TestJob(10, 8);
+		service = service(job, 3, 1);
+		// Execução
+		JobExecution failed = service.run(JOB).get();
+		JobExecution completed = service.run(JOB).get();
+		// Verificações
+		assertThat(failed.getStatus()).isEqualTo(JobStatus.FAILED);
+		assertThat(failed.getCheckpoint()).isEqualTo(6);
+		assertThat(failed.getWriteCount()).isEqualTo(6);
+		assertThat(failed.getError()).contains("item 8");
+		assertThat(completed.getId()).isEqualTo(failed.getId());
+		assertThat(completed.getStatus()).isEqualTo(JobStatus.COMPLETED);
+		assertThat(completed.getReadCount()).isEqualTo(10);
+		assertThat(completed.getCheckpoint()).isEqualTo(10);
+		assertThat(completed.getRunningJob()).isNull();
+		assertThat(job.written).containsExactlyElementsOf(range(10));
+		assertThat(job.completions).isEqualTo(1);
+		assertThat(checkpointRepository.findByExecutionId(completed.getId())).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve parar depois do chunk em andamento e continuar dali na próxima execução.")
+	public void stopTest() {
+		// Cenário
+		TestJob job = new TestJob(10, 0);
+		service = service(job, 3, 1);
+		job.onWrite = () -> service.stop(JOB);
+		// Execução
+		JobExecution stopped = service.run(JOB).get();
+		job.onWrite = null;
+		JobExecution completed = service.run(JOB).get();
+		// Verificações
+		assertThat(stopped.getStatus()).isEqualTo(JobStatus.STOPPED);
+		assertThat(stopped.getCheckpoint()).isEqualTo(3);
+		assertThat(completed.getId()).isEqualTo(stopped.getId());
+		assertThat(completed.getStatus()).isEqualTo(JobStatus.COMPLETED);
+		assertThat(job.written).containsExactlyElementsOf(range(10));
+	}
+
+	@Test
+	@DisplayName("Deve gravar cada item uma única vez com chunks em paralelo, mesmo retomando depois de uma falha.")
+	public void parallelTest() {
+		// Cenário
+		TestJob job = new TestJob(40, 9);
+		service = service(job, 2, 3);
+		// Execução
+		JobExecution failed = service.run(JOB).get();
+		JobExecution completed = service.run(JOB).get();
+		// Verificações
+		assertThat(failed.getStatus()).isEqualTo(JobStatus.FAILED);
+		assertThat(completed.getStatus()).isEqualTo(JobStatus.COMPLETED);
+		assertThat(completed.getWriteCount()).isEqualTo(40);
+		assertThat(job.written).hasSize(40).containsExactlyInAnyOrderElementsOf(range(40));
+	}
+
+	@Test
+	@DisplayName("Não deve iniciar o job que está rodando, mas deve retomar a execução abandonada.")
+	public void runningTest() {
+		// Cenário
+		TestJob job = new TestJob(5, 0);
+		service = service(job, 3, 1);
+		JobExecution running = executionRepository.save(JobExecution.builder().jobName(JOB).jobKey(job.key())
+				.status(JobStatus.RUNNING).runningJob(JOB).owner("outra-instancia").startedAt(LocalDateTime.now())
+				.updatedAt(LocalDateTime.now()).build());
+		// Execução
+		Optional<JobExecution> skipped = service.run(JOB);
+		running.setUpdatedAt(LocalDateTime.now().minusHours(1));
+		executionRepository.save(running);
+		Optional<JobExecution> resumed = service.run(JOB);
+		// Verificações
+		assertThat(skipped).isEmpty();
+		assertThat(job.written).containsExactlyElementsOf(range(5));
+		assertThat(resumed.get().getId()).isEqualTo(running.getId());
+		assertThat(resumed.get().getStatus()).isEqualTo(JobStatus.COMPLETED);
+	}
+
+	@Test
+	@DisplayName("Deve encerrar a execução abandonada de uma chave anterior e iniciar uma nova.")
+	public void abandonedPreviousKeyTest() {
+		// Cenário
+		TestJob job = new TestJob(5, 0);
+		service = service(job, 3, 1);
+		JobExecution abandoned = executionRepository.save(JobExecution.builder().jobName(JOB).jobKey("2020-01-01")
+				.status(JobStatus.RUNNING).runningJob(JOB).owner("outra-instancia")
+				.startedAt(LocalDateTime.now().minusDays(1)).updatedAt(LocalDateTime.now().minusDays(1)).build());
+		// Execução
+		Optional<JobExecution> started = service.run(JOB);
+		// Verificações
+		assertThat(started.get().getId()).isNotEqualTo(abandoned.getId());
+		assertThat(started.get().getStatus()).isEqualTo(JobStatus.COMPLETED);
+		assertThat(job.written).containsExactlyElementsOf(range(5));
+		JobExecution failed = executionRepository.findById(abandoned.getId()).get();
+		assertThat(failed.getStatus()).isEqualTo(JobStatus.FAILED);
+		assertThat(failed.getRunningJob()).isNull();
+	}
+
+	private JobServiceImpl service(TestJob job, int chunkSize, int parallelism) {
+		BatchProperties properties = new BatchProperties();
+		BatchProperties.Job settings = new BatchProperties.Job();
+		settings.setChunkSize(chunkSize);
+		settings.setParallelism(parallelism);
+		properties.getJobs().put(JOB, settings);
+		return new JobServiceImpl(properties, Collections.singletonList(job), executionRepository, checkpointRepository,
+				Mockito.mock(BulkheadRegistry.class), transactionManager);
+	}
+
+	private static List<Long> range(int size) {
+		return LongStream.rangeClosed(1, size).boxed().collect(Collectors.toList());
+	}
+
+	/**
+	 * Lê as posições de 1 a {@code size} e falha uma única vez ao processar a
+	 * posição {@code failAt}.
+	 */
+	private static class TestJob implements BatchJob<Long, Long> {
+
+		private final int size;
+
+		private final Set<Long> failAt = Collections.synchronizedSet(new HashSet<>());
+
+		private final List<Long> written = Collections.synchronizedList(new ArrayList<>());
+
+		private volatile Runnable onWrite;
+
+		private volatile int completions;
+
+		TestJob(int size, long failAt) {
+			this.size = size;
+			this.failAt.add(failAt);
+		}
+
+		@Override
+		public String getName() {
+			return JOB;
+		}
+
+		@Override
+		public List<Long> read(long after, int limit) {
+			return LongStream.rangeClosed(after + 1, Math.min(size, after + limit)).boxed()
+					.collect(Collectors.toList());
+		}
+
+		@Override
+		public long position(Long item) {
+			return item;
+		}
+
+		@Override
+		public Long process(Long item) {
+			if (failAt.remove(item)) {
+				throw new IllegalStateException("Falha no item " + item);
+			}
+			return item;
+		}
+
+		@Override
+		public void write(List<Long> items) {
+			written.addAll(items);
+			if (onWrite != null) {
+				onWrite.run();
+			}
+		}
+
+		@Override
+		public void completed(JobExecution execution) {
+			completions++;
+		}
+
+	}
+
+}
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,10 +24,20 @@ import org.springframework.data.domain.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import br.com.josehamilton.library.api.dtos.BatchLoanDTO;
+import br.com.josehamilton.library.api.dtos.BatchLoanResultDTO;
 import br.com.josehamilton.library.api.dtos.LoanFilterDTO;
+import br.com.josehamilton.library.api.events.LoanEventBroadcaster;
+import br.com.josehamilton.library.api.events.LoanEventType;
+import br.com.josehamilton.library.api.invalidation.CacheInvalidationBus;
+import br.com.josehamilton.library.api.invalidation.InvalidationType;
 import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
 import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
 import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+import br.com.josehamilton.library.api.services.BookSuggestionService;
+import br.com.josehamilton.library.api.services.CustomerService;
 import br.com.josehamilton.library.api.services.LoanService;
 import br.com.josehamilton.library.api.services.impl.LoanServiceImpl;
 import br.com.josehamilton.library.exception.BusinessException;
@@ -40,9 +51,25 @@ public class LoanServiceTest {
 	@MockBean
 	private LoanRepository repository;
 
+	@MockBean
+	private BookRepository bookRepository;
+
+	@MockBean
+	private CustomerService customerService;
+
+	@MockBean
+	private BookSuggestionService suggestionService;
+
+	@MockBean
+	private LoanEventBroadcaster events;
+
+	@MockBean
+	private CacheInvalidationBus invalidationBus;
+
 	@BeforeEach
 	public void setUp() {
-		this.service = new LoanServiceImpl(repository);
+		this.service = new LoanServiceImpl(repository, bookRepository, customerService, suggestionService, events,
+				invalidationBus);
 	}
 
 	@Test
@@ -50,19 +77,25 @@ public class LoanServiceTest {
 	public void saveLoanTest() {
 		// Cenário
 		Book book = Book.builder().id(1l).build();
-		String customer = "Fulano";
-		Loan savingLoan = Loan.builder().id(1l).book(book).customer(customer).loanDate(LocalDate.now()).build();
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		customer.setId(1l);
+		Loan savingLoan = Loan.builder().id(1l).book(book).customer(Customer.of("Fulano", "fulano@email.com"))
+				.loanDate(LocalDate.now()).build();
 
 		Loan savedLoan = Loan.builder().id(1l).book(book).customer(customer).loanDate(LocalDate.now()).build();
 		when(this.repository.existsByBookAndNotReturned(book)).thenReturn(false);
+		when(customerService.getOrCreate("Fulano", "fulano@email.com")).thenReturn(customer);
 		when(repository.save(savingLoan)).thenReturn(savedLoan);
 		// Execução
 		Loan loan = this.service.save(savingLoan);
 		// Verificações
+		assertThat(savingLoan.getCustomer()).isSameAs(customer);
 		assertThat(loan.getId()).isEqualTo(savedLoan.getId());
 		assertThat(loan.getBook().getId()).isEqualTo(savedLoan.getBook().getId());
 		assertThat(loan.getCustomer()).isEqualTo(savedLoan.getCustomer());
 		assertThat(loan.getLoanDate()).isEqualTo(savedLoan.getLoanDate());
+		verify(events).publish(LoanEventType.CREATED, savedLoan);
+		verify(invalidationBus).publish(InvalidationType.BOOK_BORROWED, book);
 	}
 
 	@Test
@@ -70,7 +103,6 @@ public class LoanServiceTest {
 	public void loanedBookSaveTest() {
 		// Cenário
 		Book book = Book.builder().id(1l).build();
-		String customer = "Fulano";
 		Loan savingLoan = createLoan();
 		when(this.repository.existsByBookAndNotReturned(book)).thenReturn(true);
 		// Execução
@@ -80,6 +112,23 @@ public class LoanServiceTest {
 		verify(repository, never()).save(savingLoan);
 	}
 
+	@Test
+	@DisplayName("Deve validar um empréstimo sem gravar nada.")
+	public void validateLoanTest() {
+		// Cenário
+		Book book = Book.builder().id(1l).build();
+		Loan loan = Loan.builder().book(book).customer(Customer.of("Fulano", "fulano@email.com"))
+				.loanDate(LocalDate.now()).build();
+		when(this.repository.existsByBookAndNotReturned(book)).thenReturn(false);
+		// Execução
+		this.service.validate(loan);
+		// Verificações
+		verify(customerService).getByEmail("fulano@email.com");
+		verify(customerService, never()).getOrCreate(Mockito.anyString(), Mockito.anyString());
+		verify(repository, never()).save(loan);
+		Mockito.verifyNoInteractions(events, invalidationBus, suggestionService);
+	}
+
 	@Test
 	@DisplayName("Deve retornar as informações de um empréstimo pelo ID.")
 	public void getLoanDetailsTest() {
@@ -113,6 +162,21 @@ public class LoanServiceTest {
 		// Verificações
 		assertThat(updatedLoan.getReturned()).isEqualTo(loan.getReturned());
 		verify(repository).save(loan);
+		verify(events).publish(LoanEventType.RETURNED, loan);
+		verify(invalidationBus).publish(InvalidationType.BOOK_RETURNED, loan.getBook());
+	}
+
+	@Test
+	@DisplayName("Deve publicar um evento para cada empréstimo que ficou atrasado hoje.")
+	public void publishOverdueLoansTest() {
+		// Cenário
+		Loan loan = createLoan();
+		when(repository.findByLoanDateAndNotReturned(LocalDate.now().minusDays(4))).thenReturn(Arrays.asList(loan));
+		// Execução
+		int published = service.publishOverdueLoans();
+		// Verificações
+		assertThat(published).isEqualTo(1);
+		verify(events).publish(LoanEventType.OVERDUE, loan);
 	}
 
 	@Test
@@ -128,8 +192,8 @@ public class LoanServiceTest {
 		List<Loan> list = Arrays.asList(loan);
 		Page<Loan> page = new PageImpl<Loan>(list, pageRequest, list.size());
 
-		when(repository.findByBookIsbnOrCustomer(Mockito.anyString(), Mockito.anyString(), Mockito.any(Pageable.class)))
-				.thenReturn(page);
+		when(repository.findByBookIsbnOrCustomer(Mockito.isNull(), Mockito.eq("321"), Mockito.eq("fulano"),
+				Mockito.any(Pageable.class))).thenReturn(page);
 
 		// Execução
 		Page<Loan> result = service.find(loanFilterDTO, pageRequest);
@@ -146,7 +210,7 @@ public class LoanServiceTest {
 	public void getLoansByBook() {
 		// Cenário
 		Book book = Book.builder().title("some title").author("some author").isbn("123ABC").build();
-		Loan loan = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Fulano").build();
+		Loan loan = Loan.builder().book(book).loanDate(LocalDate.now()).customer(Customer.of("Fulano", "fulano@email.com")).build();
 		PageRequest pageRequest = PageRequest.of(0, 20);
 		List<Loan> list = Arrays.asList(loan);
 		Page<Loan> page = new PageImpl<Loan>( list, pageRequest, 1 );
@@ -174,9 +238,88 @@ public class LoanServiceTest {
 		assertThat( result ).isEqualTo( list );
 	}
 
+	@Test
+	@DisplayName("Deve retornar os ids dos livros mais emprestados.")
+	public void getMostBorrowedBookIdsTest() {
+		// Cenário
+		List<Long> ids = Arrays.asList(3L, 1L);
+		Mockito.when(repository.findMostBorrowedBookIds(PageRequest.of(0, 2))).thenReturn(ids);
+		// Execução
+		List<Long> result = service.getMostBorrowedBookIds(2);
+		// Verificações
+		assertThat(result).isEqualTo(ids);
+	}
+
+	@Test
+	@DisplayName("Deve emprestar os livros disponíveis e informar o motivo dos demais.")
+	public void saveAllBestEffortTest() {
+		// Cenário
+		Book available = Book.builder().id(1l).isbn("123").build();
+		Book loaned = Book.builder().id(2l).isbn("456").build();
+		Mockito.when(bookRepository.findByIsbnIn(Mockito.anyCollection()))
+				.thenReturn(Arrays.asList(available, loaned));
+		Mockito.when(repository.findNotReturnedBookIds(Mockito.anyCollection())).thenReturn(Arrays.asList(2l));
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		Mockito.when(customerService.getOrCreate("Fulano", "fulano@email.com")).thenReturn(customer);
+		BatchLoanDTO batch = BatchLoanDTO.builder().isbns(Arrays.asList("123", "456", "789", "123"))
+				.customer("Fulano").email("fulano@email.com").mode(BatchLoanDTO.Mode.BEST_EFFORT).build();
+		// Execução
+		BatchLoanResultDTO result = service.saveAll(batch);
+		// Verificações
+		assertThat(result.getCreated()).isEqualTo(1);
+		assertThat(result.getLoans()).extracting(BatchLoanResultDTO.Item::getStatus).containsExactly(
+				BatchLoanResultDTO.Status.CREATED, BatchLoanResultDTO.Status.ALREADY_LOANED,
+				BatchLoanResultDTO.Status.NOT_FOUND, BatchLoanResultDTO.Status.DUPLICATED);
+		verify(bookRepository, times(1)).findByIsbnIn(Mockito.anyCollection());
+		verify(repository, times(1)).findNotReturnedBookIds(Mockito.anyCollection());
+		verify(repository, times(1)).saveAll(Mockito.argThat(loans -> ((List<Loan>) loans).size() == 1
+				&& ((List<Loan>) loans).get(0).getBook() == available
+				&& ((List<Loan>) loans).get(0).getCustomer() == customer));
+		verify(invalidationBus).publishAll(InvalidationType.BOOK_BORROWED, Arrays.asList(available));
+	}
+
+	@Test
+	@DisplayName("Deve resolver pelo ISBN-13 os ISBNs com hífens e ISBN-10 do lote.")
+	public void saveAllEquivalentIsbnsTest() {
+		// Cenário
+		Book book = Book.builder().id(1l).isbn("9780306406157").isbnKey(9780306406157l).build();
+		Mockito.when(bookRepository.findByIsbnKeyIn(Mockito.anyCollection())).thenReturn(Arrays.asList(book));
+		Mockito.when(repository.findNotReturnedBookIds(Mockito.anyCollection())).thenReturn(Arrays.asList());
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
+		Mockito.when(customerService.getOrCreate("Fulano", "fulano@email.com")).thenReturn(customer);
+		BatchLoanDTO batch = BatchLoanDTO.builder().isbns(Arrays.asList("978-0-306-40615-7", "0306406152"))
+				.customer("Fulano").email("fulano@email.com").mode(BatchLoanDTO.Mode.BEST_EFFORT).build();
+		// Execução
+		BatchLoanResultDTO result = service.saveAll(batch);
+		// Verificações
+		assertThat(result.getCreated()).isEqualTo(1);
+		assertThat(result.getLoans()).extracting(BatchLoanResultDTO.Item::getStatus)
+				.containsExactly(BatchLoanResultDTO.Status.CREATED, BatchLoanResultDTO.Status.DUPLICATED);
+		verify(bookRepository).findByIsbnKeyIn(Collections.singleton(9780306406157l));
+		verify(bookRepository, never()).findByIsbnIn(Mockito.anyCollection());
+	}
+
+	@Test
+	@DisplayName("Não deve emprestar nenhum livro se algum ISBN falhar no modo tudo ou nada.")
+	public void saveAllAllOrNothingTest() {
+		// Cenário
+		Book available = Book.builder().id(1l).isbn("123").build();
+		Mockito.when(bookRepository.findByIsbnIn(Mockito.anyCollection())).thenReturn(Arrays.asList(available));
+		Mockito.when(repository.findNotReturnedBookIds(Mockito.anyCollection())).thenReturn(Arrays.asList());
+		BatchLoanDTO batch = BatchLoanDTO.builder().isbns(Arrays.asList("123", "789")).customer("Fulano")
+				.email("fulano@email.com").build();
+		// Execução
+		BatchLoanResultDTO result = service.saveAll(batch);
+		// Verificações
+		assertThat(result.getCreated()).isZero();
+		assertThat(result.getLoans()).extracting(BatchLoanResultDTO.Item::getStatus)
+				.containsExactly(BatchLoanResultDTO.Status.SKIPPED, BatchLoanResultDTO.Status.NOT_FOUND);
+		verify(repository, never()).saveAll(Mockito.anyIterable());
+	}
+
 	public static Loan createLoan() {
 		Book book = Book.builder().id(1l).build();
-		String customer = "Fulano";
+		Customer customer = Customer.of("Fulano", "fulano@email.com");
 		return Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build();
 	}
 
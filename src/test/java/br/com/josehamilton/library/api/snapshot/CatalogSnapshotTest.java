@@ -0,0 +1,92 @@
+package br.com.josehamilton.library.api.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.josehamilton.library.api.model.entity.Book;
+
+public class CatalogSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@DisplayName("Deve ler do arquivo mapeado os livros gravados, inclusive os que não cabem no fim de um segmento.")
+	public void writeAndReadTest() throws IOException {
+		// Cenário
+		Path file = directory.resolve("catalog.snapshot");
+		try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 1000L, 42L, 7)) {
+			for (long id = 1; id <= 500; id++) {
+				writer.add(id * 2, "Título " + id, "Autor ç " + id, "978030640615" + (id % 10));
+			}
+			writer.add(1001, null, "Fulano", null);
+			writer.commit();
+		}
+		// Execução
+		CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+		// Verificações
+		assertThat(snapshot.size()).isEqualTo(501);
+		assertThat(snapshot.getGeneratedAt()).isEqualTo(1000L);
+		assertThat(snapshot.getInvalidationId()).isEqualTo(42L);
+		for (long id = 1; id <= 500; id++) {
+			Book book = snapshot.get(id * 2);
+			assertThat(book.getId()).isEqualTo(id * 2);
+			assertThat(book.getTitle()).isEqualTo("Título " + id);
+			assertThat(book.getAuthor()).isEqualTo("Autor ç " + id);
+			assertThat(book.getIsbn()).isEqualTo("978030640615" + (id % 10));
+			assertThat(snapshot.get(id * 2 - 1)).isNull();
+		}
+		assertThat(snapshot.get(1001)).isEqualTo(Book.builder().id(1001L).author("Fulano").build());
+		assertThat(snapshot.get(1002)).isNull();
+		assertThat(snapshot.get(9780306406157L)).isNull();
+		assertThat(snapshot.get(2).getIsbnKey()).isNull();
+		assertThat(snapshot.get(14).getIsbnKey()).isEqualTo(9780306406157L);
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files).containsExactly(file);
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recusar livros fora da ordem de id e apagar os temporários sem commit.")
+	public void outOfOrderTest() throws IOException {
+		// Cenário
+		Path file = directory.resolve("catalog.snapshot");
+		try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 1000L, 0L)) {
+			writer.add(2, "A", "B", "123");
+			// Execução e Verificações
+			assertThatThrownBy(() -> writer.add(2, "A", "B", "123")).isInstanceOf(IllegalArgumentException.class);
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recusar arquivos truncados ou que não são snapshots.")
+	public void invalidFileTest() throws IOException {
+		// Cenário
+		Path file = directory.resolve("catalog.snapshot");
+		try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 1000L, 0L)) {
+			writer.add(1, "A", "B", "123");
+			writer.commit();
+		}
+		byte[] content = Files.readAllBytes(file);
+		Path truncated = Files.write(directory.resolve("truncated.snapshot"),
+				Arrays.copyOf(content, content.length - 1));
+		Path other = Files.write(directory.resolve("other.snapshot"), new byte[64]);
+		// Execução e Verificações
+		assertThatThrownBy(() -> CatalogSnapshot.open(truncated)).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> CatalogSnapshot.open(other)).isInstanceOf(IOException.class);
+	}
+
+}
@@ -0,0 +1,96 @@
+package br.com.josehamilton.library.api.suggest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PrefixIndexTest {
+
+	@Test
+	@DisplayName("Deve sugerir pelo início de qualquer palavra do título ou autor, ignorando acentos, do mais emprestado para o menos.")
+	public void findByWordPrefixTest() {
+		// Cenário
+		PrefixIndex index = new PrefixIndex(3, 32);
+		index.put(1, "001", "Harry Potter e a Pedra Filosofal", "J. K. Rowling");
+		index.put(2, "002", "O Hobbit", "J. R. R. Tolkien");
+		index.put(3, "003", "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+		index.put(4, "004", "Harpas Eternas", "Josué Guimarães");
+		index.addLoans(4, 5);
+		index.addLoans(1, 2);
+		// Execução e Verificações
+		assertThat(ids(index.find("har", 10))).containsExactly(4L, 1L);
+		assertThat(ids(index.find("POT", 10))).containsExactly(1L);
+		assertThat(ids(index.find("postumas", 10))).containsExactly(3L);
+		assertThat(ids(index.find("tolk", 10))).containsExactly(2L);
+		assertThat(ids(index.find("j", 10))).containsExactly(4L, 1L, 2L);
+		assertThat(ids(index.find("j", 1))).containsExactly(4L);
+		assertThat(index.find("harpo", 10)).isEmpty();
+		assertThat(index.find("  ", 10)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve manter o índice ao alterar, remover e emprestar livros.")
+	public void incrementalUpdatesTest() {
+		// Cenário
+		PrefixIndex index = new PrefixIndex(5, 32);
+		index.put(1, "001", "Dom Casmurro", "Machado de Assis");
+		index.put(2, "002", "Dom Quixote", "Miguel de Cervantes");
+		// Execução e Verificações
+		assertThat(ids(index.find("dom", 10))).containsExactly(1L, 2L);
+
+		index.addLoans(2, 1);
+		assertThat(ids(index.find("dom", 10))).containsExactly(2L, 1L);
+
+		index.put(2, "002", "O Engenhoso Fidalgo", "Miguel de Cervantes");
+		assertThat(ids(index.find("dom", 10))).containsExactly(1L);
+		assertThat(index.find("fidal", 10)).extracting(PrefixIndex.Entry::getLoans).containsExactly(1L);
+
+		index.remove(1);
+		index.remove(2);
+		assertThat(index.find("dom", 10)).isEmpty();
+		assertThat(index.size()).isZero();
+		assertThat(index.nodes()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve montar em paralelo o mesmo índice obtido com inclusões uma a uma.")
+	public void parallelBuildTest() {
+		// Cenário
+		Random random = new Random(42);
+		String[] words = { "amor", "amora", "arte", "casa", "caso", "cidade", "livro", "livre", "mar", "maria" };
+		List<PrefixIndex.Entry> entries = new ArrayList<>();
+		PrefixIndex incremental = new PrefixIndex(10, 32);
+		for (long id = 1; id <= 2000; id++) {
+			String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+			String author = words[random.nextInt(words.length)];
+			long loans = random.nextInt(50);
+			entries.add(PrefixIndex.Entry.builder().id(id).isbn(String.valueOf(id)).title(title).author(author)
+					.loans(loans).build());
+			incremental.put(id, String.valueOf(id), title, author);
+			incremental.addLoans(id, loans);
+		}
+		// Execução
+		PrefixIndex built = PrefixIndex.build(entries, 10, 32, new ForkJoinPool(4));
+		// Verificações
+		assertThat(built.size()).isEqualTo(2000);
+		assertThat(built.nodes()).isEqualTo(incremental.nodes());
+		for (String prefix : new String[] { "a", "am", "amor", "c", "cas", "livr", "mari", "z" }) {
+			assertThat(ids(built.find(prefix, 10))).isEqualTo(ids(incremental.find(prefix, 10)));
+		}
+		List<PrefixIndex.Entry> top = built.find("ma", 10);
+		assertThat(top).hasSize(10);
+		assertThat(top).isSortedAccordingTo((a, b) -> Long.compare(b.getLoans(), a.getLoans()));
+	}
+
+	private static List<Long> ids(List<PrefixIndex.Entry> entries) {
+		return entries.stream().map(PrefixIndex.Entry::getId).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,99 @@
+package br.com.josehamilton.library.api.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.josehamilton.library.api.actuator.WarmupHealthIndicator;
+import br.com.josehamilton.library.api.model.entity.Book;
+import br.com.josehamilton.library.api.model.entity.Customer;
+import br.com.josehamilton.library.api.model.entity.Loan;
+import br.com.josehamilton.library.api.model.repositories.BookRepository;
+import br.com.josehamilton.library.api.model.repositories.CacheInvalidationRepository;
+import br.com.josehamilton.library.api.model.repositories.CustomerRepository;
+import br.com.josehamilton.library.api.model.repositories.LoanRepository;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.boot.admin.client.enabled=false", "application.warmup.requests-per-round=8",
+		"application.warmup.max-rounds=5" })
+public class WarmupServiceTest {
+
+	@Autowired
+	WarmupService warmupService;
+
+	@Autowired
+	WarmupHealthIndicator healthIndicator;
+
+	@Autowired
+	BookRepository bookRepository;
+
+	@Autowired
+	LoanRepository loanRepository;
+
+	@Autowired
+	CustomerRepository customerRepository;
+
+	@Autowired
+	CacheInvalidationRepository invalidationRepository;
+
+	@AfterEach
+	public void tearDown() {
+		loanRepository.deleteAll();
+		bookRepository.deleteAll();
+		customerRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve aquecer pool, caches e endpoints sem alterar os dados.")
+	public void warmupTest() {
+		// Cenário
+		Book popular = bookRepository.save(Book.builder().isbn("123").title("Aventuras").author("Fulano").build());
+		Book available = bookRepository.save(Book.builder().isbn("456").title("Outro").author("Ciclano").build());
+		Customer customer = customerRepository.save(Customer.of("Fulano", "fulano@email.com"));
+		loanRepository.save(Loan.builder().book(popular).customer(customer).loanDate(LocalDate.now().minusDays(1))
+				.returned(true).build());
+		loanRepository.save(Loan.builder().book(popular).customer(customer).loanDate(LocalDate.now()).build());
+		// Livro disponível: a validação do empréstimo chega à consulta do cliente
+		loanRepository.save(Loan.builder().book(available).customer(customer).loanDate(LocalDate.now().minusDays(1))
+				.returned(true).build());
+		long invalidations = invalidationRepository.count();
+		// Execução
+		warmupService.run();
+		// Verificações
+		assertThat(warmupService.getState()).isEqualTo(WarmupService.State.DONE);
+		assertThat(warmupService.getDetails()).containsEntry("cachedBooks", 2).containsKey("roundMillis");
+		assertThat((Integer) warmupService.getDetails().get("poolConnections")).isPositive();
+		assertThat((Integer) warmupService.getDetails().get("round")).isBetween(2, 5);
+		assertThat(customerRepository.count()).isEqualTo(1);
+		assertThat(loanRepository.count()).isEqualTo(3);
+		assertThat(invalidationRepository.count()).isEqualTo(invalidations);
+		assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+	}
+
+	@Test
+	@DisplayName("Deve informar fora de serviço enquanto o aquecimento não terminar.")
+	public void outOfServiceWhileWarmingUpTest() {
+		// Cenário
+		WarmupService service = Mockito.mock(WarmupService.class);
+		Mockito.when(service.getState()).thenReturn(WarmupService.State.REQUESTS);
+		// Execução
+		Health health = new WarmupHealthIndicator(service).health();
+		// Verificação
+		assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+	}
+
+}